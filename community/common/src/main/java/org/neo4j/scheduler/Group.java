@@ -42,12 +42,18 @@ public enum Group
     CHECKPOINT( "CheckPoint" ),
     /** Various little periodic tasks that need to be done on a regular basis to keep the store in good shape. */
     STORAGE_MAINTENANCE( "StorageMaintenance" ),
+    /** Writing records of transactions applied in parallel. */
+    TRANSACTION_APPLY( "TransactionApply" ),
+    /** Reading ahead in the transaction log during recovery. */
+    RECOVERY( "Recovery" ),
     /** Terminates kernel transactions that have timed out. */
     TRANSACTION_TIMEOUT_MONITOR( "TransactionTimeoutMonitor" ),
     /** Background index population. */
     INDEX_POPULATION( "IndexPopulation" ),
     /** Background index sampling */
     INDEX_SAMPLING( "IndexSampling" ),
+    /** Applying updates to different indexes in parallel. */
+    INDEX_UPDATE_APPLY( "IndexUpdateApply" ),
     /** Background index update applier, for eventually consistent indexes. */
     INDEX_UPDATING( "IndexUpdating", ExecutorServiceFactory.singleThread() ), // Single-threaded to serialise updates with opening/closing/flushing of indexes.
     /** Thread pool for anyone who want some help doing file IO in parallel. */
@@ -31,6 +31,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
@@ -48,6 +51,7 @@ import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
 import org.neo4j.kernel.api.schema.RelationTypeSchemaDescriptor;
 import org.neo4j.kernel.api.schema.SchemaDescriptorFactory;
 import org.neo4j.kernel.impl.api.index.EntityUpdates;
+import org.neo4j.kernel.impl.api.index.MultipleIndexPopulator;
 import org.neo4j.kernel.impl.api.index.StoreScan;
 import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
 import org.neo4j.kernel.impl.locking.Lock;
@@ -60,6 +64,7 @@ import org.neo4j.storageengine.api.StorageNodeCursor;
 import org.neo4j.storageengine.api.StorageReader;
 import org.neo4j.storageengine.api.StorageRelationshipScanCursor;
 import org.neo4j.test.rule.EmbeddedDatabaseRule;
+import org.neo4j.util.concurrent.BinaryLatch;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
@@ -68,12 +73,16 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.neo4j.helpers.collection.Iterators.asSet;
 
@@ -257,6 +266,118 @@ public class NeoStoreIndexStoreViewTest
         order.verify( lock1 ).release();
     }
 
+    @Test
+    public void shouldScanExistingNodesForALabelInPartitions() throws Exception
+    {
+        // given
+        Set<EntityUpdates> expected = new HashSet<>();
+        expected.add( add( alistair.getId(), propertyKeyId, "Alistair", new long[] { labelId } ) );
+        expected.add( add( stefan.getId(), propertyKeyId, "Stefan", new long[] { labelId } ) );
+        try ( Transaction tx = graphDb.beginTx() )
+        {
+            for ( int i = 0; i < 100; i++ )
+            {
+                Node node = graphDb.createNode( label );
+                node.setProperty( "name", "Person" + i );
+                expected.add( add( node.getId(), propertyKeyId, "Person" + i, new long[] { labelId } ) );
+            }
+            tx.success();
+        }
+        EntityUpdateCollectingVisitor visitor = new EntityUpdateCollectingVisitor();
+        PartitionedNodeStoreScan<Exception> storeScan = new PartitionedNodeStoreScan<>( () -> new RecordStorageReader( neoStores ), locks,
+                null, visitor, new int[]{labelId}, id -> id == propertyKeyId, 4 );
+
+        // when
+        storeScan.run();
+
+        // then
+        assertEquals( 4, storeScan.numberOfPartitions() );
+        assertEquals( expected, visitor.getUpdates() );
+    }
+
+    @Test
+    public void shouldOnlyApplyExternalUpdatesForNodesScannedByTheirPartition() throws Exception
+    {
+        // given
+        EntityUpdateCollectingVisitor visitor = new EntityUpdateCollectingVisitor();
+        PartitionedNodeStoreScan<Exception> storeScan = new PartitionedNodeStoreScan<>( () -> new RecordStorageReader( neoStores ), locks,
+                null, visitor, new int[]{labelId}, id -> id == propertyKeyId, 2 );
+        MultipleIndexPopulator.MultipleIndexUpdater updater = mock( MultipleIndexPopulator.MultipleIndexUpdater.class );
+        LabelSchemaDescriptor schema = SchemaDescriptorFactory.forLabel( labelId, propertyKeyId );
+        IndexEntryUpdate<LabelSchemaDescriptor> existingNodeUpdate = IndexEntryUpdate.add( alistair.getId(), schema, Values.of( "Alistair" ) );
+        IndexEntryUpdate<LabelSchemaDescriptor> newNodeUpdate = IndexEntryUpdate.add( 1_000_000, schema, Values.of( "New" ) );
+
+        // when
+        storeScan.acceptUpdate( updater, existingNodeUpdate, Long.MAX_VALUE );
+        storeScan.acceptUpdate( updater, newNodeUpdate, 0 );
+
+        // then
+        verify( updater, never() ).process( existingNodeUpdate );
+        verify( updater ).process( newNodeUpdate );
+
+        // and when
+        storeScan.run();
+        storeScan.acceptUpdate( updater, existingNodeUpdate, 0 );
+
+        // then
+        verify( updater ).process( existingNodeUpdate );
+    }
+
+    @Test
+    public void shouldDeferExternalUpdatesForNodesReadButNotYetVisitedByTheirPartition() throws Exception
+    {
+        // given a partition which has read stefan, but is held up before handing him to the visitor
+        BinaryLatch stefanRead = new BinaryLatch();
+        BinaryLatch continueScan = new BinaryLatch();
+        when( locks.acquireNodeLock( eq( stefan.getId() ), any() ) ).thenAnswer( invocation ->
+        {
+            stefanRead.release();
+            continueScan.await();
+            return mock( Lock.class );
+        } );
+        EntityUpdateCollectingVisitor visitor = new EntityUpdateCollectingVisitor();
+        PartitionedNodeStoreScan<Exception> storeScan = new PartitionedNodeStoreScan<>( () -> new RecordStorageReader( neoStores ), locks,
+                null, visitor, new int[]{labelId}, id -> id == propertyKeyId, 2 );
+        MultipleIndexPopulator.MultipleIndexUpdater updater = mock( MultipleIndexPopulator.MultipleIndexUpdater.class );
+        LabelSchemaDescriptor schema = SchemaDescriptorFactory.forLabel( labelId, propertyKeyId );
+        IndexEntryUpdate<LabelSchemaDescriptor> stefanUpdate = IndexEntryUpdate.change( stefan.getId(), schema, Values.of( "Stefan" ),
+                Values.of( "Steve" ) );
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Future<Object> scan = executor.submit( () ->
+            {
+                storeScan.run();
+                return null;
+            } );
+            stefanRead.await();
+
+            // when
+            boolean deferredWhileReading = storeScan.deferUpdate( stefanUpdate );
+            storeScan.acceptUpdate( updater, stefanUpdate, Long.MAX_VALUE );
+
+            // then
+            assertTrue( deferredWhileReading );
+            verify( updater, never() ).process( stefanUpdate );
+
+            // and when
+            continueScan.release();
+            scan.get();
+            boolean deferredAfterVisit = storeScan.deferUpdate( stefanUpdate );
+            storeScan.acceptUpdate( updater, stefanUpdate, Long.MAX_VALUE );
+
+            // then
+            assertFalse( deferredAfterVisit );
+            verify( updater ).process( stefanUpdate );
+            assertTrue( visitor.getUpdates().contains( add( stefan.getId(), propertyKeyId, "Stefan", new long[]{labelId} ) ) );
+        }
+        finally
+        {
+            continueScan.release();
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void shouldReadProperties() throws EntityNotFoundException
     {
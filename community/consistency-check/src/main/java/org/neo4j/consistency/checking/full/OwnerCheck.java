@@ -253,6 +253,7 @@ class OwnerCheck implements CheckDecorator
         switch ( type )
         {
         case STRING:
+        case COMPRESSED_STRING:
             return STRING_PROPERTY;
         case ARRAY:
             return ARRAY_PROPERTY;
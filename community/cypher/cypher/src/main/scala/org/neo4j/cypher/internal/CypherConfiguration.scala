@@ -54,6 +54,7 @@ object CypherConfiguration {
       config.get(GraphDatabaseSettings.cypher_morsel_size),
       config.get(GraphDatabaseSettings.enable_morsel_runtime_trace),
       config.get(GraphDatabaseSettings.cypher_task_wait),
+      config.get(GraphDatabaseSettings.cypher_morsel_scheduler),
       config.get(GraphDatabaseSettings.cypher_expression_recompilation_limit)
     )
   }
@@ -91,6 +92,7 @@ case class CypherConfiguration(version: CypherVersion,
                                morselSize: Int,
                                doSchedulerTracing: Boolean,
                                waitTimeout: Int,
+                               scheduler: String,
                                recompilationLimit: Int) {
 
   def toCypherRuntimeConfiguration: CypherRuntimeConfiguration =
@@ -98,7 +100,8 @@ case class CypherConfiguration(version: CypherVersion,
       workers = workers,
       morselSize = morselSize,
       doSchedulerTracing = doSchedulerTracing,
-      waitTimeout = Duration(waitTimeout, TimeUnit.MILLISECONDS)
+      waitTimeout = Duration(waitTimeout, TimeUnit.MILLISECONDS),
+      scheduler = scheduler
     )
 
   def toCypherPlannerConfiguration(config: Config): CypherPlannerConfiguration =
@@ -140,7 +140,8 @@ class FallbackRuntime[CONTEXT <: RuntimeContext](runtimes: Seq[CypherRuntime[CON
 case class CypherRuntimeConfiguration(workers: Int,
                                       morselSize: Int,
                                       doSchedulerTracing: Boolean,
-                                      waitTimeout: Duration)
+                                      waitTimeout: Duration,
+                                      scheduler: String)
 
 case class ExecutionPlanWithNotifications(inner: ExecutionPlan, extraNotifications: Set[InternalNotification]) extends DelegatingExecutionPlan(inner) {
 
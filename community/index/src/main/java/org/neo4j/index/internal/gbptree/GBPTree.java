@@ -458,7 +458,8 @@ public class GBPTree<KEY,VALUE> implements Closeable
      * @param indexFile {@link File} containing the actual index
      * @param layout {@link Layout} to use in the tree, this must match the existing layout
      * we're just opening the index
-     * @param tentativePageSize page size, i.e. tree node size. Must be less than or equal to that of the page cache.
+     * @param tentativePageSize page size, i.e. tree node size. Must be less than or equal to the
+     * {@link PageCache#maxPageSize() largest page size} of the page cache.
      * A pageSize of {@code 0} means to use whatever the page cache has (at creation)
      * @param monitor {@link Monitor} for monitoring {@link GBPTree}.
      * @param headerReader reads header data, previously written using {@link #checkpoint(IOLimiter, Consumer)}
@@ -629,12 +630,12 @@ public class GBPTree<KEY,VALUE> implements Closeable
         // First time
         monitor.noStoreFile();
         int pageSize = pageSizeForCreation == 0 ? pageCache.pageSize() : pageSizeForCreation;
-        if ( pageSize > pageCache.pageSize() )
+        if ( pageSize > pageCache.maxPageSize() )
         {
             throw new MetadataMismatchException(
                     "Tried to create tree with page size %d" +
                     ", but page cache used to create it has a smaller page size %d" +
-                    " so cannot be created", pageSize, pageCache.pageSize() );
+                    " so cannot be created", pageSize, pageCache.maxPageSize() );
         }
 
         // We need to create this index
@@ -846,12 +847,12 @@ public class GBPTree<KEY,VALUE> implements Closeable
         // This index was created with another page size, re-open with that actual page size
         if ( pageSize != pageCache.pageSize() )
         {
-            if ( pageSize > pageCache.pageSize() || pageSize < 0 )
+            if ( pageSize > pageCache.maxPageSize() || pageSize < 0 )
             {
                 throw new MetadataMismatchException(
                         "Tried to create tree with page size %d, but page cache used to open it this time " +
                         "has a smaller page size %d so cannot be opened",
-                        pageSize, pageCache.pageSize() );
+                        pageSize, pageCache.maxPageSize() );
             }
             pagedFile.close();
             return pageCache.map( indexFile, pageSize );
@@ -1110,6 +1111,33 @@ public class GBPTree<KEY,VALUE> implements Closeable
         return writer;
     }
 
+    /**
+     * Returns a {@link Writer} able to build this index bottom-up from keys given in ascending order, filling each tree node
+     * up to the given fill factor before moving on to the next. This is much cheaper than inserting the same keys
+     * using {@link #writer()}, since there are no searches from the root and no splits. Keys comparing equal to the
+     * previously given key are merged with it, whereas keys comparing less than the previously given key are rejected.
+     * {@link Writer#remove(Object)} is not supported. The built tree will not be visible to readers until the returned writer is closed.
+     * After usage the returned writer must be closed, typically by using try-with-resource clause.
+     *
+     * @param fillFactor how much of each tree node to fill, 0=nothing (but at least one key), 1=completely full.
+     * @return the single {@link Writer} for this index, in bulk loading mode. The returned writer must be
+     * {@link Writer#close() closed} before another caller can acquire a writer.
+     * @throws IOException on error accessing the index.
+     * @throws IllegalStateException if the index is not empty or for calls made between a successful call to this method
+     * or {@link #writer()} and closing the returned writer.
+     */
+    public Writer<KEY,VALUE> bulkLoader( double fillFactor ) throws IOException
+    {
+        if ( fillFactor <= 0 || fillFactor > 1 )
+        {
+            throw new IllegalArgumentException( "Fill factor must be within (0,1], but was " + fillFactor );
+        }
+        assertNotReadOnly( "Open tree bulk loader." );
+        writer.initialize( InternalTreeLogic.DEFAULT_SPLIT_RATIO );
+        changesSinceLastCheckpoint = true;
+        return writer.bulkLoader( fillFactor );
+    }
+
     private void setRoot( long rootId, long rootGeneration )
     {
         this.root = new Root( rootId, rootGeneration );
@@ -1376,6 +1404,35 @@ public class GBPTree<KEY,VALUE> implements Closeable
             }
         }
 
+        /**
+         * Hands over the already initialized writer to a {@link TreeBulkLoader}, which will close it when done.
+         */
+        Writer<KEY,VALUE> bulkLoader( double fillFactor )
+        {
+            if ( !TreeNode.isLeaf( cursor ) || TreeNode.keyCount( cursor ) != 0 )
+            {
+                close();
+                throw new IllegalStateException( "Can only bulk load into an empty tree, but " + GBPTree.this + " has entries" );
+            }
+
+            long oldRootId = cursor.getCurrentPageId();
+            return new TreeBulkLoader<>( layout, bTreeNode, freeList, cursor, stableGeneration, unstableGeneration, fillFactor, rootId ->
+            {
+                try
+                {
+                    if ( rootId != TreeNode.NO_NODE_FLAG )
+                    {
+                        GBPTree.this.setRoot( rootId, unstableGeneration );
+                        freeList.releaseId( stableGeneration, unstableGeneration, oldRootId );
+                    }
+                }
+                finally
+                {
+                    close();
+                }
+            } );
+        }
+
         @Override
         public void put( KEY key, VALUE value )
         {
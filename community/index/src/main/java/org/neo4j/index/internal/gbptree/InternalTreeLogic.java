@@ -91,6 +91,7 @@ class InternalTreeLogic<KEY,VALUE>
     private final Layout<KEY,VALUE> layout;
     private final KEY newKeyPlaceHolder;
     private final KEY readKey;
+    private final KEY rebalanceKey;
     private final VALUE readValue;
     private final GBPTree.Monitor monitor;
 
@@ -163,6 +164,7 @@ class InternalTreeLogic<KEY,VALUE>
         this.layout = layout;
         this.newKeyPlaceHolder = layout.newKey();
         this.readKey = layout.newKey();
+        this.rebalanceKey = layout.newKey();
         this.readValue = layout.newValue();
         this.monitor = monitor;
 
@@ -1197,9 +1199,13 @@ class InternalTreeLogic<KEY,VALUE>
         bTreeNode.moveKeyValuesFromLeftToRight( leftCursor, leftKeyCount, rightCursor, rightKeyCount, leftKeyCount - numberOfKeysToMove );
 
         // Propagate change
+        // New separator only needs to divide the moved keys from the ones left behind, so let the layout
+        // truncate it the same way it does on split. This keeps variable size separators short.
         structurePropagation.hasLeftKeyReplace = true;
         structurePropagation.keyReplaceStrategy = REPLACE;
-        bTreeNode.keyAt( rightCursor, structurePropagation.leftKey, 0, LEAF );
+        KEY lastInLeft = bTreeNode.keyAt( leftCursor, readKey, leftKeyCount - numberOfKeysToMove - 1, LEAF );
+        KEY firstInRight = bTreeNode.keyAt( rightCursor, rebalanceKey, 0, LEAF );
+        layout.minimalSplitter( lastInLeft, firstInRight, structurePropagation.leftKey );
     }
 
     /**
@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+import org.neo4j.index.internal.gbptree.TreeNode.Overflow;
+import org.neo4j.io.pagecache.PageCursor;
+
+import static java.lang.String.format;
+import static org.neo4j.index.internal.gbptree.PageCursorUtil.checkOutOfBounds;
+import static org.neo4j.index.internal.gbptree.TreeNode.NO_NODE_FLAG;
+import static org.neo4j.index.internal.gbptree.TreeNode.Overflow.NO_NEED_DEFRAG;
+import static org.neo4j.index.internal.gbptree.TreeNode.Overflow.YES;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+
+/**
+ * Builds a tree bottom-up from keys given in ascending order, as opposed to inserting them one by one from the root.
+ * Leaves are filled one after another up to the given fill factor and linked together as siblings. Every time a new leaf
+ * is started, a separator between it and the previous leaf is added to the rightmost internal node on the level above,
+ * which in turn is filled up and continued in the same way. This means that every node is written only once and that
+ * there are no searches or splits involved. Nodes are allocated in order from the {@link IdProvider},
+ * so pages are written more or less sequentially.
+ * <p>
+ * The built tree is not reachable until {@link #close() closed}, when the topmost node is handed over to
+ * {@link Completion} to become the new root.
+ * <p>
+ * A key that compares equal to the previously written key is merged with it using the given {@link ValueMerger},
+ * just like {@link Writer#merge(Object, Object, ValueMerger)} would do. A key that compares less than
+ * the previously written key will be rejected.
+ *
+ * @param <KEY> type of keys
+ * @param <VALUE> type of values
+ */
+class TreeBulkLoader<KEY,VALUE> implements Writer<KEY,VALUE>
+{
+    private final Layout<KEY,VALUE> layout;
+    private final TreeNode<KEY,VALUE> bTreeNode;
+    private final IdProvider idProvider;
+    private final PageCursor cursor;
+    private final long stableGeneration;
+    private final long unstableGeneration;
+    private final double fillFactor;
+    private final Completion completion;
+    private final KEY lastKey;
+    private final KEY splitter;
+    private final VALUE readValue;
+    /**
+     * Ids of all nodes acquired so far, to give back to the {@link IdProvider} if bulk loading fails.
+     * New ids mostly come from the end of the file, so they are kept as pairs of start (inclusive) and end (exclusive) of id ranges.
+     */
+    private final MutableLongList acquiredIdRanges = LongLists.mutable.empty();
+
+    private boolean failed;
+    private long leafId = NO_NODE_FLAG;
+    private int leafKeyCount;
+
+    /**
+     * Rightmost internal node and its key count for each level above the leaves, index 0 being the level right above the leaves.
+     */
+    private long[] internalIds = new long[4];
+    private int[] internalKeyCounts = new int[4];
+    private int internalLevels;
+
+    TreeBulkLoader( Layout<KEY,VALUE> layout, TreeNode<KEY,VALUE> bTreeNode, IdProvider idProvider, PageCursor cursor,
+            long stableGeneration, long unstableGeneration, double fillFactor, Completion completion )
+    {
+        this.layout = layout;
+        this.bTreeNode = bTreeNode;
+        this.idProvider = idProvider;
+        this.cursor = cursor;
+        this.stableGeneration = stableGeneration;
+        this.unstableGeneration = unstableGeneration;
+        this.fillFactor = fillFactor;
+        this.completion = completion;
+        this.lastKey = layout.newKey();
+        this.splitter = layout.newKey();
+        this.readValue = layout.newValue();
+    }
+
+    @Override
+    public void put( KEY key, VALUE value )
+    {
+        merge( key, value, ValueMergers.overwrite() );
+    }
+
+    @Override
+    public void merge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+    {
+        try
+        {
+            if ( leafId == NO_NODE_FLAG )
+            {
+                // First key, start the leftmost leaf
+                leafId = acquireNewId();
+                initializeNode( leafId, LEAF, NO_NODE_FLAG );
+                append( key, value );
+            }
+            else
+            {
+                bTreeNode.keyAt( cursor, lastKey, leafKeyCount - 1, LEAF );
+                int comparison = layout.compare( key, lastKey );
+                if ( comparison < 0 )
+                {
+                    throw new IllegalArgumentException(
+                            format( "Keys must be bulk loaded in ascending order, but got %s after %s", key, lastKey ) );
+                }
+                if ( comparison == 0 )
+                {
+                    mergeWithLast( key, value, valueMerger );
+                }
+                else
+                {
+                    append( key, value );
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            failed = true;
+            throw new UncheckedIOException( e );
+        }
+        catch ( Throwable t )
+        {
+            failed = true;
+            throw t;
+        }
+
+        checkOutOfBounds( cursor );
+    }
+
+    @Override
+    public VALUE remove( KEY key )
+    {
+        throw new UnsupportedOperationException( "Bulk loading only supports adding keys in ascending order" );
+    }
+
+    /**
+     * Hands over the root of what has been built so far to {@link Completion}. If bulk loading failed along the way
+     * the nodes may not form a proper tree and so nothing is handed over. Instead all nodes acquired so far are released.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if ( failed )
+        {
+            for ( int i = 0; i < acquiredIdRanges.size(); i += 2 )
+            {
+                for ( long id = acquiredIdRanges.get( i ); id < acquiredIdRanges.get( i + 1 ); id++ )
+                {
+                    idProvider.releaseId( stableGeneration, unstableGeneration, id );
+                }
+            }
+            acquiredIdRanges.clear();
+            completion.completed( NO_NODE_FLAG );
+        }
+        else
+        {
+            completion.completed( internalLevels > 0 ? internalIds[internalLevels - 1] : leafId );
+        }
+    }
+
+    private long acquireNewId() throws IOException
+    {
+        long id = idProvider.acquireNewId( stableGeneration, unstableGeneration );
+        int size = acquiredIdRanges.size();
+        if ( size > 0 && acquiredIdRanges.get( size - 1 ) == id )
+        {
+            acquiredIdRanges.set( size - 1, id + 1 );
+        }
+        else
+        {
+            acquiredIdRanges.add( id );
+            acquiredIdRanges.add( id + 1 );
+        }
+        return id;
+    }
+
+    private void mergeWithLast( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger ) throws IOException
+    {
+        int pos = leafKeyCount - 1;
+        bTreeNode.valueAt( cursor, readValue, pos );
+        VALUE mergedValue = valueMerger.merge( lastKey, key, readValue, value );
+        if ( mergedValue != null && !bTreeNode.setValueAt( cursor, mergedValue, pos ) )
+        {
+            // Value could not be overwritten in a simple way because they differ in size.
+            bTreeNode.removeKeyValueAt( cursor, pos, leafKeyCount );
+            leafKeyCount--;
+            TreeNode.setKeyCount( cursor, leafKeyCount );
+            append( key, mergedValue );
+        }
+    }
+
+    private void append( KEY key, VALUE value ) throws IOException
+    {
+        Overflow overflow = bTreeNode.leafOverflow( cursor, leafKeyCount, key, value );
+        if ( leafKeyCount > 0 && (overflow == YES || bTreeNode.reachedFillFactor( cursor, leafKeyCount, LEAF, fillFactor )) )
+        {
+            // Current leaf is done, continue in a new one to the right of it
+            bTreeNode.keyAt( cursor, lastKey, leafKeyCount - 1, LEAF );
+            layout.minimalSplitter( lastKey, key, splitter );
+            long previousLeafId = leafId;
+            leafId = acquireNewId();
+            TreeNode.setRightSibling( cursor, leafId, stableGeneration, unstableGeneration );
+            initializeNode( leafId, LEAF, previousLeafId );
+            leafKeyCount = 0;
+
+            addToParent( 0, previousLeafId, splitter, leafId );
+            TreeNode.goTo( cursor, "leaf", leafId );
+        }
+        else if ( overflow == NO_NEED_DEFRAG )
+        {
+            bTreeNode.defragmentLeaf( cursor );
+        }
+
+        bTreeNode.insertKeyValueAt( cursor, key, value, leafKeyCount, leafKeyCount );
+        leafKeyCount++;
+        TreeNode.setKeyCount( cursor, leafKeyCount );
+    }
+
+    /**
+     * Adds {@code splitter} and {@code rightChild} last in the rightmost internal node on the given level.
+     * If that node is filled, {@code rightChild} instead becomes the first child of a new node to the right of it
+     * and {@code splitter} moves up to the level above, which is created if needed.
+     * Cursor is left at some internal node.
+     */
+    private void addToParent( int level, long leftChild, KEY splitter, long rightChild ) throws IOException
+    {
+        if ( level == internalLevels )
+        {
+            // New level on top, with left child as its only child so far
+            ensureLevelCapacity( level + 1 );
+            long nodeId = acquireNewId();
+            initializeNode( nodeId, INTERNAL, NO_NODE_FLAG );
+            bTreeNode.setChildAt( cursor, leftChild, 0, stableGeneration, unstableGeneration );
+            internalIds[level] = nodeId;
+            internalKeyCounts[level] = 0;
+            internalLevels++;
+        }
+        else
+        {
+            TreeNode.goTo( cursor, "internal", internalIds[level] );
+        }
+
+        int keyCount = internalKeyCounts[level];
+        Overflow overflow = bTreeNode.internalOverflow( cursor, keyCount, splitter );
+        if ( keyCount > 0 && (overflow == YES || bTreeNode.reachedFillFactor( cursor, keyCount, INTERNAL, fillFactor )) )
+        {
+            // Current internal node is done, right child starts a new one to the right of it
+            long previousNodeId = internalIds[level];
+            long nodeId = acquireNewId();
+            TreeNode.setRightSibling( cursor, nodeId, stableGeneration, unstableGeneration );
+            initializeNode( nodeId, INTERNAL, previousNodeId );
+            bTreeNode.setChildAt( cursor, rightChild, 0, stableGeneration, unstableGeneration );
+            internalIds[level] = nodeId;
+            internalKeyCounts[level] = 0;
+
+            addToParent( level + 1, previousNodeId, splitter, nodeId );
+        }
+        else
+        {
+            if ( overflow == NO_NEED_DEFRAG )
+            {
+                bTreeNode.defragmentInternal( cursor );
+            }
+            bTreeNode.insertKeyAndRightChildAt( cursor, splitter, rightChild, keyCount, keyCount, stableGeneration, unstableGeneration );
+            internalKeyCounts[level] = keyCount + 1;
+            TreeNode.setKeyCount( cursor, keyCount + 1 );
+        }
+    }
+
+    private void initializeNode( long nodeId, TreeNode.Type type, long leftSiblingId ) throws IOException
+    {
+        TreeNode.goTo( cursor, "new node", nodeId );
+        if ( type == LEAF )
+        {
+            bTreeNode.initializeLeaf( cursor, stableGeneration, unstableGeneration );
+        }
+        else
+        {
+            bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
+        }
+        TreeNode.setLeftSibling( cursor, leftSiblingId, stableGeneration, unstableGeneration );
+    }
+
+    private void ensureLevelCapacity( int depth )
+    {
+        if ( depth > internalIds.length )
+        {
+            internalIds = Arrays.copyOf( internalIds, depth * 2 );
+            internalKeyCounts = Arrays.copyOf( internalKeyCounts, depth * 2 );
+        }
+    }
+
+    /**
+     * Called when bulk loading is completed.
+     */
+    interface Completion
+    {
+        /**
+         * @param rootId id of the root of the built tree, or {@link TreeNode#NO_NODE_FLAG} if nothing was loaded.
+         * @throws IOException on error completing the tree.
+         */
+        void completed( long rootId ) throws IOException;
+    }
+}
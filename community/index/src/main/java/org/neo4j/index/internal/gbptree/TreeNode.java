@@ -346,6 +346,14 @@ abstract class TreeNode<KEY,VALUE>
 
     abstract boolean leafUnderflow( PageCursor cursor, int keyCount );
 
+    /**
+     * Is node filled to at least the given fill factor? Used when nodes are filled one after another,
+     * like when bulk loading, to decide when to move on to the next node.
+     * @param fillFactor ratio of the node to fill, 0=nothing, 1=completely full.
+     * @return true if node is filled to at least the given fill factor, otherwise false.
+     */
+    abstract boolean reachedFillFactor( PageCursor cursor, int keyCount, Type type, double fillFactor );
+
     /**
      * How do we best rebalance left and right leaf?
      * Can we move keys from underflowing left to right so that none of them underflow?
@@ -63,6 +63,10 @@ import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
  *  0         1     2           6         10            34           58         82           84          86
  *
  * See {@link DynamicSizeUtil} for more detailed layout for individual offset array entries and key / key_value entries.
+ * <p>
+ * Keys are stored exactly as {@link Layout#writeKey(PageCursor, Object)} writes them, without prefix compression.
+ * The keys of the native schema indexes are written entity id first, so neighbouring keys rarely share a byte prefix
+ * even when their values do. Separators in internal nodes are instead kept short by {@link Layout#minimalSplitter}.
  */
 public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
 {
@@ -591,6 +595,12 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return availableSpace > halfSpace;
     }
 
+    @Override
+    boolean reachedFillFactor( PageCursor cursor, int keyCount, Type type, double fillFactor )
+    {
+        return totalActiveSpace( cursor, keyCount, type ) >= totalSpace * fillFactor;
+    }
+
     @Override
     int canRebalanceLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
     {
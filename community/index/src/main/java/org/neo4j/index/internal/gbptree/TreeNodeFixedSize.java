@@ -335,6 +335,13 @@ class TreeNodeFixedSize<KEY,VALUE> extends TreeNode<KEY,VALUE>
         return keyCount < (leafMaxKeyCount() + 1) / 2;
     }
 
+    @Override
+    boolean reachedFillFactor( PageCursor cursor, int keyCount, Type type, double fillFactor )
+    {
+        int maxKeyCount = type == LEAF ? leafMaxKeyCount() : internalMaxKeyCount();
+        return keyCount >= Math.ceil( maxKeyCount * fillFactor );
+    }
+
     @Override
     int canRebalanceLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
     {
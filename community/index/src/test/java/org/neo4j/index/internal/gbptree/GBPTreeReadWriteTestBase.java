@@ -110,6 +110,201 @@ public abstract class GBPTreeReadWriteTestBase<KEY,VALUE>
         }
     }
 
+    @Test
+    public void shouldSeeBulkLoadedKeys() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // given
+            int count = 100_000;
+            double fillFactor = 0.1 + random.nextDouble() * 0.9;
+
+            // when
+            try ( Writer<KEY,VALUE> writer = index.bulkLoader( fillFactor ) )
+            {
+                for ( int i = 0; i < count; i++ )
+                {
+                    writer.put( key( i ), value( i ) );
+                }
+            }
+
+            // then
+            try ( RawCursor<Hit<KEY,VALUE>,IOException> cursor = index.seek( key( 0 ), key( Long.MAX_VALUE ) ) )
+            {
+                for ( int i = 0; i < count; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    assertEqualsKey( key( i ), cursor.get().key() );
+                }
+                assertFalse( cursor.next() );
+            }
+            for ( int i = 0; i < count; i += random.nextInt( 1, 1_000 ) )
+            {
+                try ( RawCursor<Hit<KEY,VALUE>,IOException> cursor = index.seek( key( i ), key( i ) ) )
+                {
+                    assertTrue( cursor.next() );
+                    assertEqualsKey( key( i ), cursor.get().key() );
+                    assertFalse( cursor.next() );
+                }
+            }
+            assertTrue( index.consistencyCheck() );
+        }
+    }
+
+    @Test
+    public void shouldMergeEqualKeysWhenBulkLoading() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // when
+            try ( Writer<KEY,VALUE> writer = index.bulkLoader( 1 ) )
+            {
+                writer.put( key( 0 ), value( 0 ) );
+                writer.put( key( 1 ), value( 1 ) );
+                writer.put( key( 1 ), value( 10 ) );
+                writer.merge( key( 1 ), value( 100 ), ValueMergers.keepExisting() );
+                writer.put( key( 2 ), value( 2 ) );
+            }
+
+            // then
+            try ( RawCursor<Hit<KEY,VALUE>,IOException> cursor = index.seek( key( 0 ), key( Long.MAX_VALUE ) ) )
+            {
+                assertTrue( cursor.next() );
+                assertEqualsKey( key( 0 ), cursor.get().key() );
+                assertTrue( cursor.next() );
+                assertEqualsKey( key( 1 ), cursor.get().key() );
+                assertEqualsValue( value( 10 ), cursor.get().value() );
+                assertTrue( cursor.next() );
+                assertEqualsKey( key( 2 ), cursor.get().key() );
+                assertFalse( cursor.next() );
+            }
+        }
+    }
+
+    @Test
+    public void shouldRejectKeysOutOfOrderWhenBulkLoading() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            try ( Writer<KEY,VALUE> writer = index.bulkLoader( 1 ) )
+            {
+                writer.put( key( 10 ), value( 10 ) );
+                writer.put( key( 5 ), value( 5 ) );
+                fail( "Should have failed" );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                // good
+            }
+
+            // and writer should be available again
+            try ( Writer<KEY,VALUE> writer = index.writer() )
+            {
+                writer.put( key( 5 ), value( 5 ) );
+            }
+        }
+    }
+
+    @Test
+    public void shouldReleaseNodesOfFailedBulkLoad() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // given
+            int count = 10_000;
+
+            // when
+            try ( Writer<KEY,VALUE> writer = index.bulkLoader( 1 ) )
+            {
+                for ( int i = 1; i <= count; i++ )
+                {
+                    writer.put( key( i ), value( i ) );
+                }
+                writer.put( key( 0 ), value( 0 ) );
+                fail( "Should have failed" );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                // good
+            }
+
+            // then all nodes built before the failure are back in the free list, i.e. no page is left unused
+            try ( RawCursor<Hit<KEY,VALUE>,IOException> cursor = index.seek( key( 0 ), key( Long.MAX_VALUE ) ) )
+            {
+                assertFalse( cursor.next() );
+            }
+            assertTrue( index.consistencyCheck() );
+        }
+    }
+
+    @Test
+    public void shouldNotBulkLoadIntoNonEmptyTree() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // given
+            try ( Writer<KEY,VALUE> writer = index.writer() )
+            {
+                writer.put( key( 0 ), value( 0 ) );
+            }
+
+            // when
+            try
+            {
+                index.bulkLoader( 1 );
+                fail( "Should have failed" );
+            }
+            catch ( IllegalStateException e )
+            {
+                // then good
+            }
+
+            // and writer should be available again
+            try ( Writer<KEY,VALUE> writer = index.writer() )
+            {
+                writer.put( key( 1 ), value( 1 ) );
+            }
+        }
+    }
+
+    @Test
+    public void shouldWriteToBulkLoadedTree() throws Exception
+    {
+        try ( GBPTree<KEY,VALUE> index = index() )
+        {
+            // given
+            int count = 10_000;
+            try ( Writer<KEY,VALUE> writer = index.bulkLoader( 1 ) )
+            {
+                for ( int i = 0; i < count; i += 2 )
+                {
+                    writer.put( key( i ), value( i ) );
+                }
+            }
+
+            // when
+            try ( Writer<KEY,VALUE> writer = index.writer() )
+            {
+                for ( int i = 1; i < count; i += 2 )
+                {
+                    writer.put( key( i ), value( i ) );
+                }
+            }
+
+            // then
+            try ( RawCursor<Hit<KEY,VALUE>,IOException> cursor = index.seek( key( 0 ), key( Long.MAX_VALUE ) ) )
+            {
+                for ( int i = 0; i < count; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    assertEqualsKey( key( i ), cursor.get().key() );
+                }
+                assertFalse( cursor.next() );
+            }
+            assertTrue( index.consistencyCheck() );
+        }
+    }
+
     /* Randomized tests */
 
     @Test
@@ -201,6 +396,12 @@ public abstract class GBPTreeReadWriteTestBase<KEY,VALUE>
         return layout.key( seed );
     }
 
+    private void assertEqualsValue( VALUE expected, VALUE actual )
+    {
+        assertEquals( String.format( "expected equal, expected=%s, actual=%s", expected.toString(), actual.toString() ), 0,
+                layout.compareValue( expected, actual ) );
+    }
+
     private void assertEqualsKey( KEY expected, KEY actual )
     {
         assertEquals( String.format( "expected equal, expected=%s, actual=%s", expected.toString(), actual.toString() ), 0,
@@ -58,23 +58,35 @@ import java.util.function.Consumer;
 
 import org.neo4j.cursor.RawCursor;
 import org.neo4j.function.ThrowingConsumer;
+import org.neo4j.graphdb.config.Configuration;
 import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
 import org.neo4j.helpers.Exceptions;
 import org.neo4j.index.internal.gbptree.GBPTree.Monitor;
 import org.neo4j.io.fs.OpenMode;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.pagecache.DelegatingPageCache;
 import org.neo4j.io.pagecache.DelegatingPagedFile;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.PageReplacementPolicies;
+import org.neo4j.io.pagecache.impl.muninn.SizeClassPageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PinEvent;
 import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
+import org.neo4j.io.pagecache.tracing.cursor.context.EmptyVersionContextSupplier;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.scheduler.ThreadPoolJobScheduler;
 import org.neo4j.test.Barrier;
 import org.neo4j.test.rule.PageCacheRule;
 import org.neo4j.test.rule.RandomRule;
@@ -355,6 +367,42 @@ public class GBPTreeTest
         }
     }
 
+    @Test
+    public void shouldCreateAndOpenTreeWithPageSizeOfLargerPageSizeClass() throws Exception
+    {
+        // given
+        int pageSize = 4 * DEFAULT_PAGE_SIZE;
+        SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.open( fs.get(), Configuration.EMPTY );
+        MemoryAllocator smallAllocator = MemoryAllocator.createAllocator( "1M", new LocalMemoryTracker() );
+        MemoryAllocator largeAllocator = MemoryAllocator.createAllocator( "1M", new LocalMemoryTracker() );
+        try ( JobScheduler jobScheduler = new ThreadPoolJobScheduler();
+              SizeClassPageCache pageCache = new SizeClassPageCache(
+                      sizeClass( swapperFactory, smallAllocator, DEFAULT_PAGE_SIZE, jobScheduler ),
+                      sizeClass( swapperFactory, largeAllocator, pageSize, jobScheduler ) ) )
+        {
+            // when
+            try ( GBPTree<MutableLong,MutableLong> index = index( pageCache ).withIndexPageSize( pageSize ).build();
+                  Writer<MutableLong,MutableLong> writer = index.writer() )
+            {
+                writer.put( new MutableLong( 1 ), new MutableLong( 1 ) );
+            }
+
+            // then
+            try ( GBPTree<MutableLong,MutableLong> index = index( pageCache ).build();
+                  PagedFile pagedFile = pageCache.getExistingMapping( indexFile ).get() )
+            {
+                assertEquals( pageSize, pagedFile.pageSize() );
+                assertTrue( index.consistencyCheck() );
+            }
+        }
+        finally
+        {
+            smallAllocator.close();
+            largeAllocator.close();
+        }
+    }
+
     @Test
     public void shouldFailWhenTryingToOpenWithDifferentFormatIdentifier() throws Exception
     {
@@ -2027,6 +2075,13 @@ public class GBPTreeTest
     }
 
     // The most common tree builds in this test
+    private static MuninnPageCache sizeClass( PageSwapperFactory swapperFactory, MemoryAllocator allocator, int cachePageSize,
+            JobScheduler jobScheduler )
+    {
+        return new MuninnPageCache( swapperFactory, allocator, cachePageSize, PageReplacementPolicies.CLOCK, PageCacheTracer.NULL,
+                PageCursorTracerSupplier.NULL, EmptyVersionContextSupplier.EMPTY, jobScheduler );
+    }
+
     private GBPTreeBuilder<MutableLong,MutableLong> index()
     {
         return index( DEFAULT_PAGE_SIZE );
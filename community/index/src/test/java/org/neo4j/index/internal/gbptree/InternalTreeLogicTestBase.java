@@ -785,15 +785,19 @@ public abstract class InternalTreeLogicTestBase<KEY,VALUE>
         while ( layout.compare( leftmostInRightChild, originalLeftmost ) >= 0 );
 
         // then
-        // ... primKey in root is updated
+        // ... primKey in root is updated to minimal splitter between left and right child
         root.goTo( readCursor );
         KEY primKey = keyAt( 0, INTERNAL );
-        assertEqualsKey( primKey, leftmostInRightChild );
+        long newLeftChild = childAt( readCursor, 0, stableGeneration, unstableGeneration );
+        long newRightChild = childAt( readCursor, 1, stableGeneration, unstableGeneration );
+        goTo( readCursor, newLeftChild );
+        KEY rightmostInLeftChild = keyAt( keyCount() - 1, LEAF );
+        KEY expectedPrimKey = layout.newKey();
+        layout.minimalSplitter( rightmostInLeftChild, leftmostInRightChild, expectedPrimKey );
+        assertEqualsKey( expectedPrimKey, primKey );
         assertNotEqualsKey( primKey, oldPrimKey );
 
         // ... new versions of left and right child
-        long newLeftChild = childAt( readCursor, 0, stableGeneration, unstableGeneration );
-        long newRightChild = childAt( readCursor, 1, stableGeneration, unstableGeneration );
         assertThat( newLeftChild, is( not( originalLeftChild ) ) );
         assertThat( newRightChild, is( not( originalRightChild ) ) );
     }
@@ -19,15 +19,20 @@
  */
 package org.neo4j.io.mem;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.nio.MappedByteBuffer;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import org.neo4j.memory.MemoryAllocationTracker;
 import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
 import static org.neo4j.io.ByteUnit.kibiBytes;
+import static org.neo4j.io.ByteUnit.mebiBytes;
 import static org.neo4j.util.FeatureToggles.getInteger;
 
 /**
@@ -38,10 +43,18 @@ public final class GrabAllocator implements MemoryAllocator
 {
     private static final Object globalCleanerInstance = globalCleaner();
 
+    /**
+     * Measuring the amount of transparent huge page memory means parsing {@code /proc/self/smaps}, so a measurement is
+     * reused for this long before a new one is made.
+     */
+    private static final long HUGE_PAGE_MEMORY_SAMPLE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            getInteger( GrabAllocator.class, "HUGE_PAGE_MEMORY_SAMPLE_INTERVAL_MILLIS", 10_000 ) );
+
     private final Grabs grabs;
     @SuppressWarnings( {"unused", "FieldCanBeLocal"} )
     private final Object cleaner;
     private final MethodHandle cleanHandle;
+    private volatile HugePageMemorySample hugePageMemorySample;
 
     /**
      * Create a new GrabAllocator that will allocate the given amount of memory, to pointers that are aligned to the
@@ -52,7 +65,20 @@ public final class GrabAllocator implements MemoryAllocator
      */
     GrabAllocator( long expectedMaxMemory, MemoryAllocationTracker memoryTracker )
     {
-        this.grabs = new Grabs( expectedMaxMemory, memoryTracker );
+        this( expectedMaxMemory, memoryTracker, HugePageMode.DISABLED, null );
+    }
+
+    /**
+     * Create a new GrabAllocator that will try to get its memory backed by huge pages.
+     * @param expectedMaxMemory The maximum amount of memory that this memory manager is expected to allocate. The
+     * actual amount of memory used can end up greater than this value, if some of it gets wasted on alignment padding.
+     * @param memoryTracker memory usage tracker
+     * @param hugePageMode how to get huge page backed memory.
+     * @param hugetlbfsDirectory a directory in a hugetlbfs mount, only used by {@link HugePageMode#HUGETLBFS}.
+     */
+    GrabAllocator( long expectedMaxMemory, MemoryAllocationTracker memoryTracker, HugePageMode hugePageMode, File hugetlbfsDirectory )
+    {
+        this.grabs = new Grabs( expectedMaxMemory, memoryTracker, hugePageMode, hugetlbfsDirectory );
         try
         {
             CleanerHandles handles = findCleanerHandles();
@@ -83,6 +109,25 @@ public final class GrabAllocator implements MemoryAllocator
         return grabs.allocateAligned( bytes, alignment );
     }
 
+    @Override
+    public long hugePageMemory()
+    {
+        HugePageMemorySample sample = hugePageMemorySample;
+        long now = System.nanoTime();
+        if ( sample == null || now - sample.nanoTime >= HUGE_PAGE_MEMORY_SAMPLE_INTERVAL_NANOS )
+        {
+            // Only take a snapshot of the grabs under the lock, so allocations don't wait for us to parse smaps.
+            HugePageRanges ranges;
+            synchronized ( this )
+            {
+                ranges = grabs.hugePageRanges();
+            }
+            sample = new HugePageMemorySample( now, ranges.measure() );
+            hugePageMemorySample = sample;
+        }
+        return sample.bytes;
+    }
+
     @Override
     public void close()
     {
@@ -96,30 +141,113 @@ public final class GrabAllocator implements MemoryAllocator
         }
     }
 
+    private static final class HugePageMemorySample
+    {
+        private final long nanoTime;
+        private final long bytes;
+
+        HugePageMemorySample( long nanoTime, long bytes )
+        {
+            this.nanoTime = nanoTime;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * A snapshot of the memory that is, or may be, backed by huge pages, which can be measured without holding the
+     * allocator lock.
+     */
+    private static final class HugePageRanges
+    {
+        private final long hugetlbfsMemory;
+        private final long[] transparentStarts;
+        private final long[] transparentEnds;
+
+        HugePageRanges( long hugetlbfsMemory, long[] transparentStarts, long[] transparentEnds )
+        {
+            this.hugetlbfsMemory = hugetlbfsMemory;
+            this.transparentStarts = transparentStarts;
+            this.transparentEnds = transparentEnds;
+        }
+
+        long measure()
+        {
+            return hugetlbfsMemory + HugePages.transparentHugePageBytes( transparentStarts, transparentEnds );
+        }
+    }
+
     private static class Grab
     {
         public final Grab next;
         private final long address;
         private final long limit;
         private final MemoryAllocationTracker memoryTracker;
+        // The allocated memory, which may be larger than the usable memory between address and limit, to allow for
+        // huge page alignment. The mapping is only set if the memory is mapped from hugetlbfs, rather than allocated.
+        private final long allocation;
+        private final long allocationSize;
+        private final MappedByteBuffer mapping;
         private long nextPointer;
 
         Grab( Grab next, long size, MemoryAllocationTracker memoryTracker )
+        {
+            this( next, UnsafeUtil.allocateMemory( size, memoryTracker ), size, 1, memoryTracker );
+        }
+
+        private Grab( Grab next, long allocation, long allocationSize, long alignment, MemoryAllocationTracker memoryTracker )
         {
             this.next = next;
-            this.address = UnsafeUtil.allocateMemory( size, memoryTracker );
-            this.limit = address + size;
+            this.allocation = allocation;
+            this.allocationSize = allocationSize;
+            this.mapping = null;
+            this.address = nextAligned( allocation, alignment );
+            this.limit = allocation + allocationSize;
             this.memoryTracker = memoryTracker;
             nextPointer = address;
         }
 
-        Grab( Grab next, long address, long limit, long nextPointer, MemoryAllocationTracker memoryTracker )
+        private Grab( Grab next, MappedByteBuffer mapping, MemoryAllocationTracker memoryTracker )
         {
             this.next = next;
-            this.address = address;
-            this.limit = limit;
-            this.nextPointer = nextPointer;
+            this.mapping = mapping;
+            this.allocation = UnsafeUtil.getDirectByteBufferAddress( mapping );
+            this.allocationSize = mapping.capacity();
+            this.address = allocation;
+            this.limit = allocation + allocationSize;
             this.memoryTracker = memoryTracker;
+            memoryTracker.allocated( allocationSize );
+            nextPointer = address;
+        }
+
+        private Grab( Grab next, Grab grab )
+        {
+            this.next = next;
+            this.address = grab.address;
+            this.limit = grab.limit;
+            this.nextPointer = grab.nextPointer;
+            this.memoryTracker = grab.memoryTracker;
+            this.allocation = grab.allocation;
+            this.allocationSize = grab.allocationSize;
+            this.mapping = grab.mapping;
+        }
+
+        /**
+         * Allocate a grab of the given size that starts at a huge page boundary.
+         */
+        static Grab hugePageAligned( Grab next, long size, MemoryAllocationTracker memoryTracker )
+        {
+            long allocationSize = size + HugePages.HUGE_PAGE_SIZE;
+            long allocation = UnsafeUtil.allocateMemory( allocationSize, memoryTracker );
+            return new Grab( next, allocation, allocationSize, HugePages.HUGE_PAGE_SIZE, memoryTracker );
+        }
+
+        /**
+         * Map a grab of the given size from hugetlbfs.
+         */
+        static Grab hugetlbfs( Grab next, long size, File hugetlbfsDirectory, MemoryAllocationTracker memoryTracker )
+                throws IOException
+        {
+            return new Grab( next, HugePages.mapHugetlbfs( hugetlbfsDirectory, size ), memoryTracker );
         }
 
         private long nextAligned( long pointer, long alignment )
@@ -145,7 +273,15 @@ public final class GrabAllocator implements MemoryAllocator
 
         void free()
         {
-            UnsafeUtil.free( address, limit - address, memoryTracker );
+            if ( mapping != null )
+            {
+                HugePages.unmap( mapping );
+                memoryTracker.deallocated( allocationSize );
+            }
+            else
+            {
+                UnsafeUtil.free( allocation, allocationSize, memoryTracker );
+            }
         }
 
         boolean canAllocate( long bytes, long alignment )
@@ -155,7 +291,7 @@ public final class GrabAllocator implements MemoryAllocator
 
         Grab setNext( Grab grab )
         {
-            return new Grab( grab, address, limit, nextPointer, memoryTracker );
+            return new Grab( grab, this );
         }
 
         @Override
@@ -175,14 +311,90 @@ public final class GrabAllocator implements MemoryAllocator
          */
         private static final long GRAB_SIZE = getInteger( GrabAllocator.class, "GRAB_SIZE", (int) kibiBytes( 512 ) );
 
+        /**
+         * The amount of memory, in bytes, to grab in each Grab when using huge pages. This is a multiple of the huge
+         * page size, to avoid wasting most of a huge page on every grab.
+         */
+        private static final long HUGE_PAGE_GRAB_SIZE = HugePages.roundUpToHugePageSize(
+                getInteger( GrabAllocator.class, "HUGE_PAGE_GRAB_SIZE", (int) mebiBytes( 32 ) ) );
+
         private final MemoryAllocationTracker memoryTracker;
+        private final File hugetlbfsDirectory;
+        private HugePageMode hugePageMode;
         private long expectedMaxMemory;
         private Grab head;
 
-        Grabs( long expectedMaxMemory, MemoryAllocationTracker memoryTracker )
+        Grabs( long expectedMaxMemory, MemoryAllocationTracker memoryTracker, HugePageMode hugePageMode, File hugetlbfsDirectory )
         {
             this.expectedMaxMemory = expectedMaxMemory;
             this.memoryTracker = memoryTracker;
+            this.hugePageMode = hugePageMode;
+            this.hugetlbfsDirectory = hugetlbfsDirectory;
+        }
+
+        private Grab newGrab( Grab next, long size )
+        {
+            switch ( hugePageMode )
+            {
+            case HUGETLBFS:
+                if ( size > HugePages.MAX_MAPPING_SIZE )
+                {
+                    return Grab.hugePageAligned( next, size, memoryTracker );
+                }
+                try
+                {
+                    return Grab.hugetlbfs( next, HugePages.roundUpToHugePageSize( size ), hugetlbfsDirectory, memoryTracker );
+                }
+                catch ( IOException | RuntimeException e )
+                {
+                    // Most likely we ran out of reserved huge pages. Don't keep trying, and use transparent huge pages instead.
+                    hugePageMode = HugePageMode.TRANSPARENT;
+                    return Grab.hugePageAligned( next, size, memoryTracker );
+                }
+            case TRANSPARENT:
+                return Grab.hugePageAligned( next, size, memoryTracker );
+            default:
+                return new Grab( next, size, memoryTracker );
+            }
+        }
+
+        private long grabSize()
+        {
+            return hugePageMode == HugePageMode.DISABLED ? GRAB_SIZE : HUGE_PAGE_GRAB_SIZE;
+        }
+
+        HugePageRanges hugePageRanges()
+        {
+            long hugetlbfsMemory = 0;
+            int transparentGrabs = 0;
+            for ( Grab grab = head; grab != null; grab = grab.next )
+            {
+                if ( grab.mapping != null )
+                {
+                    hugetlbfsMemory += grab.limit - grab.address;
+                }
+                else
+                {
+                    transparentGrabs++;
+                }
+            }
+            if ( hugePageMode == HugePageMode.DISABLED )
+            {
+                transparentGrabs = 0;
+            }
+            long[] starts = new long[transparentGrabs];
+            long[] ends = new long[transparentGrabs];
+            int i = 0;
+            for ( Grab grab = head; grab != null && i < transparentGrabs; grab = grab.next )
+            {
+                if ( grab.mapping == null )
+                {
+                    starts[i] = grab.address;
+                    ends[i] = grab.limit;
+                    i++;
+                }
+            }
+            return new HugePageRanges( hugetlbfsMemory, starts, ends );
         }
 
         long usedMemory()
@@ -226,18 +438,18 @@ public final class GrabAllocator implements MemoryAllocator
             {
                 throw new IllegalArgumentException( "Invalid alignment: " + alignment + ". Alignment must be positive." );
             }
-            long grabSize = Math.min( GRAB_SIZE, expectedMaxMemory );
-            if ( bytes > GRAB_SIZE )
+            long grabSize = Math.min( grabSize(), expectedMaxMemory );
+            if ( bytes > grabSize() )
             {
                 // This is a huge allocation. Put it in its own grab and keep any existing grab at the head.
                 grabSize = bytes;
                 Grab nextGrab = head == null ? null : head.next;
-                Grab allocationGrab = new Grab( nextGrab, grabSize, memoryTracker );
+                Grab allocationGrab = newGrab( nextGrab, grabSize );
                 if ( !allocationGrab.canAllocate( bytes, alignment ) )
                 {
                     allocationGrab.free();
                     grabSize = bytes + alignment;
-                    allocationGrab = new Grab( nextGrab, grabSize, memoryTracker );
+                    allocationGrab = newGrab( nextGrab, grabSize );
                 }
                 long allocation = allocationGrab.allocate( bytes, alignment );
                 head = head == null ? allocationGrab : head.setNext( allocationGrab );
@@ -250,7 +462,7 @@ public final class GrabAllocator implements MemoryAllocator
                 if ( grabSize < bytes )
                 {
                     grabSize = bytes;
-                    Grab grab = new Grab( head, grabSize, memoryTracker );
+                    Grab grab = newGrab( head, grabSize );
                     if ( grab.canAllocate( bytes, alignment ) )
                     {
                         expectedMaxMemory -= grabSize;
@@ -260,7 +472,7 @@ public final class GrabAllocator implements MemoryAllocator
                     grab.free();
                     grabSize = bytes + alignment;
                 }
-                head = new Grab( head, grabSize, memoryTracker );
+                head = newGrab( head, grabSize );
                 expectedMaxMemory -= grabSize;
             }
             return head.allocate( bytes, alignment );
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+/**
+ * How the {@link GrabAllocator} should try to get its memory backed by huge pages, to reduce the number of TLB misses
+ * when accessing large amounts of memory.
+ */
+public enum HugePageMode
+{
+    /**
+     * Allocate memory normally, without regard for huge pages.
+     */
+    DISABLED,
+
+    /**
+     * Allocate memory in chunks that are aligned to, and a multiple of, the huge page size, so that the operating system
+     * can back them with transparent huge pages. Whether that happens depends on how transparent huge pages are
+     * configured in the operating system. On Linux they must be enabled in the "always" mode, since the memory is not
+     * madvised.
+     */
+    TRANSPARENT,
+
+    /**
+     * Memory-map the memory from files in a mounted hugetlbfs file system, which are always backed by explicitly
+     * reserved huge pages. If that is not possible, for instance because there are not enough free huge pages, then the
+     * allocator falls back to the {@link #TRANSPARENT} mode.
+     */
+    HUGETLBFS;
+
+    /**
+     * @return the mode that transparent huge pages are enabled in by the operating system, like "always", "madvise" or
+     * "never", or {@code null} if that cannot be determined, for instance when not on Linux.
+     */
+    public static String transparentHugePageSystemMode()
+    {
+        return HugePages.transparentHugePageMode();
+    }
+}
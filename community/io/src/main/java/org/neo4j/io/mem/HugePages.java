@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+
+import static org.neo4j.io.ByteUnit.mebiBytes;
+
+/**
+ * Operating system specific utilities for getting memory backed by huge pages, and for finding out how much memory
+ * actually got huge page backing.
+ */
+final class HugePages
+{
+    /**
+     * The size of huge pages on x86-64 Linux, which is also a multiple of the huge page sizes of most other platforms.
+     */
+    static final long HUGE_PAGE_SIZE = mebiBytes( 2 );
+
+    /**
+     * The largest region we map from hugetlbfs at a time. Java 8 cannot map more than 2 GiB in one go.
+     */
+    static final long MAX_MAPPING_SIZE = mebiBytes( 1024 );
+
+    private static final File SMAPS = new File( "/proc/self/smaps" );
+    private static final File TRANSPARENT_HUGE_PAGES_ENABLED = new File( "/sys/kernel/mm/transparent_hugepage/enabled" );
+
+    private HugePages()
+    {
+    }
+
+    static long roundUpToHugePageSize( long size )
+    {
+        return (size + HUGE_PAGE_SIZE - 1) / HUGE_PAGE_SIZE * HUGE_PAGE_SIZE;
+    }
+
+    static long roundDownToHugePageSize( long size )
+    {
+        return size / HUGE_PAGE_SIZE * HUGE_PAGE_SIZE;
+    }
+
+    /**
+     * Find out which mode transparent huge pages are enabled in on Linux. Our memory is only backed by transparent huge
+     * pages in the "always" mode, since the "madvise" mode would require native calls to advise it.
+     *
+     * @return the selected mode, like "always", "madvise" or "never", or {@code null} if it cannot be determined.
+     */
+    static String transparentHugePageMode()
+    {
+        if ( !TRANSPARENT_HUGE_PAGES_ENABLED.canRead() )
+        {
+            return null;
+        }
+        try ( BufferedReader reader = new BufferedReader( new FileReader( TRANSPARENT_HUGE_PAGES_ENABLED ) ) )
+        {
+            // The file looks like "always [madvise] never", with the selected mode in brackets.
+            String line = reader.readLine();
+            int start = line == null ? -1 : line.indexOf( '[' );
+            int end = start == -1 ? -1 : line.indexOf( ']', start );
+            return end == -1 ? null : line.substring( start + 1, end );
+        }
+        catch ( IOException e )
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Map a region of the given size from a new file in the given hugetlbfs directory. The file is deleted right away,
+     * so the huge pages are returned to the operating system when the region is {@link #unmap(MappedByteBuffer)
+     * unmapped}.
+     *
+     * @throws IOException if the region could not be mapped, for instance if there are not enough free huge pages.
+     */
+    static MappedByteBuffer mapHugetlbfs( File directory, long size ) throws IOException
+    {
+        if ( size > MAX_MAPPING_SIZE || !MappedBuffers.canUnmap() )
+        {
+            throw new IOException( "Cannot map " + size + " bytes from hugetlbfs." );
+        }
+        String fileSystemType = Files.getFileStore( directory.toPath() ).type();
+        if ( !"hugetlbfs".equals( fileSystemType ) )
+        {
+            throw new IOException( "Directory " + directory + " is on a " + fileSystemType + " file system, not hugetlbfs." );
+        }
+        File file = File.createTempFile( "neo4j-pagecache", ".mem", directory );
+        try ( RandomAccessFile raf = new RandomAccessFile( file, "rw" ) )
+        {
+            raf.setLength( size );
+            MappedByteBuffer buffer = raf.getChannel().map( FileChannel.MapMode.READ_WRITE, 0, size );
+            // Touch every huge page, so we find out now if there are not enough of them, instead of crashing later.
+            for ( long offset = 0; offset < size; offset += HUGE_PAGE_SIZE )
+            {
+                buffer.put( (int) offset, (byte) 0 );
+            }
+            return buffer;
+        }
+        catch ( OutOfMemoryError e )
+        {
+            throw new IOException( e );
+        }
+        finally
+        {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    static void unmap( MappedByteBuffer buffer )
+    {
+        MappedBuffers.unmap( buffer );
+    }
+
+    /**
+     * Find how many bytes of the given address ranges are backed by transparent huge pages, according to
+     * {@code /proc/self/smaps}. The answer is approximate, since the operating system only reports this per mapping, and
+     * a mapping can contain more than one of our ranges, or memory that is not ours.
+     *
+     * @param starts the start addresses of the ranges, inclusive.
+     * @param ends the end addresses of the ranges, exclusive.
+     * @return the number of bytes in the ranges that are backed by transparent huge pages, or 0 if that cannot be
+     * determined.
+     */
+    static long transparentHugePageBytes( long[] starts, long[] ends )
+    {
+        if ( starts.length == 0 || !SMAPS.canRead() )
+        {
+            return 0;
+        }
+        long total = 0;
+        try ( BufferedReader reader = new BufferedReader( new FileReader( SMAPS ) ) )
+        {
+            long overlap = 0;
+            String line;
+            while ( (line = reader.readLine()) != null )
+            {
+                int dash = line.indexOf( '-' );
+                int space = line.indexOf( ' ' );
+                if ( dash > 0 && space > dash && isHex( line, 0, dash ) )
+                {
+                    // The header line of a mapping looks like "7f0000000000-7f0000200000 rw-p ..."
+                    long start = Long.parseUnsignedLong( line.substring( 0, dash ), 16 );
+                    long end = Long.parseUnsignedLong( line.substring( dash + 1, space ), 16 );
+                    overlap = overlap( start, end, starts, ends );
+                }
+                else if ( overlap > 0 && line.startsWith( "AnonHugePages:" ) )
+                {
+                    String kibiBytes = line.substring( "AnonHugePages:".length() ).replace( "kB", "" ).trim();
+                    total += Math.min( overlap, Long.parseLong( kibiBytes ) * 1024 );
+                }
+            }
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            return 0;
+        }
+        return total;
+    }
+
+    private static long overlap( long start, long end, long[] starts, long[] ends )
+    {
+        long overlap = 0;
+        for ( int i = 0; i < starts.length; i++ )
+        {
+            long from = Math.max( start, starts[i] );
+            long to = Math.min( end, ends[i] );
+            if ( from < to )
+            {
+                overlap += to - from;
+            }
+        }
+        return overlap;
+    }
+
+    private static boolean isHex( String line, int from, int to )
+    {
+        for ( int i = from; i < to; i++ )
+        {
+            if ( Character.digit( line.charAt( i ), 16 ) == -1 )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
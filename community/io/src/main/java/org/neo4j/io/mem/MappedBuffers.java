@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Explicitly unmaps memory mapped buffers, instead of waiting for them to be garbage collected, which may take
+ * arbitrarily long and keeps both the address space and any deleted files alive until then.
+ */
+public final class MappedBuffers
+{
+    private static final MethodHandle unmapper = findUnmapper();
+
+    private MappedBuffers()
+    {
+    }
+
+    /**
+     * @return {@code true} if this JVM allows buffers to be unmapped with {@link #unmap(MappedByteBuffer)}.
+     */
+    public static boolean canUnmap()
+    {
+        return unmapper != null;
+    }
+
+    /**
+     * Unmap the given buffer. The buffer, and every duplicate or slice of it, must not be accessed afterwards, since
+     * that would crash the JVM.
+     * @param buffer the buffer to unmap.
+     */
+    public static void unmap( MappedByteBuffer buffer )
+    {
+        if ( unmapper == null )
+        {
+            throw new UnsupportedOperationException( "Cannot unmap buffers on this JVM." );
+        }
+        try
+        {
+            unmapper.invokeExact( (ByteBuffer) buffer );
+        }
+        catch ( Throwable throwable )
+        {
+            throw new LinkageError( "Unable to unmap memory mapped buffer.", throwable );
+        }
+    }
+
+    private static MethodHandle findUnmapper()
+    {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try
+        {
+            // Java 9 and newer.
+            Class<?> unsafeClass = Class.forName( "sun.misc.Unsafe" );
+            Method invokeCleaner = unsafeClass.getMethod( "invokeCleaner", ByteBuffer.class );
+            Field theUnsafe = unsafeClass.getDeclaredField( "theUnsafe" );
+            theUnsafe.setAccessible( true );
+            return lookup.unreflect( invokeCleaner ).bindTo( theUnsafe.get( null ) );
+        }
+        catch ( Throwable java9Failure )
+        {
+            try
+            {
+                // Java 8.
+                Class<?> directBuffer = Class.forName( "sun.nio.ch.DirectBuffer" );
+                Class<?> cleaner = Class.forName( "sun.misc.Cleaner" );
+                MethodHandle getCleaner = lookup.findVirtual( directBuffer, "cleaner", MethodType.methodType( cleaner ) );
+                MethodHandle clean = lookup.findVirtual( cleaner, "clean", MethodType.methodType( void.class ) );
+                return MethodHandles.filterReturnValue( getCleaner, clean )
+                        .asType( MethodType.methodType( void.class, ByteBuffer.class ) );
+            }
+            catch ( Throwable java8Failure )
+            {
+                return null;
+            }
+        }
+    }
+}
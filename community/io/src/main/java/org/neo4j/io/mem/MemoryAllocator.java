@@ -19,6 +19,8 @@
  */
 package org.neo4j.io.mem;
 
+import java.io.File;
+
 import org.neo4j.io.ByteUnit;
 import org.neo4j.memory.MemoryAllocationTracker;
 
@@ -32,6 +34,12 @@ public interface MemoryAllocator
         return new GrabAllocator( ByteUnit.parse( expectedMemory ), memoryTracker );
     }
 
+    static MemoryAllocator createAllocator( String expectedMemory, MemoryAllocationTracker memoryTracker,
+            HugePageMode hugePageMode, File hugetlbfsDirectory )
+    {
+        return new GrabAllocator( ByteUnit.parse( expectedMemory ), memoryTracker, hugePageMode, hugetlbfsDirectory );
+    }
+
     /**
      * @return The sum, in bytes, of all the memory currently allocating through this allocator.
      */
@@ -51,6 +59,14 @@ public interface MemoryAllocator
      */
     long allocateAligned( long bytes, long alignment );
 
+    /**
+     * @return The amount of allocated memory, in bytes, that is known to be backed by huge pages.
+     */
+    default long hugePageMemory()
+    {
+        return 0;
+    }
+
     /**
      * Close all allocated resources and free all allocated memory.
      * Closing can happen by calling close explicitly or by GC as soon as allocator will become phantom reachable.
@@ -109,6 +109,21 @@ public interface PageCache extends AutoCloseable
      */
     void flushAndForce( IOLimiter limiter ) throws IOException;
 
+    /**
+     * Write out, but do not force, the dirty pages that have stayed dirty since the previous call to this method,
+     * while limiting the rate of IO as advised by the given IOLimiter.
+     * <p>
+     * Calling this method periodically trickles old dirty pages out to the storage device in the background,
+     * which leaves less work for the next {@link #flushAndForce(IOLimiter) flush}. It gives no durability guarantees
+     * on its own. Page caches that cannot do this ahead of time simply do nothing.
+     *
+     * @param limiter The {@link IOLimiter} that determines if pauses or sleeps should be injected into the writing
+     * process to keep the IO rate down.
+     */
+    default void writeBackOldPages( IOLimiter limiter ) throws IOException
+    {
+    }
+
     /**
      * Close the page cache to prevent any future mapping of files.
      * This also releases any internal resources, including the {@link PageSwapperFactory} through its
@@ -127,6 +142,15 @@ public interface PageCache extends AutoCloseable
      */
     int pageSize();
 
+    /**
+     * The largest file page size that files can be {@link #map(File, int, OpenOption...) mapped} with. This is the
+     * {@link #pageSize()}, unless the cache manages pages of more than one size.
+     */
+    default int maxPageSize()
+    {
+        return pageSize();
+    }
+
     /**
      * The max number of cached pages.
      */
@@ -60,8 +60,13 @@ public interface PagedFile extends AutoCloseable
     int PF_NO_GROW = 1 << 2;
     /**
      * Read-ahead hint for sequential forward scanning.
+     * <p>
+     * Cursors opened with this flag will notice when they pin consecutive file pages, and will then ask the page cache
+     * to asynchronously fault in the pages that follow, so that they are likely to already be in memory by the time
+     * the cursor gets to them. The read-ahead never extends the file, and it is only a hint; the cursor will still
+     * fault in any page that the read-ahead did not get to in time.
      */
-    int PF_READ_AHEAD = 1 << 3; // TBD
+    int PF_READ_AHEAD = 1 << 3;
     /**
      * Do not load in the page if it is not loaded already. The methods {@link PageCursor#next()} and
      * {@link PageCursor#next(long)} will always return {@code true} for pages that are within the range of the file,
@@ -74,8 +79,12 @@ public interface PagedFile extends AutoCloseable
     int PF_NO_FAULT = 1 << 4;
     /**
      * Do not update page access statistics.
+     * <p>
+     * Pages accessed through a transient cursor do not have their usage counted, and pages that are faulted in by a
+     * transient cursor are among the first to be evicted when the page cache needs to free up memory. This is meant
+     * for large scans that touch each page once, and that would otherwise push the working set out of the cache.
      */
-    int PF_TRANSIENT = 1 << 5; // TBD
+    int PF_TRANSIENT = 1 << 5;
     /**
      * Flush pages more aggressively, after they have been dirtied by a write cursor.
      */
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+/**
+ * A {@link SingleFilePageSwapper} that does its vectored reads and writes through an {@link AsynchronousFileChannel}.
+ * <p>
+ * All of the pages in a vectored read or write are submitted to the channel as one batch of independent positional
+ * operations, before any of them are waited upon. This keeps as many operations in flight as there are pages in the
+ * vector, or as there are IO threads in the executor of the channel, whichever is smaller, even though only a single
+ * thread is faulting or flushing. On platforms where the JDK has no kernel support for asynchronous file IO, like
+ * Linux, the channel performs the operations on the threads of the given executor.
+ * <p>
+ * Single page reads and writes gain nothing from being asynchronous, since the calling thread has to wait for them
+ * anyway, so they go through the striped file channels of the super class. So does everything else, like file locking,
+ * forcing and truncation.
+ * <p>
+ * Unlike the {@link java.nio.channels.FileChannel}, the asynchronous channel is not closed when a thread that is doing
+ * IO on it gets interrupted, so the vectored operations never need to reopen it.
+ */
+public class AsyncPageSwapper extends SingleFilePageSwapper
+{
+    private final int filePageSize;
+    private final AsynchronousFileChannel channel;
+
+    AsyncPageSwapper( File file, FileSystemAbstraction fs, int filePageSize, PageEvictionCallback onEviction,
+            boolean noChannelStriping, ExecutorService ioExecutor ) throws IOException
+    {
+        super( file, fs, filePageSize, onEviction, noChannelStriping );
+        this.filePageSize = filePageSize;
+        AsynchronousFileChannel asyncChannel;
+        try
+        {
+            asyncChannel = AsynchronousFileChannel.open(
+                    file.toPath(), EnumSet.of( StandardOpenOption.READ, StandardOpenOption.WRITE ), ioExecutor );
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            try
+            {
+                super.close();
+            }
+            catch ( IOException closeException )
+            {
+                e.addSuppressed( closeException );
+            }
+            throw e;
+        }
+        this.channel = asyncChannel;
+    }
+
+    @Override
+    public long read( long startFilePageId, long[] bufferAddresses, int bufferSize, int arrayOffset, int length ) throws IOException
+    {
+        long fileSize = getCurrentFileSize();
+        PageOperation[] batch = new PageOperation[length];
+        try
+        {
+            for ( int i = 0; i < length; i++ )
+            {
+                long address = bufferAddresses[arrayOffset + i];
+                long fileOffset = (startFilePageId + i) * filePageSize;
+                if ( fileOffset < fileSize )
+                {
+                    PageOperation operation = new PageOperation( true, address, fileOffset );
+                    operation.submit();
+                    batch[i] = operation;
+                }
+                else
+                {
+                    UnsafeUtil.setMemory( address, filePageSize, MuninnPageCache.ZERO_BYTE );
+                }
+            }
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            awaitSubmitted( batch, e );
+            throw e;
+        }
+        return awaitBatch( batch );
+    }
+
+    @Override
+    public long write( long startFilePageId, long[] bufferAddresses, int arrayOffset, int length ) throws IOException
+    {
+        long startFileOffset = startFilePageId * filePageSize;
+        increaseFileSizeTo( startFileOffset + ((long) filePageSize) * length );
+        PageOperation[] batch = new PageOperation[length];
+        try
+        {
+            for ( int i = 0; i < length; i++ )
+            {
+                PageOperation operation =
+                        new PageOperation( false, bufferAddresses[arrayOffset + i], startFileOffset + i * (long) filePageSize );
+                operation.submit();
+                batch[i] = operation;
+            }
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            awaitSubmitted( batch, e );
+            throw e;
+        }
+        return awaitBatch( batch );
+    }
+
+    /**
+     * Wait for the operations that were submitted before submitting the rest of the batch failed, so the buffers are no
+     * longer in use when the failure is thrown. Only submitted operations are in the batch.
+     */
+    private static void awaitSubmitted( PageOperation[] batch, Exception failure )
+    {
+        try
+        {
+            awaitBatch( batch );
+        }
+        catch ( IOException e )
+        {
+            failure.addSuppressed( e );
+        }
+    }
+
+    /**
+     * Wait for all of the operations in the batch to complete. We have to wait for every one of them, even if some of
+     * them fail, because the page cache is free to reuse the buffers as soon as we return.
+     */
+    private static long awaitBatch( PageOperation[] batch ) throws IOException
+    {
+        long bytes = 0;
+        IOException exception = null;
+        for ( PageOperation operation : batch )
+        {
+            if ( operation == null )
+            {
+                continue;
+            }
+            try
+            {
+                bytes += operation.await();
+            }
+            catch ( IOException e )
+            {
+                if ( exception == null )
+                {
+                    exception = e;
+                }
+                else
+                {
+                    exception.addSuppressed( e );
+                }
+            }
+        }
+        if ( exception != null )
+        {
+            throw exception;
+        }
+        return bytes;
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        try
+        {
+            channel.close();
+        }
+        finally
+        {
+            super.close();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "AsyncPageSwapper{" +
+                "filePageSize=" + filePageSize +
+                ", file=" + file() +
+                '}';
+    }
+
+    /**
+     * A read or write of a single page, which is resubmitted until the whole page has been transferred, or, for reads,
+     * until the end of the file is reached.
+     */
+    private final class PageOperation
+    {
+        private final boolean read;
+        private final long address;
+        private final long fileOffset;
+        private final ByteBuffer buffer;
+        private int transferred;
+        private Future<Integer> future;
+
+        PageOperation( boolean read, long address, long fileOffset ) throws IOException
+        {
+            this.read = read;
+            this.address = address;
+            this.fileOffset = fileOffset;
+            try
+            {
+                this.buffer = UnsafeUtil.newDirectByteBuffer( address, filePageSize );
+            }
+            catch ( Exception e )
+            {
+                throw new IOException( e );
+            }
+        }
+
+        void submit()
+        {
+            long position = fileOffset + transferred;
+            future = read ? channel.read( buffer, position ) : channel.write( buffer, position );
+        }
+
+        int await() throws IOException
+        {
+            boolean interrupted = false;
+            try
+            {
+                for ( ; ; )
+                {
+                    int result;
+                    try
+                    {
+                        result = future.get();
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        // The buffer is still in use by the operation, so we cannot give up on it.
+                        interrupted = true;
+                        continue;
+                    }
+                    catch ( ExecutionException e )
+                    {
+                        Throwable cause = e.getCause();
+                        throw cause instanceof IOException ? (IOException) cause : new IOException( cause );
+                    }
+
+                    if ( result == -1 )
+                    {
+                        // We read past the end of the file. Zero-fill the rest.
+                        UnsafeUtil.setMemory( address + transferred, filePageSize - transferred, MuninnPageCache.ZERO_BYTE );
+                        return transferred;
+                    }
+                    transferred += result;
+                    if ( transferred == filePageSize )
+                    {
+                        return transferred;
+                    }
+                    try
+                    {
+                        submit();
+                    }
+                    catch ( RuntimeException e )
+                    {
+                        // Nothing is in flight for this page anymore, so the rest of the batch can still be awaited.
+                        throw new IOException( e );
+                    }
+                }
+            }
+            finally
+            {
+                if ( interrupted )
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.graphdb.config.Configuration;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.util.FeatureToggles;
+
+/**
+ * A factory for {@link AsyncPageSwapper} instances, which submit the pages of vectored reads and writes as batches of
+ * asynchronous operations. The operations are carried out by a pool of IO threads that is shared by all the swappers
+ * from this factory, so the number of IO threads is the number of operations that can be in flight at the same time.
+ * <p>
+ * Asynchronous file channels can only be opened on the real file system, so if this factory is opened with any other
+ * {@link FileSystemAbstraction}, then it will create plain {@link SingleFilePageSwapper} instances instead.
+ *
+ * @see org.neo4j.io.pagecache.impl.AsyncPageSwapper
+ */
+public class AsyncPageSwapperFactory extends SingleFilePageSwapperFactory
+{
+    private static final int ioThreads = FeatureToggles.getInteger( AsyncPageSwapperFactory.class, "ioThreads",
+            Math.max( 4, Runtime.getRuntime().availableProcessors() * 2 ) );
+
+    private FileSystemAbstraction fs;
+    private ExecutorService ioExecutor;
+
+    @Override
+    public void open( FileSystemAbstraction fs, Configuration config )
+    {
+        super.open( fs, config );
+        this.fs = fs;
+        if ( fs instanceof DefaultFileSystemAbstraction )
+        {
+            AtomicInteger threadCounter = new AtomicInteger();
+            ioExecutor = Executors.newFixedThreadPool( ioThreads, runnable ->
+            {
+                Thread thread = new Thread( runnable, "PageCacheIO-" + threadCounter.incrementAndGet() );
+                thread.setDaemon( true );
+                return thread;
+            } );
+        }
+    }
+
+    @Override
+    protected PageSwapper createSwapper( File file, int filePageSize, PageEvictionCallback onEviction,
+            boolean noChannelStriping ) throws IOException
+    {
+        if ( ioExecutor == null )
+        {
+            return super.createSwapper( file, filePageSize, onEviction, noChannelStriping );
+        }
+        return new AsyncPageSwapper( file, fs, filePageSize, onEviction, noChannelStriping, ioExecutor );
+    }
+
+    @Override
+    public void close()
+    {
+        if ( ioExecutor != null )
+        {
+            ioExecutor.shutdown();
+            ioExecutor = null;
+        }
+        super.close();
+    }
+
+    @Override
+    public String implementationName()
+    {
+        return "async";
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+/**
+ * A {@link SingleFilePageSwapper} that reads and writes pages through a file channel that is opened for direct IO,
+ * bypassing the page cache of the operating system. This way the pages of the file are only cached once; in the
+ * Muninn page cache.
+ * <p>
+ * Direct IO requires that the memory buffers, the file offsets and the transfer sizes are all aligned to the block size
+ * of the file system. The {@link DirectIOPageSwapperFactory} makes sure that this swapper is only created for files
+ * where the file page size is a multiple of the block size, and the page cache aligns the page buffers according to
+ * {@link DirectIOPageSwapperFactory#getRequiredBufferAlignment()}. Since every page in the vector is then a whole
+ * number of blocks, vectored reads and writes are done as single scattering and gathering system calls.
+ * <p>
+ * Forcing and truncation go through the buffered file channels of the super class, which is fine since they operate on
+ * the file as a whole.
+ */
+public class DirectIOPageSwapper extends SingleFilePageSwapper
+{
+    private static final int MAX_INTERRUPTED_CHANNEL_REOPEN_ATTEMPTS = 42;
+
+    private final File file;
+    private final int filePageSize;
+    private final long blockSize;
+    private final OpenOption directOption;
+    private final Object vectorLock = new Object();
+    private volatile FileChannel channel;
+
+    // Guarded by synchronized(this). See tryReopen() and close().
+    private boolean closed;
+
+    DirectIOPageSwapper( File file, FileSystemAbstraction fs, int filePageSize, PageEvictionCallback onEviction,
+            boolean noChannelStriping, long blockSize, OpenOption directOption ) throws IOException
+    {
+        super( file, fs, filePageSize, onEviction, noChannelStriping );
+        this.file = file;
+        this.filePageSize = filePageSize;
+        this.blockSize = blockSize;
+        this.directOption = directOption;
+        try
+        {
+            channel = openDirectChannel();
+        }
+        catch ( IOException | RuntimeException e )
+        {
+            try
+            {
+                super.close();
+            }
+            catch ( IOException closeException )
+            {
+                e.addSuppressed( closeException );
+            }
+            throw e;
+        }
+    }
+
+    private FileChannel openDirectChannel() throws IOException
+    {
+        return FileChannel.open( file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE, directOption );
+    }
+
+    @Override
+    public long read( long filePageId, long bufferAddress, int bufferSize ) throws IOException
+    {
+        long fileOffset = filePageId * filePageSize;
+        if ( fileOffset < getCurrentFileSize() )
+        {
+            return retryIfInterrupted( () -> swapIn( bufferAddress, fileOffset ), MAX_INTERRUPTED_CHANNEL_REOPEN_ATTEMPTS );
+        }
+        UnsafeUtil.setMemory( bufferAddress, bufferSize, MuninnPageCache.ZERO_BYTE );
+        return 0;
+    }
+
+    @Override
+    public long read( long startFilePageId, long[] bufferAddresses, int bufferSize, int arrayOffset, int length ) throws IOException
+    {
+        long fileOffset = startFilePageId * filePageSize;
+        long bytesRead = 0;
+        if ( fileOffset < getCurrentFileSize() )
+        {
+            bytesRead = retryIfInterrupted( () -> swapInVectored( bufferAddresses, arrayOffset, length, fileOffset ),
+                    MAX_INTERRUPTED_CHANNEL_REOPEN_ATTEMPTS );
+        }
+        // Zero the part of the vector that was beyond the end of the file
+        int pagesRead = (int) (bytesRead / filePageSize);
+        int bytesReadIntoLastReadPage = (int) (bytesRead % filePageSize);
+        for ( int i = pagesRead; i < length; i++ )
+        {
+            long address = bufferAddresses[arrayOffset + i];
+            int offset = i == pagesRead ? bytesReadIntoLastReadPage : 0;
+            UnsafeUtil.setMemory( address + offset, filePageSize - offset, MuninnPageCache.ZERO_BYTE );
+        }
+        return bytesRead;
+    }
+
+    @Override
+    public long write( long filePageId, long bufferAddress ) throws IOException
+    {
+        long fileOffset = filePageId * filePageSize;
+        increaseFileSizeTo( fileOffset + filePageSize );
+        return retryIfInterrupted( () -> swapOut( bufferAddress, fileOffset ), MAX_INTERRUPTED_CHANNEL_REOPEN_ATTEMPTS );
+    }
+
+    @Override
+    public long write( long startFilePageId, long[] bufferAddresses, int arrayOffset, int length ) throws IOException
+    {
+        long fileOffset = startFilePageId * filePageSize;
+        increaseFileSizeTo( fileOffset + ((long) filePageSize) * length );
+        return retryIfInterrupted( () -> swapOutVectored( bufferAddresses, arrayOffset, length, fileOffset ),
+                MAX_INTERRUPTED_CHANNEL_REOPEN_ATTEMPTS );
+    }
+
+    private long swapIn( long bufferAddress, long fileOffset ) throws IOException
+    {
+        ByteBuffer buffer = proxy( bufferAddress, filePageSize );
+        int readTotal = 0;
+        int read;
+        do
+        {
+            read = channel.read( buffer, fileOffset + readTotal );
+        }
+        // A short read means that we reached the end of the file. Continuing from an unaligned offset would fail anyway.
+        while ( read > 0 && (readTotal += read) < filePageSize && readTotal % blockSize == 0 );
+        UnsafeUtil.setMemory( bufferAddress + readTotal, filePageSize - readTotal, MuninnPageCache.ZERO_BYTE );
+        return readTotal;
+    }
+
+    private long swapOut( long bufferAddress, long fileOffset ) throws IOException
+    {
+        ByteBuffer buffer = proxy( bufferAddress, filePageSize );
+        int writtenTotal = 0;
+        do
+        {
+            writtenTotal += channel.write( buffer, fileOffset + writtenTotal );
+        }
+        while ( writtenTotal < filePageSize );
+        return writtenTotal;
+    }
+
+    private long swapInVectored( long[] bufferAddresses, int arrayOffset, int length, long fileOffset ) throws IOException
+    {
+        ByteBuffer[] buffers = proxies( bufferAddresses, arrayOffset, length );
+        long toRead = ((long) filePageSize) * length;
+        long readTotal = 0;
+        long read;
+        // Scattering reads use the channel position, so they must not interleave with each other. Single page reads
+        // and writes are positional, and don't care.
+        synchronized ( vectorLock )
+        {
+            FileChannel channel = this.channel;
+            channel.position( fileOffset );
+            do
+            {
+                read = channel.read( buffers );
+            }
+            // A short read means that we reached the end of the file. Continuing from an unaligned offset would fail.
+            while ( read > 0 && (readTotal += read) < toRead && readTotal % blockSize == 0 );
+        }
+        return readTotal;
+    }
+
+    private long swapOutVectored( long[] bufferAddresses, int arrayOffset, int length, long fileOffset ) throws IOException
+    {
+        ByteBuffer[] buffers = proxies( bufferAddresses, arrayOffset, length );
+        long toWrite = ((long) filePageSize) * length;
+        long writtenTotal = 0;
+        synchronized ( vectorLock )
+        {
+            FileChannel channel = this.channel;
+            channel.position( fileOffset );
+            do
+            {
+                writtenTotal += channel.write( buffers );
+            }
+            while ( writtenTotal < toWrite );
+        }
+        return writtenTotal;
+    }
+
+    private ByteBuffer[] proxies( long[] bufferAddresses, int arrayOffset, int length ) throws IOException
+    {
+        ByteBuffer[] buffers = new ByteBuffer[length];
+        try
+        {
+            for ( int i = 0; i < length; i++ )
+            {
+                buffers[i] = UnsafeUtil.newDirectByteBuffer( bufferAddresses[arrayOffset + i], filePageSize );
+            }
+        }
+        catch ( Exception e )
+        {
+            throw new IOException( e );
+        }
+        return buffers;
+    }
+
+    private long retryIfInterrupted( IOOperation operation, int attemptsLeft ) throws IOException
+    {
+        try
+        {
+            return operation.perform();
+        }
+        catch ( ClosedChannelException e )
+        {
+            tryReopen( e );
+
+            if ( attemptsLeft < 1 )
+            {
+                throw new IOException( "IO failed due to interruption", e );
+            }
+
+            boolean interrupted = Thread.interrupted();
+            long result = retryIfInterrupted( operation, attemptsLeft - 1 );
+            if ( interrupted )
+            {
+                Thread.currentThread().interrupt();
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Reopens the direct channel if it has been closed by an interrupt, but not if this swapper has been closed.
+     */
+    private synchronized void tryReopen( ClosedChannelException closedException ) throws ClosedChannelException
+    {
+        if ( channel.isOpen() )
+        {
+            return;
+        }
+        if ( closed )
+        {
+            throw closedException;
+        }
+        try
+        {
+            channel = openDirectChannel();
+        }
+        catch ( IOException e )
+        {
+            closedException.addSuppressed( e );
+            throw closedException;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        closed = true;
+        try
+        {
+            channel.close();
+        }
+        finally
+        {
+            super.close();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "DirectIOPageSwapper{" +
+                "filePageSize=" + filePageSize +
+                ", file=" + file +
+                '}';
+    }
+
+    @FunctionalInterface
+    private interface IOOperation
+    {
+        long perform() throws IOException;
+    }
+}
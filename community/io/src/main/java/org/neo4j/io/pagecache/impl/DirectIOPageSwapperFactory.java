@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+
+import org.neo4j.graphdb.config.Configuration;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+/**
+ * A factory for {@link DirectIOPageSwapper} instances, which do their IO with direct IO, so the file pages are not
+ * cached by the operating system as well as by the page cache.
+ * <p>
+ * Direct IO is only used where it can work. This factory creates plain {@link SingleFilePageSwapper} instances instead,
+ * if the JVM does not support direct IO, if the file is not on the real file system, if the file page size is not a
+ * multiple of the block size of the file system, or if the file system refuses to open the file for direct IO.
+ * <p>
+ * Note that this restriction excludes the node, relationship and property stores of the standard record format, whose
+ * file page sizes are 8190, 8160 and 8159 bytes, since they hold a whole number of records per page. Their pages are
+ * not padded up to the block size, because that would change the store format, so these stores keep using buffered IO.
+ * Direct IO applies to the stores with 8 KiB pages, such as the native indexes, the dynamic stores and the token stores.
+ *
+ * @see org.neo4j.io.pagecache.impl.DirectIOPageSwapper
+ */
+public class DirectIOPageSwapperFactory extends SingleFilePageSwapperFactory
+{
+    private static final OpenOption DIRECT = getDirectOpenOption();
+    private static final MethodHandle blockSizeGetter = getBlockSizeGetter();
+
+    private FileSystemAbstraction fs;
+
+    @SuppressWarnings( "unchecked" )
+    private static OpenOption getDirectOpenOption()
+    {
+        try
+        {
+            // Only available on Java 10 and newer.
+            Class<? extends Enum> extendedOpenOption = (Class<? extends Enum>) Class.forName( "com.sun.nio.file.ExtendedOpenOption" );
+            return (OpenOption) Enum.valueOf( extendedOpenOption, "DIRECT" );
+        }
+        catch ( Exception | LinkageError e )
+        {
+            return null;
+        }
+    }
+
+    private static MethodHandle getBlockSizeGetter()
+    {
+        try
+        {
+            // Only available on Java 10 and newer.
+            return MethodHandles.publicLookup().findVirtual( FileStore.class, "getBlockSize", MethodType.methodType( long.class ) );
+        }
+        catch ( Exception e )
+        {
+            return null;
+        }
+    }
+
+    /**
+     * @return {@code true} if the JVM supports opening files for direct IO.
+     */
+    public static boolean isDirectIOSupported()
+    {
+        return DIRECT != null && blockSizeGetter != null;
+    }
+
+    @Override
+    public void open( FileSystemAbstraction fs, Configuration config )
+    {
+        super.open( fs, config );
+        this.fs = fs;
+    }
+
+    @Override
+    protected PageSwapper createSwapper( File file, int filePageSize, PageEvictionCallback onEviction,
+            boolean noChannelStriping ) throws IOException
+    {
+        if ( isDirectIOSupported() && fs instanceof DefaultFileSystemAbstraction )
+        {
+            long blockSize = blockSize( file );
+            if ( blockSize > 0 && blockSize <= getRequiredBufferAlignment() && filePageSize % blockSize == 0 )
+            {
+                try
+                {
+                    return new DirectIOPageSwapper( file, fs, filePageSize, onEviction, noChannelStriping, blockSize, DIRECT );
+                }
+                catch ( IOException | UnsupportedOperationException e )
+                {
+                    // The file system does not support direct IO. Fall back to buffered IO.
+                }
+            }
+        }
+        return super.createSwapper( file, filePageSize, onEviction, noChannelStriping );
+    }
+
+    private static long blockSize( File file )
+    {
+        try
+        {
+            return (long) blockSizeGetter.invokeExact( Files.getFileStore( file.toPath() ) );
+        }
+        catch ( Throwable e )
+        {
+            return -1;
+        }
+    }
+
+    @Override
+    public String implementationName()
+    {
+        return "direct";
+    }
+
+    /**
+     * Direct IO requires the buffers to be aligned to the block size of the file system. We use the memory page size,
+     * which is at least as large as the block size on the file systems we care about.
+     */
+    @Override
+    public long getRequiredBufferAlignment()
+    {
+        return isDirectIOSupported() ? UnsafeUtil.pageSize() : 1;
+    }
+}
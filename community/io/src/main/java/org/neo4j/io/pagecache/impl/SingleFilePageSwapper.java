@@ -107,7 +107,7 @@ public class SingleFilePageSwapper implements PageSwapper
         }
     }
 
-    private static ByteBuffer proxy( long buffer, int bufferLength ) throws IOException
+    static ByteBuffer proxy( long buffer, int bufferLength ) throws IOException
     {
         ByteBuffer buf = proxyCache.get();
         if ( buf != null )
@@ -185,7 +185,7 @@ public class SingleFilePageSwapper implements PageSwapper
                 && StoreFileChannelUnwrapper.unwrap( channels[0] ).getClass() == sun.nio.ch.FileChannelImpl.class;
     }
 
-    private void increaseFileSizeTo( long newFileSize )
+    void increaseFileSizeTo( long newFileSize )
     {
         long currentFileSize;
         do
@@ -196,7 +196,7 @@ public class SingleFilePageSwapper implements PageSwapper
                 this, fileSizeOffset, currentFileSize, newFileSize ) );
     }
 
-    private long getCurrentFileSize()
+    long getCurrentFileSize()
     {
         return UnsafeUtil.getLongVolatile( this, fileSizeOffset );
     }
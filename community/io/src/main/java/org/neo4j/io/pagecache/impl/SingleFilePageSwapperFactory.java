@@ -63,6 +63,15 @@ public class SingleFilePageSwapperFactory implements PageSwapperFactory
                 throw new NoSuchFileException( file.getPath(), null, "Cannot map non-existing file" );
             }
         }
+        return createSwapper( file, filePageSize, onEviction, noChannelStriping );
+    }
+
+    /**
+     * Create the swapper for a file that is known to exist.
+     */
+    protected PageSwapper createSwapper( File file, int filePageSize, PageEvictionCallback onEviction,
+            boolean noChannelStriping ) throws IOException
+    {
         return new SingleFilePageSwapper( file, fs, filePageSize, onEviction, noChannelStriping );
     }
 
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A simplified CLOCK-Pro policy, after "CLOCK-Pro: An Effective Improvement of the CLOCK Replacement" by Jiang, Chen
+ * and Zhang.
+ * <p>
+ * Resident pages are either hot or cold. Faulted pages start out cold, and only cold pages are evicted by the clock.
+ * A cold page that is accessed again before the clock hand comes around is promoted to hot, as long as the number of
+ * hot pages is below the hot target. A hot page that has not been accessed for a full turn of the clock is demoted to
+ * cold, if there are more hot pages than the hot target. The usage counters in the {@link PageList} serve as the
+ * reference bits.
+ * <p>
+ * Evicted cold pages are remembered in a lossy history of non-resident pages for a while, which is their test period.
+ * If a page is faulted in again while it is still remembered, then its reuse distance is short enough for it to start
+ * out hot, and the cold target is grown since more cold pages would have kept it resident. If a remembered page is
+ * forgotten without being faulted in again, then the cold target is shrunk. The hot target is whatever remains of the
+ * page cache after the cold target.
+ *
+ * @see PageReplacementPolicies#CLOCK_PRO
+ */
+final class ClockProPolicy implements PageReplacementPolicy
+{
+    private static final int COLD = 0;
+    private static final int HOT = 1;
+    private static final int SWAPPER_ID_BITS = 21;
+    private static final long EMPTY = 0;
+
+    private final PageList pages;
+    private final int pageCount;
+    private final AtomicIntegerArray temperatures;
+    private final AtomicInteger hotPages;
+    private final AtomicInteger coldTarget;
+    private final int minColdTarget;
+    private final int maxColdTarget;
+    private final AtomicLongArray nonResidentPages;
+    private final int nonResidentMask;
+
+    ClockProPolicy( PageList pages )
+    {
+        this.pages = pages;
+        this.pageCount = pages.getPageCount();
+        this.temperatures = new AtomicIntegerArray( pageCount );
+        this.hotPages = new AtomicInteger();
+        this.minColdTarget = Math.max( 1, pageCount / 100 );
+        this.maxColdTarget = Math.max( minColdTarget, pageCount - minColdTarget );
+        this.coldTarget = new AtomicInteger( Math.max( minColdTarget, Math.min( maxColdTarget, pageCount / 2 ) ) );
+        // The history of non-resident pages is about as large as the number of resident pages, like in the paper.
+        int historySize = Integer.highestOneBit( Math.max( pageCount - 1, 1 ) ) << 1;
+        this.nonResidentPages = new AtomicLongArray( historySize );
+        this.nonResidentMask = historySize - 1;
+    }
+
+    @Override
+    public void pageAccessed( long pageRef )
+    {
+        pages.incrementUsage( pageRef );
+    }
+
+    @Override
+    public void pageFaulted( long pageRef, int swapperId, long filePageId )
+    {
+        if ( forgetNonResidentPage( swapperId, filePageId ) )
+        {
+            // The page was faulted in again during its test period, so we would have liked to keep it.
+            adjustColdTarget( 1 );
+            tryMakeHot( pages.toId( pageRef ) );
+        }
+    }
+
+    @Override
+    public void pageEvicted( long pageRef, int swapperId, long filePageId )
+    {
+        int pageId = pages.toId( pageRef );
+        if ( temperatures.get( pageId ) == HOT )
+        {
+            // Hot pages are normally only evicted when their files are unmapped. They get no test period.
+            if ( temperatures.compareAndSet( pageId, HOT, COLD ) )
+            {
+                hotPages.decrementAndGet();
+            }
+        }
+        else if ( swapperId != 0 )
+        {
+            rememberNonResidentPage( swapperId, filePageId );
+        }
+    }
+
+    @Override
+    public boolean shouldEvict( long pageRef )
+    {
+        // The decrement returns false if the page has been accessed since the clock hand last passed it.
+        boolean referenced = !pages.decrementUsage( pageRef );
+        int pageId = pages.toId( pageRef );
+        if ( temperatures.get( pageId ) == HOT )
+        {
+            if ( !referenced && hotPages.get() > hotTarget() && temperatures.compareAndSet( pageId, HOT, COLD ) )
+            {
+                hotPages.decrementAndGet();
+            }
+            return false;
+        }
+        if ( referenced )
+        {
+            tryMakeHot( pageId );
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of pages that are currently hot. Only for testing.
+     */
+    int hotPages()
+    {
+        return hotPages.get();
+    }
+
+    private int hotTarget()
+    {
+        return pageCount - coldTarget.get();
+    }
+
+    private void tryMakeHot( int pageId )
+    {
+        if ( hotPages.get() < hotTarget() && temperatures.compareAndSet( pageId, COLD, HOT ) )
+        {
+            hotPages.incrementAndGet();
+        }
+    }
+
+    private void adjustColdTarget( int delta )
+    {
+        int current;
+        int update;
+        do
+        {
+            current = coldTarget.get();
+            update = Math.max( minColdTarget, Math.min( maxColdTarget, current + delta ) );
+            if ( update == current )
+            {
+                return;
+            }
+        }
+        while ( !coldTarget.compareAndSet( current, update ) );
+    }
+
+    private void rememberNonResidentPage( int swapperId, long filePageId )
+    {
+        long key = nonResidentKey( swapperId, filePageId );
+        long previous = nonResidentPages.getAndSet( nonResidentSlot( key ), key );
+        if ( previous != EMPTY && previous != key )
+        {
+            // We pushed out another page before it was faulted in again, so its test period ended without a reuse.
+            adjustColdTarget( -1 );
+        }
+    }
+
+    private boolean forgetNonResidentPage( int swapperId, long filePageId )
+    {
+        long key = nonResidentKey( swapperId, filePageId );
+        return nonResidentPages.compareAndSet( nonResidentSlot( key ), key, EMPTY );
+    }
+
+    private static long nonResidentKey( int swapperId, long filePageId )
+    {
+        // Swapper ids are never zero for bound pages, so the key is never EMPTY.
+        return (filePageId << SWAPPER_ID_BITS) | swapperId;
+    }
+
+    private int nonResidentSlot( long key )
+    {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int) ((key ^ (key >>> 32)) & nonResidentMask);
+    }
+}
@@ -30,10 +30,13 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
 
 import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.pagecache.IOLimiter;
@@ -41,6 +44,7 @@ import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCacheOpenOptions;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.tracing.EvictionEventOpportunity;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.FlushEventOpportunity;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
@@ -127,6 +131,22 @@ public class MuninnPageCache implements PageCache
     private static final int cooperativeEvictionLiveLockThreshold = getInteger(
             MuninnPageCache.class, "cooperativeEvictionLiveLockThreshold", 100 );
 
+    // The maximum number of pages that a cursor opened with PF_READ_AHEAD will ask to have faulted in ahead of itself.
+    // This will be truncated, such that all concurrent read-aheads together can only hold a small fraction of the pages
+    // in the cache.
+    private static final int readAheadWindow = getInteger(
+            MuninnPageCache.class, "readAheadWindow", 32 );
+
+    // The maximum number of read-aheads that can be in flight at the same time. Read-ahead requests that come in while
+    // this many read-aheads are already running, are dropped.
+    private static final int readAheadMaxConcurrency = getInteger(
+            MuninnPageCache.class, "readAheadMaxConcurrency", 8 );
+
+    // The maximum number of pages, faulted in by cursors opened with PF_TRANSIENT, that we remember as preferred
+    // eviction candidates. This will be truncated to be no more than the number of pages in the cache.
+    private static final int transientPageQueueCapacity = getInteger(
+            MuninnPageCache.class, "transientPageQueueCapacity", 4096 );
+
     // This is a pre-allocated constant, so we can throw it without allocating any objects:
     @SuppressWarnings( "ThrowableInstanceNeverThrown" )
     private static final IOException oomException = new IOException(
@@ -158,7 +178,11 @@ public class MuninnPageCache implements PageCache
     private final PageSwapperFactory swapperFactory;
     private final int cachePageSize;
     private final int keepFree;
+    private final int maxReadAheadPages;
+    private final AtomicInteger readAheadsInFlight;
+    private final TransientPageQueue transientPages;
     private final PageCacheTracer pageCacheTracer;
+    private final LongSupplier hugePageMemorySource;
     private final PageCursorTracerSupplier pageCursorTracerSupplier;
     private final VersionContextSupplier versionContextSupplier;
     final PageList pages;
@@ -199,6 +223,13 @@ public class MuninnPageCache implements PageCache
     // 'true' (the default) if we should print any exceptions we get when unmapping a file.
     private boolean printExceptionsOnClose;
 
+    // One bit per page, set when writeBackOldPages has seen the page dirty without writing it. A page is written back
+    // the second time it is seen dirty, which means it has been dirty for at least one write back period. The bit is
+    // cleared whenever the page is flushed or evicted, so a page that is dirtied again starts a new period.
+    // Lazily allocated while holding the monitor lock on writeBackLock, which also serialises the sweeps.
+    private final Object writeBackLock = new Object();
+    private volatile AtomicLongArray writeBackMarks;
+
     /**
      * Compute the amount of memory needed for a page cache with the given number of 8 KiB pages.
      * @param pageCount The number of pages
@@ -255,7 +286,32 @@ public class MuninnPageCache implements PageCache
             VersionContextSupplier versionContextSupplier,
             JobScheduler jobScheduler )
     {
-        this( swapperFactory, memoryAllocator, PAGE_SIZE, pageCacheTracer, pageCursorTracerSupplier, versionContextSupplier, jobScheduler );
+        this( swapperFactory, memoryAllocator, PageReplacementPolicies.CLOCK, pageCacheTracer, pageCursorTracerSupplier,
+                versionContextSupplier, jobScheduler );
+    }
+
+    /**
+     * Create page cache.
+     * @param swapperFactory page cache swapper factory
+     * @param memoryAllocator the source of native memory the page cache should use
+     * @param replacementPolicy the policy that decides which pages to evict
+     * @param pageCacheTracer global page cache tracer
+     * @param pageCursorTracerSupplier supplier of thread local (transaction local) page cursor tracer that will provide
+     * thread local page cache statistics
+     * @param versionContextSupplier supplier of thread local (transaction local) version context that will provide
+     *        access to thread local version context
+     */
+    public MuninnPageCache(
+            PageSwapperFactory swapperFactory,
+            MemoryAllocator memoryAllocator,
+            PageReplacementPolicies replacementPolicy,
+            PageCacheTracer pageCacheTracer,
+            PageCursorTracerSupplier pageCursorTracerSupplier,
+            VersionContextSupplier versionContextSupplier,
+            JobScheduler jobScheduler )
+    {
+        this( swapperFactory, memoryAllocator, PAGE_SIZE, replacementPolicy, pageCacheTracer, pageCursorTracerSupplier,
+                versionContextSupplier, jobScheduler );
     }
 
     /**
@@ -272,26 +328,50 @@ public class MuninnPageCache implements PageCache
             PageCursorTracerSupplier pageCursorTracerSupplier,
             VersionContextSupplier versionContextSupplier,
             JobScheduler jobScheduler )
+    {
+        this( swapperFactory, memoryAllocator, cachePageSize, PageReplacementPolicies.CLOCK, pageCacheTracer,
+                pageCursorTracerSupplier, versionContextSupplier, jobScheduler );
+    }
+
+    /**
+     * Constructor variant that allows setting a non-standard cache page size.
+     * Outside of testing, this is only used for the page size classes of a {@link SizeClassPageCache}.
+     */
+    public MuninnPageCache(
+            PageSwapperFactory swapperFactory,
+            MemoryAllocator memoryAllocator,
+            int cachePageSize,
+            PageReplacementPolicies replacementPolicy,
+            PageCacheTracer pageCacheTracer,
+            PageCursorTracerSupplier pageCursorTracerSupplier,
+            VersionContextSupplier versionContextSupplier,
+            JobScheduler jobScheduler )
     {
         verifyHacks();
         verifyCachePageSizeIsPowerOfTwo( cachePageSize );
-        int maxPages = calculatePageCount( memoryAllocator, cachePageSize );
+        long alignment = swapperFactory.getRequiredBufferAlignment();
+        int maxPages = calculatePageCount( memoryAllocator, cachePageSize, alignment );
 
-        // Expose the total number of pages
+        // Expose the total number of pages. A SizeClassPageCache replaces this with the total over all its size classes.
         pageCacheTracer.maxPages( maxPages );
+        this.hugePageMemorySource = memoryAllocator::hugePageMemory;
+        pageCacheTracer.addHugePageMemorySource( hugePageMemorySource );
         MemoryAllocationTracker memoryTracker = GlobalMemoryTracker.INSTANCE;
 
         this.pageCacheId = pageCacheIdCounter.incrementAndGet();
         this.swapperFactory = swapperFactory;
         this.cachePageSize = cachePageSize;
         this.keepFree = Math.min( pagesToKeepFree, maxPages / 2 );
+        this.maxReadAheadPages = Math.min( readAheadWindow, maxPages / (8 * Math.max( readAheadMaxConcurrency, 1 )) );
+        this.readAheadsInFlight = new AtomicInteger();
+        this.transientPages = new TransientPageQueue( Math.min( transientPageQueueCapacity, maxPages ) );
         this.pageCacheTracer = pageCacheTracer;
         this.pageCursorTracerSupplier = pageCursorTracerSupplier;
         this.versionContextSupplier = versionContextSupplier;
         this.printExceptionsOnClose = true;
-        long alignment = swapperFactory.getRequiredBufferAlignment();
         this.victimPage = VictimPageReference.getVictimPage( cachePageSize, memoryTracker );
-        this.pages = new PageList( maxPages, cachePageSize, memoryAllocator, new SwapperSet(), victimPage, alignment );
+        this.pages = new PageList(
+                maxPages, cachePageSize, memoryAllocator, new SwapperSet(), victimPage, alignment, replacementPolicy );
         this.scheduler = jobScheduler;
 
         setFreelistHead( new AtomicInteger() );
@@ -313,9 +393,16 @@ public class MuninnPageCache implements PageCache
         }
     }
 
-    private static int calculatePageCount( MemoryAllocator memoryAllocator, int cachePageSize )
+    private static int calculatePageCount( MemoryAllocator memoryAllocator, int cachePageSize, long alignment )
     {
         long memoryPerPage = cachePageSize + PageList.META_DATA_BYTES_PER_PAGE;
+        if ( alignment > 1 )
+        {
+            // The allocator may have to skip up to alignment - 1 bytes to align a page buffer. When the page size is a
+            // multiple of the alignment, this only happens at the start of every chunk of memory that the allocator
+            // grabs, so setting a little memory aside per page covers it. Otherwise, it can happen for every page.
+            memoryPerPage += cachePageSize % alignment == 0 ? Math.max( 1, alignment / 16 ) : alignment - 1;
+        }
         long maxPages = memoryAllocator.availableMemory() / memoryPerPage;
         int minimumPageCount = 2;
         if ( maxPages < minimumPageCount )
@@ -535,6 +622,7 @@ public class MuninnPageCache implements PageCache
                         prev.next = current.next;
                     }
                     pageCacheTracer.unmappedFile( current.file );
+                    file.awaitReadAheads();
                     flushAndCloseWithoutFail( file );
                     break;
                 }
@@ -609,6 +697,78 @@ public class MuninnPageCache implements PageCache
         clearEvictorException();
     }
 
+    @Override
+    public void writeBackOldPages( IOLimiter limiter ) throws IOException
+    {
+        if ( limiter == null )
+        {
+            throw new IllegalArgumentException( "IOLimiter cannot be null" );
+        }
+        assertNotClosed();
+        List<PagedFile> files = listExistingMappings();
+
+        synchronized ( writeBackLock )
+        {
+            AtomicLongArray marks = writeBackMarks;
+            if ( marks == null )
+            {
+                marks = new AtomicLongArray( (pages.getPageCount() >>> 6) + 1 );
+                writeBackMarks = marks;
+            }
+            AtomicLongArray sweepMarks = marks;
+            try ( MajorFlushEvent ignored = pageCacheTracer.beginCacheFlush() )
+            {
+                for ( PagedFile file : files )
+                {
+                    MuninnPagedFile muninnPagedFile = (MuninnPagedFile) file;
+                    try ( MajorFlushEvent fileFlush = pageCacheTracer.beginFileFlush( muninnPagedFile.swapper ) )
+                    {
+                        muninnPagedFile.writeBackInternal( fileFlush.flushEventOpportunity(), limiter,
+                                pageRef -> testAndSetWriteBackMark( sweepMarks, muninnPagedFile.toId( pageRef ) ) );
+                    }
+                    catch ( ClosedChannelException e )
+                    {
+                        if ( muninnPagedFile.getRefCount() > 0 )
+                        {
+                            throw e;
+                        }
+                        // Otherwise: The file was unmapped, and thereby flushed, while we were writing it back.
+                    }
+                }
+            }
+        }
+        clearEvictorException();
+    }
+
+    /**
+     * Called by writeBackOldPages with the page flush locked and known to be dirty.
+     * @return {@code true} if the page was already marked, in which case it should be written. The mark is then
+     * cleared by the flush. Otherwise the page is marked and {@code false} is returned.
+     */
+    private static boolean testAndSetWriteBackMark( AtomicLongArray marks, int pageId )
+    {
+        int index = pageId >>> 6;
+        long bit = 1L << (pageId & 63);
+        return (marks.getAndAccumulate( index, bit, ( mark, b ) -> mark | b ) & bit) != 0;
+    }
+
+    /**
+     * Forget that writeBackOldPages has seen the given page dirty. Called when the page has been flushed or evicted.
+     */
+    void clearWriteBackMark( int pageId )
+    {
+        AtomicLongArray marks = writeBackMarks;
+        if ( marks != null )
+        {
+            int index = pageId >>> 6;
+            long bit = 1L << (pageId & 63);
+            if ( (marks.get( index ) & bit) != 0 )
+            {
+                marks.accumulateAndGet( index, ~bit, ( mark, mask ) -> mark & mask );
+            }
+        }
+    }
+
     private void flushAllPages( List<PagedFile> files, IOLimiter limiter ) throws IOException
     {
         for ( PagedFile file : files )
@@ -704,6 +864,7 @@ public class MuninnPageCache implements PageCache
         }
 
         closed = true;
+        pageCacheTracer.removeHugePageMemorySource( hugePageMemorySource );
 
         interrupt( evictionThread );
         evictionThread = null;
@@ -757,6 +918,11 @@ public class MuninnPageCache implements PageCache
         return pages.getPageCount();
     }
 
+    PageCacheTracer pageCacheTracer()
+    {
+        return pageCacheTracer;
+    }
+
     @Override
     public void reportEvents()
     {
@@ -768,6 +934,98 @@ public class MuninnPageCache implements PageCache
         return pageCacheId;
     }
 
+    /**
+     * @return the maximum number of pages that a single read-ahead may fault in, or zero if read-ahead is disabled,
+     * which is the case if the cache is too small to spare any pages for it.
+     */
+    int maxReadAheadPages()
+    {
+        return maxReadAheadPages;
+    }
+
+    /**
+     * Schedule an asynchronous read-ahead of the given range of pages in the given file. The request is dropped if
+     * the page cache is closed, or if too many read-aheads are already in flight. If {@code transientPages} is
+     * {@code true}, then the pages that are read ahead will be among the first to be evicted. The file stays pinned
+     * until the read-ahead has finished, so the last unmapping of the file waits for it.
+     *
+     * @return {@code true} if the read-ahead was scheduled, otherwise {@code false}.
+     */
+    boolean scheduleReadAhead( MuninnPagedFile pagedFile, long startFilePageId, int pageCount, boolean transientPages )
+    {
+        if ( closed || pageCount <= 0 )
+        {
+            return false;
+        }
+        int inFlight;
+        do
+        {
+            inFlight = readAheadsInFlight.get();
+            if ( inFlight >= readAheadMaxConcurrency )
+            {
+                return false;
+            }
+        }
+        while ( !readAheadsInFlight.compareAndSet( inFlight, inFlight + 1 ) );
+        if ( !pagedFile.pinForReadAhead() )
+        {
+            readAheadsInFlight.decrementAndGet();
+            return false;
+        }
+
+        try
+        {
+            scheduler.schedule( Group.PAGE_CACHE, () ->
+            {
+                try
+                {
+                    pagedFile.readAhead( startFilePageId, pageCount, transientPages );
+                }
+                finally
+                {
+                    pagedFile.unpinForReadAhead();
+                    readAheadsInFlight.decrementAndGet();
+                }
+            } );
+            return true;
+        }
+        catch ( RejectedExecutionException e )
+        {
+            pagedFile.unpinForReadAhead();
+            readAheadsInFlight.decrementAndGet();
+            return false;
+        }
+    }
+
+    /**
+     * Remember the given page as having been faulted in by a transient cursor, which makes it one of the first pages
+     * to be considered for eviction.
+     */
+    void addTransientPage( long pageRef )
+    {
+        transientPages.offer( pages.toId( pageRef ) );
+    }
+
+    /**
+     * Try to evict one of the pages that were faulted in by transient cursors. Pages that have since been accessed by
+     * non-transient cursors, or that are currently locked, are skipped and left for the clock sweep to deal with.
+     *
+     * @return the page reference of the evicted and still exclusively locked page, or zero if no page was evicted.
+     */
+    private long tryEvictTransientPage( EvictionEventOpportunity evictionOpportunity ) throws IOException
+    {
+        int pageId;
+        while ( (pageId = transientPages.poll()) != -1 )
+        {
+            long pageRef = pages.deref( pageId );
+            if ( pages.isLoaded( pageRef ) && !pages.isInUse( pageRef ) && pages.tryEvict( pageRef, evictionOpportunity ) )
+            {
+                return pageRef;
+            }
+        }
+        return 0;
+    }
+
     long grabFreeAndExclusivelyLockedPage( PageFaultEvent faultEvent ) throws IOException
     {
         // Review the comment on the freelist field before making changes to
@@ -836,6 +1094,12 @@ public class MuninnPageCache implements PageCache
 
     private long cooperativelyEvict( PageFaultEvent faultEvent ) throws IOException
     {
+        long transientPageRef = tryEvictTransientPage( faultEvent );
+        if ( transientPageRef != 0 )
+        {
+            return transientPageRef;
+        }
+
         int iterations = 0;
         int pageCount = pages.getPageCount();
         int clockArm = ThreadLocalRandom.current().nextInt( pageCount );
@@ -860,7 +1124,7 @@ public class MuninnPageCache implements PageCache
             }
 
             pageRef = pages.deref( clockArm );
-            if ( pages.isLoaded( pageRef ) && pages.decrementUsage( pageRef ) )
+            if ( pages.isLoaded( pageRef ) && pages.shouldEvict( pageRef ) )
             {
                 evicted = pages.tryEvict( pageRef, faultEvent );
             }
@@ -995,6 +1259,7 @@ public class MuninnPageCache implements PageCache
 
     int evictPages( int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent )
     {
+        pageCountToEvict -= evictTransientPages( pageCountToEvict, evictionRunEvent );
         while ( pageCountToEvict > 0 && !closed )
         {
             if ( clockArm == pages.getPageCount() )
@@ -1009,7 +1274,7 @@ public class MuninnPageCache implements PageCache
             }
 
             long pageRef = pages.deref( clockArm );
-            if ( pages.isLoaded( pageRef ) && pages.decrementUsage( pageRef ) )
+            if ( pages.isLoaded( pageRef ) && pages.shouldEvict( pageRef ) )
             {
                 try
                 {
@@ -1041,6 +1306,42 @@ public class MuninnPageCache implements PageCache
         return clockArm;
     }
 
+    private int evictTransientPages( int pageCountToEvict, EvictionRunEvent evictionRunEvent )
+    {
+        int evicted = 0;
+        while ( evicted < pageCountToEvict && !closed )
+        {
+            try
+            {
+                long pageRef = tryEvictTransientPage( evictionRunEvent );
+                if ( pageRef == 0 )
+                {
+                    break;
+                }
+                evicted++;
+                clearEvictorException();
+                addFreePageToFreelist( pageRef );
+            }
+            catch ( IOException e )
+            {
+                evictorException = e;
+                break;
+            }
+            catch ( OutOfMemoryError oom )
+            {
+                evictorException = oomException;
+                break;
+            }
+            catch ( Throwable th )
+            {
+                evictorException = new IOException(
+                        "Eviction thread encountered a problem", th );
+                break;
+            }
+        }
+        return evicted;
+    }
+
     void addFreePageToFreelist( long pageRef )
     {
         Object current;
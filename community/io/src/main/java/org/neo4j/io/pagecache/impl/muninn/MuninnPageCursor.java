@@ -38,7 +38,9 @@ import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
 import static org.neo4j.io.pagecache.PagedFile.PF_EAGER_FLUSH;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.io.pagecache.impl.muninn.MuninnPagedFile.UNMAPPED_TTE;
 import static org.neo4j.util.FeatureToggles.flag;
 
@@ -67,6 +69,16 @@ abstract class MuninnPageCursor extends PageCursor
     protected boolean eagerFlush;
     protected boolean noFault;
     protected boolean noGrow;
+    protected boolean transientPages;
+    // The read-ahead window size in pages, or zero if this cursor is not doing read-ahead.
+    private int readAheadWindow;
+    private long lastPinnedPageId;
+    // The range of file pages, from start inclusive to end exclusive, that we have most recently asked to have read
+    // ahead. Pins within this range count as either read-ahead hits or misses.
+    private long readAheadStart;
+    private long readAheadEnd;
+    private long readAheadHits;
+    private long readAheadMisses;
     protected long currentPageId;
     protected long nextPageId;
     protected MuninnPageCursor linkedCursor;
@@ -102,6 +114,11 @@ abstract class MuninnPageCursor extends PageCursor
         this.eagerFlush = isFlagRaised( pf_flags, PF_EAGER_FLUSH );
         this.noFault = isFlagRaised( pf_flags, PF_NO_FAULT );
         this.noGrow = noFault | isFlagRaised( pf_flags, PagedFile.PF_NO_GROW );
+        this.transientPages = isFlagRaised( pf_flags, PF_TRANSIENT );
+        this.readAheadWindow = isFlagRaised( pf_flags, PF_READ_AHEAD ) && !noFault ? pagedFile.pageCache.maxReadAheadPages() : 0;
+        this.lastPinnedPageId = UNBOUND_PAGE_ID;
+        this.readAheadStart = 0;
+        this.readAheadEnd = 0;
     }
 
     private boolean isFlagRaised( int flagSet, int flag )
@@ -180,6 +197,7 @@ abstract class MuninnPageCursor extends PageCursor
         while ( cursor != null && cursor.pagedFile != null )
         {
             cursor.unpinCurrentPage();
+            cursor.reportReadAheadStatistics();
             // We null out the pagedFile field to allow it and its (potentially big) translation table to be garbage
             // collected when the file is unmapped, since the cursors can stick around in thread local caches, etc.
             cursor.pagedFile = null;
@@ -264,6 +282,10 @@ abstract class MuninnPageCursor extends PageCursor
      */
     protected void pin( long filePageId, boolean writeLock ) throws IOException
     {
+        if ( readAheadWindow > 0 )
+        {
+            readAheadIfSequential( filePageId );
+        }
         pinEvent = tracer.beginPin( writeLock, filePageId, swapper );
         int chunkId = MuninnPagedFile.computeChunkId( filePageId );
         // The chunkOffset is the addressing offset into the chunk array object for the relevant array slot. Using
@@ -297,6 +319,10 @@ abstract class MuninnPageCursor extends PageCursor
                 {
                     pinCursorToPage( pageRef, filePageId, swapper );
                     pinEvent.hit();
+                    if ( readAheadWindow > 0 )
+                    {
+                        countReadAhead( filePageId, true );
+                    }
                     return;
                 }
                 if ( locked )
@@ -314,6 +340,69 @@ abstract class MuninnPageCursor extends PageCursor
         }
     }
 
+    /**
+     * Detect sequential access, and ask for the following pages to be read ahead, when we are pinning pages in order
+     * and are getting close to the end of what we have already asked to have read ahead.
+     */
+    private void readAheadIfSequential( long filePageId ) throws FileIsNotMappedException
+    {
+        long previousPageId = lastPinnedPageId;
+        lastPinnedPageId = filePageId;
+        if ( filePageId == previousPageId )
+        {
+            // We are just re-pinning the same page, e.g. in a shouldRetry loop.
+            return;
+        }
+        if ( filePageId != previousPageId + 1 || previousPageId == UNBOUND_PAGE_ID )
+        {
+            // Random access. Forget about our previous read-ahead window.
+            readAheadStart = 0;
+            readAheadEnd = 0;
+            return;
+        }
+        int window = readAheadWindow;
+        if ( filePageId + (window >> 1) < readAheadEnd )
+        {
+            // We already have plenty of pages coming up ahead of us.
+            return;
+        }
+        long start = Math.max( filePageId + 1, readAheadEnd );
+        long end = Math.min( filePageId + 1 + window, pagedFile.getLastPageId() + 1 );
+        if ( start < end && pagedFile.requestReadAhead( start, (int) (end - start), transientPages ) )
+        {
+            if ( start != readAheadEnd )
+            {
+                readAheadStart = start;
+            }
+            readAheadEnd = end;
+        }
+    }
+
+    private void countReadAhead( long filePageId, boolean hit )
+    {
+        if ( filePageId >= readAheadStart && filePageId < readAheadEnd )
+        {
+            if ( hit )
+            {
+                readAheadHits++;
+            }
+            else
+            {
+                readAheadMisses++;
+            }
+        }
+    }
+
+    private void reportReadAheadStatistics()
+    {
+        if ( readAheadHits != 0 || readAheadMisses != 0 )
+        {
+            pagedFile.reportReadAheadStatistics( readAheadHits, readAheadMisses );
+            readAheadHits = 0;
+            readAheadMisses = 0;
+        }
+    }
+
     private int[][] expandTranslationTableCapacity( int chunkId )
     {
         return pagedFile.expandCapacity( chunkId );
@@ -340,6 +429,14 @@ abstract class MuninnPageCursor extends PageCursor
                 // Sweet, we didn't race with any other fault on this translation table entry.
                 long pageRef = pageFault( filePageId, swapper, chunkOffset, chunk, latch );
                 pinCursorToPage( pageRef, filePageId, swapper );
+                if ( transientPages )
+                {
+                    pagedFile.pageCache.addTransientPage( pageRef );
+                }
+                if ( readAheadWindow > 0 )
+                {
+                    countReadAhead( filePageId, false );
+                }
                 return true;
             }
             // Oops, looks like we raced with another page fault on this file page.
@@ -24,6 +24,9 @@ import java.io.Flushable;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongPredicate;
 
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCursor;
@@ -78,6 +81,11 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
     // Used to trace the causes of any exceptions from getLastPageId.
     private volatile Exception closeStackTrace;
 
+    // Read-aheads run in the background without a mapping of their own, so they instead pin the file with this count,
+    // which the last unmapping waits to drain before the swapper is closed and the translation table is reset.
+    private final AtomicInteger readAheadPins = new AtomicInteger();
+    private volatile boolean unmapping;
+
     // max modifier transaction id among evicted pages for this file
     private static final long evictedTransactionIdOffset = UnsafeUtil.getFieldOffset( MuninnPagedFile.class, "highestEvictedTransactionId" );
     @SuppressWarnings( "unused" ) // accessed using unsafe
@@ -371,6 +379,32 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
 
     private void doFlushAndForceInternal( FlushEventOpportunity flushes, boolean forClosing, IOLimiter limiter )
             throws IOException
+    {
+        doFlushInternal( flushes, forClosing, limiter, pageRef -> true );
+        swapper.force();
+    }
+
+    /**
+     * Write out the dirty pages of this file that are accepted by the given filter, without forcing the file.
+     *
+     * @param pageFilter decides, given a page reference to a dirty page, if the page should be written.
+     */
+    void writeBackInternal( FlushEventOpportunity flushes, IOLimiter limiter, LongPredicate pageFilter )
+            throws IOException
+    {
+        try
+        {
+            doFlushInternal( flushes, false, limiter, pageFilter );
+        }
+        catch ( ClosedChannelException e )
+        {
+            e.addSuppressed( closeStackTrace );
+            throw e;
+        }
+    }
+
+    private void doFlushInternal( FlushEventOpportunity flushes, boolean forClosing, IOLimiter limiter,
+            LongPredicate pageFilter ) throws IOException
     {
         // TODO it'd be awesome if, on Linux, we'd call sync_file_range(2) instead of fsync
         long[] pages = new long[translationTableChunkSize];
@@ -410,10 +444,12 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
                         {
                             continue;
                         }
-                        if ( isBoundTo( pageRef, swapperId, filePageId ) && isModified( pageRef ) )
+                        if ( isBoundTo( pageRef, swapperId, filePageId ) && isModified( pageRef ) &&
+                                pageFilter.test( pageRef ) )
                         {
                             // The page is still bound to the expected file and file page id after we locked it,
-                            // so we didn't race with eviction and faulting, and the page is dirty.
+                            // so we didn't race with eviction and faulting, and the page is dirty. The filter is
+                            // only consulted here, once per page, since it may have side effects.
                             // So we add it to our IO vector.
                             pages[pagesGrabbed] = pageRef;
                             if ( !forClosing )
@@ -448,8 +484,6 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
                 limiterStamp = limiter.maybeLimitIO( limiterStamp, pagesGrabbed, this );
             }
         }
-
-        swapper.force();
     }
 
     private void vectoredFlush(
@@ -493,6 +527,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
                     if ( successful )
                     {
                         explicitlyMarkPageUnmodifiedUnderExclusiveLock( pageRef );
+                        pageCache.clearWriteBackMark( toId( pageRef ) );
                     }
                     unlockExclusive( pageRef );
                 }
@@ -501,6 +536,10 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
             {
                 for ( int i = 0; i < pagesGrabbed; i++ )
                 {
+                    if ( successful )
+                    {
+                        pageCache.clearWriteBackMark( toId( pages[i] ) );
+                    }
                     unlockFlush( pages[i], flushStamps[i], successful );
                 }
             }
@@ -521,6 +560,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
                 flush.addPagesFlushed( 1 );
                 flush.done();
                 success = true;
+                pageCache.clearWriteBackMark( toId( pageRef ) );
             }
             catch ( IOException e )
             {
@@ -674,6 +714,190 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         return pageCache.grabFreeAndExclusivelyLockedPage( faultEvent );
     }
 
+    /**
+     * Ask the page cache to asynchronously fault in the given range of pages.
+     * @param transientPages {@code true} if the pages are read ahead on behalf of a transient cursor, in which case
+     * they will be among the first to be evicted.
+     * @return {@code true} if the read-ahead was scheduled, {@code false} if the request was dropped.
+     */
+    boolean requestReadAhead( long startFilePageId, int pageCount, boolean transientPages )
+    {
+        return pageCache.scheduleReadAhead( this, startFilePageId, pageCount, transientPages );
+    }
+
+    /**
+     * Pin this file on behalf of a read-ahead, so that it cannot be unmapped until the read-ahead has finished.
+     * @return {@code true} if the file was pinned, or {@code false} if it is already being unmapped.
+     */
+    boolean pinForReadAhead()
+    {
+        readAheadPins.incrementAndGet();
+        if ( unmapping )
+        {
+            unpinForReadAhead();
+            return false;
+        }
+        return true;
+    }
+
+    void unpinForReadAhead()
+    {
+        readAheadPins.decrementAndGet();
+    }
+
+    /**
+     * Stop new read-aheads from pinning this file, and wait for the ones that are in flight to finish. This is called
+     * by the last unmapping, before the file is flushed and the swapper closed.
+     */
+    void awaitReadAheads()
+    {
+        unmapping = true;
+        while ( readAheadPins.get() > 0 )
+        {
+            LockSupport.parkNanos( 10_000 );
+        }
+    }
+
+    /**
+     * Fault in the given range of pages, using vectored reads for runs of consecutive pages that are not already in
+     * memory. Pages that are in memory, or that are currently being faulted in by other threads, are skipped rather
+     * than waited for. This is only ever a best-effort attempt, so any failure just ends the read-ahead; the cursors
+     * will then fault in the remaining pages themselves. The caller must have pinned the file with
+     * {@link #pinForReadAhead()}, and a read-ahead that finds the file being unmapped gives up.
+     * @param startFilePageId the first file page id in the range.
+     * @param pageCount the number of pages in the range.
+     * @param transientPages whether the pages should be added to the transient page queue of the page cache.
+     */
+    void readAhead( long startFilePageId, int pageCount, boolean transientPages )
+    {
+        long[] pageRefs = new long[pageCount];
+        LatchMap.Latch[] latches = new LatchMap.Latch[pageCount];
+        long endFilePageId = startFilePageId + pageCount;
+        long filePageId = startFilePageId;
+        try
+        {
+            while ( filePageId < endFilePageId && !unmapping )
+            {
+                long vectorStartFilePageId = filePageId;
+                int grabbed = 0;
+                try
+                {
+                    while ( filePageId < endFilePageId && tryLatchForReadAhead( filePageId, latches, grabbed ) )
+                    {
+                        // The grabbed page is exclusively locked and unbound, so it is safe from concurrent eviction.
+                        pageRefs[grabbed] = grabFreeAndExclusivelyLockedPage( PageFaultEvent.NULL );
+                        grabbed++;
+                        filePageId++;
+                    }
+                    if ( grabbed > 0 )
+                    {
+                        readAheadVector( vectorStartFilePageId, pageRefs, latches, grabbed, transientPages );
+                    }
+                }
+                catch ( Throwable throwable )
+                {
+                    abortReadAhead( pageRefs, latches, grabbed );
+                    return;
+                }
+                // Skip the page that is either already in memory, or being faulted in by someone else.
+                filePageId++;
+            }
+        }
+        finally
+        {
+            // If grabbing a free page failed, then we might still be holding a latch for that page.
+            for ( int i = 0; i < pageCount; i++ )
+            {
+                if ( latches[i] != null )
+                {
+                    latches[i].release();
+                    latches[i] = null;
+                }
+            }
+        }
+    }
+
+    private boolean tryLatchForReadAhead( long filePageId, LatchMap.Latch[] latches, int index )
+    {
+        int chunkId = computeChunkId( filePageId );
+        int[][] tt = translationTable;
+        if ( tt.length <= chunkId )
+        {
+            tt = expandCapacity( chunkId );
+        }
+        int[] chunk = tt[chunkId];
+        long chunkOffset = computeChunkOffset( filePageId );
+        if ( UnsafeUtil.getIntVolatile( chunk, chunkOffset ) != UNMAPPED_TTE )
+        {
+            return false;
+        }
+        LatchMap.Latch latch = pageFaultLatches.tryTakeLatch( filePageId );
+        if ( latch == null )
+        {
+            return false;
+        }
+        // Double-check that no page fault completed in-between our look up, and us getting the latch.
+        if ( UnsafeUtil.getIntVolatile( chunk, chunkOffset ) != UNMAPPED_TTE )
+        {
+            latch.release();
+            return false;
+        }
+        latches[index] = latch;
+        return true;
+    }
+
+    private void readAheadVector(
+            long startFilePageId, long[] pageRefs, LatchMap.Latch[] latches, int length, boolean transientPages )
+            throws IOException
+    {
+        // The pin keeps the swapper open and the swapper id ours until the pages are published, but there is no point
+        // in reading pages for a file that is on its way out, since the unmapping would only have to evict them again.
+        if ( unmapping )
+        {
+            throw new FileIsNotMappedException( file() );
+        }
+        for ( int i = 0; i < length; i++ )
+        {
+            initBuffer( pageRefs[i] );
+        }
+        long bytesRead = faultVectored( pageRefs, length, swapper, swapperId, startFilePageId );
+        for ( int i = 0; i < length; i++ )
+        {
+            long pageRef = pageRefs[i];
+            long filePageId = startFilePageId + i;
+            int[] chunk = translationTable[computeChunkId( filePageId )];
+            UnsafeUtil.putIntVolatile( chunk, computeChunkOffset( filePageId ), toId( pageRef ) );
+            unlockExclusive( pageRef );
+            latches[i].release();
+            latches[i] = null;
+            if ( transientPages )
+            {
+                pageCache.addTransientPage( pageRef );
+            }
+        }
+        pageCacheTracer.faults( length );
+        pageCacheTracer.bytesRead( bytesRead );
+        pageCacheTracer.readAheads( length );
+    }
+
+    private void abortReadAhead( long[] pageRefs, LatchMap.Latch[] latches, int grabbed )
+    {
+        // None of the grabbed pages have been published to the translation table, and they are all unbound and
+        // exclusively locked, so they can go straight back on the freelist.
+        for ( int i = 0; i < grabbed; i++ )
+        {
+            pageCache.addFreePageToFreelist( pageRefs[i] );
+            latches[i].release();
+            latches[i] = null;
+        }
+    }
+
+    void reportReadAheadStatistics( long readAheadHits, long readAheadMisses )
+    {
+        pageCacheTracer.readAheadHits( readAheadHits );
+        pageCacheTracer.readAheadMisses( readAheadMisses );
+    }
+
     /**
      * Remove the mapping of the given filePageId from the translation table, and return the evicted page object.
      * @param filePageId The id of the file page to evict.
@@ -687,6 +911,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         int mappedPageId = UnsafeUtil.getIntVolatile( chunk, chunkOffset );
         long pageRef = deref( mappedPageId );
         setHighestEvictedTransactionId( getAndResetLastModifiedTransactionId( pageRef ) );
+        pageCache.clearWriteBackMark( mappedPageId );
         UnsafeUtil.putIntVolatile( chunk, chunkOffset, UNMAPPED_TTE );
     }
 
@@ -78,7 +78,10 @@ final class MuninnReadPageCursor extends MuninnPageCursor
     protected void pinCursorToPage( long pageRef, long filePageId, PageSwapper swapper )
     {
         reset( pageRef );
-        pagedFile.incrementUsage( pageRef );
+        if ( !transientPages )
+        {
+            pagedFile.pageAccessed( pageRef );
+        }
     }
 
     @Override
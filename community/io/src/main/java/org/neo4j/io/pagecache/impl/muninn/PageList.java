@@ -84,9 +84,17 @@ class PageList
     private final long victimPageAddress;
     private final long baseAddress;
     private final long bufferAlignment;
+    private final PageReplacementPolicy replacementPolicy;
 
     PageList( int pageCount, int cachePageSize, MemoryAllocator memoryAllocator, SwapperSet swappers,
               long victimPageAddress, long bufferAlignment )
+    {
+        this( pageCount, cachePageSize, memoryAllocator, swappers, victimPageAddress, bufferAlignment,
+                PageReplacementPolicies.CLOCK );
+    }
+
+    PageList( int pageCount, int cachePageSize, MemoryAllocator memoryAllocator, SwapperSet swappers,
+              long victimPageAddress, long bufferAlignment, PageReplacementPolicies replacementPolicy )
     {
         this.pageCount = pageCount;
         this.cachePageSize = cachePageSize;
@@ -97,6 +105,7 @@ class PageList
         this.baseAddress = memoryAllocator.allocateAligned( bytes, Long.BYTES );
         this.bufferAlignment = bufferAlignment;
         clearMemory( baseAddress, pageCount );
+        this.replacementPolicy = replacementPolicy.create( this );
     }
 
     /**
@@ -116,6 +125,7 @@ class PageList
         this.victimPageAddress = pageList.victimPageAddress;
         this.baseAddress = pageList.baseAddress;
         this.bufferAlignment = pageList.bufferAlignment;
+        this.replacementPolicy = pageList.replacementPolicy;
     }
 
     private void clearMemory( long baseAddress, long pageCount )
@@ -306,6 +316,35 @@ class PageList
         return (byte) (UnsafeUtil.getLongVolatile( offPageBinding( pageRef ) ) & MASK_USAGE_COUNT);
     }
 
+    /**
+     * Returns true if the usage stamp is greater than 0.
+     **/
+    boolean isInUse( long pageRef )
+    {
+        return getUsageCounter( pageRef ) > 0;
+    }
+
+    /**
+     * Tell the page replacement policy that the given page has been accessed.
+     */
+    void pageAccessed( long pageRef )
+    {
+        replacementPolicy.pageAccessed( pageRef );
+    }
+
+    /**
+     * Ask the page replacement policy if the given loaded page should be evicted, as the clock hand passes over it.
+     */
+    boolean shouldEvict( long pageRef )
+    {
+        return replacementPolicy.shouldEvict( pageRef );
+    }
+
+    PageReplacementPolicy getReplacementPolicy()
+    {
+        return replacementPolicy;
+    }
+
     /**
      * Increment the usage stamp to at most 4.
      **/
@@ -435,6 +474,70 @@ class PageList
         event.addBytesRead( bytesRead );
         event.setCachePageId( toId( pageRef ) );
         setSwapperId( pageRef, swapperId ); // Page now considered isBoundTo( swapper, filePageId )
+        replacementPolicy.pageFaulted( pageRef, swapperId, filePageId );
+    }
+
+    /**
+     * Fault a range of consecutive file pages into the given memory pages, with a single vectored read. This works like
+     * {@link #fault(long, PageSwapper, int, long, PageFaultEvent)}, except for a whole range of pages at once.
+     * If the read fails, then the bindings of all the given pages are cleared again, and the pages are left unbound
+     * and exclusively locked, ready to be put back on the freelist.
+     *
+     * @param pageRefs the exclusively locked and unbound memory pages to fault into.
+     * @param length the number of pages, from the start of the {@code pageRefs} array, to fault.
+     * @param swapper the swapper of the file to read from.
+     * @param swapperId the id of the given swapper.
+     * @param startFilePageId the file page id of the first page in the range.
+     * @return the number of bytes read.
+     */
+    long faultVectored( long[] pageRefs, int length, PageSwapper swapper, int swapperId, long startFilePageId )
+            throws IOException
+    {
+        if ( swapper == null )
+        {
+            throw swapperCannotBeNull();
+        }
+        // The vectored read zero-fills every address in the array on end-of-file, so it must fit the vector exactly.
+        long[] bufferAddresses = new long[length];
+        for ( int i = 0; i < length; i++ )
+        {
+            long pageRef = pageRefs[i];
+            long filePageId = startFilePageId + i;
+            int currentSwapper = getSwapperId( pageRef );
+            long currentFilePageId = getFilePageId( pageRef );
+            if ( !isExclusivelyLocked( pageRef ) || currentSwapper != 0 || currentFilePageId != PageCursor.UNBOUND_PAGE_ID )
+            {
+                clearBindings( pageRefs, i );
+                throw cannotFaultException( pageRef, swapper, swapperId, filePageId, currentSwapper, currentFilePageId );
+            }
+            // See the comment in fault() about why we assign the file page id before swapping in.
+            setFilePageId( pageRef, filePageId );
+            bufferAddresses[i] = getAddress( pageRef );
+        }
+        long bytesRead;
+        try
+        {
+            bytesRead = swapper.read( startFilePageId, bufferAddresses, cachePageSize, 0, length );
+        }
+        catch ( Throwable e )
+        {
+            clearBindings( pageRefs, length );
+            throw e;
+        }
+        for ( int i = 0; i < length; i++ )
+        {
+            setSwapperId( pageRefs[i], swapperId );
+            replacementPolicy.pageFaulted( pageRefs[i], swapperId, startFilePageId + i );
+        }
+        return bytesRead;
+    }
+
+    private void clearBindings( long[] pageRefs, int length )
+    {
+        for ( int i = 0; i < length; i++ )
+        {
+            clearBinding( pageRefs[i] );
+        }
     }
 
     private static IllegalArgumentException swapperCannotBeNull()
@@ -495,6 +598,7 @@ class PageList
                 swapper.evicted( filePageId );
             }
         }
+        replacementPolicy.pageEvicted( pageRef, swapperId, filePageId );
         clearBinding( pageRef );
     }
 
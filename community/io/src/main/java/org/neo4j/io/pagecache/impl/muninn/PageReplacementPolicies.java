@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * The available {@link PageReplacementPolicy page replacement policies} for the {@link MuninnPageCache}.
+ */
+public enum PageReplacementPolicies
+{
+    /**
+     * The classic clock, or second chance, policy. Every page has a small usage counter that is incremented when the
+     * page is accessed, and decremented when the clock hand passes it. Pages are evicted when their counter is zero.
+     */
+    CLOCK
+    {
+        @Override
+        PageReplacementPolicy create( PageList pages )
+        {
+            return new ClockPolicy( pages );
+        }
+    },
+    /**
+     * A variant of the CLOCK-Pro policy, which tells hot and cold pages apart by their reuse distance, and keeps a
+     * history of recently evicted pages. This makes it resistant to scans and loops over working sets that are larger
+     * than the page cache.
+     */
+    CLOCK_PRO
+    {
+        @Override
+        PageReplacementPolicy create( PageList pages )
+        {
+            return new ClockProPolicy( pages );
+        }
+    };
+
+    abstract PageReplacementPolicy create( PageList pages );
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * A page replacement policy decides which of the pages in the {@link MuninnPageCache} to evict, when memory is needed
+ * for page faults.
+ * <p>
+ * The eviction itself is always driven by a clock hand sweeping through the pages, but the policy decides which pages
+ * the hand should pick, based on how the pages have been accessed, faulted and evicted.
+ * <p>
+ * All methods are called concurrently, and apart from the fault and eviction notifications, without holding any page
+ * locks. Policies are allowed to be benignly racy, as long as they never prevent every page from eventually becoming
+ * an eviction candidate.
+ *
+ * @see PageReplacementPolicies
+ */
+interface PageReplacementPolicy
+{
+    /**
+     * A cursor has pinned the given page, and wants its access to count towards keeping the page in memory.
+     */
+    void pageAccessed( long pageRef );
+
+    /**
+     * The given page has been faulted in, and is now bound to the given file page. The page is exclusively locked.
+     */
+    void pageFaulted( long pageRef, int swapperId, long filePageId );
+
+    /**
+     * The given page is being evicted from the given file page. The page is exclusively locked, and still bound.
+     */
+    void pageEvicted( long pageRef, int swapperId, long filePageId );
+
+    /**
+     * The clock hand is passing over the given loaded page. The policy can use this to age the page.
+     *
+     * @return {@code true} if the page should be evicted now, otherwise {@code false}.
+     */
+    boolean shouldEvict( long pageRef );
+}
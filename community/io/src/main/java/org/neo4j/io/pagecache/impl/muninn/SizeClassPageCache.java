@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.OpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCacheOpenOptions;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+
+/**
+ * A page cache that is made up of several {@link MuninnPageCache page cache} instances with different cache page
+ * sizes; one for each page size class.
+ * <p>
+ * Every size class has its own {@link PageList} of pages, its own free-list and its own eviction thread, so the size
+ * classes never compete with each other for memory. Files are mapped into the size class with the smallest cache page
+ * size that can hold the requested file page size. This way a file with large pages, like a tree index, does not
+ * waste the pages of the record stores, and the record stores do not suffer the read amplification of large pages.
+ * <p>
+ * The size class with the smallest cache page size is the default size class. Its page size is the
+ * {@link #pageSize()} of this page cache, and files mapped with {@link PageCacheOpenOptions#ANY_PAGE_SIZE} go there,
+ * unless they are already mapped in another size class.
+ * <p>
+ * A file is only ever mapped in one size class at a time.
+ */
+public final class SizeClassPageCache implements PageCache
+{
+    private final MuninnPageCache[] sizeClasses;
+
+    /**
+     * Create a page cache from the given page size classes. The size classes are owned by this page cache, and will
+     * be closed when it is closed.
+     *
+     * @param sizeClasses the page caches that make up the size classes. They must all have different page sizes.
+     */
+    public SizeClassPageCache( MuninnPageCache... sizeClasses )
+    {
+        if ( sizeClasses.length == 0 )
+        {
+            throw new IllegalArgumentException( "At least one page size class is required." );
+        }
+        this.sizeClasses = sizeClasses.clone();
+        Arrays.sort( this.sizeClasses, Comparator.comparingInt( MuninnPageCache::pageSize ) );
+        for ( int i = 1; i < this.sizeClasses.length; i++ )
+        {
+            if ( this.sizeClasses[i - 1].pageSize() == this.sizeClasses[i].pageSize() )
+            {
+                throw new IllegalArgumentException(
+                        "Page size classes must have different page sizes, but " + this.sizeClasses[i].pageSize() +
+                        " was given more than once." );
+            }
+        }
+
+        // Every size class reported only its own page count to its tracer, and the size classes usually share one
+        // tracer, so report the pages of all the size classes that use each tracer.
+        Map<PageCacheTracer,Long> pagesPerTracer = new IdentityHashMap<>();
+        for ( MuninnPageCache sizeClass : this.sizeClasses )
+        {
+            pagesPerTracer.merge( sizeClass.pageCacheTracer(), sizeClass.maxCachedPages(), Long::sum );
+        }
+        pagesPerTracer.forEach( PageCacheTracer::maxPages );
+    }
+
+    @Override
+    public synchronized PagedFile map( File file, int pageSize, OpenOption... openOptions ) throws IOException
+    {
+        // If the file is already mapped, then it has to stay in the size class it is in. The page size checks of that
+        // size class will then decide if this mapping is allowed.
+        MuninnPageCache sizeClass = sizeClassWithMapping( file );
+        if ( sizeClass == null )
+        {
+            sizeClass = sizeClassFor( pageSize, openOptions );
+        }
+        return sizeClass.map( file, pageSize, openOptions );
+    }
+
+    private MuninnPageCache sizeClassWithMapping( File file ) throws IOException
+    {
+        for ( MuninnPageCache sizeClass : sizeClasses )
+        {
+            Optional<PagedFile> existing = sizeClass.getExistingMapping( file );
+            if ( existing.isPresent() )
+            {
+                existing.get().close();
+                return sizeClass;
+            }
+        }
+        return null;
+    }
+
+    private MuninnPageCache sizeClassFor( int filePageSize, OpenOption... openOptions )
+    {
+        for ( OpenOption option : openOptions )
+        {
+            if ( option.equals( PageCacheOpenOptions.ANY_PAGE_SIZE ) )
+            {
+                return sizeClasses[0];
+            }
+        }
+        for ( MuninnPageCache sizeClass : sizeClasses )
+        {
+            if ( filePageSize <= sizeClass.pageSize() )
+            {
+                return sizeClass;
+            }
+        }
+        // None are big enough. Let the largest size class produce the error message.
+        return sizeClasses[sizeClasses.length - 1];
+    }
+
+    @Override
+    public synchronized Optional<PagedFile> getExistingMapping( File file ) throws IOException
+    {
+        for ( MuninnPageCache sizeClass : sizeClasses )
+        {
+            Optional<PagedFile> existing = sizeClass.getExistingMapping( file );
+            if ( existing.isPresent() )
+            {
+                return existing;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public synchronized List<PagedFile> listExistingMappings() throws IOException
+    {
+        List<PagedFile> list = new ArrayList<>();
+        for ( MuninnPageCache sizeClass : sizeClasses )
+        {
+            list.addAll( sizeClass.listExistingMappings() );
+        }
+        return list;
+    }
+
+    @Override
+    public void flushAndForce() throws IOException
+    {
+        flushAndForce( IOLimiter.UNLIMITED );
+    }
+
+    @Override
+    public void flushAndForce( IOLimiter limiter ) throws IOException
+    {
+        for ( MuninnPageCache sizeClass : sizeClasses )
+        {
+            sizeClass.flushAndForce( limiter );
+        }
+    }
+
+    @Override
+    public void writeBackOldPages( IOLimiter limiter ) throws IOException
+    {
+        for ( MuninnPageCache sizeClass : sizeClasses )
+        {
+            sizeClass.writeBackOldPages( limiter );
+        }
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        // Closing a size class that has already been closed does nothing, so if some size classes still have files
+        // mapped, then a later call to close will pick up where this one left off.
+        IllegalStateException exception = null;
+        for ( MuninnPageCache sizeClass : sizeClasses )
+        {
+            try
+            {
+                sizeClass.close();
+            }
+            catch ( IllegalStateException e )
+            {
+                if ( exception == null )
+                {
+                    exception = e;
+                }
+                else
+                {
+                    exception.addSuppressed( e );
+                }
+            }
+        }
+        if ( exception != null )
+        {
+            throw exception;
+        }
+    }
+
+    /**
+     * @return the page size of the default size class, which is the smallest page size in this page cache.
+     */
+    @Override
+    public int pageSize()
+    {
+        return sizeClasses[0].pageSize();
+    }
+
+    /**
+     * @return the page size of the largest size class.
+     */
+    @Override
+    public int maxPageSize()
+    {
+        return sizeClasses[sizeClasses.length - 1].pageSize();
+    }
+
+    /**
+     * @return the page sizes of all the size classes, in ascending order.
+     */
+    public int[] pageSizes()
+    {
+        int[] pageSizes = new int[sizeClasses.length];
+        for ( int i = 0; i < sizeClasses.length; i++ )
+        {
+            pageSizes[i] = sizeClasses[i].pageSize();
+        }
+        return pageSizes;
+    }
+
+    /**
+     * @return the number of cache pages in all the size classes together. The pages of different size classes have
+     * different sizes, so this is a count of pages, not a measure of memory. Use {@link #maxCachedBytes()} for that.
+     */
+    @Override
+    public long maxCachedPages()
+    {
+        long maxCachedPages = 0;
+        for ( MuninnPageCache sizeClass : sizeClasses )
+        {
+            maxCachedPages += sizeClass.maxCachedPages();
+        }
+        return maxCachedPages;
+    }
+
+    /**
+     * @return the number of bytes that the cache pages of all the size classes can hold together.
+     */
+    public long maxCachedBytes()
+    {
+        long maxCachedBytes = 0;
+        for ( MuninnPageCache sizeClass : sizeClasses )
+        {
+            maxCachedBytes += sizeClass.maxCachedPages() * sizeClass.pageSize();
+        }
+        return maxCachedBytes;
+    }
+
+    @Override
+    public void reportEvents()
+    {
+        for ( MuninnPageCache sizeClass : sizeClasses )
+        {
+            sizeClass.reportEvents();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SizeClassPageCache" + Arrays.toString( sizeClasses );
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The TransientPageQueue keeps track of pages that were faulted in by cursors opened with
+ * {@link org.neo4j.io.pagecache.PagedFile#PF_TRANSIENT}. Such pages are likely to only be accessed once, for instance
+ * as part of a large scan, so they are the first pages the eviction looks at when it needs to free up memory. This way
+ * a scan will mostly recycle its own pages, instead of pushing the hot working set out of the cache.
+ * <p>
+ * The queue is a bounded and lossy ring buffer: if it fills up, the oldest entries are overwritten. Losing entries is
+ * harmless, since the pages will then just be found and evicted by the regular clock sweep. Likewise, an entry may
+ * refer to a page that has since been evicted and reused for something else, so anyone polling the queue must check
+ * that the page is still a good eviction candidate before evicting it.
+ */
+final class TransientPageQueue
+{
+    private static final int EMPTY = 0;
+
+    private final AtomicIntegerArray slots;
+    private final int mask;
+    private final AtomicLong head;
+    private final AtomicLong tail;
+
+    /**
+     * @param minimumCapacity the capacity of the queue will be the smallest power of two that is no smaller than this.
+     */
+    TransientPageQueue( int minimumCapacity )
+    {
+        int capacity = Integer.highestOneBit( Math.max( minimumCapacity - 1, 1 ) ) << 1;
+        slots = new AtomicIntegerArray( capacity );
+        mask = capacity - 1;
+        head = new AtomicLong();
+        tail = new AtomicLong();
+    }
+
+    /**
+     * Add the given page id to the queue, possibly overwriting the oldest entry.
+     */
+    void offer( int pageId )
+    {
+        long index = tail.getAndIncrement();
+        // Page ids are stored off by one, so that zero can mean an empty slot.
+        slots.lazySet( (int) (index & mask), pageId + 1 );
+    }
+
+    /**
+     * @return the oldest page id in the queue, or {@code -1} if the queue is empty.
+     */
+    int poll()
+    {
+        long currentHead;
+        long currentTail;
+        int capacity = mask + 1;
+        for (;;)
+        {
+            currentHead = head.get();
+            currentTail = tail.get();
+            if ( currentHead >= currentTail )
+            {
+                return -1;
+            }
+            long next = Math.max( currentHead, currentTail - capacity );
+            if ( head.compareAndSet( currentHead, next + 1 ) )
+            {
+                int value = slots.getAndSet( (int) (next & mask), EMPTY );
+                if ( value != EMPTY )
+                {
+                    return value - 1;
+                }
+                // The producer has claimed the slot, but not yet published its entry, or the entry was already taken
+                // by a lapped consumer. Either way, we just try the next one.
+            }
+        }
+    }
+}
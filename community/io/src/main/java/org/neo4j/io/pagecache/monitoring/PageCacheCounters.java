@@ -80,6 +80,29 @@ public interface PageCacheCounters
      */
     long evictionExceptions();
 
+    /**
+     * @return The number of pages that have been faulted in by read-ahead thus far.
+     */
+    long readAheads();
+
+    /**
+     * @return The number of pins, by cursors doing read-ahead, that found their page already brought into memory by
+     * read-ahead.
+     */
+    long readAheadHits();
+
+    /**
+     * @return The number of pins, by cursors doing read-ahead, that had to fault in their page themselves, because the
+     * read-ahead did not get to it in time.
+     */
+    long readAheadMisses();
+
+    /**
+     * @return The amount of page cache memory, in bytes, that is backed by huge pages, or {@code 0} if it cannot be
+     * determined.
+     */
+    long hugePageMemory();
+
     /**
      * @return The cache hit ratio observed thus far.
      */
@@ -21,8 +21,11 @@ package org.neo4j.io.pagecache.tracing;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
 import org.neo4j.helpers.MathUtil;
 import org.neo4j.io.pagecache.PageSwapper;
@@ -43,7 +46,11 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     protected final LongAdder filesMapped = new LongAdder();
     protected final LongAdder filesUnmapped = new LongAdder();
     protected final LongAdder evictionExceptions = new LongAdder();
+    protected final LongAdder readAheads = new LongAdder();
+    protected final LongAdder readAheadHits = new LongAdder();
+    protected final LongAdder readAheadMisses = new LongAdder();
     protected final AtomicLong maxPages = new AtomicLong();
+    protected final Set<LongSupplier> hugePageMemorySources = ConcurrentHashMap.newKeySet();
 
     private final FlushEvent flushEvent = new FlushEvent()
     {
@@ -233,6 +240,35 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         return evictionExceptions.sum();
     }
 
+    @Override
+    public long readAheads()
+    {
+        return readAheads.sum();
+    }
+
+    @Override
+    public long readAheadHits()
+    {
+        return readAheadHits.sum();
+    }
+
+    @Override
+    public long readAheadMisses()
+    {
+        return readAheadMisses.sum();
+    }
+
+    @Override
+    public long hugePageMemory()
+    {
+        long hugePageMemory = 0;
+        for ( LongSupplier source : hugePageMemorySources )
+        {
+            hugePageMemory += source.getAsLong();
+        }
+        return hugePageMemory;
+    }
+
     @Override
     public double hitRatio()
     {
@@ -309,4 +345,34 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     {
         this.maxPages.set( maxPages );
     }
+
+    @Override
+    public void readAheads( long readAheads )
+    {
+        this.readAheads.add( readAheads );
+    }
+
+    @Override
+    public void readAheadHits( long readAheadHits )
+    {
+        this.readAheadHits.add( readAheadHits );
+    }
+
+    @Override
+    public void readAheadMisses( long readAheadMisses )
+    {
+        this.readAheadMisses.add( readAheadMisses );
+    }
+
+    @Override
+    public void addHugePageMemorySource( LongSupplier hugePageMemory )
+    {
+        hugePageMemorySources.add( hugePageMemory );
+    }
+
+    @Override
+    public void removeHugePageMemorySource( LongSupplier hugePageMemory )
+    {
+        hugePageMemorySources.remove( hugePageMemory );
+    }
 }
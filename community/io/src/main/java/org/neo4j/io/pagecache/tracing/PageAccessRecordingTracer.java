@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.tracing;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
+
+/**
+ * A page cache tracer that records the sequence of page accesses to a trace file, on top of counting events like the
+ * {@link DefaultPageCacheTracer} does. The trace has one access per line, on the form {@code <file> <file page id>},
+ * which is the format that the page replacement trace replay reads.
+ * <p>
+ * Page accesses are only seen by page cursor tracers, so this tracer must also be given to the page cache as its
+ * {@link PageCursorTracerSupplier}. Depending on {@code faultsOnly}, it records every pin, or only the pins that fault.
+ * <p>
+ * Every thread collects its accesses in a buffer, which is appended to the trace file when it fills up, and when the
+ * thread reports its events. The trace thus keeps the order of the accesses of each thread, but interleaves threads
+ * in chunks. Close the tracer after the page cache, to get the accesses that are still buffered.
+ */
+public class PageAccessRecordingTracer extends DefaultPageCacheTracer implements PageCursorTracerSupplier, Closeable
+{
+    private static final int BUFFER_FLUSH_THRESHOLD = 8192;
+
+    private final Writer writer;
+    private final boolean faultsOnly;
+    private final Set<RecordingPageCursorTracer> cursorTracers = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<RecordingPageCursorTracer> cursorTracer = ThreadLocal.withInitial( () ->
+    {
+        RecordingPageCursorTracer tracer = new RecordingPageCursorTracer();
+        cursorTracers.add( tracer );
+        return tracer;
+    } );
+    private boolean closed;
+
+    public PageAccessRecordingTracer( File traceFile, boolean faultsOnly ) throws IOException
+    {
+        this.writer = new OutputStreamWriter( new FileOutputStream( traceFile ), StandardCharsets.UTF_8 );
+        this.faultsOnly = faultsOnly;
+    }
+
+    @Override
+    public PageCursorTracer get()
+    {
+        return cursorTracer.get();
+    }
+
+    private void append( StringBuilder accesses )
+    {
+        synchronized ( writer )
+        {
+            if ( closed )
+            {
+                return;
+            }
+            try
+            {
+                writer.append( accesses );
+                writer.flush();
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        for ( RecordingPageCursorTracer tracer : cursorTracers )
+        {
+            tracer.flush();
+        }
+        synchronized ( writer )
+        {
+            closed = true;
+            writer.close();
+        }
+    }
+
+    private class RecordingPageCursorTracer extends DefaultPageCursorTracer
+    {
+        private final StringBuilder accesses = new StringBuilder();
+        private final FaultRecordingPinEvent faultRecordingPinEvent = new FaultRecordingPinEvent();
+
+        @Override
+        public PinEvent beginPin( boolean writeLock, long filePageId, PageSwapper swapper )
+        {
+            PinEvent pinEvent = super.beginPin( writeLock, filePageId, swapper );
+            if ( !faultsOnly )
+            {
+                record( swapper, filePageId );
+                return pinEvent;
+            }
+            // A thread finishes faulting a page before it begins its next pin, so the event can be reused.
+            faultRecordingPinEvent.delegate = pinEvent;
+            faultRecordingPinEvent.swapper = swapper;
+            faultRecordingPinEvent.filePageId = filePageId;
+            return faultRecordingPinEvent;
+        }
+
+        @Override
+        public void reportEvents()
+        {
+            super.reportEvents();
+            flush();
+        }
+
+        void record( PageSwapper swapper, long filePageId )
+        {
+            synchronized ( accesses )
+            {
+                accesses.append( swapper.file().getPath() ).append( ' ' ).append( filePageId ).append( '\n' );
+                if ( accesses.length() >= BUFFER_FLUSH_THRESHOLD )
+                {
+                    append( accesses );
+                    accesses.setLength( 0 );
+                }
+            }
+        }
+
+        void flush()
+        {
+            synchronized ( accesses )
+            {
+                if ( accesses.length() > 0 )
+                {
+                    append( accesses );
+                    accesses.setLength( 0 );
+                }
+            }
+        }
+
+        private class FaultRecordingPinEvent implements PinEvent
+        {
+            private PinEvent delegate;
+            private PageSwapper swapper;
+            private long filePageId;
+
+            @Override
+            public void setCachePageId( long cachePageId )
+            {
+                delegate.setCachePageId( cachePageId );
+            }
+
+            @Override
+            public PageFaultEvent beginPageFault()
+            {
+                record( swapper, filePageId );
+                return delegate.beginPageFault();
+            }
+
+            @Override
+            public void hit()
+            {
+                delegate.hit();
+            }
+
+            @Override
+            public void done()
+            {
+                delegate.done();
+            }
+        }
+    }
+}
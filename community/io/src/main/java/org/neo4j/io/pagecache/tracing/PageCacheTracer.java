@@ -20,6 +20,7 @@
 package org.neo4j.io.pagecache.tracing;
 
 import java.io.File;
+import java.util.function.LongSupplier;
 
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.monitoring.PageCacheCounters;
@@ -130,6 +131,30 @@ public interface PageCacheTracer extends PageCacheCounters
             return 0;
         }
 
+        @Override
+        public long readAheads()
+        {
+            return 0;
+        }
+
+        @Override
+        public long readAheadHits()
+        {
+            return 0;
+        }
+
+        @Override
+        public long readAheadMisses()
+        {
+            return 0;
+        }
+
+        @Override
+        public long hugePageMemory()
+        {
+            return 0;
+        }
+
         @Override
         public double hitRatio()
         {
@@ -192,6 +217,31 @@ public interface PageCacheTracer extends PageCacheCounters
         {
         }
 
+        @Override
+        public void readAheads( long readAheads )
+        {
+        }
+
+        @Override
+        public void readAheadHits( long readAheadHits )
+        {
+        }
+
+        @Override
+        public void readAheadMisses( long readAheadMisses )
+        {
+        }
+
+        @Override
+        public void addHugePageMemorySource( LongSupplier hugePageMemory )
+        {
+        }
+
+        @Override
+        public void removeHugePageMemorySource( LongSupplier hugePageMemory )
+        {
+        }
+
         @Override
         public String toString()
         {
@@ -283,8 +333,40 @@ public interface PageCacheTracer extends PageCacheCounters
     void flushes( long flushes );
 
     /**
-     * Sets the number of available pages.
+     * Sets the number of available pages. For a page cache with several page size classes, this is the number of
+     * pages in all of them together, whatever their page sizes.
      * @param maxPages the total number of available pages.
      */
     void maxPages( long maxPages );
+
+    /**
+     * Report number of pages faulted in by read-ahead
+     * @param readAheads number of pages read ahead
+     */
+    void readAheads( long readAheads );
+
+    /**
+     * Report number of read-ahead cursor pins that found their page already in memory
+     * @param readAheadHits number of read-ahead hits
+     */
+    void readAheadHits( long readAheadHits );
+
+    /**
+     * Report number of read-ahead cursor pins that had to fault in their page themselves
+     * @param readAheadMisses number of read-ahead misses
+     */
+    void readAheadMisses( long readAheadMisses );
+
+    /**
+     * Adds a source of the amount of memory that is backed by huge pages. Page caches that share a tracer each add
+     * their own source, and {@link #hugePageMemory()} is the sum of the sources that have not been removed.
+     * @param hugePageMemory reports the amount of memory, in bytes, that is backed by huge pages.
+     */
+    void addHugePageMemorySource( LongSupplier hugePageMemory );
+
+    /**
+     * Removes a source that was added with {@link #addHugePageMemorySource(LongSupplier)}, when its memory is freed.
+     * @param hugePageMemory the source to remove.
+     */
+    void removeHugePageMemorySource( LongSupplier hugePageMemory );
 }
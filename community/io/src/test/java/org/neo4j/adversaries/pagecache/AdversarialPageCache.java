@@ -103,6 +103,13 @@ public class AdversarialPageCache implements PageCache
         delegate.flushAndForce( limiter );
     }
 
+    @Override
+    public void writeBackOldPages( IOLimiter limiter ) throws IOException
+    {
+        adversary.injectFailure( FileNotFoundException.class, IOException.class, SecurityException.class );
+        delegate.writeBackOldPages( limiter );
+    }
+
     @Override
     public void close()
     {
@@ -116,6 +123,12 @@ public class AdversarialPageCache implements PageCache
         return delegate.pageSize();
     }
 
+    @Override
+    public int maxPageSize()
+    {
+        return delegate.maxPageSize();
+    }
+
     @Override
     public long maxCachedPages()
     {
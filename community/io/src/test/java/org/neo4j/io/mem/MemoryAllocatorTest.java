@@ -22,6 +22,8 @@ package org.neo4j.io.mem;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
+
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.memory.LocalMemoryTracker;
@@ -175,6 +177,49 @@ class MemoryAllocatorTest
         assertEquals( 0, memoryTracker.usedDirectMemory() );
     }
 
+    @Test
+    void transparentHugePageAllocationsMustStartAtHugePageBoundary()
+    {
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+        allocator = MemoryAllocator.createAllocator( "8 MiB", memoryTracker, HugePageMode.TRANSPARENT, null );
+
+        long pointer = allocator.allocateAligned( PageCache.PAGE_SIZE, UnsafeUtil.pageSize() );
+        assertEquals( 0, pointer % HugePages.HUGE_PAGE_SIZE );
+        for ( int i = 1; i < 64; i++ )
+        {
+            long next = allocator.allocateAligned( PageCache.PAGE_SIZE, UnsafeUtil.pageSize() );
+            assertEquals( pointer + i * PageCache.PAGE_SIZE, next );
+        }
+        assertThat( allocator.hugePageMemory(), is( greaterThanOrEqualTo( 0L ) ) );
+
+        closeAllocator();
+        assertEquals( 0, memoryTracker.usedDirectMemory() );
+    }
+
+    @Test
+    void hugetlbfsModeMustFallBackToTransparentHugePagesWhenMappingFails()
+    {
+        LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+        File missingDirectory = new File( "does-not-exist-" + System.nanoTime() );
+        allocator = MemoryAllocator.createAllocator( "8 MiB", memoryTracker, HugePageMode.HUGETLBFS, missingDirectory );
+
+        long pointer = allocator.allocateAligned( PageCache.PAGE_SIZE, UnsafeUtil.pageSize() );
+        assertThat( pointer, is( not( 0L ) ) );
+        assertEquals( 0, pointer % HugePages.HUGE_PAGE_SIZE );
+        assertThat( memoryTracker.usedDirectMemory(), is( greaterThanOrEqualTo( HugePages.HUGE_PAGE_SIZE ) ) );
+
+        closeAllocator();
+        assertEquals( 0, memoryTracker.usedDirectMemory() );
+    }
+
+    @Test
+    void hugePageMemoryMustBeZeroWhenHugePagesAreDisabled()
+    {
+        MemoryAllocator mman = createAllocator( EIGHT_PAGES );
+        mman.allocateAligned( PageCache.PAGE_SIZE, UnsafeUtil.pageSize() );
+        assertEquals( 0, mman.hugePageMemory() );
+    }
+
     private void closeAllocator()
     {
         if ( allocator != null )
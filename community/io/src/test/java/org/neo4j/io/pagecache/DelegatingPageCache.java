@@ -58,6 +58,12 @@ public class DelegatingPageCache implements PageCache
         return delegate.pageSize();
     }
 
+    @Override
+    public int maxPageSize()
+    {
+        return delegate.maxPageSize();
+    }
+
     @Override
     public void close()
     {
@@ -82,6 +88,12 @@ public class DelegatingPageCache implements PageCache
         delegate.flushAndForce( limiter );
     }
 
+    @Override
+    public void writeBackOldPages( IOLimiter limiter ) throws IOException
+    {
+        delegate.writeBackOldPages( limiter );
+    }
+
     @Override
     public void flushAndForce() throws IOException
     {
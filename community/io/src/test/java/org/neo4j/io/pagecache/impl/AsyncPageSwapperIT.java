@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.graphdb.config.Configuration;
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.IOUtils;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.PageSwapperTest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AsyncPageSwapperIT extends PageSwapperTest
+{
+    private final DefaultFileSystemAbstraction fileSystem = new DefaultFileSystemAbstraction();
+    private final EphemeralFileSystemAbstraction ephemeralFileSystem = new EphemeralFileSystemAbstraction();
+
+    @AfterEach
+    void tearDown() throws Exception
+    {
+        IOUtils.closeAll( fileSystem, ephemeralFileSystem );
+    }
+
+    @Override
+    protected PageSwapperFactory swapperFactory()
+    {
+        AsyncPageSwapperFactory factory = new AsyncPageSwapperFactory();
+        factory.open( fileSystem, Configuration.EMPTY );
+        return factory;
+    }
+
+    @Override
+    protected void mkdirs( File dir ) throws IOException
+    {
+        fileSystem.mkdirs( dir );
+    }
+
+    @Test
+    void mustCreateAsyncSwappersOnTheRealFileSystem() throws IOException
+    {
+        File file = testDir.file( "a" );
+        PageSwapper swapper = createSwapper( createSwapperFactory(), file, 32, NO_CALLBACK, true, false );
+        assertThat( swapper, instanceOf( AsyncPageSwapper.class ) );
+    }
+
+    @Test
+    void mustFallBackToSingleFilePageSwappersOnOtherFileSystems() throws IOException
+    {
+        AsyncPageSwapperFactory factory = new AsyncPageSwapperFactory();
+        factory.open( ephemeralFileSystem, Configuration.EMPTY );
+        try
+        {
+            File file = testDir.file( "a" );
+            ephemeralFileSystem.mkdirs( file.getParentFile() );
+            PageSwapper swapper = factory.createPageSwapper( file, 32, NO_CALLBACK, true, false );
+            assertThat( swapper, not( instanceOf( AsyncPageSwapper.class ) ) );
+            swapper.close();
+        }
+        finally
+        {
+            factory.close();
+        }
+    }
+
+    @Test
+    void mustAwaitSubmittedPagesWhenSubmittingTheRestOfTheBatchFails() throws Exception
+    {
+        int pageSize = 32;
+        File file = testDir.createFile( "a" );
+        ExecutorService threads = Executors.newCachedThreadPool();
+        try
+        {
+            // Only the first two pages can be submitted, and they are slow to be written
+            RejectingExecutor ioExecutor = new RejectingExecutor( threads, 2 );
+            long[] pages = new long[4];
+            for ( int i = 0; i < pages.length; i++ )
+            {
+                pages[i] = createPage( pageSize );
+                for ( int offset = 0; offset < pageSize; offset += Integer.BYTES )
+                {
+                    putInt( pages[i], offset, i + 1 );
+                }
+            }
+            AsyncPageSwapper swapper = new AsyncPageSwapper( file, fileSystem, pageSize, NO_CALLBACK, false, ioExecutor );
+            try
+            {
+                assertThrows( RejectedExecutionException.class, () -> swapper.write( 0, pages, 0, pages.length ) );
+            }
+            finally
+            {
+                swapper.close();
+            }
+
+            // The submitted pages were written before the write failed, since it waits for them
+            ByteBuffer buffer = ByteBuffer.allocate( pageSize * 2 );
+            try ( FileChannel channel = FileChannel.open( file.toPath() ) )
+            {
+                assertEquals( pageSize * 2, channel.read( buffer, 0 ) );
+            }
+            for ( int offset = 0; offset < pageSize * 2; offset += Integer.BYTES )
+            {
+                assertEquals( offset / pageSize + 1, buffer.getInt( offset ) );
+            }
+        }
+        finally
+        {
+            threads.shutdown();
+        }
+    }
+
+    private static class RejectingExecutor extends AbstractExecutorService
+    {
+        private final ExecutorService threads;
+        private final AtomicInteger permits;
+
+        RejectingExecutor( ExecutorService threads, int permits )
+        {
+            this.threads = threads;
+            this.permits = new AtomicInteger( permits );
+        }
+
+        @Override
+        public void execute( Runnable command )
+        {
+            if ( permits.getAndDecrement() <= 0 )
+            {
+                throw new RejectedExecutionException( "No more IO for this test" );
+            }
+            threads.execute( () ->
+            {
+                try
+                {
+                    Thread.sleep( 100 );
+                }
+                catch ( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                }
+                command.run();
+            } );
+        }
+
+        @Override
+        public void shutdown()
+        {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow()
+        {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination( long timeout, TimeUnit unit )
+        {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.neo4j.graphdb.config.Configuration;
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.IOUtils;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.TestDirectoryExtension;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith( TestDirectoryExtension.class )
+class DirectIOPageSwapperIT
+{
+    private static final int PAGE_SIZE = 8192;
+
+    @Inject
+    private TestDirectory testDir;
+    private final DefaultFileSystemAbstraction fs = new DefaultFileSystemAbstraction();
+    private final MemoryAllocator allocator = MemoryAllocator.createAllocator( "1 MiB", new LocalMemoryTracker() );
+    private DirectIOPageSwapperFactory factory;
+
+    @BeforeEach
+    void setUp()
+    {
+        factory = new DirectIOPageSwapperFactory();
+        factory.open( fs, Configuration.EMPTY );
+    }
+
+    @AfterEach
+    void tearDown() throws Exception
+    {
+        factory.close();
+        allocator.close();
+        IOUtils.closeAll( fs );
+    }
+
+    @Test
+    void mustReadBackWrittenPages() throws IOException
+    {
+        PageSwapper swapper = factory.createPageSwapper( testDir.file( "a" ), PAGE_SIZE, filePageId -> {}, true, false );
+        try
+        {
+            long[] pages = allocatePages( 4 );
+            for ( int i = 0; i < pages.length; i++ )
+            {
+                UnsafeUtil.putLong( pages[i], i + 1 );
+                UnsafeUtil.putLong( pages[i] + PAGE_SIZE - Long.BYTES, -(i + 1) );
+            }
+            assertEquals( 4L * PAGE_SIZE, swapper.write( 0, pages, 0, pages.length ) );
+            assertEquals( PAGE_SIZE, swapper.write( 4, pages[0] ) );
+
+            long[] readPages = allocatePages( 6 );
+            assertEquals( 5L * PAGE_SIZE, swapper.read( 0, readPages, PAGE_SIZE, 0, readPages.length ) );
+            for ( int i = 0; i < pages.length; i++ )
+            {
+                assertEquals( i + 1, UnsafeUtil.getLong( readPages[i] ) );
+                assertEquals( -(i + 1), UnsafeUtil.getLong( readPages[i] + PAGE_SIZE - Long.BYTES ) );
+            }
+            assertEquals( 1, UnsafeUtil.getLong( readPages[4] ) );
+            assertEquals( 0, UnsafeUtil.getLong( readPages[5] ) );
+            assertEquals( 4, swapper.getLastPageId() );
+        }
+        finally
+        {
+            swapper.close();
+        }
+    }
+
+    @Test
+    void requiredBufferAlignmentMustMatchDirectIOSupport() throws IOException
+    {
+        PageSwapper swapper = factory.createPageSwapper( testDir.file( "a" ), PAGE_SIZE, filePageId -> {}, true, false );
+        try
+        {
+            if ( DirectIOPageSwapperFactory.isDirectIOSupported() )
+            {
+                // The test directory may be on a file system that does not support direct IO, so we cannot demand it.
+                assertEquals( UnsafeUtil.pageSize(), factory.getRequiredBufferAlignment() );
+            }
+            else
+            {
+                assertThat( swapper, not( instanceOf( DirectIOPageSwapper.class ) ) );
+                assertEquals( 1, factory.getRequiredBufferAlignment() );
+            }
+        }
+        finally
+        {
+            swapper.close();
+        }
+    }
+
+    @Test
+    void mustUseBufferedIOForPageSizesThatAreNotMultiplesOfTheBlockSize() throws IOException
+    {
+        // The file page sizes of the node, relationship and property stores.
+        for ( int filePageSize : new int[]{8190, 8160, 8159} )
+        {
+            PageSwapper swapper = factory.createPageSwapper( testDir.file( "a" + filePageSize ), filePageSize, filePageId -> {}, true, false );
+            try
+            {
+                assertThat( swapper, not( instanceOf( DirectIOPageSwapper.class ) ) );
+            }
+            finally
+            {
+                swapper.close();
+            }
+        }
+    }
+
+    @Test
+    void vectoredReadMustZeroPagesBeyondEndOfFile() throws IOException
+    {
+        PageSwapper swapper = factory.createPageSwapper( testDir.file( "a" ), PAGE_SIZE, filePageId -> {}, true, false );
+        try
+        {
+            long[] pages = allocatePages( 2 );
+            UnsafeUtil.putLong( pages[0], 1 );
+            UnsafeUtil.putLong( pages[1], 2 );
+            assertEquals( 2L * PAGE_SIZE, swapper.write( 0, pages, 0, pages.length ) );
+
+            long[] readPages = allocatePages( 4 );
+            for ( long readPage : readPages )
+            {
+                UnsafeUtil.setMemory( readPage, PAGE_SIZE, (byte) 1 );
+            }
+            assertEquals( PAGE_SIZE, swapper.read( 1, readPages, PAGE_SIZE, 0, 3 ) );
+            assertEquals( 2, UnsafeUtil.getLong( readPages[0] ) );
+            assertEquals( 0, UnsafeUtil.getLong( readPages[1] ) );
+            assertEquals( 0, UnsafeUtil.getLong( readPages[2] + PAGE_SIZE - Long.BYTES ) );
+            assertEquals( 0x0101010101010101L, UnsafeUtil.getLong( readPages[3] ) );
+
+            assertEquals( 0, swapper.read( 5, readPages, PAGE_SIZE, 3, 1 ) );
+            assertEquals( 0, UnsafeUtil.getLong( readPages[3] ) );
+        }
+        finally
+        {
+            swapper.close();
+        }
+    }
+
+    @Test
+    void mustUseBufferedIOOnOtherFileSystems() throws Exception
+    {
+        try ( EphemeralFileSystemAbstraction ephemeralFs = new EphemeralFileSystemAbstraction() )
+        {
+            DirectIOPageSwapperFactory ephemeralFactory = new DirectIOPageSwapperFactory();
+            ephemeralFactory.open( ephemeralFs, Configuration.EMPTY );
+            File file = new File( "a" ).getCanonicalFile();
+            ephemeralFs.mkdirs( file.getParentFile() );
+            PageSwapper swapper = ephemeralFactory.createPageSwapper( file, PAGE_SIZE, filePageId -> {}, true, false );
+            assertThat( swapper, not( instanceOf( DirectIOPageSwapper.class ) ) );
+            swapper.close();
+            ephemeralFactory.close();
+        }
+    }
+
+    private long[] allocatePages( int count )
+    {
+        long[] pages = new long[count];
+        for ( int i = 0; i < count; i++ )
+        {
+            pages[i] = allocator.allocateAligned( PAGE_SIZE, factory.getRequiredBufferAlignment() );
+            UnsafeUtil.setMemory( pages[i], PAGE_SIZE, (byte) 0 );
+        }
+        return pages;
+    }
+}
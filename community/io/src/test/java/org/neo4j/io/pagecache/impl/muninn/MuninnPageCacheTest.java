@@ -59,6 +59,7 @@ import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer.Fault;
 
 import static java.time.Duration.ofMillis;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -67,8 +68,10 @@ import static org.junit.jupiter.api.Assertions.assertTimeout;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer.Evict;
 
 public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
@@ -126,6 +129,259 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         }
     }
 
+    @Test
+    void readAheadMustFaultInPagesAheadOfSequentialScan()
+    {
+        assertTimeout( ofMillis( SEMI_LONG_TIMEOUT_MILLIS ), () ->
+        {
+            int pageCount = 64;
+            File file = file( "a" );
+            try ( StoreChannel channel = fs.create( file ) )
+            {
+                ByteBuffer buf = ByteBuffer.allocate( 8 * pageCount );
+                for ( long pageId = 0; pageId < pageCount; pageId++ )
+                {
+                    buf.putLong( pageId );
+                }
+                buf.flip();
+                channel.writeAll( buf );
+            }
+
+            DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+            try ( MuninnPageCache pageCache = createPageCache( fs, 1024, tracer, PageCursorTracerSupplier.NULL );
+                  PagedFile pagedFile = map( pageCache, file, 8 ) )
+            {
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD ) )
+                {
+                    // Pinning two consecutive pages is what makes the cursor start reading ahead.
+                    assertTrue( cursor.next() );
+                    assertTrue( cursor.next() );
+                    while ( tracer.readAheads() == 0 )
+                    {
+                        Thread.sleep( 1 );
+                    }
+
+                    for ( long pageId = 2; pageId < pageCount; pageId++ )
+                    {
+                        assertTrue( cursor.next() );
+                        long value;
+                        do
+                        {
+                            value = cursor.getLong();
+                        }
+                        while ( cursor.shouldRetry() );
+                        assertEquals( pageId, value );
+                    }
+                    assertFalse( cursor.next() );
+                }
+                assertThat( tracer.readAheadHits(), greaterThan( 0L ) );
+            }
+        } );
+    }
+
+    @Test
+    void unmappingMustWaitForReadAheadInFlight()
+    {
+        assertTimeout( ofMillis( SEMI_LONG_TIMEOUT_MILLIS ), () ->
+        {
+            int pageCount = 64;
+            File file = file( "a" );
+            try ( StoreChannel channel = fs.create( file ) )
+            {
+                ByteBuffer buf = ByteBuffer.allocate( 8 * pageCount );
+                for ( long pageId = 0; pageId < pageCount; pageId++ )
+                {
+                    buf.putLong( pageId );
+                }
+                buf.flip();
+                channel.writeAll( buf );
+            }
+
+            // Reads done by any other thread than this one are read-aheads, and we hold them up until the file has
+            // started unmapping.
+            Thread testThread = Thread.currentThread();
+            CountDownLatch readAheadStarted = new CountDownLatch( 1 );
+            CountDownLatch readAheadMayProceed = new CountDownLatch( 1 );
+            FileSystemAbstraction fs = new DelegatingFileSystemAbstraction( this.fs )
+            {
+                @Override
+                public StoreChannel open( File fileName, OpenMode openMode ) throws IOException
+                {
+                    return new DelegatingStoreChannel( super.open( fileName, openMode ) )
+                    {
+                        @Override
+                        public int read( ByteBuffer dst, long position ) throws IOException
+                        {
+                            if ( Thread.currentThread() != testThread )
+                            {
+                                readAheadStarted.countDown();
+                                try
+                                {
+                                    readAheadMayProceed.await();
+                                }
+                                catch ( InterruptedException e )
+                                {
+                                    Thread.currentThread().interrupt();
+                                }
+                            }
+                            return super.read( dst, position );
+                        }
+                    };
+                }
+            };
+
+            try ( MuninnPageCache pageCache = createPageCache( fs, 1024, PageCacheTracer.NULL, PageCursorTracerSupplier.NULL ) )
+            {
+                PagedFile pagedFile = map( pageCache, file, 8 );
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD ) )
+                {
+                    assertTrue( cursor.next() );
+                    assertTrue( cursor.next() );
+                }
+                readAheadStarted.await();
+
+                Future<?> unmapping = executor.submit( () ->
+                {
+                    pagedFile.close();
+                    return null;
+                } );
+                Thread.sleep( 10 );
+                assertFalse( unmapping.isDone() );
+                readAheadMayProceed.countDown();
+                unmapping.get();
+
+                // The swapper id of the unmapped file is reused, and no page of the old file may touch the new one.
+                try ( PagedFile other = map( pageCache, file( "b" ), 8 ) )
+                {
+                    try ( PageCursor cursor = other.io( 0, PF_SHARED_WRITE_LOCK ) )
+                    {
+                        for ( long pageId = 0; pageId < pageCount; pageId++ )
+                        {
+                            assertTrue( cursor.next() );
+                            cursor.putLong( pageId + x );
+                        }
+                    }
+                    evictAllPages( pageCache );
+                    try ( PageCursor cursor = other.io( 0, PF_SHARED_READ_LOCK ) )
+                    {
+                        for ( long pageId = 0; pageId < pageCount; pageId++ )
+                        {
+                            assertTrue( cursor.next() );
+                            long value;
+                            do
+                            {
+                                value = cursor.getLong();
+                            }
+                            while ( cursor.shouldRetry() );
+                            assertEquals( pageId + x, value );
+                        }
+                    }
+                }
+            }
+        } );
+    }
+
+    @Test
+    void mustEvictPagesFaultedInByTransientCursorsFirst() throws Exception
+    {
+        writeInitialDataTo( file( "a" ) );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 4, tracer, PageCursorTracerSupplier.NULL );
+                PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            // File page 0 is faulted into cache page 0 by a transient cursor, and file page 1 into cache page 1.
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_TRANSIENT ) )
+            {
+                assertTrue( cursor.next() );
+            }
+            try ( PageCursor cursor = pagedFile.io( 1, PF_SHARED_READ_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+            }
+            PageList pages = pageCache.pages;
+            assertFalse( pages.isInUse( pages.deref( 0 ) ) );
+            assertTrue( pages.isInUse( pages.deref( 1 ) ) );
+
+            // The clock arm points at the page that was not faulted in by the transient cursor,
+            // but the transient page must still be evicted first.
+            long clockArm = pageCache.evictPages( 1, 1, tracer.beginPageEvictions( 1 ) );
+            assertThat( clockArm, is( 1L ) );
+            assertEquals( 1, tracer.evictions() );
+            assertFalse( pages.isLoaded( pages.deref( 0 ) ) );
+            assertTrue( pages.isLoaded( pages.deref( 1 ) ) );
+        }
+    }
+
+    @Test
+    void mustWriteBackPagesThatStayedDirtySincePreviousWriteBack() throws Exception
+    {
+        writeInitialDataTo( file( "a" ) );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 4, tracer, PageCursorTracerSupplier.NULL );
+                PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+                cursor.putLong( x );
+                assertTrue( cursor.next() );
+                cursor.putLong( y );
+            }
+
+            // The first write back only notices that the pages are dirty.
+            pageCache.writeBackOldPages( IOLimiter.UNLIMITED );
+            assertEquals( 0, tracer.bytesWritten() );
+
+            // The second write back finds them still dirty, and writes them.
+            pageCache.writeBackOldPages( IOLimiter.UNLIMITED );
+            assertEquals( 16, tracer.bytesWritten() );
+
+            // Now they are clean, so there is nothing more to write.
+            pageCache.writeBackOldPages( IOLimiter.UNLIMITED );
+            pageCache.writeBackOldPages( IOLimiter.UNLIMITED );
+            assertEquals( 16, tracer.bytesWritten() );
+        }
+        ByteBuffer buf = readIntoBuffer( "a" );
+        assertEquals( x, buf.getLong() );
+        assertEquals( y, buf.getLong() );
+    }
+
+    @Test
+    void mustNotWriteBackPagesThatWereFlushedAndDirtiedAgainSincePreviousWriteBack() throws Exception
+    {
+        writeInitialDataTo( file( "a" ) );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 4, tracer, PageCursorTracerSupplier.NULL );
+                PagedFile pagedFile = map( pageCache, file( "a" ), 8 ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+                cursor.putLong( x );
+            }
+
+            // The write back marks the page, but then a flush writes it and must clear the mark.
+            pageCache.writeBackOldPages( IOLimiter.UNLIMITED );
+            pagedFile.flushAndForce();
+            long bytesWrittenByFlush = tracer.bytesWritten();
+            assertEquals( 8, bytesWrittenByFlush );
+
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+                cursor.putLong( y );
+            }
+
+            // The page is dirty again, but has not been dirty for a whole write back period yet.
+            pageCache.writeBackOldPages( IOLimiter.UNLIMITED );
+            assertEquals( bytesWrittenByFlush, tracer.bytesWritten() );
+            pageCache.writeBackOldPages( IOLimiter.UNLIMITED );
+            assertEquals( bytesWrittenByFlush + 8, tracer.bytesWritten() );
+        }
+        ByteBuffer buf = readIntoBuffer( "a" );
+        assertEquals( y, buf.getLong() );
+    }
+
     @Test
     void mustEvictCleanPageWithoutFlushing() throws Exception
     {
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.neo4j.graphdb.config.Configuration;
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
+import org.neo4j.io.pagecache.tracing.cursor.context.EmptyVersionContextSupplier;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.scheduler.ThreadPoolJobScheduler;
+import org.neo4j.test.extension.EphemeralFileSystemExtension;
+import org.neo4j.test.extension.Inject;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+@ExtendWith( EphemeralFileSystemExtension.class )
+class PageReplacementPoliciesTest
+{
+    private static final int PAGE_COUNT = 1000;
+
+    @Inject
+    private EphemeralFileSystemAbstraction fs;
+
+    @Test
+    void clockProMustKeepHotPagesBetterThanClockDuringScans() throws IOException
+    {
+        double clockHitRatio = simulateHotSetWithScan( PageReplacementPolicies.CLOCK );
+        double clockProHitRatio = simulateHotSetWithScan( PageReplacementPolicies.CLOCK_PRO );
+        assertThat( clockProHitRatio, greaterThan( clockHitRatio ) );
+    }
+
+    @Test
+    void clockProMustPromoteReaccessedPagesToHotWithinTheHotTarget() throws IOException
+    {
+        try ( SimulatedPageCache cache = new SimulatedPageCache( PAGE_COUNT, PageReplacementPolicies.CLOCK_PRO ) )
+        {
+            Random random = new Random( 1 );
+            for ( int i = 0; i < 100_000; i++ )
+            {
+                cache.access( "a", random.nextInt( PAGE_COUNT * 3 ) );
+            }
+            ClockProPolicy policy = (ClockProPolicy) cache.pages().getReplacementPolicy();
+            assertThat( policy.hotPages() > 0, is( true ) );
+            assertThat( policy.hotPages(), lessThanOrEqualTo( PAGE_COUNT ) );
+        }
+    }
+
+    @Test
+    void allPoliciesMustHitOnWorkingSetThatFitsInCache() throws IOException
+    {
+        for ( PageReplacementPolicies policy : PageReplacementPolicies.values() )
+        {
+            try ( SimulatedPageCache cache = new SimulatedPageCache( PAGE_COUNT, policy ) )
+            {
+                for ( int i = 0; i < 10; i++ )
+                {
+                    for ( int filePageId = 0; filePageId < PAGE_COUNT; filePageId++ )
+                    {
+                        cache.access( "a", filePageId );
+                    }
+                }
+                assertThat( cache.misses(), is( (long) PAGE_COUNT ) );
+            }
+        }
+    }
+
+    @Test
+    void allPoliciesMustKeepDataIntactWhenEvictingInRealPageCache() throws Exception
+    {
+        int cachePages = 20;
+        int filePages = cachePages * 10;
+        int cachePageSize = 8192;
+        for ( PageReplacementPolicies policy : PageReplacementPolicies.values() )
+        {
+            PageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+            swapperFactory.open( fs, Configuration.EMPTY );
+            long memory = cachePages * (long) (cachePageSize + PageList.META_DATA_BYTES_PER_PAGE);
+            File file = new File( "a-" + policy ).getCanonicalFile();
+            fs.mkdirs( file.getParentFile() );
+            MemoryAllocator allocator = MemoryAllocator.createAllocator( String.valueOf( memory ), new LocalMemoryTracker() );
+            try ( ThreadPoolJobScheduler jobScheduler = new ThreadPoolJobScheduler();
+                  MuninnPageCache pageCache = new MuninnPageCache( swapperFactory, allocator, cachePageSize, policy,
+                          PageCacheTracer.NULL, PageCursorTracerSupplier.NULL, EmptyVersionContextSupplier.EMPTY, jobScheduler );
+                  PagedFile pagedFile = pageCache.map( file, cachePageSize, CREATE ) )
+            {
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+                {
+                    for ( int pageId = 0; pageId < filePages; pageId++ )
+                    {
+                        assertTrue( cursor.next() );
+                        cursor.putLong( 0, pageId );
+                    }
+                }
+                // Re-read the pages in a pattern that is friendly to neither policy: a hot set mixed with a scan
+                Random random = new Random( 7 );
+                try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+                {
+                    for ( int i = 0; i < filePages * 5; i++ )
+                    {
+                        long pageId = random.nextBoolean() ? random.nextInt( cachePages / 2 ) : i % filePages;
+                        assertTrue( cursor.next( pageId ) );
+                        long value;
+                        do
+                        {
+                            value = cursor.getLong( 0 );
+                        }
+                        while ( cursor.shouldRetry() );
+                        assertEquals( pageId, value, "page " + pageId + " with " + policy );
+                    }
+                }
+            }
+            finally
+            {
+                allocator.close();
+            }
+        }
+    }
+
+    private static double simulateHotSetWithScan( PageReplacementPolicies policy ) throws IOException
+    {
+        try ( SimulatedPageCache cache = new SimulatedPageCache( PAGE_COUNT, policy ) )
+        {
+            Random random = new Random( 42 );
+            long scanPageId = 0;
+            for ( int i = 0; i < 100_000; i++ )
+            {
+                if ( random.nextBoolean() )
+                {
+                    cache.access( "hot", random.nextInt( PAGE_COUNT / 2 ) );
+                }
+                else
+                {
+                    cache.access( "scan", scanPageId++ );
+                }
+            }
+            return cache.hitRatio();
+        }
+    }
+}
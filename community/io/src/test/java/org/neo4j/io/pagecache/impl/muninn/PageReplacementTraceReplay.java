@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.neo4j.io.pagecache.tracing.PageAccessRecordingTracer;
+
+/**
+ * Replays a trace of page accesses against a {@link SimulatedPageCache} for every {@link PageReplacementPolicies
+ * policy}, and prints their hit ratios.
+ * <p>
+ * A trace has one page access per line, on the form {@code <file> <file page id>}, as recorded by the
+ * {@link PageAccessRecordingTracer}. Replaying a trace of only the page faults of a cache tells how the policies would
+ * have done with a smaller cache than that.
+ * <p>
+ * Usage: {@code PageReplacementTraceReplay <trace file> <cache size in pages>}
+ */
+public class PageReplacementTraceReplay
+{
+    private PageReplacementTraceReplay()
+    {
+    }
+
+    public static void main( String[] args ) throws IOException
+    {
+        if ( args.length != 2 )
+        {
+            System.err.println( "Usage: PageReplacementTraceReplay <trace file> <cache size in pages>" );
+            System.exit( 1 );
+        }
+        File traceFile = new File( args[0] );
+        int pageCount = Integer.parseInt( args[1] );
+        for ( PageReplacementPolicies policy : PageReplacementPolicies.values() )
+        {
+            long startTime = System.nanoTime();
+            try ( SimulatedPageCache cache = new SimulatedPageCache( pageCount, policy ) )
+            {
+                replay( traceFile, cache );
+                long millis = (System.nanoTime() - startTime) / 1_000_000;
+                System.out.printf( "%-10s hits: %12d, misses: %12d, hit ratio: %6.2f%%, replay time: %d ms%n",
+                        policy, cache.hits(), cache.misses(), cache.hitRatio() * 100, millis );
+            }
+        }
+    }
+
+    static void replay( File traceFile, SimulatedPageCache cache ) throws IOException
+    {
+        try ( BufferedReader reader = Files.newBufferedReader( traceFile.toPath(), StandardCharsets.UTF_8 ) )
+        {
+            String line;
+            while ( (line = reader.readLine()) != null )
+            {
+                line = line.trim();
+                if ( line.isEmpty() || line.startsWith( "#" ) )
+                {
+                    continue;
+                }
+                // File names can have spaces in them, but page ids cannot
+                int separator = line.lastIndexOf( ' ' );
+                cache.access( line.substring( 0, separator ).trim(), Long.parseLong( line.substring( separator + 1 ) ) );
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.neo4j.graphdb.config.Configuration;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.tracing.PageAccessRecordingTracer;
+import org.neo4j.io.pagecache.tracing.cursor.context.EmptyVersionContextSupplier;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.scheduler.ThreadPoolJobScheduler;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.TestDirectoryExtension;
+import org.neo4j.test.rule.TestDirectory;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+@ExtendWith( TestDirectoryExtension.class )
+class PageReplacementTraceReplayTest
+{
+    private static final int CACHE_PAGES = 20;
+    private static final int CACHE_PAGE_SIZE = 8192;
+
+    @Inject
+    private TestDirectory directory;
+
+    @Test
+    void mustReplayRecordedPins() throws Exception
+    {
+        // given
+        File traceFile = directory.file( "pins" );
+        File storeFile = directory.file( "store" );
+        try ( PageAccessRecordingTracer tracer = new PageAccessRecordingTracer( traceFile, false ) )
+        {
+            writeAndReread( tracer, storeFile, CACHE_PAGES * 3, 10 );
+        }
+
+        // then
+        List<String> lines = Files.readAllLines( traceFile.toPath(), StandardCharsets.UTF_8 );
+        assertEquals( CACHE_PAGES * 3 + 10, lines.size() );
+        assertEquals( storeFile.getPath() + " 0", lines.get( 0 ) );
+        assertEquals( storeFile.getPath() + " 9", lines.get( lines.size() - 1 ) );
+        try ( SimulatedPageCache cache = new SimulatedPageCache( CACHE_PAGES, PageReplacementPolicies.CLOCK ) )
+        {
+            PageReplacementTraceReplay.replay( traceFile, cache );
+            assertEquals( lines.size(), cache.hits() + cache.misses() );
+            assertEquals( CACHE_PAGES * 3 + 10, cache.misses() );
+        }
+    }
+
+    @Test
+    void mustRecordOnlyFaultsWhenAsked() throws Exception
+    {
+        // given
+        File traceFile = directory.file( "faults" );
+        try ( PageAccessRecordingTracer tracer = new PageAccessRecordingTracer( traceFile, true ) )
+        {
+            // when the pages that are re-read are all still cached
+            writeAndReread( tracer, directory.file( "store" ), 10, 10 );
+        }
+
+        // then
+        assertEquals( 10, Files.readAllLines( traceFile.toPath(), StandardCharsets.UTF_8 ).size() );
+    }
+
+    /**
+     * Write the given number of pages, and then read the first pages again, with the given tracer.
+     */
+    private static void writeAndReread( PageAccessRecordingTracer tracer, File file, int filePages, int rereadPages )
+            throws Exception
+    {
+        PageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.open( new DefaultFileSystemAbstraction(), Configuration.EMPTY );
+        long memory = CACHE_PAGES * (long) (CACHE_PAGE_SIZE + PageList.META_DATA_BYTES_PER_PAGE);
+        MemoryAllocator allocator = MemoryAllocator.createAllocator( String.valueOf( memory ), new LocalMemoryTracker() );
+        try ( ThreadPoolJobScheduler jobScheduler = new ThreadPoolJobScheduler();
+              MuninnPageCache pageCache = new MuninnPageCache( swapperFactory, allocator, CACHE_PAGE_SIZE,
+                      PageReplacementPolicies.CLOCK, tracer, tracer, EmptyVersionContextSupplier.EMPTY, jobScheduler );
+              PagedFile pagedFile = pageCache.map( file, CACHE_PAGE_SIZE, CREATE ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( int pageId = 0; pageId < filePages; pageId++ )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( 0, pageId );
+                }
+            }
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                for ( int pageId = 0; pageId < rereadPages; pageId++ )
+                {
+                    assertTrue( cursor.next() );
+                }
+            }
+        }
+        finally
+        {
+            allocator.close();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.tracing.DummyPageSwapper;
+import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
+import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+import org.neo4j.memory.GlobalMemoryTracker;
+
+/**
+ * A simulated page cache, for comparing the hit ratios of the different {@link PageReplacementPolicies} on
+ * synthetic access patterns in tests, and on recorded traces with the {@link PageReplacementTraceReplay}.
+ * <p>
+ * The simulation uses a real {@link PageList} with a real replacement policy, but does no IO and runs single-threaded
+ * with its own clock hand, so the results are deterministic and many accesses can be simulated quickly.
+ */
+class SimulatedPageCache implements AutoCloseable
+{
+    private static final int SWAPPER_ID_BITS = 21;
+
+    private final MemoryAllocator memoryAllocator;
+    private final SwapperSet swappers;
+    private final PageList pages;
+    private final int pageCount;
+    private final Map<String,Integer> swapperIds;
+    private final Map<Long,Long> residentPages;
+    private int unusedPages;
+    private int clockArm;
+    private long hits;
+    private long misses;
+
+    SimulatedPageCache( int pageCount, PageReplacementPolicies replacementPolicy )
+    {
+        long memory = (long) pageCount * PageList.META_DATA_BYTES_PER_PAGE + 4096;
+        this.memoryAllocator = MemoryAllocator.createAllocator( String.valueOf( memory ), GlobalMemoryTracker.INSTANCE );
+        this.swappers = new SwapperSet();
+        // The simulated pages never get any buffers, so a tiny cache page size will do.
+        this.pages = new PageList( pageCount, 8, memoryAllocator, swappers, 0, 8, replacementPolicy );
+        this.pageCount = pageCount;
+        this.swapperIds = new HashMap<>();
+        this.residentPages = new HashMap<>();
+    }
+
+    /**
+     * Access the given page, and fault it in if it is not already in the simulated page cache.
+     *
+     * @return {@code true} if the access was a hit, otherwise {@code false}.
+     */
+    boolean access( String file, long filePageId ) throws IOException
+    {
+        Integer swapperId = swapperIds.get( file );
+        if ( swapperId == null )
+        {
+            swapperId = swappers.allocate( new DummyPageSwapper( file, 8 ) );
+            swapperIds.put( file, swapperId );
+        }
+        long key = (filePageId << SWAPPER_ID_BITS) | swapperId;
+        Long residentPageRef = residentPages.get( key );
+        if ( residentPageRef != null )
+        {
+            hits++;
+            pages.pageAccessed( residentPageRef );
+            return true;
+        }
+
+        misses++;
+        // Pages that have never been used are exclusively locked, just like the pages on the freelist.
+        long pageRef = unusedPages < pageCount ? pages.deref( unusedPages++ ) : evict();
+        pages.fault( pageRef, swappers.getAllocation( swapperId ).swapper, swapperId, filePageId, PageFaultEvent.NULL );
+        pages.unlockExclusive( pageRef );
+        residentPages.put( key, pageRef );
+        pages.pageAccessed( pageRef );
+        return false;
+    }
+
+    private long evict() throws IOException
+    {
+        for ( ;; )
+        {
+            long pageRef = pages.deref( clockArm );
+            clockArm = clockArm + 1 == pageCount ? 0 : clockArm + 1;
+            if ( pages.isLoaded( pageRef ) && pages.shouldEvict( pageRef ) )
+            {
+                long key = (pages.getFilePageId( pageRef ) << SWAPPER_ID_BITS) | pages.getSwapperId( pageRef );
+                if ( pages.tryEvict( pageRef, EvictionRunEvent.NULL ) )
+                {
+                    residentPages.remove( key );
+                    return pageRef;
+                }
+            }
+        }
+    }
+
+    PageList pages()
+    {
+        return pages;
+    }
+
+    long hits()
+    {
+        return hits;
+    }
+
+    long misses()
+    {
+        return misses;
+    }
+
+    double hitRatio()
+    {
+        long accesses = hits + misses;
+        return accesses == 0 ? 0.0 : hits / (double) accesses;
+    }
+
+    @Override
+    public void close()
+    {
+        memoryAllocator.close();
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.graphdb.config.Configuration;
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.PageCacheOpenOptions;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
+import org.neo4j.io.pagecache.tracing.cursor.context.EmptyVersionContextSupplier;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.scheduler.ThreadPoolJobScheduler;
+import org.neo4j.test.extension.EphemeralFileSystemExtension;
+import org.neo4j.test.extension.Inject;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+@ExtendWith( EphemeralFileSystemExtension.class )
+class SizeClassPageCacheTest
+{
+    private static final int SMALL = 8192;
+    private static final int LARGE = 65536;
+
+    @Inject
+    private EphemeralFileSystemAbstraction fs;
+    private JobScheduler jobScheduler;
+    private PageSwapperFactory swapperFactory;
+    private MemoryAllocator smallAllocator;
+    private MemoryAllocator largeAllocator;
+    private MuninnPageCache small;
+    private MuninnPageCache large;
+    private SizeClassPageCache pageCache;
+
+    @BeforeEach
+    void setUp()
+    {
+        jobScheduler = new ThreadPoolJobScheduler();
+        swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.open( fs, Configuration.EMPTY );
+        smallAllocator = allocatorFor( 20, SMALL );
+        largeAllocator = allocatorFor( 20, LARGE );
+        small = sizeClass( smallAllocator, SMALL );
+        large = sizeClass( largeAllocator, LARGE );
+        pageCache = new SizeClassPageCache( large, small );
+    }
+
+    @AfterEach
+    void tearDown() throws Exception
+    {
+        pageCache.close();
+        smallAllocator.close();
+        largeAllocator.close();
+        jobScheduler.close();
+    }
+
+    @Test
+    void defaultPageSizeMustBeTheSmallestSizeClass()
+    {
+        assertEquals( SMALL, pageCache.pageSize() );
+        assertArrayEquals( new int[]{SMALL, LARGE}, pageCache.pageSizes() );
+        assertEquals( small.maxCachedPages() + large.maxCachedPages(), pageCache.maxCachedPages() );
+        assertEquals( small.maxCachedPages() * SMALL + large.maxCachedPages() * LARGE, pageCache.maxCachedBytes() );
+    }
+
+    @Test
+    void sharedTracerMustBeToldThePagesOfAllSizeClasses()
+    {
+        AtomicLong reportedMaxPages = new AtomicLong();
+        PageCacheTracer tracer = new DefaultPageCacheTracer()
+        {
+            @Override
+            public void maxPages( long maxPages )
+            {
+                reportedMaxPages.set( maxPages );
+            }
+        };
+        MemoryAllocator smallMemory = allocatorFor( 20, SMALL );
+        MemoryAllocator largeMemory = allocatorFor( 10, LARGE );
+        try
+        {
+            MuninnPageCache smallClass = sizeClass( smallMemory, SMALL, tracer );
+            MuninnPageCache largeClass = sizeClass( largeMemory, LARGE, tracer );
+            SizeClassPageCache sizeClassPageCache = new SizeClassPageCache( smallClass, largeClass );
+
+            assertEquals( smallClass.maxCachedPages() + largeClass.maxCachedPages(), reportedMaxPages.get() );
+            sizeClassPageCache.close();
+        }
+        finally
+        {
+            smallMemory.close();
+            largeMemory.close();
+        }
+    }
+
+    @Test
+    void filesMustBeMappedInTheSmallestSizeClassThatFits() throws IOException
+    {
+        try ( PagedFile a = pageCache.map( file( "a" ), SMALL, CREATE );
+              PagedFile b = pageCache.map( file( "b" ), LARGE, CREATE );
+              PagedFile c = pageCache.map( file( "c" ), 128, CREATE ) )
+        {
+            assertEquals( SMALL, a.pageSize() );
+            assertEquals( LARGE, b.pageSize() );
+            assertTrue( small.listExistingMappings().contains( a ) );
+            assertTrue( large.listExistingMappings().contains( b ) );
+            assertTrue( small.listExistingMappings().contains( c ) );
+            assertEquals( 3, pageCache.listExistingMappings().size() );
+        }
+    }
+
+    @Test
+    void mustReadAndWriteFilesWithLargePages() throws IOException
+    {
+        try ( PagedFile pagedFile = pageCache.map( file( "a" ), LARGE, CREATE ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( int pageId = 0; pageId < 50; pageId++ )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( LARGE - Long.BYTES, pageId );
+                }
+            }
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                for ( int pageId = 0; pageId < 50; pageId++ )
+                {
+                    assertTrue( cursor.next() );
+                    long value;
+                    do
+                    {
+                        value = cursor.getLong( LARGE - Long.BYTES );
+                    }
+                    while ( cursor.shouldRetry() );
+                    assertEquals( pageId, value );
+                }
+            }
+        }
+    }
+
+    @Test
+    void mappingWithAnyPageSizeMustReuseExistingMappingInAnySizeClass() throws IOException
+    {
+        try ( PagedFile a = pageCache.map( file( "a" ), LARGE, CREATE );
+              PagedFile b = pageCache.map( file( "a" ), SMALL, PageCacheOpenOptions.ANY_PAGE_SIZE ) )
+        {
+            assertSame( a, b );
+            assertSame( a, pageCache.getExistingMapping( file( "a" ) ).get() );
+            a.close();
+        }
+    }
+
+    @Test
+    void mustNotMapFileInTwoSizeClasses() throws IOException
+    {
+        try ( PagedFile ignore = pageCache.map( file( "a" ), LARGE, CREATE ) )
+        {
+            assertThrows( IllegalArgumentException.class, () -> pageCache.map( file( "a" ), SMALL ) );
+        }
+    }
+
+    @Test
+    void mustRejectFilePageSizeLargerThanLargestSizeClass()
+    {
+        assertThrows( IllegalArgumentException.class, () -> pageCache.map( file( "a" ), LARGE * 2, CREATE ) );
+    }
+
+    @Test
+    void mustRejectSizeClassesWithTheSamePageSize()
+    {
+        assertThrows( IllegalArgumentException.class, () -> new SizeClassPageCache( small, small ) );
+    }
+
+    private File file( String name ) throws IOException
+    {
+        File file = new File( name ).getCanonicalFile();
+        fs.mkdirs( file.getParentFile() );
+        return file;
+    }
+
+    private static MemoryAllocator allocatorFor( int pages, int cachePageSize )
+    {
+        long memory = pages * (long) (cachePageSize + PageList.META_DATA_BYTES_PER_PAGE);
+        return MemoryAllocator.createAllocator( String.valueOf( memory ), new LocalMemoryTracker() );
+    }
+
+    private MuninnPageCache sizeClass( MemoryAllocator allocator, int cachePageSize )
+    {
+        return sizeClass( allocator, cachePageSize, PageCacheTracer.NULL );
+    }
+
+    private MuninnPageCache sizeClass( MemoryAllocator allocator, int cachePageSize, PageCacheTracer tracer )
+    {
+        return new MuninnPageCache( swapperFactory, allocator, cachePageSize, PageReplacementPolicies.CLOCK,
+                tracer, PageCursorTracerSupplier.NULL, EmptyVersionContextSupplier.EMPTY, jobScheduler );
+    }
+}
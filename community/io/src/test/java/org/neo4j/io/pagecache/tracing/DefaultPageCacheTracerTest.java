@@ -24,6 +24,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.function.LongSupplier;
 
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.pagecache.PageSwapper;
@@ -140,6 +141,21 @@ public class DefaultPageCacheTracerTest
         assertThat( tracer.usageRatio(), closeTo( 0d, 0.0001 ) );
     }
 
+    @Test
+    void hugePageMemoryMustBeSumOfSourcesThatHaveNotBeenRemoved()
+    {
+        LongSupplier first = () -> 3;
+        LongSupplier second = () -> 5;
+        assertThat( tracer.hugePageMemory(), is( 0L ) );
+        tracer.addHugePageMemorySource( first );
+        tracer.addHugePageMemorySource( second );
+        assertThat( tracer.hugePageMemory(), is( 8L ) );
+        tracer.removeHugePageMemorySource( first );
+        assertThat( tracer.hugePageMemory(), is( 5L ) );
+        tracer.removeHugePageMemorySource( second );
+        assertThat( tracer.hugePageMemory(), is( 0L ) );
+    }
+
     private void assertCounts( long pins, long unpins, long hits, long faults, long evictions, long evictionExceptions,
             long flushes, long bytesRead, long bytesWritten, long filesMapped, long filesUnmapped, double hitRatio )
     {
@@ -20,6 +20,7 @@
 package org.neo4j.io.pagecache.tracing;
 
 import java.io.File;
+import java.util.function.LongSupplier;
 
 import org.neo4j.io.pagecache.PageSwapper;
 
@@ -109,6 +110,30 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.evictionExceptions();
     }
 
+    @Override
+    public long readAheads()
+    {
+        return delegate.readAheads();
+    }
+
+    @Override
+    public long readAheadHits()
+    {
+        return delegate.readAheadHits();
+    }
+
+    @Override
+    public long readAheadMisses()
+    {
+        return delegate.readAheadMisses();
+    }
+
+    @Override
+    public long hugePageMemory()
+    {
+        return delegate.hugePageMemory();
+    }
+
     @Override
     public double hitRatio()
     {
@@ -181,6 +206,36 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         delegate.maxPages( maxPages );
     }
 
+    @Override
+    public void readAheads( long readAheads )
+    {
+        delegate.readAheads( readAheads );
+    }
+
+    @Override
+    public void readAheadHits( long readAheadHits )
+    {
+        delegate.readAheadHits( readAheadHits );
+    }
+
+    @Override
+    public void readAheadMisses( long readAheadMisses )
+    {
+        delegate.readAheadMisses( readAheadMisses );
+    }
+
+    @Override
+    public void addHugePageMemorySource( LongSupplier hugePageMemory )
+    {
+        delegate.addHugePageMemorySource( hugePageMemory );
+    }
+
+    @Override
+    public void removeHugePageMemorySource( LongSupplier hugePageMemory )
+    {
+        delegate.removeHugePageMemorySource( hugePageMemory );
+    }
+
     @Override
     public long filesMapped()
     {
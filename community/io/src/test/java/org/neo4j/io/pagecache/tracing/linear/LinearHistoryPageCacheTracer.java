@@ -20,6 +20,7 @@
 package org.neo4j.io.pagecache.tracing.linear;
 
 import java.io.File;
+import java.util.function.LongSupplier;
 
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
@@ -150,6 +151,30 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
         return 0d;
     }
 
+    @Override
+    public long readAheads()
+    {
+        return 0;
+    }
+
+    @Override
+    public long readAheadHits()
+    {
+        return 0;
+    }
+
+    @Override
+    public long readAheadMisses()
+    {
+        return 0;
+    }
+
+    @Override
+    public long hugePageMemory()
+    {
+        return 0;
+    }
+
     @Override
     public double usageRatio()
     {
@@ -205,4 +230,29 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
     public void maxPages( long maxPages )
     {
     }
+
+    @Override
+    public void readAheads( long readAheads )
+    {
+    }
+
+    @Override
+    public void readAheadHits( long readAheadHits )
+    {
+    }
+
+    @Override
+    public void readAheadMisses( long readAheadMisses )
+    {
+    }
+
+    @Override
+    public void addHugePageMemorySource( LongSupplier hugePageMemory )
+    {
+    }
+
+    @Override
+    public void removeHugePageMemorySource( LongSupplier hugePageMemory )
+    {
+    }
 }
@@ -22,6 +22,7 @@ package org.neo4j.io.pagecache.tracing.recording;
 import java.io.File;
 import java.io.IOException;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.tracing.EvictionEvent;
@@ -155,6 +156,30 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return 0d;
     }
 
+    @Override
+    public long readAheads()
+    {
+        return 0;
+    }
+
+    @Override
+    public long readAheadHits()
+    {
+        return 0;
+    }
+
+    @Override
+    public long readAheadMisses()
+    {
+        return 0;
+    }
+
+    @Override
+    public long hugePageMemory()
+    {
+        return 0;
+    }
+
     @Override
     public double usageRatio()
     {
@@ -214,6 +239,31 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
     {
     }
 
+    @Override
+    public void readAheads( long readAheads )
+    {
+    }
+
+    @Override
+    public void readAheadHits( long readAheadHits )
+    {
+    }
+
+    @Override
+    public void readAheadMisses( long readAheadMisses )
+    {
+    }
+
+    @Override
+    public void addHugePageMemorySource( LongSupplier hugePageMemory )
+    {
+    }
+
+    @Override
+    public void removeHugePageMemorySource( LongSupplier hugePageMemory )
+    {
+    }
+
     private void evicted( long filePageId, PageSwapper swapper )
     {
         record( new Evict( swapper, filePageId ) );
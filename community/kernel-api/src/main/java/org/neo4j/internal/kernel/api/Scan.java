@@ -21,11 +21,22 @@ package org.neo4j.internal.kernel.api;
 
 /**
  * Initializer for spreading a scan operator over multiple cursors for use from different threads in parallel.
+ * <p>
+ * The scan is split into batches, each thread reserving the next batch by calling {@link #reserveBatch(Cursor, int)}
+ * with a cursor of its own. The batches reserved over all threads together contain each entity of the scan exactly
+ * once, but which thread gets which batch is not defined.
  *
  * @param <Cursor>
  *         the type of cursor this object initializes.
  */
 public interface Scan<Cursor extends org.neo4j.internal.kernel.api.Cursor>
 {
-    void initialize( Cursor cursor );
+    /**
+     * Reserves the next batch of the scan and initializes the given cursor to iterate over it.
+     *
+     * @param cursor the cursor to initialize, must not be shared with other threads.
+     * @param sizeHint the approximate number of entity ids the batch should cover, must be positive.
+     * @return {@code true} if a batch was reserved, {@code false} if the scan is exhausted.
+     */
+    boolean reserveBatch( Cursor cursor, int sizeHint );
 }
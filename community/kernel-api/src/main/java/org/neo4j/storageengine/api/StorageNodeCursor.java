@@ -24,6 +24,16 @@ package org.neo4j.storageengine.api;
  */
 public interface StorageNodeCursor extends StorageEntityScanCursor
 {
+    /**
+     * Initializes this cursor so that it will scan over existing nodes with ids in the range
+     * {@code [startInclusive, endExclusive)}. Unlike {@link #scan()} the end of the range is fixed when initialized,
+     * which makes it possible to split a scan over all nodes into several non-overlapping ranges.
+     *
+     * @param startInclusive first node id to read.
+     * @param endExclusive node id to stop at.
+     */
+    void scanRange( long startInclusive, long endExclusive );
+
     /**
      * @return label ids of the node this cursor currently is placed at.
      */
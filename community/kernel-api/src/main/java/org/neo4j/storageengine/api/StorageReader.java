@@ -231,6 +231,11 @@ public interface StorageReader extends AutoCloseable, StorageSchemaReader
 
     long nodesGetCount();
 
+    /**
+     * @return the highest node id that may be in use, i.e. an upper bound for node scans.
+     */
+    long nodesGetHighestPossibleIdInUse();
+
     long relationshipsGetCount();
 
     int labelCount();
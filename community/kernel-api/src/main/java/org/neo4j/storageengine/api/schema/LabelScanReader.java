@@ -46,6 +46,17 @@ public interface LabelScanReader extends Resource
      */
     void nodesWithLabel( IndexProgressor.NodeLabelClient client, int labelId );
 
+    /**
+     * Sets the client up for a label scan on <code>labelId</code>, limited to nodes with ids in the range
+     * {@code [fromId, toId)}.
+     *
+     * @param client the client to communicate with
+     * @param labelId label token id
+     * @param fromId node id to start at, inclusive
+     * @param toId node id to stop at, exclusive
+     */
+    void nodesWithLabel( IndexProgressor.NodeLabelClient client, int labelId, long fromId, long toId );
+
     /**
      * @param labelIds label token ids.
      * @return node ids with any of the given label ids.
@@ -90,6 +90,28 @@ public abstract class LargeNodeCursorTestBase<G extends KernelAPIReadTestSupport
         assertEquals( NODE_IDS, ids );
     }
 
+    @Test
+    public void shouldScanNodesInBatches()
+    {
+        // given
+        List<Long> ids = new ArrayList<>();
+        Scan<NodeCursor> scan = read.allNodesScan();
+        try ( NodeCursor nodes = cursors.allocateNodeCursor() )
+        {
+            // when
+            while ( scan.reserveBatch( nodes, 100 ) )
+            {
+                while ( nodes.next() )
+                {
+                    ids.add( nodes.nodeReference() );
+                }
+            }
+        }
+
+        // then
+        assertEquals( NODE_IDS, ids );
+    }
+
     @Test
     public void shouldAccessNodesByReference()
     {
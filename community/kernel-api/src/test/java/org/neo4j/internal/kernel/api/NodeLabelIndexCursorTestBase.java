@@ -25,6 +25,8 @@ import org.junit.Test;
 
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.neo4j.internal.kernel.api.IndexReadAsserts.assertNodeCount;
 import static org.neo4j.internal.kernel.api.IndexReadAsserts.assertNodes;
 
@@ -132,6 +134,51 @@ public abstract class NodeLabelIndexCursorTestBase<G extends KernelAPIWriteTestS
         }
     }
 
+    @Test
+    public void shouldFindNodesByLabelInBatchesInTx() throws Exception
+    {
+        MutableLongSet expected = new LongHashSet();
+        long deletedInTx;
+
+        try ( Transaction tx = beginTransaction() )
+        {
+            for ( int i = 0; i < 200; i++ )
+            {
+                long node = createNode( tx.dataWrite(), i % 2 == 0 ? labelOne : labelTwo );
+                if ( i % 2 == 0 )
+                {
+                    expected.add( node );
+                }
+            }
+            deletedInTx = createNode( tx.dataWrite(), labelOne );
+            tx.success();
+        }
+
+        try ( Transaction tx = beginTransaction() )
+        {
+            tx.dataWrite().nodeDelete( deletedInTx );
+            expected.add( createNode( tx.dataWrite(), labelOne ) );
+
+            Scan<NodeLabelIndexCursor> scan = tx.dataRead().nodeLabelScan( labelOne );
+            MutableLongSet found = new LongHashSet();
+
+            try ( NodeLabelIndexCursor cursor = tx.cursors().allocateNodeLabelIndexCursor() )
+            {
+                // when
+                while ( scan.reserveBatch( cursor, 10 ) )
+                {
+                    while ( cursor.next() )
+                    {
+                        assertTrue( "should find each node once", found.add( cursor.nodeReference() ) );
+                    }
+                }
+            }
+
+            // then
+            assertEquals( expected, found );
+        }
+    }
+
     private long createNode( Write write, int... labels ) throws KernelException
     {
         long nodeId = write.nodeCreate();
@@ -23,7 +23,11 @@ import java.io.File;
 import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import org.neo4j.configuration.Description;
 import org.neo4j.configuration.Dynamic;
@@ -34,7 +38,11 @@ import org.neo4j.csv.reader.Configuration;
 import org.neo4j.graphdb.config.Setting;
 import org.neo4j.helpers.AdvertisedSocketAddress;
 import org.neo4j.helpers.ListenSocketAddress;
+import org.neo4j.helpers.Numbers;
 import org.neo4j.io.ByteUnit;
+import org.neo4j.io.mem.HugePageMode;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.impl.muninn.PageReplacementPolicies;
 import org.neo4j.kernel.configuration.BoltConnectorValidator;
 import org.neo4j.kernel.configuration.ConfigurationMigrator;
 import org.neo4j.kernel.configuration.GraphDatabaseConfigurationMigrator;
@@ -46,6 +54,7 @@ import org.neo4j.kernel.configuration.Settings;
 import org.neo4j.kernel.configuration.Title;
 import org.neo4j.kernel.configuration.ssl.SslPolicyConfigValidator;
 import org.neo4j.kernel.impl.factory.Edition;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCodec;
 import org.neo4j.logging.Level;
 import org.neo4j.logging.LogTimeZone;
 
@@ -56,6 +65,7 @@ import static org.neo4j.kernel.configuration.Settings.BYTES;
 import static org.neo4j.kernel.configuration.Settings.DEFAULT;
 import static org.neo4j.kernel.configuration.Settings.DOUBLE;
 import static org.neo4j.kernel.configuration.Settings.DURATION;
+import static org.neo4j.kernel.configuration.Settings.EMPTY;
 import static org.neo4j.kernel.configuration.Settings.FALSE;
 import static org.neo4j.kernel.configuration.Settings.INTEGER;
 import static org.neo4j.kernel.configuration.Settings.LONG;
@@ -414,6 +424,13 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Integer> cypher_worker_count =
             setting( "unsupported.cypher.number_of_workers", INTEGER, "0" );
 
+    @Description( "The scheduler that the parallel runtime uses to run its work on the Cypher worker threads. " +
+            "`simple` hands the work to the workers in the order it is produced. `work_stealing` keeps the work " +
+            "that a worker produces on that worker, runs it depth first, and lets idle workers steal work from the others." )
+    @Internal
+    public static final Setting<String> cypher_morsel_scheduler =
+            setting( "unsupported.cypher.morsel_scheduler", optionsObeyCase( "simple", "work_stealing" ), "simple" );
+
     @Description( "Max number of recent queries to collect in the data collector module. Will round down to the" +
             " nearest power of two. The default number (8192 query invocations) " +
             " was chosen as a trade-off between getting a useful amount of queries, and not" +
@@ -576,6 +593,14 @@ public class GraphDatabaseSettings implements LoadableConfig
                   "Removing the setting, or commenting it out, will set the default value of 300." )
     public static final Setting<Integer> check_point_iops_limit = setting( "dbms.checkpoint.iops.limit", INTEGER, "300" );
 
+    @Description( "Interval at which dirty pages that have stayed dirty since the previous interval are written back " +
+                  "to the store files in the background, within the 'dbms.checkpoint.iops.limit'. This spreads the " +
+                  "IO of check-pointing out over time, and leaves each check-point with fewer pages to flush. " +
+                  "A value of 0 disables background write back." )
+    @Internal
+    public static final Setting<Duration> check_point_write_back_interval =
+            setting( "unsupported.dbms.checkpoint.write_back_interval", DURATION, "0s" );
+
     // Auto Indexing
     @Description( "Controls the auto indexing feature for nodes. Setting it to `false` shuts it down, " +
             "while `true` enables it by default for properties listed in the dbms.auto_index.nodes.keys setting." )
@@ -771,10 +796,60 @@ public class GraphDatabaseSettings implements LoadableConfig
             buildSetting( "dbms.memory.pagecache.size", STRING, null ).build();
 
     @Description( "Specify which page swapper to use for doing paged IO. " +
-                  "This is only used when integrating with proprietary storage technology." )
+                  "The `async` page swapper keeps many reads and writes in flight at the same time, when the page " +
+                  "cache faults or flushes many pages at once, which can help on devices with deep IO queues. " +
+                  "The `direct` page swapper uses direct IO where the file system and the file page size allow it, so " +
+                  "store files are not cached by the operating system in addition to the page cache. Direct IO needs " +
+                  "file page sizes that are multiples of the file system block size, so the node, relationship and " +
+                  "property stores, whose pages hold a whole number of records, keep using buffered IO. " +
+                  "Other page swappers are only used when integrating with proprietary storage technology." )
     public static final Setting<String> pagecache_swapper =
             setting( "dbms.memory.pagecache.swapper", STRING, null );
 
+    @Internal
+    @Description( "Specify which page replacement policy the page cache should use, to decide which pages to evict " +
+                  "when it needs memory for new pages. The CLOCK policy is cheap and works well when the working set " +
+                  "fits in the page cache. The CLOCK_PRO policy keeps track of recently evicted pages, and can give " +
+                  "better hit ratios when the working set is larger than the page cache, or when there are many scans." )
+    public static final Setting<PageReplacementPolicies> pagecache_replacement_policy =
+            setting( "unsupported.dbms.memory.pagecache.replacement_policy",
+                    optionsObeyCase( PageReplacementPolicies.class ), PageReplacementPolicies.CLOCK.name() );
+
+    @Internal
+    @Description( "Specify how the page cache should try to get its memory backed by huge pages, which reduces the " +
+                  "number of TLB misses when the page cache is large. The TRANSPARENT mode allocates the memory in " +
+                  "huge page aligned chunks, so the operating system can back it with transparent huge pages. On Linux this " +
+                  "requires transparent huge pages to be enabled in always mode, since the chunks are not madvised. " +
+                  "The HUGETLBFS mode maps the memory from a hugetlbfs mount, which requires huge pages to be reserved up " +
+                  "front, and falls back to the TRANSPARENT mode when there are not enough of them." )
+    public static final Setting<HugePageMode> pagecache_huge_pages =
+            setting( "unsupported.dbms.memory.pagecache.huge_pages", optionsObeyCase( HugePageMode.class ),
+                    HugePageMode.DISABLED.name() );
+
+    @Internal
+    @Description( "A directory in a mounted hugetlbfs file system, for the page cache to map its memory from when " +
+                  "`unsupported.dbms.memory.pagecache.huge_pages` is HUGETLBFS." )
+    public static final Setting<File> pagecache_hugetlbfs_directory =
+            setting( "unsupported.dbms.memory.pagecache.hugetlbfs_directory", PATH, "/dev/hugepages" );
+
+    @Internal
+    @Description( "Additional page sizes for the page cache to manage, besides its default page size. Every page size " +
+                  "class gets its own share of the page cache memory and does its own eviction, and files are cached " +
+                  "in the smallest page size class that fits their page size. This way files with large pages, like " +
+                  "indexes, can be cached without causing read amplification for the files with small pages. " +
+                  "The page sizes must be distinct powers of two, larger than the default page size of 8 KiB." )
+    public static final Setting<List<Long>> pagecache_page_size_classes =
+            buildSetting( "unsupported.dbms.memory.pagecache.page_size_classes", list( ",", BYTES ), EMPTY )
+                    .constraint( pageSizeClasses() ).build();
+
+    @Internal
+    @Description( "The fraction of the page cache memory that is divided evenly between the additional page size " +
+                  "classes given by `unsupported.dbms.memory.pagecache.page_size_classes`. The rest of the memory " +
+                  "goes to the default page size." )
+    public static final Setting<Double> pagecache_page_size_classes_memory_ratio =
+            buildSetting( "unsupported.dbms.memory.pagecache.page_size_classes.memory_ratio", DOUBLE, "0.25" )
+                    .constraint( range( 0.0, 1.0 ) ).build();
+
     @Internal
     @Description( "The profiling frequency for the page cache. Accurate profiles allow the page cache to do active " +
                   "warmup after a restart, reducing the mean time to performance. " +
@@ -836,6 +911,54 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Integer> record_id_batch_size = buildSetting( "unsupported.dbms.record_id_batch_size", INTEGER,
             "20" ).constraint( range( 1, 1_000 ) ).build();
 
+    @Description( "Specifies the max size that id batches local to each transaction grow to when committing " +
+            "transactions that create many records. Each time a batch of ids for a record type runs out the " +
+            "next batch is twice as big, up to this size, so that bulk creating transactions get contiguous ids " +
+            "with fewer trips to the contended id generator. " +
+            "0, or any value not larger than unsupported.dbms.record_id_batch_size, disables growing batches." )
+    @Internal
+    public static final Setting<Integer> record_id_max_batch_size = buildSetting( "unsupported.dbms.record_id_max_batch_size", INTEGER,
+            "0" ).constraint( range( 0, 100_000 ) ).build();
+
+    @Description( "Number of threads writing records when applying transactions that were committed elsewhere, " +
+            "i.e. during recovery and on instances pulling transactions from another instance. " +
+            "Consecutive transactions which do not write the same records have their node, relationship, " +
+            "property and relationship group records written in parallel. 1 applies transactions sequentially." )
+    @Internal
+    public static final Setting<Integer> transaction_apply_parallelism = buildSetting( "unsupported.dbms.transaction_apply_parallelism", INTEGER,
+            "1" ).constraint( range( 1, 128 ) ).build();
+
+    @Description( "Number of threads applying updates to schema indexes when transactions are applied. Each index " +
+            "has a single writer, but updates to different indexes are independent, so a batch of transactions " +
+            "touching several indexes can have them updated at the same time. 1 updates the indexes one after another." )
+    @Internal
+    public static final Setting<Integer> index_update_parallelism = buildSetting( "unsupported.dbms.index.update_parallelism", INTEGER,
+            "1" ).constraint( range( 1, 128 ) ).build();
+
+    @Description( "Number of recovered transactions applied to the store together in one batch. Batching lets " +
+            "index and label scan store updates be applied in bulk, and lets transactions be applied in parallel " +
+            "as configured by 'unsupported.dbms.transaction_apply_parallelism'. 1 applies transactions one by one." )
+    @Internal
+    public static final Setting<Integer> recovery_batch_size = buildSetting( "unsupported.dbms.recovery.batch_size", INTEGER,
+            "64" ).constraint( range( 1, 10_000 ) ).build();
+
+    @Description( "Upper bound on how long the thread forcing the transaction log waits for concurrently appending " +
+            "transactions to join its force. The actual delay adapts to the measured force latency, and is only " +
+            "spent while other transactions are still being appended. 0 disables the delay." )
+    @Internal
+    public static final Setting<Duration> tx_log_group_commit_max_delay =
+            setting( "unsupported.dbms.tx_log.group_commit_max_delay", DURATION, "0ms" );
+
+    @Description( "Compression codec for the commands of transactions written to the transaction log. " +
+            "Commands are compressed in blocks, while the log entries marking the start and commit of transactions " +
+            "are left uncompressed. LZ4 adds the least commit latency, while DEFLATE compresses better. Logs of any " +
+            "codec can be read regardless of this setting, but logs written with compression can't be read by " +
+            "versions that don't support it." )
+    @Internal
+    public static final Setting<LogEntryCodec> tx_log_compression =
+            setting( "unsupported.dbms.tx_log.compression", optionsObeyCase( LogEntryCodec.class ),
+                    LogEntryCodec.NONE.name() );
+
     @Description( "An identifier that uniquely identifies this graph database instance within this JVM. " +
             "Defaults to an auto-generated number depending on how many instance are started in this JVM." )
     @Internal
@@ -1131,6 +1254,41 @@ public class GraphDatabaseSettings implements LoadableConfig
     @SuppressWarnings( "unused" )
     public static final HttpConnectorValidator httpValidator = new HttpConnectorValidator();
 
+    private static BiFunction<List<Long>,Function<String,String>,List<Long>> pageSizeClasses()
+    {
+        return new BiFunction<List<Long>,Function<String,String>,List<Long>>()
+        {
+            @Override
+            public List<Long> apply( List<Long> pageSizes, Function<String,String> settings )
+            {
+                Set<Long> seen = new HashSet<>();
+                for ( Long pageSize : pageSizes )
+                {
+                    if ( !Numbers.isPowerOfTwo( pageSize ) )
+                    {
+                        throw new IllegalArgumentException( "page size " + pageSize + " is not a power of 2" );
+                    }
+                    if ( pageSize <= PageCache.PAGE_SIZE )
+                    {
+                        throw new IllegalArgumentException( "page size " + pageSize + " is not larger than the default page size of " +
+                                PageCache.PAGE_SIZE );
+                    }
+                    if ( !seen.add( pageSize ) )
+                    {
+                        throw new IllegalArgumentException( "page size " + pageSize + " is given more than once" );
+                    }
+                }
+                return pageSizes;
+            }
+
+            @Override
+            public String toString()
+            {
+                return "is a list of distinct powers of 2, larger than " + PageCache.PAGE_SIZE;
+            }
+        };
+    }
+
     /**
      * @param key connection identifier.
      * @return a new connector setting instance.
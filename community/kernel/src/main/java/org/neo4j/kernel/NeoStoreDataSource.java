@@ -102,6 +102,7 @@ import org.neo4j.kernel.impl.transaction.log.LogVersionRepository;
 import org.neo4j.kernel.impl.transaction.log.LogVersionUpgradeChecker;
 import org.neo4j.kernel.impl.transaction.log.LoggingLogFileMonitor;
 import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.MappedTransactionLogReader;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogicalTransactionStore;
 import org.neo4j.kernel.impl.transaction.log.ReadableClosablePositionAwareChannel;
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
@@ -110,6 +111,7 @@ import org.neo4j.kernel.impl.transaction.log.TransactionMetadataCache;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointScheduler;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThreshold;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointerImpl;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.PageWriteBackScheduler;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.SimpleTriggerInfo;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.StoreCopyCheckPointMutex;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
@@ -546,10 +548,13 @@ public class NeoStoreDataSource extends LifecycleAdapter
 
         final TransactionAppender appender = life.add( new BatchingTransactionAppender(
                 logFiles, logRotation, transactionMetadataCache, transactionIdStore, explicitIndexTransactionOrdering,
-                databaseHealth ) );
+                databaseHealth, config.get( GraphDatabaseSettings.tx_log_group_commit_max_delay ).toMillis(),
+                config.get( GraphDatabaseSettings.tx_log_compression ) ) );
         final LogicalTransactionStore logicalTransactionStore =
                 new PhysicalLogicalTransactionStore( logFiles, transactionMetadataCache, logEntryReader, monitors,
                         failOnCorruptedLogFiles );
+        final MappedTransactionLogReader mappedTransactionLogReader =
+                life.add( new MappedTransactionLogReader( fs, logFiles, transactionMetadataCache ) );
 
         CheckPointThreshold threshold = CheckPointThreshold.createThreshold( config, clock, logPruning, logProvider );
 
@@ -564,8 +569,14 @@ public class NeoStoreDataSource extends LifecycleAdapter
         life.add( checkPointer );
         life.add( checkPointScheduler );
 
+        long writeBackPeriod = config.get( GraphDatabaseSettings.check_point_write_back_interval ).toMillis();
+        if ( writeBackPeriod > 0 )
+        {
+            life.add( new PageWriteBackScheduler( pageCache, ioLimiter, scheduler, writeBackPeriod, logProvider ) );
+        }
+
         return new NeoStoreTransactionLogModule( logicalTransactionStore, logFiles,
-                logRotation, checkPointer, appender, explicitIndexTransactionOrdering );
+                logRotation, checkPointer, appender, explicitIndexTransactionOrdering, mappedTransactionLogReader );
     }
 
     private void buildRecovery(
@@ -580,7 +591,8 @@ public class NeoStoreDataSource extends LifecycleAdapter
             LogVersionRepository logVersionRepository )
     {
         RecoveryService recoveryService = new DefaultRecoveryService( storageEngine, tailScanner, transactionIdStore,
-                logicalTransactionStore, logVersionRepository, positionMonitor );
+                logicalTransactionStore, logVersionRepository, positionMonitor,
+                config.get( GraphDatabaseSettings.recovery_batch_size ), scheduler );
         CorruptedLogsTruncator logsTruncator = new CorruptedLogsTruncator( databaseLayout.databaseDirectory(), logFiles, fileSystemAbstraction );
         ProgressReporter progressReporter = new LogProgressReporter( logService.getInternalLog( Recovery.class ) );
         Lifecycle schemaLife = storageEngine.schemaAndTokensLifecycle();
@@ -20,6 +20,7 @@
 package org.neo4j.kernel;
 
 import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.MappedTransactionLogReader;
 import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointer;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointerImpl;
@@ -36,11 +37,13 @@ class NeoStoreTransactionLogModule
     private final CheckPointerImpl checkPointer;
     private final TransactionAppender appender;
     private final SynchronizedArrayIdOrderingQueue explicitIndexTransactionOrdering;
+    private final MappedTransactionLogReader mappedTransactionLogReader;
 
     NeoStoreTransactionLogModule( LogicalTransactionStore logicalTransactionStore,
             LogFiles logFiles, LogRotation logRotation,
             CheckPointerImpl checkPointer, TransactionAppender appender,
-            SynchronizedArrayIdOrderingQueue explicitIndexTransactionOrdering )
+            SynchronizedArrayIdOrderingQueue explicitIndexTransactionOrdering,
+            MappedTransactionLogReader mappedTransactionLogReader )
     {
         this.logicalTransactionStore = logicalTransactionStore;
         this.logFiles = logFiles;
@@ -48,6 +51,7 @@ class NeoStoreTransactionLogModule
         this.checkPointer = checkPointer;
         this.appender = appender;
         this.explicitIndexTransactionOrdering = explicitIndexTransactionOrdering;
+        this.mappedTransactionLogReader = mappedTransactionLogReader;
     }
 
     public LogicalTransactionStore logicalTransactionStore()
@@ -73,6 +77,7 @@ class NeoStoreTransactionLogModule
                                           explicitIndexTransactionOrdering,
                                           logicalTransactionStore,
                                           logRotation,
-                                          appender );
+                                          appender,
+                                          mappedTransactionLogReader );
     }
 }
@@ -19,6 +19,9 @@
  */
 package org.neo4j.kernel.impl.api.index;
 
+import java.util.concurrent.Executor;
+
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.internal.kernel.api.TokenNameLookup;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.api.SchemaState;
@@ -26,6 +29,7 @@ import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingController;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingControllerFactory;
 import org.neo4j.logging.LogProvider;
+import org.neo4j.scheduler.Group;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.schema.SchemaRule;
 
@@ -59,8 +63,11 @@ public class IndexingServiceFactory
         IndexProxyCreator proxySetup =
                 new IndexProxyCreator( samplingConfig, storeView, providerMap, tokenNameLookup, internalLogProvider );
 
+        int updateParallelism = config.get( GraphDatabaseSettings.index_update_parallelism );
+        Executor updateExecutor = updateParallelism > 1 ? scheduler.executor( Group.INDEX_UPDATE_APPLY ) : null;
+
         return new IndexingService( proxySetup, providerMap, indexMapRef, storeView, schemaRules,
                 indexSamplingController, tokenNameLookup, scheduler, schemaState,
-                multiPopulatorFactory, internalLogProvider, userLogProvider, monitor, readOnly );
+                multiPopulatorFactory, internalLogProvider, userLogProvider, monitor, readOnly, updateExecutor, updateParallelism );
     }
 }
@@ -19,6 +19,9 @@
  */
 package org.neo4j.kernel.impl.api.index;
 
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -96,6 +99,9 @@ public class MultipleIndexPopulator implements IndexPopulator
     // Concurrency queue since multiple concurrent threads may enqueue updates into it. It is important for this queue
     // to have fast #size() method since it might be drained in batches
     final Queue<IndexEntryUpdate<?>> updatesQueue = new LinkedBlockingQueue<>();
+    // Updates taken from the queue which the store scan couldn't decide about yet, see StoreScan#deferUpdate.
+    // Only accessed by the thread applying the queue.
+    private final List<IndexEntryUpdate<?>> deferredUpdates = new ArrayList<>();
 
     // Populators are added into this list. The same thread adding populators will later call #indexAllEntities.
     // Multiple concurrent threads might fail individual populations.
@@ -396,7 +402,7 @@ public class MultipleIndexPopulator implements IndexPopulator
      */
     boolean populateFromQueue( int queueThreshold, long currentlyIndexedNodeId )
     {
-        int queueSize = updatesQueue.size();
+        int queueSize = updatesQueue.size() + deferredUpdates.size();
         if ( queueSize > 0 && queueSize >= queueThreshold )
         {
             if ( PRINT_DEBUG )
@@ -409,17 +415,19 @@ public class MultipleIndexPopulator implements IndexPopulator
 
             try ( MultipleIndexUpdater updater = newPopulatingUpdater( storeView ) )
             {
-                do
+                // Updates deferred last time were queued before any of the updates currently in the queue, so they go first
+                List<IndexEntryUpdate<?>> previouslyDeferred = new ArrayList<>( deferredUpdates );
+                deferredUpdates.clear();
+                MutableLongSet deferredEntities = new LongHashSet();
+                for ( IndexEntryUpdate<?> update : previouslyDeferred )
                 {
-                    // no need to check for null as nobody else is emptying this queue
-                    IndexEntryUpdate<?> update = updatesQueue.poll();
-                    storeScan.acceptUpdate( updater, update, currentlyIndexedNodeId );
-                    if ( PRINT_DEBUG )
-                    {
-                        log.info( "Applied %s from queue" + update );
-                    }
+                    applyOrDefer( updater, update, currentlyIndexedNodeId, deferredEntities );
+                }
+                IndexEntryUpdate<?> update;
+                while ( (update = updatesQueue.poll()) != null )
+                {
+                    applyOrDefer( updater, update, currentlyIndexedNodeId, deferredEntities );
                 }
-                while ( !updatesQueue.isEmpty() );
             }
             if ( PRINT_DEBUG )
             {
@@ -430,6 +438,23 @@ public class MultipleIndexPopulator implements IndexPopulator
         return false;
     }
 
+    private void applyOrDefer( MultipleIndexUpdater updater, IndexEntryUpdate<?> update, long currentlyIndexedNodeId,
+            MutableLongSet deferredEntities )
+    {
+        // Once an update for an entity has been deferred, so must all later updates for it be, to keep them in order
+        if ( deferredEntities.contains( update.getEntityId() ) || storeScan.deferUpdate( update ) )
+        {
+            deferredEntities.add( update.getEntityId() );
+            deferredUpdates.add( update );
+            return;
+        }
+        storeScan.acceptUpdate( updater, update, currentlyIndexedNodeId );
+        if ( PRINT_DEBUG )
+        {
+            log.info( "Applied %s from queue" + update );
+        }
+    }
+
     private void forEachPopulation( ThrowingConsumer<IndexPopulation,Exception> action )
     {
         for ( IndexPopulation population : populations )
@@ -31,6 +31,19 @@ public interface StoreScan<FAILURE extends Exception>
     void acceptUpdate( MultipleIndexPopulator.MultipleIndexUpdater updater, IndexEntryUpdate<?> update,
             long currentlyIndexedNodeId );
 
+    /**
+     * Whether or not this scan can tell yet if an external update should be {@link #acceptUpdate(MultipleIndexPopulator.MultipleIndexUpdater,
+     * IndexEntryUpdate, long) accepted}, e.g. because the entity has been read by the scan, but not yet handed to the population.
+     * Deferred updates are kept and offered again, in the order they were queued, the next time queued updates are applied.
+     *
+     * @param update external update to decide about.
+     * @return {@code true} if the update needs to wait, otherwise {@code false}.
+     */
+    default boolean deferUpdate( IndexEntryUpdate<?> update )
+    {
+        return false;
+    }
+
     PopulationProgress getProgress();
 
     /**
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.state;
+
+import org.eclipse.collections.api.map.primitive.MutableLongLongMap;
+
+import org.neo4j.kernel.impl.util.collection.CollectionsFactory;
+import org.neo4j.storageengine.api.RelationshipVisitor;
+
+/**
+ * Type, start node and end node of the relationships created in a transaction. These are kept in
+ * collections from the transaction's {@link CollectionsFactory} rather than in an object per relationship,
+ * so that they are allocated off-heap along with the rest of the transaction state when so configured.
+ */
+class CreatedRelationships
+{
+    private static final long NO_TYPE = -1;
+
+    private final CollectionsFactory collectionsFactory;
+    private MutableLongLongMap types;
+    private MutableLongLongMap startNodes;
+    private MutableLongLongMap endNodes;
+
+    CreatedRelationships( CollectionsFactory collectionsFactory )
+    {
+        this.collectionsFactory = collectionsFactory;
+    }
+
+    void add( long id, int type, long startNode, long endNode )
+    {
+        if ( types == null )
+        {
+            types = collectionsFactory.newLongLongMap();
+            startNodes = collectionsFactory.newLongLongMap();
+            endNodes = collectionsFactory.newLongLongMap();
+        }
+        types.put( id, type );
+        startNodes.put( id, startNode );
+        endNodes.put( id, endNode );
+    }
+
+    void remove( long id )
+    {
+        if ( types != null && types.containsKey( id ) )
+        {
+            types.remove( id );
+            startNodes.remove( id );
+            endNodes.remove( id );
+        }
+    }
+
+    boolean contains( long id )
+    {
+        return types != null && types.containsKey( id );
+    }
+
+    <EX extends Exception> boolean accept( long id, RelationshipVisitor<EX> visitor ) throws EX
+    {
+        long type = types == null ? NO_TYPE : types.getIfAbsent( id, NO_TYPE );
+        if ( type == NO_TYPE )
+        {
+            return false;
+        }
+        visitor.visit( id, (int) type, startNodes.get( id ), endNodes.get( id ) );
+        return true;
+    }
+}
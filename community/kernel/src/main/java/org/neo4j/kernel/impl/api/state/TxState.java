@@ -81,6 +81,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
      * This factory must be used only for creating collections representing internal state that doesn't leak outside this class.
      */
     private final CollectionsFactory collectionsFactory;
+    private final CreatedRelationships createdRelationships;
 
     private MutableLongObjectMap<MutableLongDiffSets> labelStatesMap;
     private MutableLongObjectMap<NodeStateImpl> nodeStatesMap;
@@ -112,6 +113,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     public TxState( CollectionsFactory collectionsFactory )
     {
         this.collectionsFactory = collectionsFactory;
+        this.createdRelationships = new CreatedRelationships( collectionsFactory );
     }
 
     @Override
@@ -303,7 +305,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
             getOrCreateNodeState( endNodeId ).addRelationship( id, relationshipTypeId, RelationshipDirection.INCOMING );
         }
 
-        getOrCreateRelationshipState( id ).setMetaData( startNodeId, endNodeId, relationshipTypeId );
+        createdRelationships.add( id, relationshipTypeId, startNodeId, endNodeId );
 
         dataChanged();
     }
@@ -329,6 +331,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
             getOrCreateNodeState( endNodeId ).removeRelationship( id, type, RelationshipDirection.INCOMING );
         }
 
+        createdRelationships.remove( id );
         if ( relationshipStatesMap != null )
         {
             RelationshipStateImpl removed = relationshipStatesMap.remove( id );
@@ -481,12 +484,14 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     @Override
     public RelationshipState getRelationshipState( long id )
     {
-        if ( relationshipStatesMap == null )
+        final RelationshipStateImpl relationshipState = relationshipStatesMap == null ? null : relationshipStatesMap.get( id );
+        if ( relationshipState != null )
         {
-            return RelationshipStateImpl.EMPTY;
+            return relationshipState;
         }
-        final RelationshipStateImpl relationshipState = relationshipStatesMap.get( id );
-        return relationshipState == null ? RelationshipStateImpl.EMPTY : relationshipState;
+        // A created relationship without property changes has no state object of its own
+        return createdRelationships.contains( id ) ? new RelationshipStateImpl( id, collectionsFactory, createdRelationships )
+                                                   : RelationshipStateImpl.EMPTY;
     }
 
     @Override
@@ -622,7 +627,8 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
         {
             relationshipStatesMap = new LongObjectHashMap<>();
         }
-        return relationshipStatesMap.getIfAbsentPut( relationshipId, () -> new RelationshipStateImpl( relationshipId, collectionsFactory ) );
+        return relationshipStatesMap.getIfAbsentPut( relationshipId,
+                () -> new RelationshipStateImpl( relationshipId, collectionsFactory, createdRelationships ) );
     }
 
     @VisibleForTesting
@@ -829,7 +835,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     @Override
     public <EX extends Exception> boolean relationshipVisit( long relId, RelationshipVisitor<EX> visitor ) throws EX
     {
-        return getRelationshipState( relId ).accept( visitor );
+        return createdRelationships.accept( relId, visitor );
     }
 
     @Override
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+
+import org.neo4j.collection.PrimitiveLongCollections.PrimitiveLongBaseIterator;
+import org.neo4j.collection.PrimitiveLongResourceIterator;
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.Hit;
+
+import static org.neo4j.kernel.impl.index.labelscan.LabelScanValue.RANGE_SIZE;
+import static org.neo4j.kernel.impl.index.labelscan.NativeLabelScanWriter.rangeOf;
+import static org.neo4j.storageengine.api.schema.LabelScanReader.NO_ID;
+
+/**
+ * Iterates over nodes having all, or any, of a number of labels by combining the {@link LabelScanValue} bit sets
+ * of the labels range by range, with bitwise {@code AND} or {@code OR}, instead of merging node ids one by one.
+ * <p>
+ * When intersecting, a label whose next range is behind that of another label can't contribute any nodes
+ * before that range. It reads through a few entries and then seeks directly to the range in the tree,
+ * so that a sparse label lets the intersection skip over the entries of a dense label.
+ */
+class BitwiseLabelScanValueIterator extends PrimitiveLongBaseIterator implements PrimitiveLongResourceIterator
+{
+    /**
+     * Number of entries a lagging label reads through before seeking to the range it lags behind.
+     */
+    static final int NEXT_BEFORE_SEEK = 4;
+
+    private final LabelCursor[] labels;
+    private final boolean trueForAll;
+    private final Seeker seeker;
+    private final Collection<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> toRemoveFromWhenClosed;
+    private long fromId;
+    private long baseNodeId;
+    private long bits;
+    private boolean closed;
+
+    /**
+     * @param seeker seeks the {@link LabelScanValue entries} of a label from a given range.
+     * @param toRemoveFromWhenClosed cursors from {@code seeker} are removed from here when closed.
+     * @param labelIds labels to combine.
+     * @param fromId entity to start from (exclusive), or {@link org.neo4j.storageengine.api.schema.LabelScanReader#NO_ID}.
+     * @param trueForAll if {@code true} using {@code AND} merging, otherwise {@code OR} merging.
+     */
+    BitwiseLabelScanValueIterator( Seeker seeker, Collection<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> toRemoveFromWhenClosed,
+            int[] labelIds, long fromId, boolean trueForAll ) throws IOException
+    {
+        this.seeker = seeker;
+        this.toRemoveFromWhenClosed = toRemoveFromWhenClosed;
+        this.fromId = fromId;
+        this.trueForAll = trueForAll;
+        this.labels = new LabelCursor[labelIds.length];
+        long fromRange = fromId == NO_ID ? 0 : rangeOf( fromId );
+        for ( int i = 0; i < labelIds.length; i++ )
+        {
+            labels[i] = new LabelCursor( labelIds[i], seeker.seek( labelIds[i], fromRange ) );
+        }
+    }
+
+    @Override
+    protected boolean fetchNext()
+    {
+        try
+        {
+            while ( bits == 0 )
+            {
+                if ( closed || !(trueForAll ? nextIntersection() : nextUnion()) )
+                {
+                    close();
+                    return false;
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+
+        int delta = Long.numberOfTrailingZeros( bits );
+        bits &= bits - 1;
+        return next( baseNodeId + delta );
+    }
+
+    private boolean nextIntersection() throws IOException
+    {
+        if ( labels.length == 0 )
+        {
+            return false;
+        }
+        long targetRange = 0;
+        for ( LabelCursor label : labels )
+        {
+            if ( !label.next() )
+            {
+                return false;
+            }
+            targetRange = Math.max( targetRange, label.range );
+        }
+
+        boolean aligned;
+        do
+        {
+            aligned = true;
+            for ( LabelCursor label : labels )
+            {
+                if ( label.range < targetRange && !label.skipTo( targetRange ) )
+                {
+                    return false;
+                }
+                if ( label.range > targetRange )
+                {
+                    targetRange = label.range;
+                    aligned = false;
+                }
+            }
+        }
+        while ( !aligned );
+
+        long intersection = -1L;
+        for ( LabelCursor label : labels )
+        {
+            intersection &= label.bits;
+        }
+        setCurrent( targetRange, intersection );
+        return true;
+    }
+
+    private boolean nextUnion() throws IOException
+    {
+        long targetRange = Long.MAX_VALUE;
+        for ( LabelCursor label : labels )
+        {
+            if ( label.consumed )
+            {
+                label.next();
+                label.consumed = false;
+            }
+            if ( !label.exhausted )
+            {
+                targetRange = Math.min( targetRange, label.range );
+            }
+        }
+        if ( targetRange == Long.MAX_VALUE )
+        {
+            return false;
+        }
+
+        long union = 0;
+        for ( LabelCursor label : labels )
+        {
+            if ( !label.exhausted && label.range == targetRange )
+            {
+                union |= label.bits;
+                label.consumed = true;
+            }
+        }
+        setCurrent( targetRange, union );
+        return true;
+    }
+
+    private void setCurrent( long range, long bits )
+    {
+        if ( fromId != NO_ID )
+        {
+            // Trim off ids less than or equal to fromId, which can only be in the first range
+            if ( range == rangeOf( fromId ) )
+            {
+                long relativeStartId = fromId % RANGE_SIZE;
+                long mask = relativeStartId == RANGE_SIZE - 1 ? -1 : (1L << (relativeStartId + 1)) - 1;
+                bits &= ~mask;
+            }
+            fromId = NO_ID;
+        }
+        this.baseNodeId = range * RANGE_SIZE;
+        this.bits = bits;
+    }
+
+    @Override
+    public void close()
+    {
+        if ( !closed )
+        {
+            closed = true;
+            bits = 0;
+            try
+            {
+                for ( LabelCursor label : labels )
+                {
+                    label.close();
+                }
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+    }
+
+    /**
+     * Seeks the {@link LabelScanValue entries} of a label, starting from a range.
+     */
+    @FunctionalInterface
+    interface Seeker
+    {
+        RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> seek( int labelId, long fromRange ) throws IOException;
+    }
+
+    private class LabelCursor
+    {
+        private final int labelId;
+        private RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor;
+        private long range;
+        private long bits;
+        private boolean exhausted;
+        /**
+         * Whether or not the current entry has been used in a union and the cursor needs to move to the next one.
+         */
+        private boolean consumed = true;
+
+        LabelCursor( int labelId, RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor )
+        {
+            this.labelId = labelId;
+            this.cursor = cursor;
+        }
+
+        boolean next() throws IOException
+        {
+            if ( exhausted )
+            {
+                return false;
+            }
+            if ( !cursor.next() )
+            {
+                exhausted = true;
+                close();
+                return false;
+            }
+            Hit<LabelScanKey,LabelScanValue> hit = cursor.get();
+            range = hit.key().idRange;
+            bits = hit.value().bits;
+            return true;
+        }
+
+        boolean skipTo( long targetRange ) throws IOException
+        {
+            for ( int i = 0; i < NEXT_BEFORE_SEEK && range < targetRange; i++ )
+            {
+                if ( !next() )
+                {
+                    return false;
+                }
+            }
+            if ( range < targetRange )
+            {
+                close();
+                cursor = seeker.seek( labelId, targetRange );
+                return next();
+            }
+            return true;
+        }
+
+        void close() throws IOException
+        {
+            if ( cursor != null )
+            {
+                try
+                {
+                    cursor.close();
+                }
+                finally
+                {
+                    toRemoveFromWhenClosed.remove( cursor );
+                    cursor = null;
+                }
+            }
+        }
+    }
+}
@@ -23,16 +23,15 @@ import org.eclipse.collections.api.iterator.LongIterator;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.neo4j.collection.PrimitiveLongResourceIterator;
 import org.neo4j.cursor.RawCursor;
 import org.neo4j.graphdb.index.Index;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.internal.kernel.api.LabelSet;
 import org.neo4j.storageengine.api.schema.IndexProgressor;
 import org.neo4j.storageengine.api.schema.LabelScanReader;
 
@@ -55,14 +54,15 @@ class NativeLabelScanReader implements LabelScanReader
 
     /**
      * Currently open {@link RawCursor} from query methods below. Open cursors are closed when calling
-     * new query methods or when {@link #close() closing} this reader.
+     * new query methods or when {@link #close() closing} this reader. Partitioned label scans seek from
+     * several threads through the same reader, hence the concurrent set.
      */
     private final Set<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> openCursors;
 
     NativeLabelScanReader( GBPTree<LabelScanKey,LabelScanValue> index )
     {
         this.index = index;
-        this.openCursors = new HashSet<>();
+        this.openCursors = ConcurrentHashMap.newKeySet();
     }
 
     /**
@@ -101,15 +101,13 @@ class NativeLabelScanReader implements LabelScanReader
     @Override
     public PrimitiveLongResourceIterator nodesWithAnyOfLabels( long fromId, int... labelIds )
     {
-        List<PrimitiveLongResourceIterator> iterators = iteratorsForLabels( fromId, labelIds );
-        return new CompositeLabelScanValueIterator( iterators, false );
+        return combinedIterator( fromId, labelIds, false );
     }
 
     @Override
     public PrimitiveLongResourceIterator nodesWithAllLabels( int... labelIds )
     {
-        List<PrimitiveLongResourceIterator> iterators = iteratorsForLabels( NO_ID, labelIds );
-        return new CompositeLabelScanValueIterator( iterators, true );
+        return combinedIterator( NO_ID, labelIds, true );
     }
 
     @Override
@@ -129,23 +127,44 @@ class NativeLabelScanReader implements LabelScanReader
         client.scan( new LabelScanValueIndexProgressor( cursor, openCursors, client ), false, labelId );
     }
 
-    private List<PrimitiveLongResourceIterator> iteratorsForLabels( long fromId, int[] labelIds )
+    @Override
+    public void nodesWithLabel( IndexProgressor.NodeLabelClient client, int labelId, long fromId, long toId )
     {
-        List<PrimitiveLongResourceIterator> iterators = new ArrayList<>();
+        RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor;
         try
         {
-            for ( int labelId : labelIds )
-            {
-                RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor = seekerForLabel( fromId, labelId );
-                openCursors.add( cursor );
-                iterators.add( new LabelScanValueIterator( cursor, openCursors, fromId ) );
-            }
+            LabelScanKey from = new LabelScanKey( labelId, rangeOf( fromId ) );
+            LabelScanKey to = new LabelScanKey( labelId, rangeOf( toId - 1 ) + 1 );
+            cursor = index.seek( from, to );
+            openCursors.add( cursor );
         }
         catch ( IOException e )
         {
             throw new UncheckedIOException( e );
         }
-        return iterators;
+
+        IndexProgressor.NodeLabelClient rangeClient = new RangeFilteringClient( client, fromId, toId );
+        rangeClient.scan( new LabelScanValueIndexProgressor( cursor, openCursors, rangeClient ), false, labelId );
+    }
+
+    private PrimitiveLongResourceIterator combinedIterator( long fromId, int[] labelIds, boolean trueForAll )
+    {
+        try
+        {
+            return new BitwiseLabelScanValueIterator( this::openSeekerForLabel, openCursors, labelIds, fromId, trueForAll );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    private RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> openSeekerForLabel( int labelId, long fromRange ) throws IOException
+    {
+        RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor =
+                index.seek( new LabelScanKey( labelId, fromRange ), new LabelScanKey( labelId, Long.MAX_VALUE ) );
+        openCursors.add( cursor );
+        return cursor;
     }
 
     private RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> seekerForLabel( long startId, int labelId ) throws IOException
@@ -163,4 +182,46 @@ class NativeLabelScanReader implements LabelScanReader
         }
         openCursors.clear();
     }
+
+    /**
+     * Hides nodes outside of {@code [fromId, toId)} which share a {@link LabelScanValue#RANGE_SIZE range} with
+     * nodes inside of it.
+     */
+    private static class RangeFilteringClient implements IndexProgressor.NodeLabelClient
+    {
+        private final IndexProgressor.NodeLabelClient client;
+        private final long fromId;
+        private final long toId;
+
+        RangeFilteringClient( IndexProgressor.NodeLabelClient client, long fromId, long toId )
+        {
+            this.client = client;
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+
+        @Override
+        public void scan( IndexProgressor progressor, boolean providesLabels, int label )
+        {
+            client.scan( progressor, providesLabels, label );
+        }
+
+        @Override
+        public void unionScan( IndexProgressor progressor, boolean providesLabels, int... labels )
+        {
+            client.unionScan( progressor, providesLabels, labels );
+        }
+
+        @Override
+        public void intersectionScan( IndexProgressor progressor, boolean providesLabels, int... labels )
+        {
+            client.intersectionScan( progressor, providesLabels, labels );
+        }
+
+        @Override
+        public boolean acceptNode( long reference, LabelSet labels )
+        {
+            return reference >= fromId && reference < toId && client.acceptNode( reference, labels );
+        }
+    }
 }
@@ -84,6 +84,11 @@ import static org.neo4j.util.concurrent.Runnables.runAll;
 public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,VALUE extends NativeIndexValue> extends NativeIndexPopulator<KEY,VALUE>
 {
     public static final String BLOCK_SIZE_NAME = "blockSize";
+    /**
+     * How much of each tree node to fill when building the tree from the sorted scan updates. Filling nodes completely gives the smallest tree,
+     * whereas leaving some space in them makes room for subsequent updates without splitting.
+     */
+    private static final double BULK_LOAD_FILL_FACTOR = FeatureToggles.getDouble( BlockBasedIndexPopulator.class, "bulkLoadFillFactor", 1.0 );
 
     private final IndexDirectoryStructure directoryStructure;
     private final IndexDropAction dropAction;
@@ -428,8 +433,8 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>,V
                 }
             }
 
-            int asMuchAsPossibleToTheLeft = 1;
-            try ( Writer<KEY,VALUE> writer = tree.writer( asMuchAsPossibleToTheLeft ) )
+            // Scan updates come sorted and the tree is still empty, so build it bottom-up instead of inserting from the root
+            try ( Writer<KEY,VALUE> writer = tree.bulkLoader( BULK_LOAD_FILL_FACTOR ) )
             {
                 while ( allEntries.next() && !cancellation.cancelled() )
                 {
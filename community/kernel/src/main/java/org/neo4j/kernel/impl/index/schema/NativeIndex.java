@@ -34,11 +34,18 @@ import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.kernel.api.index.IndexProvider;
 import org.neo4j.kernel.impl.annotations.ReporterFactory;
 import org.neo4j.storageengine.api.schema.StoreIndexDescriptor;
+import org.neo4j.util.FeatureToggles;
 
 import static org.neo4j.index.internal.gbptree.GBPTree.NO_HEADER_READER;
 
 abstract class NativeIndex<KEY extends NativeIndexKey<KEY>, VALUE extends NativeIndexValue> implements ConsistencyCheckable
 {
+    /**
+     * Page size of trees of new indexes, or {@code 0} for the page size of the page cache. Page caches with more
+     * than one page size class can create trees with pages up to their {@link PageCache#maxPageSize() largest} page size.
+     */
+    private static final int TREE_PAGE_SIZE = FeatureToggles.getInteger( NativeIndex.class, "treePageSize", 0 );
+
     final PageCache pageCache;
     final File storeFile;
     final IndexLayout<KEY,VALUE> layout;
@@ -65,7 +72,7 @@ abstract class NativeIndex<KEY extends NativeIndexKey<KEY>, VALUE extends Native
     {
         ensureDirectoryExist();
         GBPTree.Monitor monitor = treeMonitor();
-        tree = new GBPTree<>( pageCache, storeFile, layout, 0, monitor, NO_HEADER_READER, headerWriter, recoveryCleanupWorkCollector, readOnly );
+        tree = new GBPTree<>( pageCache, storeFile, layout, TREE_PAGE_SIZE, monitor, NO_HEADER_READER, headerWriter, recoveryCleanupWorkCollector, readOnly );
         afterTreeInstantiation( tree );
     }
 
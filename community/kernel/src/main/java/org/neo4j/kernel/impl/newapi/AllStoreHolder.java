@@ -257,6 +257,12 @@ public class AllStoreHolder extends Read
         return storageReader.getLabelScanReader();
     }
 
+    @Override
+    long nodeHighMark()
+    {
+        return storageReader.nodesGetHighestPossibleIdInUse();
+    }
+
     @Override
     ExplicitIndex explicitNodeIndex( String indexName ) throws ExplicitIndexNotFoundKernelException
     {
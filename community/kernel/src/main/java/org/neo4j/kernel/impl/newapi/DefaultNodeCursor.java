@@ -43,6 +43,7 @@ class DefaultNodeCursor implements NodeCursor
     private LongIterator addedNodes;
     private StorageNodeCursor storeCursor;
     private long single;
+    private boolean includeAddedNodes;
 
     private final DefaultCursors pool;
 
@@ -57,6 +58,21 @@ class DefaultNodeCursor implements NodeCursor
         storeCursor.scan();
         this.read = read;
         this.single = NO_ID;
+        this.includeAddedNodes = true;
+        this.hasChanges = HasChanges.MAYBE;
+        this.addedNodes = ImmutableEmptyLongIterator.INSTANCE;
+    }
+
+    /**
+     * Scans the nodes in {@code [start, end)}. Nodes added in the transaction don't belong to any range,
+     * so exactly one of the batches making up a partitioned scan should be initialized with {@code includeAddedNodes}.
+     */
+    void scanRange( Read read, long start, long end, boolean includeAddedNodes )
+    {
+        storeCursor.scanRange( start, end );
+        this.read = read;
+        this.single = NO_ID;
+        this.includeAddedNodes = includeAddedNodes;
         this.hasChanges = HasChanges.MAYBE;
         this.addedNodes = ImmutableEmptyLongIterator.INSTANCE;
     }
@@ -66,6 +82,7 @@ class DefaultNodeCursor implements NodeCursor
         storeCursor.single( reference );
         this.read = read;
         this.single = reference;
+        this.includeAddedNodes = true;
         this.hasChanges = HasChanges.MAYBE;
         this.addedNodes = ImmutableEmptyLongIterator.INSTANCE;
     }
@@ -230,7 +247,7 @@ class DefaultNodeCursor implements NodeCursor
                     addedNodes = read.txState().nodeIsAddedInThisTx( single ) ?
                                  LongSets.immutable.of( single ).longIterator() : ImmutableEmptyLongIterator.INSTANCE;
                 }
-                else
+                else if ( includeAddedNodes )
                 {
                     addedNodes = read.txState().addedAndRemovedNodes().getAdded().freeze().longIterator();
                 }
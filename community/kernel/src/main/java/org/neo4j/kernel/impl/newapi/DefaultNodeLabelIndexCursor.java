@@ -42,6 +42,7 @@ class DefaultNodeLabelIndexCursor extends IndexCursor<IndexProgressor>
     private LabelSet labels;
     private LongIterator added;
     private LongSet removed;
+    private boolean includeAddedNodes = true;
 
     private final DefaultCursors pool;
 
@@ -58,7 +59,7 @@ class DefaultNodeLabelIndexCursor extends IndexCursor<IndexProgressor>
         if ( read.hasTxStateWithChanges() )
         {
             final LongDiffSets changes = read.txState().nodesWithLabelChanged( label );
-            added = changes.augment( ImmutableEmptyLongIterator.INSTANCE );
+            added = includeAddedNodes ? changes.augment( ImmutableEmptyLongIterator.INSTANCE ) : null;
             removed = mergeToSet( read.txState().addedAndRemovedNodes().getRemoved(), changes.getRemoved() );
         }
     }
@@ -116,8 +117,19 @@ class DefaultNodeLabelIndexCursor extends IndexCursor<IndexProgressor>
     }
 
     public void setRead( Read read )
+    {
+        setRead( read, true );
+    }
+
+    /**
+     * @param includeAddedNodes whether nodes added to the label in the transaction should be returned. Partitioned scans
+     * only include them in one of their batches.
+     */
+    void setRead( Read read, boolean includeAddedNodes )
     {
         this.read = read;
+        this.includeAddedNodes = includeAddedNodes;
+        this.added = null;
     }
 
     @Override
@@ -147,6 +159,7 @@ class DefaultNodeLabelIndexCursor extends IndexCursor<IndexProgressor>
             node = NO_ID;
             labels = null;
             read = null;
+            added = null;
             removed = null;
 
             pool.accept( this );
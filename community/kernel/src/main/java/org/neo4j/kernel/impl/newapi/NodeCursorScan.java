@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.Scan;
+
+import static org.neo4j.util.Preconditions.requirePositive;
+
+/**
+ * {@link Scan} over all nodes, handing out batches of consecutive node ids. The nodes added in the transaction
+ * are returned as part of the first batch.
+ */
+class NodeCursorScan implements Scan<NodeCursor>
+{
+    private final Read read;
+    private final long highMark;
+    private final AtomicLong nextStart = new AtomicLong();
+
+    NodeCursorScan( Read read, long highMark )
+    {
+        this.read = read;
+        this.highMark = highMark;
+    }
+
+    @Override
+    public boolean reserveBatch( NodeCursor cursor, int sizeHint )
+    {
+        requirePositive( sizeHint );
+
+        long start = nextStart.getAndAdd( sizeHint );
+        if ( start > 0 && start > highMark )
+        {
+            return false;
+        }
+        read.ktx.assertOpen();
+        ((DefaultNodeCursor) cursor).scanRange( read, start, start + sizeHint, start == 0 );
+        return true;
+    }
+}
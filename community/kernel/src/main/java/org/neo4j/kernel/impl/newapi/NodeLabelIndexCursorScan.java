@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
+import org.neo4j.internal.kernel.api.Scan;
+
+import static org.neo4j.util.Preconditions.requirePositive;
+
+/**
+ * {@link Scan} over the nodes with a label, handing out batches of consecutive node id ranges. The nodes which
+ * got the label in the transaction are returned as part of the first batch.
+ */
+class NodeLabelIndexCursorScan implements Scan<NodeLabelIndexCursor>
+{
+    /**
+     * The label scan store keeps the labels of {@code Long.SIZE} consecutive nodes per entry, batches are aligned
+     * to that so that no entry is read by more than one batch.
+     */
+    private static final int RANGE_SIZE = Long.SIZE;
+
+    private final Read read;
+    private final int label;
+    private final long highMark;
+    private final AtomicLong nextStart = new AtomicLong();
+
+    NodeLabelIndexCursorScan( Read read, int label, long highMark )
+    {
+        this.read = read;
+        this.label = label;
+        this.highMark = highMark;
+    }
+
+    @Override
+    public boolean reserveBatch( NodeLabelIndexCursor cursor, int sizeHint )
+    {
+        requirePositive( sizeHint );
+
+        long size = (sizeHint + RANGE_SIZE - 1L) / RANGE_SIZE * RANGE_SIZE;
+        long start = nextStart.getAndAdd( size );
+        if ( start > 0 && start > highMark )
+        {
+            return false;
+        }
+        read.ktx.assertOpen();
+        DefaultNodeLabelIndexCursor indexCursor = (DefaultNodeLabelIndexCursor) cursor;
+        indexCursor.setRead( read, start == 0 );
+        read.labelScanReader().nodesWithLabel( indexCursor, label, start, start + size );
+        return true;
+    }
+}
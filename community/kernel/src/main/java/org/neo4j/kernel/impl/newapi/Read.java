@@ -255,7 +255,7 @@ abstract class Read implements TxStateHolder,
     public final Scan<NodeLabelIndexCursor> nodeLabelScan( int label )
     {
         ktx.assertOpen();
-        throw new UnsupportedOperationException( "not implemented" );
+        return new NodeLabelIndexCursorScan( this, label, nodeHighMark() );
     }
 
     @Override
@@ -269,7 +269,7 @@ abstract class Read implements TxStateHolder,
     public final Scan<NodeCursor> allNodesScan()
     {
         ktx.assertOpen();
-        throw new UnsupportedOperationException( "not implemented" );
+        return new NodeCursorScan( this, nodeHighMark() );
     }
 
     @Override
@@ -462,6 +462,8 @@ abstract class Read implements TxStateHolder,
 
     abstract LabelScanReader labelScanReader();
 
+    abstract long nodeHighMark();
+
     abstract ExplicitIndex explicitNodeIndex( String indexName ) throws ExplicitIndexNotFoundKernelException;
 
     abstract ExplicitIndex explicitRelationshipIndex( String indexName ) throws ExplicitIndexNotFoundKernelException;
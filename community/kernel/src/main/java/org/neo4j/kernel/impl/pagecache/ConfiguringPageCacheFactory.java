@@ -19,15 +19,19 @@
  */
 package org.neo4j.kernel.impl.pagecache;
 
+import java.util.List;
+
 import org.neo4j.helpers.Service;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.mem.HugePageMode;
 import org.neo4j.io.mem.MemoryAllocator;
 import org.neo4j.io.os.OsBeanUtil;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.SizeClassPageCache;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContextSupplier;
@@ -37,7 +41,12 @@ import org.neo4j.memory.GlobalMemoryTracker;
 import org.neo4j.scheduler.JobScheduler;
 
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.mapped_memory_page_size;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_huge_pages;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_hugetlbfs_directory;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_memory;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_page_size_classes;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_page_size_classes_memory_ratio;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_replacement_policy;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_swapper;
 import static org.neo4j.kernel.configuration.Settings.BYTES;
 
@@ -90,12 +99,60 @@ public class ConfiguringPageCacheFactory
     protected PageCache createPageCache()
     {
         checkPageSize( config );
-        MemoryAllocator memoryAllocator = buildMemoryAllocator( config );
-        return new MuninnPageCache( swapperFactory, memoryAllocator, pageCacheTracer, pageCursorTracerSupplier,
-                versionContextSupplier, scheduler );
+        checkTransparentHugePages( config );
+        String pageCacheMemorySetting = getPageCacheMemorySetting( config );
+        List<Long> pageSizeClasses = config.get( pagecache_page_size_classes );
+        if ( pageSizeClasses.isEmpty() )
+        {
+            MemoryAllocator memoryAllocator = createAllocator( pageCacheMemorySetting );
+            return new MuninnPageCache( swapperFactory, memoryAllocator, config.get( pagecache_replacement_policy ),
+                    pageCacheTracer, pageCursorTracerSupplier, versionContextSupplier, scheduler );
+        }
+
+        // The default page size gets what the additional size classes don't, and they divide the rest evenly.
+        long memory = ByteUnit.parse( pageCacheMemorySetting );
+        long sizeClassMemory = (long) (memory * config.get( pagecache_page_size_classes_memory_ratio ) / pageSizeClasses.size());
+        MuninnPageCache[] sizeClasses = new MuninnPageCache[pageSizeClasses.size() + 1];
+        sizeClasses[0] = createPageCache( PageCache.PAGE_SIZE, memory - sizeClassMemory * pageSizeClasses.size() );
+        for ( int i = 0; i < pageSizeClasses.size(); i++ )
+        {
+            sizeClasses[i + 1] = createPageCache( Math.toIntExact( pageSizeClasses.get( i ) ), sizeClassMemory );
+        }
+        log.info( "Page cache uses page size classes " + pageSizeClasses + " besides the default page size of " +
+                  PageCache.PAGE_SIZE + " bytes, with " + sizeClassMemory + " bytes of memory each." );
+        return new SizeClassPageCache( sizeClasses );
+    }
+
+    private MemoryAllocator createAllocator( String memory )
+    {
+        return MemoryAllocator.createAllocator( memory, GlobalMemoryTracker.INSTANCE, config.get( pagecache_huge_pages ),
+                config.get( pagecache_hugetlbfs_directory ) );
+    }
+
+    private MuninnPageCache createPageCache( int cachePageSize, long memory )
+    {
+        MemoryAllocator memoryAllocator = createAllocator( String.valueOf( memory ) );
+        return new MuninnPageCache( swapperFactory, memoryAllocator, cachePageSize, config.get( pagecache_replacement_policy ),
+                pageCacheTracer, pageCursorTracerSupplier, versionContextSupplier, scheduler );
+    }
+
+    private void checkTransparentHugePages( Config config )
+    {
+        if ( config.get( pagecache_huge_pages ) == HugePageMode.DISABLED )
+        {
+            return;
+        }
+        String mode = HugePageMode.transparentHugePageSystemMode();
+        if ( mode != null && !"always".equals( mode ) )
+        {
+            log.warn( "The " + pagecache_huge_pages.name() + " setting asks for huge pages, but transparent huge pages " +
+                      "are enabled in '" + mode + "' mode. The page cache does not madvise its memory, so it can only " +
+                      "get transparent huge pages in 'always' mode, which is set in " +
+                      "/sys/kernel/mm/transparent_hugepage/enabled. Memory mapped from hugetlbfs is not affected." );
+        }
     }
 
-    private MemoryAllocator buildMemoryAllocator( Config config )
+    private String getPageCacheMemorySetting( Config config )
     {
         String pageCacheMemorySetting = config.get( pagecache_memory );
         if ( pageCacheMemorySetting == null )
@@ -107,8 +164,7 @@ public class ConfiguringPageCacheFactory
                       "Run `neo4j-admin memrec` for memory configuration suggestions." );
             pageCacheMemorySetting = "" + heuristic;
         }
-
-        return MemoryAllocator.createAllocator( pageCacheMemorySetting, GlobalMemoryTracker.INSTANCE );
+        return pageCacheMemorySetting;
     }
 
     public static long defaultHeuristicPageCacheMemory()
@@ -0,0 +1,552 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.storageengine.impl.recordstorage;
+
+import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.map.mutable.primitive.LongIntHashMap;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.kernel.impl.api.BatchTransactionApplier;
+import org.neo4j.kernel.impl.api.TransactionApplier;
+import org.neo4j.kernel.impl.api.TransactionApplierFacade;
+import org.neo4j.kernel.impl.core.CacheAccessBackDoor;
+import org.neo4j.kernel.impl.locking.LockGroup;
+import org.neo4j.kernel.impl.locking.LockService;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.command.NeoStoreTransactionApplier;
+import org.neo4j.storageengine.api.CommandVersion;
+import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.storageengine.api.StorageCommand;
+
+import static org.neo4j.kernel.impl.locking.LockService.NO_LOCK_SERVICE;
+
+/**
+ * Applies batches of transactions with the record writes spread over several threads.
+ * <p>
+ * Consecutive transactions are gathered into a window for as long as no record is written by more than one of them.
+ * The records written by a command are the record itself, the secondary units of its before and after states, which
+ * formats with double record units write and mark as unused together with the record, and its dynamic label and
+ * property value records. The node, relationship, property and relationship group records of a window are written
+ * in parallel, partitioned by record id, after which the remaining appliers, i.e. counts, label scan store, schema and
+ * explicit indexes, visit the transactions of the window one by one and in order. Since the transactions of a window
+ * write disjoint records, the index updates derived from the stores see the same records as they would have in
+ * sequential application. A transaction writing a record which an earlier transaction of the window also writes
+ * closes the window, and so does any transaction with token, schema or graph property commands, which is applied
+ * sequentially.
+ */
+class ParallelTransactionApplier
+{
+    /**
+     * Number of consecutive record ids written by the same thread, for neighbouring records to end up in the same
+     * partition, and so page, as much as possible.
+     */
+    private static final int PARTITION_STRIDE = 128;
+
+    /**
+     * Windows with fewer record commands than this are not worth the hand-over to other threads.
+     */
+    private static final int MIN_PARALLEL_COMMANDS = 256;
+
+    private static final int MAX_WINDOW_COMMANDS = 100_000;
+
+    // The stores whose records are tracked in footprints and partitions
+    private static final int NODES = 0;
+    private static final int LABELS = 1;
+    private static final int RELATIONSHIPS = 2;
+    private static final int RELATIONSHIP_GROUPS = 3;
+    private static final int PROPERTIES = 4;
+    private static final int STRINGS = 5;
+    private static final int ARRAYS = 6;
+    private static final int STORES = 7;
+
+    private final NeoStores neoStores;
+    private final CacheAccessBackDoor cacheAccess;
+    private final Executor executor;
+    private final int parallelism;
+
+    ParallelTransactionApplier( NeoStores neoStores, CacheAccessBackDoor cacheAccess, Executor executor, int parallelism )
+    {
+        this.neoStores = neoStores;
+        this.cacheAccess = cacheAccess;
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param batch transactions to apply.
+     * @param neoStoreApplier applier for the record stores, used for the transactions applied sequentially.
+     * @param auxiliaryApplier all other appliers.
+     * @param lockService lock service to take entity locks from, held until the {@code lockGroup} is closed.
+     * @param lockGroup locks held for the whole batch.
+     */
+    void apply( CommandsToApply batch, BatchTransactionApplier neoStoreApplier, BatchTransactionApplier auxiliaryApplier,
+            LockService lockService, LockGroup lockGroup ) throws Exception
+    {
+        List<PendingTransaction> window = new ArrayList<>();
+        RecordFootprint windowFootprint = new RecordFootprint();
+        int windowCommands = 0;
+        while ( batch != null )
+        {
+            PendingTransaction transaction = new PendingTransaction( batch );
+            batch.accept( transaction );
+
+            if ( !transaction.recordsOnly ||
+                 windowFootprint.overlaps( transaction.footprint ) ||
+                 windowCommands + transaction.recordCommands.size() > MAX_WINDOW_COMMANDS )
+            {
+                applyWindow( window, auxiliaryApplier, lockService, lockGroup );
+                window.clear();
+                windowFootprint.clear();
+                windowCommands = 0;
+            }
+
+            if ( transaction.recordsOnly )
+            {
+                window.add( transaction );
+                windowFootprint.addAll( transaction.footprint );
+                windowCommands += transaction.recordCommands.size();
+            }
+            else
+            {
+                try ( TransactionApplier txApplier = new TransactionApplierFacade(
+                        neoStoreApplier.startTx( batch, lockGroup ), auxiliaryApplier.startTx( batch, lockGroup ) ) )
+                {
+                    batch.accept( txApplier );
+                }
+            }
+            batch = batch.next();
+        }
+        applyWindow( window, auxiliaryApplier, lockService, lockGroup );
+    }
+
+    private void applyWindow( List<PendingTransaction> window, BatchTransactionApplier auxiliaryApplier,
+            LockService lockService, LockGroup lockGroup ) throws Exception
+    {
+        if ( window.isEmpty() )
+        {
+            return;
+        }
+
+        List<List<Command>> partitions = new ArrayList<>( parallelism );
+        for ( int i = 0; i < parallelism; i++ )
+        {
+            partitions.add( new ArrayList<>() );
+        }
+        List<Command> commands = new ArrayList<>();
+        Partitioner partitioner = new Partitioner();
+        boolean partitioned = true;
+        for ( PendingTransaction transaction : window )
+        {
+            for ( Command command : transaction.recordCommands )
+            {
+                lock( command, lockService, lockGroup );
+                commands.add( command );
+                if ( partitioned )
+                {
+                    int partition = partitioner.partitionOf( command );
+                    if ( partition == -1 )
+                    {
+                        partitioned = false;
+                    }
+                    else
+                    {
+                        partitions.get( partition ).add( command );
+                    }
+                }
+            }
+        }
+
+        if ( !partitioned )
+        {
+            // Some command writes records also written by commands in different partitions, write them all in order
+            write( commands );
+        }
+        else if ( commands.size() < MIN_PARALLEL_COMMANDS )
+        {
+            for ( List<Command> partition : partitions )
+            {
+                write( partition );
+            }
+        }
+        else
+        {
+            writeInParallel( partitions );
+        }
+
+        for ( PendingTransaction transaction : window )
+        {
+            try ( TransactionApplier txApplier = auxiliaryApplier.startTx( transaction.transaction, lockGroup ) )
+            {
+                transaction.transaction.accept( txApplier );
+            }
+        }
+    }
+
+    private void writeInParallel( List<List<Command>> partitions ) throws Exception
+    {
+        List<CompletableFuture<Void>> futures = new ArrayList<>( partitions.size() - 1 );
+        for ( List<Command> partition : partitions.subList( 1, partitions.size() ) )
+        {
+            futures.add( CompletableFuture.runAsync( () -> write( partition ), executor ) );
+        }
+        Throwable failure = null;
+        try
+        {
+            write( partitions.get( 0 ) );
+        }
+        catch ( Throwable t )
+        {
+            failure = t;
+        }
+        for ( CompletableFuture<Void> future : futures )
+        {
+            try
+            {
+                future.get();
+            }
+            catch ( ExecutionException e )
+            {
+                failure = chain( failure, e.getCause() );
+            }
+        }
+        if ( failure instanceof Exception )
+        {
+            throw (Exception) failure;
+        }
+        if ( failure instanceof Error )
+        {
+            throw (Error) failure;
+        }
+    }
+
+    private static Throwable chain( Throwable failure, Throwable next )
+    {
+        if ( failure == null )
+        {
+            return next;
+        }
+        failure.addSuppressed( next );
+        return failure;
+    }
+
+    private void write( List<Command> partition )
+    {
+        // Locks are already taken by the applying thread, and record commands never need the transaction id
+        NeoStoreTransactionApplier applier = new NeoStoreTransactionApplier( CommandVersion.AFTER, neoStores, cacheAccess,
+                NO_LOCK_SERVICE, -1, new LockGroup() );
+        try
+        {
+            for ( Command command : partition )
+            {
+                command.handle( applier );
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    /**
+     * Takes the same locks as {@link NeoStoreTransactionApplier} would.
+     */
+    private static void lock( Command command, LockService lockService, LockGroup lockGroup )
+    {
+        if ( command instanceof Command.NodeCommand )
+        {
+            lockGroup.add( lockService.acquireNodeLock( command.getKey(), LockService.LockType.WRITE_LOCK ) );
+        }
+        else if ( command instanceof Command.RelationshipCommand )
+        {
+            lockGroup.add( lockService.acquireRelationshipLock( command.getKey(), LockService.LockType.WRITE_LOCK ) );
+        }
+        else if ( command instanceof Command.PropertyCommand )
+        {
+            Command.PropertyCommand propertyCommand = (Command.PropertyCommand) command;
+            if ( propertyCommand.getNodeId() != -1 )
+            {
+                lockGroup.add( lockService.acquireNodeLock( propertyCommand.getNodeId(), LockService.LockType.WRITE_LOCK ) );
+            }
+            else if ( propertyCommand.getRelId() != -1 )
+            {
+                lockGroup.add( lockService.acquireRelationshipLock( propertyCommand.getRelId(), LockService.LockType.WRITE_LOCK ) );
+            }
+        }
+    }
+
+    /**
+     * The record commands of a transaction, and the records they write.
+     */
+    private static class PendingTransaction implements Visitor<StorageCommand,IOException>
+    {
+        private final CommandsToApply transaction;
+        private final List<Command> recordCommands = new ArrayList<>();
+        private final RecordFootprint footprint = new RecordFootprint();
+        private boolean recordsOnly = true;
+
+        PendingTransaction( CommandsToApply transaction )
+        {
+            this.transaction = transaction;
+        }
+
+        @Override
+        public boolean visit( StorageCommand element )
+        {
+            if ( element instanceof Command.NodeCommand || element instanceof Command.RelationshipCommand ||
+                 element instanceof Command.RelationshipGroupCommand )
+            {
+                Command command = (Command) element;
+                visitWrittenRecords( command, footprint::add );
+                recordCommands.add( command );
+            }
+            else if ( element instanceof Command.PropertyCommand )
+            {
+                Command.PropertyCommand command = (Command.PropertyCommand) element;
+                visitWrittenRecords( command, footprint::add );
+                // Index updates of the owner are derived from its records in the store
+                if ( command.getNodeId() != -1 )
+                {
+                    footprint.add( NODES, command.getNodeId() );
+                }
+                else if ( command.getRelId() != -1 )
+                {
+                    footprint.add( RELATIONSHIPS, command.getRelId() );
+                }
+                recordCommands.add( command );
+            }
+            else if ( element instanceof Command.TokenCommand || element instanceof Command.SchemaRuleCommand ||
+                      element instanceof Command.NeoStoreCommand )
+            {
+                recordsOnly = false;
+            }
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordIdVisitor
+    {
+        void visit( int store, long id );
+    }
+
+    /**
+     * Visits the ids of all records written by applying a node, relationship, property or relationship group command.
+     */
+    private static void visitWrittenRecords( Command command, RecordIdVisitor visitor )
+    {
+        if ( command instanceof Command.NodeCommand )
+        {
+            Command.NodeCommand nodeCommand = (Command.NodeCommand) command;
+            visitRecordUnits( NODES, nodeCommand.getBefore(), nodeCommand.getAfter(), visitor );
+            visitLabelRecords( nodeCommand.getBefore(), visitor );
+            visitLabelRecords( nodeCommand.getAfter(), visitor );
+        }
+        else if ( command instanceof Command.RelationshipCommand )
+        {
+            Command.RelationshipCommand relationshipCommand = (Command.RelationshipCommand) command;
+            visitRecordUnits( RELATIONSHIPS, relationshipCommand.getBefore(), relationshipCommand.getAfter(), visitor );
+        }
+        else if ( command instanceof Command.RelationshipGroupCommand )
+        {
+            Command.RelationshipGroupCommand groupCommand = (Command.RelationshipGroupCommand) command;
+            visitRecordUnits( RELATIONSHIP_GROUPS, groupCommand.getBefore(), groupCommand.getAfter(), visitor );
+        }
+        else if ( command instanceof Command.PropertyCommand )
+        {
+            Command.PropertyCommand propertyCommand = (Command.PropertyCommand) command;
+            visitRecordUnits( PROPERTIES, propertyCommand.getBefore(), propertyCommand.getAfter(), visitor );
+            visitValueRecords( propertyCommand.getBefore(), visitor );
+            visitValueRecords( propertyCommand.getAfter(), visitor );
+        }
+    }
+
+    /**
+     * A record which needs more space than a single record unit has the rest of it written to a secondary unit,
+     * which is written and marked as unused along with the record, and freed when the record no longer needs it.
+     */
+    private static void visitRecordUnits( int store, AbstractBaseRecord before, AbstractBaseRecord after, RecordIdVisitor visitor )
+    {
+        visitor.visit( store, after.getId() );
+        if ( before.hasSecondaryUnitId() )
+        {
+            visitor.visit( store, before.getSecondaryUnitId() );
+        }
+        if ( after.hasSecondaryUnitId() )
+        {
+            visitor.visit( store, after.getSecondaryUnitId() );
+        }
+    }
+
+    private static void visitLabelRecords( NodeRecord record, RecordIdVisitor visitor )
+    {
+        for ( DynamicRecord labelRecord : record.getDynamicLabelRecords() )
+        {
+            visitor.visit( LABELS, labelRecord.getId() );
+        }
+    }
+
+    private static void visitValueRecords( PropertyRecord record, RecordIdVisitor visitor )
+    {
+        for ( PropertyBlock block : record )
+        {
+            if ( !block.isLight() )
+            {
+                visitValueRecords( block.getValueRecords(), visitor );
+            }
+        }
+        visitValueRecords( record.getDeletedRecords(), visitor );
+    }
+
+    private static void visitValueRecords( List<DynamicRecord> records, RecordIdVisitor visitor )
+    {
+        for ( DynamicRecord record : records )
+        {
+            visitor.visit( record.getType() == PropertyType.ARRAY ? ARRAYS : STRINGS, record.getId() );
+        }
+    }
+
+    /**
+     * Assigns the record commands of a window to partitions. A command goes to the partition of its record id range,
+     * unless a record it writes is also written by a command already assigned to a partition, in which case it goes
+     * to that partition, for both to be applied in order by the same thread. Transactions of a window write disjoint
+     * records, so this only happens for commands of the same transaction.
+     */
+    private class Partitioner
+    {
+        private final MutableLongIntMap[] partitionsByRecord = new MutableLongIntMap[STORES];
+        private int partition;
+        private boolean conflict;
+
+        Partitioner()
+        {
+            for ( int store = 0; store < STORES; store++ )
+            {
+                partitionsByRecord[store] = new LongIntHashMap();
+            }
+        }
+
+        /**
+         * @return the partition to apply the command in, or {@code -1} if the records it writes are also written by
+         * commands in different partitions.
+         */
+        int partitionOf( Command command )
+        {
+            partition = -1;
+            conflict = false;
+            visitWrittenRecords( command, this::join );
+            if ( conflict )
+            {
+                return -1;
+            }
+            if ( partition == -1 )
+            {
+                partition = (int) ((command.getKey() / PARTITION_STRIDE) % parallelism);
+            }
+            visitWrittenRecords( command, this::claim );
+            return partition;
+        }
+
+        private void join( int store, long id )
+        {
+            int claimed = partitionsByRecord[store].getIfAbsent( id, -1 );
+            if ( claimed != -1 )
+            {
+                conflict |= partition != -1 && partition != claimed;
+                partition = claimed;
+            }
+        }
+
+        private void claim( int store, long id )
+        {
+            partitionsByRecord[store].put( id, partition );
+        }
+    }
+
+    /**
+     * Ids of the records written by one or more transactions, per store.
+     */
+    private static class RecordFootprint
+    {
+        private final MutableLongSet[] records = new MutableLongSet[STORES];
+
+        RecordFootprint()
+        {
+            for ( int store = 0; store < STORES; store++ )
+            {
+                records[store] = new LongHashSet();
+            }
+        }
+
+        void add( int store, long id )
+        {
+            records[store].add( id );
+        }
+
+        boolean overlaps( RecordFootprint other )
+        {
+            for ( int store = 0; store < STORES; store++ )
+            {
+                if ( overlaps( records[store], other.records[store] ) )
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void addAll( RecordFootprint other )
+        {
+            for ( int store = 0; store < STORES; store++ )
+            {
+                records[store].addAll( other.records[store] );
+            }
+        }
+
+        void clear()
+        {
+            for ( MutableLongSet storeRecords : records )
+            {
+                storeRecords.clear();
+            }
+        }
+
+        private static boolean overlaps( MutableLongSet window, MutableLongSet transaction )
+        {
+            return !window.isEmpty() && transaction.anySatisfy( window::contains );
+        }
+    }
+}
@@ -37,6 +37,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
     private long highMark;
     private long nextStoreReference;
     private boolean open;
+    private boolean batched;
 
     RecordNodeCursor( NodeStore read )
     {
@@ -53,12 +54,31 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         }
         if ( pageCursor == null )
         {
-            pageCursor = nodePage( 0 );
+            pageCursor = nodeScanPage( 0 );
         }
         this.next = 0;
         this.highMark = nodeHighMark();
         this.nextStoreReference = NO_ID;
         this.open = true;
+        this.batched = false;
+    }
+
+    @Override
+    public void scanRange( long startInclusive, long endExclusive )
+    {
+        if ( getId() != NO_ID )
+        {
+            resetState();
+        }
+        if ( pageCursor == null )
+        {
+            pageCursor = nodeScanPage( 0 );
+        }
+        this.highMark = Math.min( endExclusive - 1, nodeHighMark() );
+        this.next = startInclusive <= highMark ? startInclusive : NO_ID;
+        this.nextStoreReference = NO_ID;
+        this.open = true;
+        this.batched = true;
     }
 
     @Override
@@ -77,6 +97,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         this.highMark = NO_ID;
         this.nextStoreReference = NO_ID;
         this.open = true;
+        this.batched = false;
     }
 
     @Override
@@ -156,9 +177,9 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
 
             if ( next > highMark )
             {
-                if ( isSingle() )
+                if ( isSingle() || batched )
                 {
-                    //we are a "single cursor"
+                    //we are a "single cursor" or a "batched scan cursor", both having a fixed end
                     next = NO_ID;
                     return inUse();
                 }
@@ -225,6 +246,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         {
             return "RecordNodeCursor[id=" + getId() +
                     ", open state with: highMark=" + highMark +
+                    ", batched=" + batched +
                     ", next=" + next +
                     ", underlying record=" + super.toString() + "]";
         }
@@ -245,6 +267,11 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor
         return read.openPageCursorForReading( reference );
     }
 
+    private PageCursor nodeScanPage( long reference )
+    {
+        return read.openPageCursorForScanning( reference );
+    }
+
     private long nodeHighMark()
     {
         return read.getHighestPossibleIdInUse();
@@ -24,6 +24,7 @@ import org.apache.commons.lang3.exception.CloneFailedException;
 import java.nio.ByteBuffer;
 
 import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.impl.store.CompressedString;
 import org.neo4j.kernel.impl.store.GeometryType;
 import org.neo4j.kernel.impl.store.LongerShortString;
 import org.neo4j.kernel.impl.store.PropertyStore;
@@ -58,6 +59,7 @@ class RecordPropertyCursor extends PropertyRecord implements StoragePropertyCurs
     private long next;
     private int block;
     public ByteBuffer buffer;
+    private byte[] decompressed;
     private PageCursor page;
     private PageCursor stringPage;
     private PageCursor arrayPage;
@@ -180,6 +182,7 @@ class RecordPropertyCursor extends PropertyRecord implements StoragePropertyCurs
         case STRING:
         case CHAR:
         case SHORT_STRING:
+        case COMPRESSED_STRING:
             return ValueGroup.TEXT;
         case TEMPORAL:
         case GEOMETRY:
@@ -234,6 +237,8 @@ class RecordPropertyCursor extends PropertyRecord implements StoragePropertyCurs
             return readShortArray();
         case STRING:
             return readLongString();
+        case COMPRESSED_STRING:
+            return readCompressedString();
         case ARRAY:
             return readLongArray();
         case GEOMETRY:
@@ -275,6 +280,16 @@ class RecordPropertyCursor extends PropertyRecord implements StoragePropertyCurs
         return string( this, reference, stringPage );
     }
 
+    private TextValue readCompressedString()
+    {
+        long reference = PropertyBlock.fetchLong( currentBlock() );
+        if ( stringPage == null )
+        {
+            stringPage = stringPage( reference );
+        }
+        return compressedString( this, reference, stringPage );
+    }
+
     private Value readShortArray()
     {
         Bits bits = Bits.bits( MAX_BYTES_IN_SHORT_STRING_OR_SHORT_ARRAY );
@@ -408,6 +423,19 @@ class RecordPropertyCursor extends PropertyRecord implements StoragePropertyCurs
         return Values.stringValue( UTF8.decode( buffer.array(), 0, buffer.limit() ) );
     }
 
+    private TextValue compressedString( RecordPropertyCursor cursor, long reference, PageCursor page )
+    {
+        ByteBuffer buffer = cursor.buffer = read.loadString( reference, cursor.buffer, page );
+        buffer.flip();
+        int length = CompressedString.decompressedLength( buffer.array(), buffer.limit() );
+        if ( cursor.decompressed == null || cursor.decompressed.length < length )
+        {
+            cursor.decompressed = new byte[Math.max( length, buffer.capacity() )];
+        }
+        CompressedString.decompress( buffer.array(), buffer.limit(), cursor.decompressed );
+        return Values.stringValue( UTF8.decode( cursor.decompressed, 0, length ) );
+    }
+
     private ArrayValue array( RecordPropertyCursor cursor, long reference, PageCursor page )
     {
         ByteBuffer buffer = cursor.buffer = read.loadArray( reference, cursor.buffer, page );
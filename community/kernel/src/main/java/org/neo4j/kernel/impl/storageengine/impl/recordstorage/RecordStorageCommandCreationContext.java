@@ -42,9 +42,14 @@ class RecordStorageCommandCreationContext implements CommandCreationContext
     private final RenewableBatchIdSequences idBatches;
 
     RecordStorageCommandCreationContext( NeoStores neoStores, int denseNodeThreshold, int idBatchSize )
+    {
+        this( neoStores, denseNodeThreshold, idBatchSize, idBatchSize );
+    }
+
+    RecordStorageCommandCreationContext( NeoStores neoStores, int denseNodeThreshold, int idBatchSize, int maxIdBatchSize )
     {
         this.neoStores = neoStores;
-        this.idBatches = new RenewableBatchIdSequences( neoStores, idBatchSize );
+        this.idBatches = new RenewableBatchIdSequences( neoStores, idBatchSize, maxIdBatchSize );
 
         this.loaders = new Loaders( neoStores );
         RelationshipGroupGetter relationshipGroupGetter =
@@ -76,6 +81,8 @@ class RecordStorageCommandCreationContext implements CommandCreationContext
     TransactionRecordState createTransactionRecordState( IntegrityValidator integrityValidator, long lastTransactionIdWhenStarted,
             ResourceLocker locks )
     {
+        // This context is pooled along with its transaction, so batches grown by a previous transaction shouldn't carry over
+        idBatches.resetBatchSizes();
         RecordChangeSet recordChangeSet = new RecordChangeSet( loaders );
         return new TransactionRecordState( neoStores, integrityValidator,
                 recordChangeSet, lastTransactionIdWhenStarted, locks,
@@ -99,6 +99,7 @@ import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.kernel.spi.explicitindex.IndexImplementation;
 import org.neo4j.logging.LogProvider;
+import org.neo4j.scheduler.Group;
 import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.CommandReaderFactory;
 import org.neo4j.storageengine.api.CommandsToApply;
@@ -116,6 +117,7 @@ import org.neo4j.util.VisibleForTesting;
 import org.neo4j.util.concurrent.WorkSync;
 
 import static org.neo4j.kernel.impl.locking.LockService.NO_LOCK_SERVICE;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.EXTERNAL;
 import static org.neo4j.storageengine.api.TransactionApplicationMode.RECOVERY;
 import static org.neo4j.storageengine.api.TransactionApplicationMode.REVERSE_RECOVERY;
 
@@ -145,6 +147,8 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final IdController idController;
     private final int denseNodeThreshold;
     private final int recordIdBatchSize;
+    private final int recordIdMaxBatchSize;
+    private final ParallelTransactionApplier parallelApplier;
 
     public RecordStorageEngine(
             DatabaseLayout databaseLayout,
@@ -216,6 +220,12 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
 
             denseNodeThreshold = config.get( GraphDatabaseSettings.dense_node_threshold );
             recordIdBatchSize = config.get( GraphDatabaseSettings.record_id_batch_size );
+            recordIdMaxBatchSize = Math.max( recordIdBatchSize, config.get( GraphDatabaseSettings.record_id_max_batch_size ) );
+            int applyParallelism = config.get( GraphDatabaseSettings.transaction_apply_parallelism );
+            parallelApplier = applyParallelism > 1
+                              ? new ParallelTransactionApplier( neoStores, cacheAccess, scheduler.executor( Group.TRANSACTION_APPLY ),
+                                                                applyParallelism )
+                              : null;
         }
         catch ( Throwable failure )
         {
@@ -235,7 +245,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     @Override
     public RecordStorageCommandCreationContext allocateCommandCreationContext()
     {
-        return new RecordStorageCommandCreationContext( neoStores, denseNodeThreshold, recordIdBatchSize );
+        return new RecordStorageCommandCreationContext( neoStores, denseNodeThreshold, recordIdBatchSize, recordIdMaxBatchSize );
     }
 
     @Override
@@ -281,6 +291,12 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     @Override
     public void apply( CommandsToApply batch, TransactionApplicationMode mode ) throws Exception
     {
+        if ( parallelApplier != null && (mode == EXTERNAL || mode == RECOVERY) )
+        {
+            applyInParallel( batch, mode );
+            return;
+        }
+
         // Have these command appliers as separate try-with-resource to have better control over
         // point between closing this and the locks above
         try ( IndexActivator indexActivator = new IndexActivator( indexingService );
@@ -305,6 +321,25 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         }
     }
 
+    private void applyInParallel( CommandsToApply batch, TransactionApplicationMode mode ) throws Exception
+    {
+        try ( IndexActivator indexActivator = new IndexActivator( indexingService );
+              LockGroup locks = new LockGroup();
+              BatchTransactionApplier neoStoreApplier =
+                      new NeoStoreBatchTransactionApplier( mode.version(), neoStores, cacheAccess, lockService( mode ) );
+              BatchTransactionApplier auxiliaryApplier = auxiliaryApplier( mode, indexActivator ) )
+        {
+            parallelApplier.apply( batch, neoStoreApplier, auxiliaryApplier, lockService( mode ), locks );
+        }
+        catch ( Throwable cause )
+        {
+            TransactionApplyKernelException kernelException =
+                    new TransactionApplyKernelException( cause, "Failed to apply transaction: %s", batch );
+            databaseHealth.panic( kernelException );
+            throw kernelException;
+        }
+    }
+
     /**
      * Creates a {@link BatchTransactionApplierFacade} that is to be used for all transactions
      * in a batch. Each transaction is handled by a {@link TransactionApplierFacade} which wraps the
@@ -317,6 +352,26 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         ArrayList<BatchTransactionApplier> appliers = new ArrayList<>();
         // Graph store application. The order of the decorated store appliers is irrelevant
         appliers.add( new NeoStoreBatchTransactionApplier( mode.version(), neoStores, cacheAccess, lockService( mode ) ) );
+        appliers.addAll( auxiliaryAppliers( mode, indexActivator ) );
+
+        // Perform the application
+        return new BatchTransactionApplierFacade(
+                appliers.toArray( new BatchTransactionApplier[appliers.size()] ) );
+    }
+
+    /**
+     * Creates a {@link BatchTransactionApplierFacade} of all appliers but the one writing to the graph stores.
+     */
+    private BatchTransactionApplierFacade auxiliaryApplier( TransactionApplicationMode mode, IndexActivator indexActivator )
+    {
+        List<BatchTransactionApplier> appliers = auxiliaryAppliers( mode, indexActivator );
+        return new BatchTransactionApplierFacade(
+                appliers.toArray( new BatchTransactionApplier[appliers.size()] ) );
+    }
+
+    private List<BatchTransactionApplier> auxiliaryAppliers( TransactionApplicationMode mode, IndexActivator indexActivator )
+    {
+        ArrayList<BatchTransactionApplier> appliers = new ArrayList<>();
         if ( mode.needsHighIdTracking() )
         {
             appliers.add( new HighIdBatchTransactionApplier( neoStores ) );
@@ -341,10 +396,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
                             explicitIndexTransactionOrdering,
                             mode ) );
         }
-
-        // Perform the application
-        return new BatchTransactionApplierFacade(
-                appliers.toArray( new BatchTransactionApplier[appliers.size()] ) );
+        return appliers;
     }
 
     private LockService lockService( TransactionApplicationMode mode )
@@ -294,6 +294,12 @@ public class RecordStorageReader implements StorageReader
         return nodeStore.getNumberOfIdsInUse();
     }
 
+    @Override
+    public long nodesGetHighestPossibleIdInUse()
+    {
+        return nodeStore.getHighestPossibleIdInUse();
+    }
+
     @Override
     public long relationshipsGetCount()
     {
@@ -23,8 +23,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 
+import org.neo4j.helpers.collection.Iterators;
 import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.impl.store.MetaDataStore;
@@ -40,6 +42,7 @@ import org.neo4j.kernel.impl.store.record.LabelTokenRecord;
 import org.neo4j.kernel.impl.store.record.NeoStoreRecord;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyKeyTokenRecord;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.Record;
@@ -50,6 +53,7 @@ import org.neo4j.kernel.impl.store.record.SchemaRecord;
 import org.neo4j.kernel.impl.transaction.command.Command;
 import org.neo4j.kernel.impl.transaction.command.Command.Mode;
 import org.neo4j.kernel.impl.transaction.state.IntegrityValidator;
+import org.neo4j.kernel.impl.transaction.state.RecordAccess;
 import org.neo4j.kernel.impl.transaction.state.RecordAccess.RecordProxy;
 import org.neo4j.kernel.impl.transaction.state.RecordAccessSet;
 import org.neo4j.kernel.impl.transaction.state.RecordChangeSet;
@@ -424,6 +428,55 @@ public class TransactionRecordState implements RecordState
         propertyCreator.primitiveSetProperty( node, propertyKey, value, recordChangeSet.getPropertyRecords() );
     }
 
+    /**
+     * Adds the given properties to the given relationship. A relationship created in this transaction gets all of
+     * them written as one densely packed property chain.
+     *  @param relId The id of the relationship to which to add the properties.
+     * @param properties The properties to add.
+     */
+    void relAddProperties( long relId, Iterator<StorageProperty> properties )
+    {
+        RecordProxy<RelationshipRecord, Void> rel = recordChangeSet.getRelRecords().getOrLoad( relId, null );
+        primitiveAddProperties( rel, properties );
+    }
+
+    /**
+     * Adds the given properties to the given node. A node created in this transaction gets all of them written
+     * as one densely packed property chain.
+     *  @param nodeId The id of the node to which to add the properties.
+     * @param properties The properties to add.
+     */
+    void nodeAddProperties( long nodeId, Iterator<StorageProperty> properties )
+    {
+        RecordProxy<NodeRecord, Void> node = recordChangeSet.getNodeRecords().getOrLoad( nodeId, null );
+        primitiveAddProperties( node, properties );
+    }
+
+    private <P extends PrimitiveRecord> void primitiveAddProperties( RecordProxy<P, Void> primitive,
+            Iterator<StorageProperty> properties )
+    {
+        if ( !properties.hasNext() )
+        {
+            return;
+        }
+        RecordAccess<PropertyRecord, PrimitiveRecord> propertyRecords = recordChangeSet.getPropertyRecords();
+        if ( primitive.isCreated() && primitive.forReadingLinkage().getNextProp() == Record.NO_NEXT_PROPERTY.intValue() )
+        {
+            // A new entity has no chain to search for free space or existing keys, so lay out all properties
+            // in a single pass instead of re-linking the head of the chain for every record that gets added
+            Iterator<PropertyBlock> blocks = Iterators.map(
+                    property -> propertyCreator.encodePropertyValue( property.propertyKeyId(), property.value() ), properties );
+            long firstProp = propertyCreator.createPropertyChain( primitive.forReadingLinkage(), blocks, propertyRecords );
+            primitive.forChangingLinkage().setNextProp( firstProp );
+            return;
+        }
+        while ( properties.hasNext() )
+        {
+            StorageProperty property = properties.next();
+            propertyCreator.primitiveSetProperty( primitive, property.propertyKeyId(), property.value(), propertyRecords );
+        }
+    }
+
     /**
      * Creates a node for the given id
      *
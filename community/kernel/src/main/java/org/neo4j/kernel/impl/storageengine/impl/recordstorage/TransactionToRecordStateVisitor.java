@@ -109,11 +109,7 @@ class TransactionToRecordStateVisitor extends TxStateVisitor.Adapter
             StorageProperty prop = changed.next();
             recordState.nodeChangeProperty( id, prop.propertyKeyId(), prop.value() );
         }
-        while ( added.hasNext() )
-        {
-            StorageProperty prop = added.next();
-            recordState.nodeAddProperty( id, prop.propertyKeyId(), prop.value() );
-        }
+        recordState.nodeAddProperties( id, added );
     }
 
     @Override
@@ -126,11 +122,7 @@ class TransactionToRecordStateVisitor extends TxStateVisitor.Adapter
             StorageProperty prop = changed.next();
             recordState.relChangeProperty( id, prop.propertyKeyId(), prop.value() );
         }
-        while ( added.hasNext() )
-        {
-            StorageProperty prop = added.next();
-            recordState.relAddProperty( id, prop.propertyKeyId(), prop.value() );
-        }
+        recordState.relAddProperties( id, added );
     }
 
     @Override
@@ -56,6 +56,7 @@ import static org.neo4j.io.pagecache.PageCacheOpenOptions.ANY_PAGE_SIZE;
 import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.kernel.impl.store.record.RecordLoad.CHECK;
 import static org.neo4j.kernel.impl.store.record.RecordLoad.NORMAL;
 
@@ -66,6 +67,7 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
         implements RecordStore<RECORD>, AutoCloseable
 {
     static final String UNKNOWN_VERSION = "Unknown";
+    static final int ID_CAPACITY_WARNING_PERCENTAGE = 80;
 
     protected final Config configuration;
     protected final PageCache pageCache;
@@ -421,11 +423,25 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
      */
     @Override
     public PageCursor openPageCursorForReading( long id )
+    {
+        return openPageCursor( id, PF_SHARED_READ_LOCK );
+    }
+
+    /**
+     * DANGER: make sure to always close this cursor.
+     */
+    @Override
+    public PageCursor openPageCursorForScanning( long id )
+    {
+        return openPageCursor( id, PF_SHARED_READ_LOCK | PF_READ_AHEAD | PF_TRANSIENT );
+    }
+
+    private PageCursor openPageCursor( long id, int pf_flags )
     {
         try
         {
             long pageId = pageIdForRecord( id );
-            return pagedFile.io( pageId, PF_SHARED_READ_LOCK );
+            return pagedFile.io( pageId, pf_flags );
         }
         catch ( IOException e )
         {
@@ -703,6 +719,24 @@ public abstract class CommonAbstractStore<RECORD extends AbstractBaseRecord,HEAD
     void openIdGenerator()
     {
         idGenerator = idGeneratorFactory.open( idFile, getIdType(), this::scanForHighId, recordFormat.getMaxId() );
+        warnIfRunningOutOfIds();
+    }
+
+    /**
+     * Running out of ids fails every transaction that needs to create a record of this type, which is hard to recover
+     * from without downtime since it requires migrating the store to a record format that can address more records.
+     * Warn well before that happens.
+     */
+    private void warnIfRunningOutOfIds()
+    {
+        long maxId = recordFormat.getMaxId();
+        long highId = idGenerator.getHighId();
+        if ( maxId > 0 && highId > maxId / 100 * ID_CAPACITY_WARNING_PERCENTAGE )
+        {
+            log.warn( "%s has used %d of the %d ids that its record format can address. No more records can be created in it when " +
+                      "they are exhausted. Consider migrating the store to a record format with a larger address space using %s.",
+                    storageFile, highId, maxId, GraphDatabaseSettings.record_format.name() );
+        }
     }
 
     /**
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import org.neo4j.util.FeatureToggles;
+
+import static java.lang.String.format;
+
+/**
+ * Block compressed encoding of long strings, referenced from property blocks of type
+ * {@link PropertyType#COMPRESSED_STRING}. The value lives in the dynamic string store like any other long string,
+ * only the bytes in its dynamic records are:
+ * <pre>
+ *  0: length of the UTF-8 encoded string  ( 4 bytes, big endian)
+ *  4: the UTF-8 encoded string, LZ4 block compressed
+ * </pre>
+ * A string is only stored compressed if that takes fewer dynamic records than storing it as is.
+ * <p>
+ * Older versions do not know this property type, so writing compressed strings is off unless the
+ * {@code compressLongStrings} feature toggle is set. Reading them is always supported.
+ */
+public final class CompressedString
+{
+    public static final boolean ENABLED = FeatureToggles.flag( CompressedString.class, "compressLongStrings", false );
+
+    static final int HEADER_SIZE = 4;
+
+    private CompressedString()
+    {
+    }
+
+    /**
+     * @param utf8 the UTF-8 encoded string.
+     * @param recordDataSize number of data bytes in each dynamic string record.
+     * @return the bytes to store in the dynamic string records, or {@code null} if compressing the string would not
+     * save any records.
+     */
+    public static byte[] compress( byte[] utf8, int recordDataSize )
+    {
+        int uncompressedRecords = recordsFor( utf8.length, recordDataSize );
+        if ( uncompressedRecords <= 1 )
+        {
+            return null;
+        }
+        byte[] target = new byte[HEADER_SIZE + LZ4Holder.COMPRESSOR.maxCompressedLength( utf8.length )];
+        int compressedLength = LZ4Holder.COMPRESSOR.compress( utf8, 0, utf8.length, target, HEADER_SIZE, target.length - HEADER_SIZE );
+        int length = HEADER_SIZE + compressedLength;
+        if ( recordsFor( length, recordDataSize ) >= uncompressedRecords )
+        {
+            return null;
+        }
+        target[0] = (byte) (utf8.length >>> 24);
+        target[1] = (byte) (utf8.length >>> 16);
+        target[2] = (byte) (utf8.length >>> 8);
+        target[3] = (byte) utf8.length;
+        byte[] result = new byte[length];
+        System.arraycopy( target, 0, result, 0, length );
+        return result;
+    }
+
+    /**
+     * @param source bytes read from the dynamic string records.
+     * @param length number of bytes in {@code source}.
+     * @return the length of the UTF-8 encoded string that {@link #decompress(byte[], int, byte[])} will produce.
+     */
+    public static int decompressedLength( byte[] source, int length )
+    {
+        if ( length < HEADER_SIZE )
+        {
+            throw new InvalidRecordException( format( "Compressed string of %d bytes is too short for its header", length ) );
+        }
+        return ((source[0] & 0xFF) << 24) | ((source[1] & 0xFF) << 16) | ((source[2] & 0xFF) << 8) | (source[3] & 0xFF);
+    }
+
+    /**
+     * Decompresses into the given target, so that readers can reuse it between values.
+     *
+     * @param source bytes read from the dynamic string records.
+     * @param length number of bytes in {@code source}.
+     * @param target where to put the UTF-8 encoded string, at least {@link #decompressedLength(byte[], int)} long.
+     * @return the length of the UTF-8 encoded string.
+     */
+    public static int decompress( byte[] source, int length, byte[] target )
+    {
+        int expectedLength = decompressedLength( source, length );
+        int decompressedLength;
+        try
+        {
+            decompressedLength = LZ4Holder.DECOMPRESSOR.decompress( source, HEADER_SIZE, length - HEADER_SIZE, target, 0, expectedLength );
+        }
+        catch ( LZ4Exception e )
+        {
+            throw new InvalidRecordException( "Compressed string is corrupt", e );
+        }
+        if ( decompressedLength != expectedLength )
+        {
+            throw new InvalidRecordException( format( "Compressed string ended after %d of %d bytes", decompressedLength, expectedLength ) );
+        }
+        return decompressedLength;
+    }
+
+    // Only looked up when a compressed string is first written or read, not when checking if compression is enabled
+    private static final class LZ4Holder
+    {
+        static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+        static final LZ4SafeDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().safeDecompressor();
+    }
+
+    private static int recordsFor( int length, int recordDataSize )
+    {
+        return (length + recordDataSize - 1) / recordDataSize;
+    }
+}
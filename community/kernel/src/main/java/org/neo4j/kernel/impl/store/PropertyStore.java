@@ -93,6 +93,8 @@ import static org.neo4j.kernel.impl.store.record.RecordLoad.NORMAL;
  * 11: SHORT STRING
  * 12: SHORT ARRAY
  * 13: GEOMETRY
+ * 14: TEMPORAL
+ * 15: COMPRESSED STRING REFERENCE, see {@link CompressedString}
  * </pre>
  * <h2>value formats</h2>
  * <pre>
@@ -270,10 +272,12 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
         RecordStore<DynamicRecord> dynamicStore = dynamicStoreForValueType( type );
         if ( dynamicStore != null )
         {
+            // Compressed strings live in the string store, so their records are string records
+            PropertyType recordType = dynamicStore == stringStore ? PropertyType.STRING : type;
             List<DynamicRecord> dynamicRecords = dynamicStore.getRecords( block.getSingleValueLong(), NORMAL );
             for ( DynamicRecord dynamicRecord : dynamicRecords )
             {
-                dynamicRecord.setType( type.intValue() );
+                dynamicRecord.setType( recordType.intValue() );
             }
             block.setValueRecords( dynamicRecords );
         }
@@ -285,6 +289,7 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
         {
         case ARRAY: return arrayStore;
         case STRING: return stringStore;
+        case COMPRESSED_STRING: return stringStore;
         default: return null;
         }
     }
@@ -484,11 +489,21 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
                 return;
             }
 
-            // Fall back to dynamic string store
+            // Fall back to dynamic string store, compressed if that saves records
             byte[] encodedString = encodeString( value );
+            PropertyType type = PropertyType.STRING;
+            if ( CompressedString.ENABLED )
+            {
+                byte[] compressedString = CompressedString.compress( encodedString, stringAllocator.getRecordDataSize() );
+                if ( compressedString != null )
+                {
+                    encodedString = compressedString;
+                    type = PropertyType.COMPRESSED_STRING;
+                }
+            }
             List<DynamicRecord> valueRecords = new ArrayList<>();
             allocateStringRecords( valueRecords, encodedString, stringAllocator );
-            setSingleBlockValue( block, keyId, PropertyType.STRING, Iterables.first( valueRecords ).getId() );
+            setSingleBlockValue( block, keyId, type, Iterables.first( valueRecords ).getId() );
             for ( DynamicRecord valueRecord : valueRecords )
             {
                 valueRecord.setType( PropertyType.STRING.intValue() );
@@ -659,6 +674,15 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
         return decodeString( source.other() );
     }
 
+    String getCompressedStringFor( PropertyBlock propertyBlock )
+    {
+        ensureHeavy( propertyBlock );
+        byte[] source = stringStore.readFullByteArray( propertyBlock.getValueRecords(), PropertyType.STRING ).other();
+        byte[] target = new byte[CompressedString.decompressedLength( source, source.length )];
+        CompressedString.decompress( source, source.length, target );
+        return decodeString( target );
+    }
+
     Value getArrayFor( PropertyBlock propertyBlock )
     {
         ensureHeavy( propertyBlock );
@@ -124,6 +124,17 @@ public interface RecordStore<RECORD extends AbstractBaseRecord> extends IdSequen
      */
     PageCursor openPageCursorForReading( long id );
 
+    /**
+     * Opens a {@link PageCursor} on this store, like {@link #openPageCursorForReading(long)}, but meant for scanning
+     * through the records in the store in increasing id order. Such cursors read ahead of the scan, and the pages they
+     * bring into the page cache are evicted before the rest of the working set.
+     * The caller is responsible for closing it when done with it.
+     *
+     * @param id cursor will initially be placed at the page containing this record id.
+     * @return PageCursor for scanning records.
+     */
+    PageCursor openPageCursorForScanning( long id );
+
     /**
      * Reads a record from the store into {@code target}, see
      * {@link RecordStore#getRecord(long, AbstractBaseRecord, RecordLoad)}.
@@ -309,6 +320,12 @@ public interface RecordStore<RECORD extends AbstractBaseRecord> extends IdSequen
             return actual.openPageCursorForReading( id );
         }
 
+        @Override
+        public PageCursor openPageCursorForScanning( long id )
+        {
+            return actual.openPageCursorForScanning( id );
+        }
+
         @Override
         public void getRecordByCursor( long id, R target, RecordLoad mode, PageCursor cursor ) throws InvalidRecordException
         {
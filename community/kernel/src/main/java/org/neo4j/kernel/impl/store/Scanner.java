@@ -68,7 +68,7 @@ public class Scanner
             this.filters = filters;
             this.ids = new StoreIdIterator( store, forward );
             this.store = store;
-            this.cursor = store.openPageCursorForReading( 0 );
+            this.cursor = forward ? store.openPageCursorForScanning( 0 ) : store.openPageCursorForReading( 0 );
             this.record = store.newRecord();
         }
 
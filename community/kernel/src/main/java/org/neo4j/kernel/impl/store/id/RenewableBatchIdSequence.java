@@ -28,19 +28,33 @@ import static org.neo4j.kernel.impl.store.id.IdRangeIterator.VALUE_REPRESENTING_
 /**
  * An {@link IdSequence} which does internal batching by using another {@link IdSequence} as source of batches.
  * Meant to be used by a single thread at a time.
+ * <p>
+ * With a max batch size larger than the initial batch size each renewal doubles the size of the next batch,
+ * up to the max, so that a user creating many records of the same type ends up with contiguous ids
+ * while a user creating only a few keeps few ids to itself. The growth is per user, call {@link #resetBatchSize()}
+ * when this sequence is handed to a new one.
  */
 public class RenewableBatchIdSequence implements IdSequence, Resource
 {
     private final IdSequence source;
-    private final int batchSize;
+    private final int initialBatchSize;
+    private final int maxBatchSize;
     private final LongConsumer excessIdConsumer;
+    private int batchSize;
     private IdSequence currentBatch;
     private boolean closed;
 
     RenewableBatchIdSequence( IdSequence source, int batchSize, LongConsumer excessIdConsumer )
+    {
+        this( source, batchSize, batchSize, excessIdConsumer );
+    }
+
+    RenewableBatchIdSequence( IdSequence source, int batchSize, int maxBatchSize, LongConsumer excessIdConsumer )
     {
         this.source = source;
+        this.initialBatchSize = batchSize;
         this.batchSize = batchSize;
+        this.maxBatchSize = Math.max( batchSize, maxBatchSize );
         this.excessIdConsumer = excessIdConsumer;
     }
 
@@ -60,9 +74,18 @@ public class RenewableBatchIdSequence implements IdSequence, Resource
             }
             currentBatch = null;
         }
+        batchSize = initialBatchSize;
         closed = true;
     }
 
+    /**
+     * Makes the next renewal request the initial batch size again. Ids left in the current batch are kept.
+     */
+    public void resetBatchSize()
+    {
+        batchSize = initialBatchSize;
+    }
+
     @Override
     public long nextId()
     {
@@ -72,6 +95,7 @@ public class RenewableBatchIdSequence implements IdSequence, Resource
         while ( currentBatch == null || (id = currentBatch.nextId()) == VALUE_REPRESENTING_NULL )
         {
             currentBatch = source.nextIdBatch( batchSize ).iterator();
+            batchSize = (int) Math.min( (long) batchSize * 2, maxBatchSize );
         }
         return id;
     }
@@ -30,13 +30,18 @@ public class RenewableBatchIdSequences implements Resource
     private final IdSequence[] types = new IdSequence[StoreType.values().length];
 
     public RenewableBatchIdSequences( NeoStores stores, int batchSize )
+    {
+        this( stores, batchSize, batchSize );
+    }
+
+    public RenewableBatchIdSequences( NeoStores stores, int batchSize, int maxBatchSize )
     {
         for ( StoreType type : StoreType.values() )
         {
             if ( type.isRecordStore() )
             {
                 RecordStore<AbstractBaseRecord> store = stores.getRecordStore( type );
-                if ( type.isLimitedIdStore() || batchSize == 1 )
+                if ( type.isLimitedIdStore() || Math.max( batchSize, maxBatchSize ) == 1 )
                 {
                     // This is a token store or otherwise meta-data store, so let's not add batching for it
                     types[type.ordinal()] = store;
@@ -44,7 +49,7 @@ public class RenewableBatchIdSequences implements Resource
                 else
                 {
                     // This is a normal record store where id batching is beneficial
-                    types[type.ordinal()] = new RenewableBatchIdSequence( store, batchSize, store::freeId );
+                    types[type.ordinal()] = new RenewableBatchIdSequence( store, batchSize, maxBatchSize, store::freeId );
                 }
             }
         }
@@ -60,6 +65,20 @@ public class RenewableBatchIdSequences implements Resource
         return types[type.ordinal()];
     }
 
+    /**
+     * Makes growing id batches start over from the initial batch size, e.g. when a new transaction starts using these sequences.
+     */
+    public void resetBatchSizes()
+    {
+        for ( IdSequence generator : types )
+        {
+            if ( generator instanceof RenewableBatchIdSequence )
+            {
+                ((RenewableBatchIdSequence) generator).resetBatchSize();
+            }
+        }
+    }
+
     @Override
     public void close()
     {
@@ -185,6 +185,7 @@ public class PropertyBlock implements Cloneable
             {
             case STRING:
             case ARRAY:
+            case COMPRESSED_STRING:
                 result.append( ",firstDynamic=" ).append( getSingleValueLong() );
                 break;
             default:
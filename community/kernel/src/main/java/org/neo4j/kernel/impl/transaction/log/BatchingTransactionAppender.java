@@ -23,6 +23,7 @@ import java.io.Flushable;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.LockSupport;
@@ -30,6 +31,8 @@ import java.util.concurrent.locks.ReentrantLock;
 
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.entry.CompressingLogEntryWriter;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCodec;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
@@ -50,6 +53,10 @@ import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart.checksum
 /**
  * Concurrently appends transactions to the transaction log, while coordinating with the log rotation and forcing the
  * log file in batches for higher throughput in a concurrent scenario.
+ * <p>
+ * The thread that ends up forcing the log may optionally hold off its force for a short while, as long as other
+ * threads are still appending transactions, so that those transactions become durable by the same force.
+ * How long it is willing to wait adapts to the observed force latency, bounded by a configured maximum delay.
  */
 public class BatchingTransactionAppender extends LifecycleAdapter implements TransactionAppender
 {
@@ -59,6 +66,8 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     // is introduced to manage just that and is only used for transactions that contain any explicit index changes.
     private final IdOrderingQueue explicitIndexTransactionOrdering;
 
+    private static final long APPENDERS_IN_FLIGHT_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos( 10 );
+
     private final AtomicReference<ThreadLink> threadLinkHead = new AtomicReference<>( ThreadLink.END );
     private final TransactionMetadataCache transactionMetadataCache;
     private final LogFile logFile;
@@ -67,15 +76,32 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     private final LogPositionMarker positionMarker = new LogPositionMarker();
     private final DatabaseHealth databaseHealth;
     private final Lock forceLock = new ReentrantLock();
+    private final AtomicInteger appendersInFlight = new AtomicInteger();
+    private final long maxGroupCommitDelayNanos;
+    private final LogEntryCodec logEntryCodec;
+    // Exponentially weighted moving average of the force latency, only updated while holding the force lock
+    private volatile long forceLatencyNanos;
 
     private FlushablePositionAwareChannel writer;
     private TransactionLogWriter transactionLogWriter;
+    private CompressingLogEntryWriter compressingLogEntryWriter;
     private IndexCommandDetector indexCommandDetector;
 
     public BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation,
             TransactionMetadataCache transactionMetadataCache, TransactionIdStore transactionIdStore,
             IdOrderingQueue explicitIndexTransactionOrdering, DatabaseHealth databaseHealth )
     {
+        this( logFiles, logRotation, transactionMetadataCache, transactionIdStore, explicitIndexTransactionOrdering,
+                databaseHealth, 0, LogEntryCodec.NONE );
+    }
+
+    public BatchingTransactionAppender( LogFiles logFiles, LogRotation logRotation,
+            TransactionMetadataCache transactionMetadataCache, TransactionIdStore transactionIdStore,
+            IdOrderingQueue explicitIndexTransactionOrdering, DatabaseHealth databaseHealth,
+            long maxGroupCommitDelayMillis, LogEntryCodec logEntryCodec )
+    {
+        this.maxGroupCommitDelayNanos = TimeUnit.MILLISECONDS.toNanos( maxGroupCommitDelayMillis );
+        this.logEntryCodec = logEntryCodec;
         this.logFile = logFiles.getLogFile();
         this.logRotation = logRotation;
         this.transactionIdStore = transactionIdStore;
@@ -89,7 +115,10 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     {
         this.writer = logFile.getWriter();
         this.indexCommandDetector = new IndexCommandDetector();
-        this.transactionLogWriter = new TransactionLogWriter( new LogEntryWriter( writer ) );
+        this.compressingLogEntryWriter = logEntryCodec == LogEntryCodec.NONE ? null
+                                                                             : new CompressingLogEntryWriter( writer, logEntryCodec );
+        LogEntryWriter logEntryWriter = compressingLogEntryWriter == null ? new LogEntryWriter( writer ) : compressingLogEntryWriter;
+        this.transactionLogWriter = new TransactionLogWriter( logEntryWriter );
     }
 
     @Override
@@ -97,39 +126,55 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
     {
         // Assigned base tx id just to make compiler happy
         long lastTransactionId = TransactionIdStore.BASE_TX_ID;
-        // Synchronized with logFile to get absolute control over concurrent rotations happening
-        synchronized ( logFile )
+        int transactions = 0;
+        // Compression is comparatively expensive, so do it before taking the log file monitor
+        byte[][] serializedCommands = encodeCommands( batch );
+        // Let a thread about to force the log know that there are more transactions on their way. We stay in flight
+        // until our thread link is pushed in forceAfterAppend, so that the force either waits for us or includes us.
+        appendersInFlight.incrementAndGet();
+        try
         {
-            // Assert that kernel is healthy before making any changes
-            databaseHealth.assertHealthy( IOException.class );
-            try ( SerializeTransactionEvent serialiseEvent = logAppendEvent.beginSerializeTransaction() )
+            // Synchronized with logFile to get absolute control over concurrent rotations happening
+            synchronized ( logFile )
             {
-                // Append all transactions in this batch to the log under the same logFile monitor
-                TransactionToApply tx = batch;
-                while ( tx != null )
+                // Assert that kernel is healthy before making any changes
+                databaseHealth.assertHealthy( IOException.class );
+                try ( SerializeTransactionEvent serialiseEvent = logAppendEvent.beginSerializeTransaction() )
                 {
-                    long transactionId = transactionIdStore.nextCommittingTransactionId();
-
-                    // If we're in a scenario where we're merely replicating transactions, i.e. transaction
-                    // id have already been generated by another entity we simply check that our id
-                    // that we generated match that id. If it doesn't we've run into a problem we can't ´
-                    // really recover from and would point to a bug somewhere.
-                    matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
-
-                    TransactionCommitment commitment = appendToLog( tx.transactionRepresentation(), transactionId );
-                    tx.commitment( commitment, transactionId );
-                    tx.logPosition( commitment.logPosition() );
-                    tx = tx.next();
-                    lastTransactionId = transactionId;
+                    // Append all transactions in this batch to the log under the same logFile monitor
+                    TransactionToApply tx = batch;
+                    while ( tx != null )
+                    {
+                        long transactionId = transactionIdStore.nextCommittingTransactionId();
+
+                        // If we're in a scenario where we're merely replicating transactions, i.e. transaction
+                        // id have already been generated by another entity we simply check that our id
+                        // that we generated match that id. If it doesn't we've run into a problem we can't ´
+                        // really recover from and would point to a bug somewhere.
+                        matchAgainstExpectedTransactionIdIfAny( transactionId, tx );
+
+                        TransactionCommitment commitment = appendToLog( tx.transactionRepresentation(), transactionId,
+                                serializedCommands == null ? null : serializedCommands[transactions] );
+                        tx.commitment( commitment, transactionId );
+                        tx.logPosition( commitment.logPosition() );
+                        tx = tx.next();
+                        lastTransactionId = transactionId;
+                        transactions++;
+                    }
                 }
             }
         }
+        catch ( Throwable t )
+        {
+            appendersInFlight.decrementAndGet();
+            throw t;
+        }
 
         // At this point we've appended all transactions in this batch, but we can't mark any of them
         // as committed since they haven't been forced to disk yet. So here we force, or potentially
         // piggy-back on another force, but anyway after this call below we can be sure that all our transactions
         // in this batch exist durably on disk.
-        if ( forceAfterAppend( logAppendEvent ) )
+        if ( forceAfterAppend( logAppendEvent, transactions, true ) )
         {
             // We got lucky and were the one forcing the log. It's enough if ones of all doing concurrent committers
             // checks the need for log rotation.
@@ -143,6 +188,30 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         return lastTransactionId;
     }
 
+    /**
+     * @return the commands of each transaction in the batch, encoded by the compressing log entry writer,
+     * or {@code null} if the log isn't compressed.
+     */
+    private byte[][] encodeCommands( TransactionToApply batch ) throws IOException
+    {
+        if ( compressingLogEntryWriter == null )
+        {
+            return null;
+        }
+        int count = 0;
+        for ( TransactionToApply tx = batch; tx != null; tx = tx.next() )
+        {
+            count++;
+        }
+        byte[][] serializedCommands = new byte[count][];
+        int i = 0;
+        for ( TransactionToApply tx = batch; tx != null; tx = tx.next() )
+        {
+            serializedCommands[i++] = compressingLogEntryWriter.encode( tx.transactionRepresentation() );
+        }
+        return serializedCommands;
+    }
+
     private void matchAgainstExpectedTransactionIdIfAny( long transactionId, TransactionToApply tx )
     {
         long expectedTransactionId = tx.transactionId();
@@ -185,15 +254,15 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
                 throw cause;
             }
         }
-        forceAfterAppend( logCheckPointEvent );
+        forceAfterAppend( logCheckPointEvent, 0 );
     }
 
     /**
      * @return A TransactionCommitment instance with metadata about the committed transaction, such as whether or not
      * this transaction contains any explicit index changes.
      */
-    private TransactionCommitment appendToLog( TransactionRepresentation transaction, long transactionId )
-            throws IOException
+    private TransactionCommitment appendToLog( TransactionRepresentation transaction, long transactionId,
+            byte[] serializedCommands ) throws IOException
     {
         // Reset command writer so that we, after we've written the transaction, can ask it whether or
         // not any explicit index command was written. If so then there's additional ordering to care about below.
@@ -208,14 +277,22 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         try
         {
             LogPosition logPositionBeforeCommit = writer.getCurrentPosition( positionMarker ).newPosition();
-            transactionLogWriter.append( transaction, transactionId );
+            if ( serializedCommands == null )
+            {
+                transactionLogWriter.append( transaction, transactionId );
+            }
+            else
+            {
+                transactionLogWriter.append( transaction, transactionId, serializedCommands );
+            }
             LogPosition logPositionAfterCommit = writer.getCurrentPosition( positionMarker ).newPosition();
 
             long transactionChecksum =
                     checksum( transaction.additionalHeader(), transaction.getMasterId(), transaction.getAuthorId() );
             transactionMetadataCache
-                    .cacheTransactionMetadata( transactionId, logPositionBeforeCommit, transaction.getMasterId(),
-                            transaction.getAuthorId(), transactionChecksum, transaction.getTimeCommitted() );
+                    .cacheTransactionMetadata( transactionId, logPositionBeforeCommit, logPositionAfterCommit,
+                            transaction.getMasterId(), transaction.getAuthorId(), transactionChecksum,
+                            transaction.getTimeCommitted() );
 
             transaction.accept( indexCommandDetector );
             boolean hasExplicitIndexChanges = indexCommandDetector.hasWrittenAnyExplicitIndexCommand();
@@ -241,11 +318,38 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
      * @return {@code true} if we got lucky and were the ones forcing the log.
      */
     protected boolean forceAfterAppend( LogForceEvents logForceEvents ) throws IOException
+    {
+        return forceAfterAppend( logForceEvents, 1 );
+    }
+
+    /**
+     * Called by the appender that just appended a number of transactions to the log.
+     *
+     * @param logForceEvents A trace event for the given log append operation.
+     * @param transactions the number of transactions appended, which will become durable by the force.
+     * @return {@code true} if we got lucky and were the ones forcing the log.
+     */
+    protected boolean forceAfterAppend( LogForceEvents logForceEvents, int transactions ) throws IOException
+    {
+        return forceAfterAppend( logForceEvents, transactions, false );
+    }
+
+    /**
+     * @param appenderInFlight whether the calling appender is counted in {@link #appendersInFlight}, which it then
+     * stops being once its thread link is pushed.
+     */
+    private boolean forceAfterAppend( LogForceEvents logForceEvents, int transactions, boolean appenderInFlight )
+            throws IOException
     {
         // There's a benign race here, where we add our link before we update our next pointer.
         // This is okay, however, because unparkAll() spins when it sees a null next pointer.
-        ThreadLink threadLink = new ThreadLink( Thread.currentThread() );
+        ThreadLink threadLink = new ThreadLink( Thread.currentThread(), transactions );
         threadLink.next = threadLinkHead.getAndSet( threadLink );
+        if ( appenderInFlight )
+        {
+            // Only now will a force that is done waiting for appenders in flight pick up our link
+            appendersInFlight.decrementAndGet();
+        }
         boolean attemptedForce = false;
 
         try ( LogForceWaitEvent logForceWaitEvent = logForceEvents.beginLogForceWait() )
@@ -292,10 +396,14 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
 
     private void forceLog( LogForceEvents logForceEvents ) throws IOException
     {
+        awaitConcurrentAppenders();
         ThreadLink links = threadLinkHead.getAndSet( ThreadLink.END );
         try ( LogForceEvent logForceEvent = logForceEvents.beginLogForce() )
         {
+            logForceEvent.setBatchSize( countTransactions( links ) );
+            long startNanos = System.nanoTime();
             force();
+            updateForceLatency( System.nanoTime() - startNanos );
         }
         catch ( final Throwable panic )
         {
@@ -308,6 +416,52 @@ public class BatchingTransactionAppender extends LifecycleAdapter implements Tra
         }
     }
 
+    /**
+     * Waits for transactions that are currently being appended, so that they can be part of the upcoming force.
+     * Waiting for longer than half the typical force latency is not worth it, since the transactions left out
+     * would then be better off piggy-backing on the next force instead.
+     */
+    private void awaitConcurrentAppenders()
+    {
+        if ( maxGroupCommitDelayNanos == 0 )
+        {
+            return;
+        }
+        long delayNanos = Math.min( maxGroupCommitDelayNanos, forceLatencyNanos / 2 );
+        long deadline = System.nanoTime() + delayNanos;
+        long remainingNanos = delayNanos;
+        while ( appendersInFlight.get() > 0 && remainingNanos > 0 )
+        {
+            // Parking rather than yielding keeps us from burning a CPU that the appenders we wait for could use
+            LockSupport.parkNanos( this, Math.min( remainingNanos, APPENDERS_IN_FLIGHT_PARK_NANOS ) );
+            remainingNanos = deadline - System.nanoTime();
+        }
+    }
+
+    private void updateForceLatency( long latencyNanos )
+    {
+        long previous = forceLatencyNanos;
+        forceLatencyNanos = previous == 0 ? latencyNanos : previous - (previous >> 3) + (latencyNanos >> 3);
+    }
+
+    private static int countTransactions( ThreadLink links )
+    {
+        int transactions = 0;
+        while ( links != ThreadLink.END )
+        {
+            transactions += links.transactions;
+            ThreadLink tmp;
+            do
+            {
+                // Spin because of the race:y update when consing.
+                tmp = links.next;
+            }
+            while ( tmp == null );
+            links = tmp;
+        }
+        return transactions;
+    }
+
     private void unparkAll( ThreadLink links )
     {
         do
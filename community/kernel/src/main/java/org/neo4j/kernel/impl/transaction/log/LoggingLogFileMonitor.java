@@ -49,6 +49,14 @@ public class LoggingLogFileMonitor implements LogFileCreationMonitor,
         log.info( "Recovery required from position " + startPosition );
     }
 
+    @Override
+    public void recoveryProgress( long recoveredTransactions, long transactionsToRecover, long elapsedMillis )
+    {
+        long transactionsPerSecond = elapsedMillis > 0 ? recoveredTransactions * 1000 / elapsedMillis : recoveredTransactions;
+        log.info( format( "Recovery in progress. %d of %d transactions recovered in %d ms, %d transactions/s",
+                recoveredTransactions, transactionsToRecover, elapsedMillis, transactionsPerSecond ) );
+    }
+
     @Override
     public void recoveryCompleted( int numberOfRecoveredTransactions )
     {
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.neo4j.helpers.collection.Pair;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.mem.MappedBuffers;
+import org.neo4j.kernel.impl.transaction.log.TransactionMetadataCache.TransactionMetadata;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes;
+import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+
+import static org.neo4j.io.ByteUnit.mebiBytes;
+import static org.neo4j.util.FeatureToggles.getInteger;
+import static org.neo4j.util.FeatureToggles.getLong;
+
+/**
+ * Provides the raw bytes of committed transactions, as they are laid out in the transaction log, from memory mapped
+ * log files. This allows for shipping transactions elsewhere without deserializing them into
+ * {@link org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation} and serializing them back again.
+ * <p>
+ * The byte range of a transaction is taken from the {@link TransactionMetadataCache}, which knows both the start
+ * and end position of transactions appended by this instance. For all other transactions, or when the log files
+ * can't be mapped, {@code null} is returned and callers fall back to reading the transactions through
+ * {@link LogicalTransactionStore}.
+ * <p>
+ * Log files are mapped in fixed size windows, and only a bounded number of windows are kept mapped. Windows are
+ * unmapped explicitly when they are evicted, and when this reader is shut down. Since the active log file is still
+ * growing, only its complete windows are mapped, and its tail is read from the file instead. The bytes of a
+ * transaction are copied out of the windows before they are returned, so no caller can hold on to unmapped memory.
+ */
+public class MappedTransactionLogReader extends LifecycleAdapter
+{
+    private static final long DEFAULT_WINDOW_SIZE = getLong( MappedTransactionLogReader.class, "windowSize", mebiBytes( 8 ) );
+    private static final int MAX_MAPPED_WINDOWS = getInteger( MappedTransactionLogReader.class, "maxMappedWindows", 16 );
+    private static final int COMMIT_ENTRY_SIZE = 2 + Long.BYTES + Long.BYTES;
+
+    private final LogFiles logFiles;
+    private final TransactionMetadataCache transactionMetadataCache;
+    private final boolean enabled;
+    private final long windowSize;
+    // Keyed by log version and window index. Only accessed while holding the monitor lock on this reader.
+    private final Map<Pair<Long,Long>,MappedByteBuffer> mappedWindows =
+            new LinkedHashMap<Pair<Long,Long>,MappedByteBuffer>( 32, 0.75f, true )
+    {
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<Pair<Long,Long>,MappedByteBuffer> eldest )
+        {
+            if ( size() > MAX_MAPPED_WINDOWS )
+            {
+                MappedBuffers.unmap( eldest.getValue() );
+                return true;
+            }
+            return false;
+        }
+    };
+    private boolean shutdown;
+
+    public MappedTransactionLogReader( FileSystemAbstraction fileSystem, LogFiles logFiles,
+            TransactionMetadataCache transactionMetadataCache )
+    {
+        this( fileSystem, logFiles, transactionMetadataCache, DEFAULT_WINDOW_SIZE );
+    }
+
+    MappedTransactionLogReader( FileSystemAbstraction fileSystem, LogFiles logFiles,
+            TransactionMetadataCache transactionMetadataCache, long windowSize )
+    {
+        this.logFiles = logFiles;
+        this.transactionMetadataCache = transactionMetadataCache;
+        this.windowSize = windowSize;
+        // Only log files on the actual file system can be memory mapped, and the mappings must be released explicitly
+        this.enabled = fileSystem instanceof DefaultFileSystemAbstraction && MappedBuffers.canUnmap();
+    }
+
+    /**
+     * @param transactionId id of the committed transaction to get the bytes for.
+     * @return a buffer containing a copy of all the log entries of the transaction, from its start entry up to and
+     * including its commit entry, or {@code null} if the byte range of the transaction isn't known or can't be read.
+     * @throws IOException on failure to map or read the log file.
+     */
+    public ByteBuffer transactionBytes( long transactionId ) throws IOException
+    {
+        if ( !enabled )
+        {
+            return null;
+        }
+        TransactionMetadata metadata = transactionMetadataCache.getTransactionMetadata( transactionId );
+        if ( metadata == null || metadata.getEndPosition() == LogPosition.UNSPECIFIED )
+        {
+            return null;
+        }
+        LogPosition start = metadata.getStartPosition();
+        LogPosition end = metadata.getEndPosition();
+        long length = end.getByteOffset() - start.getByteOffset();
+        if ( start.getLogVersion() != end.getLogVersion() || length < COMMIT_ENTRY_SIZE || length > Integer.MAX_VALUE )
+        {
+            return null;
+        }
+
+        ByteBuffer transaction = ByteBuffer.allocate( (int) length );
+        if ( !copyFromLogFile( start.getLogVersion(), start.getByteOffset(), transaction ) )
+        {
+            return null;
+        }
+        transaction.flip();
+
+        // Guard against the cache being out of sync with the log, by checking that the range ends with the
+        // commit entry of the requested transaction
+        int commitEntry = transaction.limit() - COMMIT_ENTRY_SIZE;
+        if ( transaction.get( commitEntry + 1 ) != LogEntryByteCodes.TX_COMMIT ||
+                transaction.getLong( commitEntry + 2 ) != transactionId )
+        {
+            return null;
+        }
+        return transaction;
+    }
+
+    @Override
+    public synchronized void shutdown()
+    {
+        shutdown = true;
+        for ( MappedByteBuffer window : mappedWindows.values() )
+        {
+            MappedBuffers.unmap( window );
+        }
+        mappedWindows.clear();
+    }
+
+    /**
+     * Fill the target with the bytes of the given log file, starting at the given position.
+     * @return {@code false} if the log file doesn't exist or doesn't (yet) contain all the bytes.
+     */
+    private synchronized boolean copyFromLogFile( long logVersion, long position, ByteBuffer target ) throws IOException
+    {
+        if ( shutdown )
+        {
+            return false;
+        }
+        File file = logFiles.getLogFileForVersion( logVersion );
+        boolean activeLogFile = logVersion >= logFiles.getHighestLogVersion();
+        FileChannel channel = null;
+        try
+        {
+            while ( target.hasRemaining() )
+            {
+                long windowIndex = position / windowSize;
+                long windowStart = windowIndex * windowSize;
+                int length = (int) Math.min( target.remaining(), windowStart + windowSize - position );
+                MappedByteBuffer window = mappedWindows.get( Pair.of( logVersion, windowIndex ) );
+                if ( window == null || window.capacity() < position - windowStart + length )
+                {
+                    if ( channel == null )
+                    {
+                        if ( !file.exists() )
+                        {
+                            return false;
+                        }
+                        channel = FileChannel.open( file.toPath(), StandardOpenOption.READ );
+                    }
+                    long size = channel.size();
+                    if ( size < position + length )
+                    {
+                        return false;
+                    }
+                    long windowEnd = Math.min( windowStart + windowSize, size );
+                    window = activeLogFile && windowEnd - windowStart < windowSize ? null
+                                                                                   : mapWindow( channel, logVersion, windowIndex, windowEnd );
+                }
+
+                if ( window != null )
+                {
+                    ByteBuffer source = window.duplicate();
+                    source.limit( (int) (position - windowStart) + length ).position( (int) (position - windowStart) );
+                    target.put( source );
+                }
+                else
+                {
+                    // The tail of the active log file is still growing, so it is read rather than mapped
+                    readFully( channel, position, target, length );
+                }
+                position += length;
+            }
+            return true;
+        }
+        finally
+        {
+            if ( channel != null )
+            {
+                channel.close();
+            }
+        }
+    }
+
+    private MappedByteBuffer mapWindow( FileChannel channel, long logVersion, long windowIndex, long windowEnd )
+            throws IOException
+    {
+        long windowStart = windowIndex * windowSize;
+        MappedByteBuffer window = channel.map( FileChannel.MapMode.READ_ONLY, windowStart, windowEnd - windowStart );
+        MappedByteBuffer previous = mappedWindows.put( Pair.of( logVersion, windowIndex ), window );
+        if ( previous != null )
+        {
+            MappedBuffers.unmap( previous );
+        }
+        return window;
+    }
+
+    private static void readFully( FileChannel channel, long position, ByteBuffer target, int length ) throws IOException
+    {
+        int limit = target.limit();
+        target.limit( target.position() + length );
+        try
+        {
+            while ( target.hasRemaining() )
+            {
+                int read = channel.read( target, position );
+                if ( read < 0 )
+                {
+                    throw new IOException( "Unexpected end of log file at position " + position );
+                }
+                position += read;
+            }
+        }
+        finally
+        {
+            target.limit( limit );
+        }
+    }
+}
@@ -24,12 +24,19 @@ import java.util.concurrent.locks.LockSupport;
 class ThreadLink
 {
     final Thread thread;
+    final int transactions;
     volatile ThreadLink next;
     volatile boolean done;
 
     ThreadLink( Thread thread )
+    {
+        this( thread, 0 );
+    }
+
+    ThreadLink( Thread thread, int transactions )
     {
         this.thread = thread;
+        this.transactions = transactions;
     }
 
     public void unpark()
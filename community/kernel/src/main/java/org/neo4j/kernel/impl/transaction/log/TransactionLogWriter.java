@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.transaction.log;
 import java.io.IOException;
 
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.entry.CompressingLogEntryWriter;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
 
 public class TransactionLogWriter
@@ -46,6 +47,20 @@ public class TransactionLogWriter
         writer.writeCommitEntry( transactionId, transaction.getTimeCommitted() );
     }
 
+    /**
+     * Same as {@link #append(TransactionRepresentation, long)}, but with the commands of the transaction
+     * already serialized, see {@link CompressingLogEntryWriter#encode(TransactionRepresentation)}.
+     */
+    public void append( TransactionRepresentation transaction, long transactionId, byte[] serializedCommands )
+            throws IOException
+    {
+        writer.writeStartEntry( transaction.getMasterId(), transaction.getAuthorId(),
+                transaction.getTimeStarted(), transaction.getLatestCommittedTxWhenStarted(),
+                transaction.additionalHeader() );
+        writer.writeSerializedCommands( serializedCommands );
+        writer.writeCommitEntry( transactionId, transaction.getTimeCommitted() );
+    }
+
     public void checkPoint( LogPosition logPosition ) throws IOException
     {
         writer.writeCheckPointEntry( logPosition );
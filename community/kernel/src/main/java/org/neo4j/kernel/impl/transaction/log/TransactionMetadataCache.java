@@ -49,13 +49,21 @@ public class TransactionMetadataCache
 
     public TransactionMetadata cacheTransactionMetadata( long txId, LogPosition position, int masterId,
                                                          int authorId, long checksum, long timeWritten )
+    {
+        return cacheTransactionMetadata( txId, position, LogPosition.UNSPECIFIED, masterId, authorId, checksum,
+                timeWritten );
+    }
+
+    public TransactionMetadata cacheTransactionMetadata( long txId, LogPosition position, LogPosition endPosition,
+            int masterId, int authorId, long checksum, long timeWritten )
     {
         if ( position.getByteOffset() == -1 )
         {
             throw new RuntimeException( "StartEntry.position is " + position );
         }
 
-        TransactionMetadata result = new TransactionMetadata( masterId, authorId, position, checksum, timeWritten );
+        TransactionMetadata result =
+                new TransactionMetadata( masterId, authorId, position, endPosition, checksum, timeWritten );
         txStartPositionCache.put( txId, result );
         return result;
     }
@@ -65,15 +73,23 @@ public class TransactionMetadataCache
         private final int masterId;
         private final int authorId;
         private final LogPosition startPosition;
+        private final LogPosition endPosition;
         private final long checksum;
         private final long timeWritten;
 
         public TransactionMetadata( int masterId, int authorId, LogPosition startPosition, long checksum,
                 long timeWritten )
+        {
+            this( masterId, authorId, startPosition, LogPosition.UNSPECIFIED, checksum, timeWritten );
+        }
+
+        public TransactionMetadata( int masterId, int authorId, LogPosition startPosition, LogPosition endPosition,
+                long checksum, long timeWritten )
         {
             this.masterId = masterId;
             this.authorId = authorId;
             this.startPosition = startPosition;
+            this.endPosition = endPosition;
             this.checksum = checksum;
             this.timeWritten = timeWritten;
         }
@@ -93,6 +109,16 @@ public class TransactionMetadataCache
             return startPosition;
         }
 
+        /**
+         * @return the position right after the commit entry of this transaction, or {@link LogPosition#UNSPECIFIED}
+         * if not known. It is only known for transactions appended by this instance, and isn't part of
+         * {@link #equals(Object)} for that reason.
+         */
+        public LogPosition getEndPosition()
+        {
+            return endPosition;
+        }
+
         public long getChecksum()
         {
             return checksum;
@@ -110,6 +136,7 @@ public class TransactionMetadataCache
                    "masterId=" + masterId +
                    ", authorId=" + authorId +
                    ", startPosition=" + startPosition +
+                   ", endPosition=" + endPosition +
                    ", checksum=" + checksum +
                    ", timeWritten=" + timeWritten +
                    '}';
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.logging.LogProvider;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Periodically asks the page cache to {@link PageCache#writeBackOldPages(IOLimiter) write back} pages that have
+ * stayed dirty for a while, so that dirty pages trickle out to the storage device continuously instead of all at
+ * once when the next check point flushes the page cache.
+ * <p>
+ * The check point remains what makes the store durable; this only leaves it with fewer pages to flush.
+ */
+public class PageWriteBackScheduler extends LifecycleAdapter
+{
+    private final PageCache pageCache;
+    private final IOLimiter ioLimiter;
+    private final JobScheduler scheduler;
+    private final long recurringPeriodMillis;
+    private final Log log;
+    private final Runnable job = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            if ( stopped )
+            {
+                return;
+            }
+            try
+            {
+                pageCache.writeBackOldPages( ioLimiter );
+            }
+            catch ( IOException e )
+            {
+                // The next check point will flush these pages anyway, and deal with any underlying problem
+                log.warn( "Failed to write back dirty pages", e );
+            }
+
+            // reschedule only if it is not stopped
+            if ( !stopped )
+            {
+                handle = scheduler.schedule( Group.CHECKPOINT, job, recurringPeriodMillis, MILLISECONDS );
+            }
+        }
+    };
+
+    private volatile JobHandle handle;
+    private volatile boolean stopped;
+
+    public PageWriteBackScheduler( PageCache pageCache, IOLimiter ioLimiter, JobScheduler scheduler,
+            long recurringPeriodMillis, LogProvider logProvider )
+    {
+        this.pageCache = pageCache;
+        this.ioLimiter = ioLimiter;
+        this.scheduler = scheduler;
+        this.recurringPeriodMillis = recurringPeriodMillis;
+        this.log = logProvider.getLog( getClass() );
+    }
+
+    @Override
+    public void start()
+    {
+        handle = scheduler.schedule( Group.CHECKPOINT, job, recurringPeriodMillis, MILLISECONDS );
+    }
+
+    @Override
+    public void stop()
+    {
+        stopped = true;
+        if ( handle != null )
+        {
+            handle.cancel( false );
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.io.ByteUnit;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.WritableChannel;
+
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes.COMPRESSED_COMMANDS;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryVersion.V3_5_COMPRESSED;
+
+/**
+ * {@link LogEntryWriter} which compresses the command entries of a transaction in blocks of roughly
+ * {@link #BLOCK_SIZE} bytes, each written as a single {@link LogEntryByteCodes#COMPRESSED_COMMANDS} entry.
+ * Start, commit and check point entries are written as is, so that log positions of transactions are unaffected.
+ * Blocks that are too small to be worth compressing, that are larger than {@link #MAX_BLOCK_SIZE}, or that don't
+ * compress, are written as regular command entries.
+ * <p>
+ * The commands of a transaction can also be {@link #encode(TransactionRepresentation) encoded} up front by any
+ * thread, and the result later written with {@link #writeSerializedCommands(byte[])}, so that compression doesn't
+ * have to happen while holding on to the log file.
+ */
+public class CompressingLogEntryWriter extends LogEntryWriter
+{
+    static final int BLOCK_SIZE = (int) ByteUnit.kibiBytes( 64 );
+    static final int MAX_BLOCK_SIZE = BLOCK_SIZE * 4;
+    static final int MIN_COMPRESSIBLE_SIZE = 256;
+
+    private final LogEntryCodec codec;
+    private final BlockEncoder encoder;
+
+    public CompressingLogEntryWriter( WritableChannel channel, LogEntryCodec codec )
+    {
+        super( channel );
+        this.codec = codec;
+        this.encoder = new BlockEncoder( channel );
+    }
+
+    @Override
+    public void serialize( TransactionRepresentation tx ) throws IOException
+    {
+        encoder.encode( tx );
+    }
+
+    @Override
+    public void serialize( Collection<StorageCommand> commands ) throws IOException
+    {
+        encoder.encode( commands );
+    }
+
+    /**
+     * Encodes the commands of the given transaction into the bytes that {@link #serialize(TransactionRepresentation)}
+     * would have written. Unlike the rest of this writer, this method is safe to call concurrently.
+     *
+     * @param tx transaction to encode the commands of.
+     * @return the encoded commands, to be written with {@link #writeSerializedCommands(byte[])}.
+     * @throws IOException if the commands couldn't be serialized.
+     */
+    public byte[] encode( TransactionRepresentation tx ) throws IOException
+    {
+        BlockChannel target = new BlockChannel( MIN_COMPRESSIBLE_SIZE );
+        new BlockEncoder( target ).encode( tx );
+        return Arrays.copyOf( target.array(), target.size() );
+    }
+
+    /**
+     * Serializes commands into a block, which is compressed and written to a target channel whenever it fills up.
+     */
+    private class BlockEncoder
+    {
+        private final WritableChannel target;
+        // Room for the command that takes a block past its size, so that the buffer normally never grows
+        private final BlockChannel block = new BlockChannel( BLOCK_SIZE * 2 );
+        private final Visitor<StorageCommand,IOException> blockSerializer = new StorageCommandSerializer( block );
+
+        BlockEncoder( WritableChannel target )
+        {
+            this.target = target;
+        }
+
+        void encode( TransactionRepresentation tx ) throws IOException
+        {
+            block.clear();
+            tx.accept( this::serializeToBlock );
+            writeBlock();
+        }
+
+        void encode( Collection<StorageCommand> commands ) throws IOException
+        {
+            block.clear();
+            for ( StorageCommand command : commands )
+            {
+                serializeToBlock( command );
+            }
+            writeBlock();
+        }
+
+        private boolean serializeToBlock( StorageCommand command ) throws IOException
+        {
+            blockSerializer.visit( command );
+            if ( block.size() >= BLOCK_SIZE )
+            {
+                writeBlock();
+            }
+            return false;
+        }
+
+        private void writeBlock() throws IOException
+        {
+            int length = block.size();
+            if ( length == 0 )
+            {
+                return;
+            }
+
+            try
+            {
+                byte[] compressed = length < MIN_COMPRESSIBLE_SIZE || length > MAX_BLOCK_SIZE
+                                    ? null : codec.compress( block.array(), length );
+                if ( compressed == null )
+                {
+                    // The block contains regular command entries, which can be written as they are
+                    target.put( block.array(), length );
+                    return;
+                }
+
+                target.put( V3_5_COMPRESSED.byteCode() ).put( COMPRESSED_COMMANDS );
+                target.put( codec.code() ).putInt( length ).putInt( compressed.length );
+                target.put( compressed, compressed.length );
+            }
+            finally
+            {
+                block.clear();
+            }
+        }
+    }
+
+    /**
+     * Heap buffer for serialized commands, which grows to fit commands larger than the block size.
+     */
+    private static class BlockChannel implements WritableChannel
+    {
+        private final int initialCapacity;
+        private ByteBuffer buffer;
+
+        BlockChannel( int initialCapacity )
+        {
+            this.initialCapacity = initialCapacity;
+            this.buffer = ByteBuffer.allocate( initialCapacity );
+        }
+
+        int size()
+        {
+            return buffer.position();
+        }
+
+        byte[] array()
+        {
+            return buffer.array();
+        }
+
+        void clear()
+        {
+            if ( buffer.capacity() > initialCapacity )
+            {
+                // Don't hold on to the memory of an unusually large command
+                buffer = ByteBuffer.allocate( initialCapacity );
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public WritableChannel put( byte value )
+        {
+            ensureCapacity( Byte.BYTES ).put( value );
+            return this;
+        }
+
+        @Override
+        public WritableChannel putShort( short value )
+        {
+            ensureCapacity( Short.BYTES ).putShort( value );
+            return this;
+        }
+
+        @Override
+        public WritableChannel putInt( int value )
+        {
+            ensureCapacity( Integer.BYTES ).putInt( value );
+            return this;
+        }
+
+        @Override
+        public WritableChannel putLong( long value )
+        {
+            ensureCapacity( Long.BYTES ).putLong( value );
+            return this;
+        }
+
+        @Override
+        public WritableChannel putFloat( float value )
+        {
+            ensureCapacity( Float.BYTES ).putFloat( value );
+            return this;
+        }
+
+        @Override
+        public WritableChannel putDouble( double value )
+        {
+            ensureCapacity( Double.BYTES ).putDouble( value );
+            return this;
+        }
+
+        @Override
+        public WritableChannel put( byte[] value, int length )
+        {
+            ensureCapacity( length ).put( value, 0, length );
+            return this;
+        }
+
+        private ByteBuffer ensureCapacity( int bytes )
+        {
+            if ( buffer.remaining() < bytes )
+            {
+                int capacity = Math.max( buffer.capacity() * 2, buffer.position() + bytes );
+                ByteBuffer grown = ByteBuffer.allocate( capacity );
+                buffer.flip();
+                grown.put( buffer );
+                buffer = grown;
+            }
+            return buffer;
+        }
+    }
+}
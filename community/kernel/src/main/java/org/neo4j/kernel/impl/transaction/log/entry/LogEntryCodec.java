@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static java.lang.String.format;
+
+/**
+ * Compression codecs available for blocks of commands in the transaction log, see {@link CompressingLogEntryWriter}.
+ * The codec of each block is recorded in the block itself, so a log may contain blocks of different codecs.
+ * The codec that the writer was configured with when a log file was created is also recorded in its {@link LogHeader}.
+ * <p>
+ * {@link #LZ4} is the codec to use when commit latency matters, since it compresses at several hundred megabytes per
+ * second per core. {@link #DEFLATE} compresses better, at a fraction of that speed.
+ */
+public enum LogEntryCodec
+{
+    NONE( 0 )
+            {
+                @Override
+                public byte[] compress( byte[] data, int length )
+                {
+                    return null;
+                }
+
+                @Override
+                public byte[] decompress( byte[] compressed, int uncompressedLength )
+                {
+                    return compressed;
+                }
+            },
+    DEFLATE( 1 )
+            {
+                @Override
+                public byte[] compress( byte[] data, int length )
+                {
+                    Deflater deflater = DEFLATERS.poll();
+                    if ( deflater == null )
+                    {
+                        deflater = new Deflater( Deflater.BEST_SPEED );
+                    }
+                    try
+                    {
+                        deflater.setInput( data, 0, length );
+                        deflater.finish();
+                        byte[] target = new byte[length];
+                        int compressedLength = 0;
+                        while ( !deflater.finished() && compressedLength < target.length )
+                        {
+                            compressedLength += deflater.deflate( target, compressedLength,
+                                    target.length - compressedLength );
+                        }
+                        return deflater.finished() && compressedLength < length
+                               ? Arrays.copyOf( target, compressedLength ) : null;
+                    }
+                    finally
+                    {
+                        deflater.reset();
+                        if ( !DEFLATERS.offer( deflater ) )
+                        {
+                            deflater.end();
+                        }
+                    }
+                }
+
+                @Override
+                public byte[] decompress( byte[] compressed, int uncompressedLength ) throws IOException
+                {
+                    Inflater inflater = INFLATERS.poll();
+                    if ( inflater == null )
+                    {
+                        inflater = new Inflater();
+                    }
+                    try
+                    {
+                        inflater.setInput( compressed );
+                        byte[] target = new byte[uncompressedLength];
+                        int inflated = 0;
+                        while ( inflated < uncompressedLength )
+                        {
+                            int length = inflater.inflate( target, inflated, uncompressedLength - inflated );
+                            if ( length == 0 && (inflater.finished() || inflater.needsInput()) )
+                            {
+                                throw new IOException( format( "Compressed block ended after %d of %d bytes",
+                                        inflated, uncompressedLength ) );
+                            }
+                            inflated += length;
+                        }
+                        return target;
+                    }
+                    catch ( DataFormatException e )
+                    {
+                        throw new IOException( "Compressed block is corrupt", e );
+                    }
+                    finally
+                    {
+                        inflater.reset();
+                        if ( !INFLATERS.offer( inflater ) )
+                        {
+                            inflater.end();
+                        }
+                    }
+                }
+            },
+    LZ4( 2 )
+            {
+                @Override
+                public byte[] compress( byte[] data, int length )
+                {
+                    LZ4Compressor compressor = LZ4Holder.COMPRESSOR;
+                    byte[] target = new byte[compressor.maxCompressedLength( length )];
+                    int compressedLength = compressor.compress( data, 0, length, target, 0, target.length );
+                    return compressedLength < length ? Arrays.copyOf( target, compressedLength ) : null;
+                }
+
+                @Override
+                public byte[] decompress( byte[] compressed, int uncompressedLength ) throws IOException
+                {
+                    byte[] target = new byte[uncompressedLength];
+                    int decompressedLength;
+                    try
+                    {
+                        decompressedLength = LZ4Holder.DECOMPRESSOR.decompress(
+                                compressed, 0, compressed.length, target, 0, uncompressedLength );
+                    }
+                    catch ( LZ4Exception e )
+                    {
+                        throw new IOException( "Compressed block is corrupt", e );
+                    }
+                    if ( decompressedLength != uncompressedLength )
+                    {
+                        throw new IOException( format( "Compressed block ended after %d of %d bytes",
+                                decompressedLength, uncompressedLength ) );
+                    }
+                    return target;
+                }
+            };
+
+    private static final LogEntryCodec[] BY_CODE = values();
+
+    // Deflaters and inflaters hold on to native memory until they are ended, so a few of them are kept for reuse,
+    // and the rest are ended right away.
+    private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors();
+    private static final BlockingQueue<Deflater> DEFLATERS = new ArrayBlockingQueue<>( POOL_SIZE );
+    private static final BlockingQueue<Inflater> INFLATERS = new ArrayBlockingQueue<>( POOL_SIZE );
+
+    // Compressors and decompressors of LZ4 are thread-safe and stateless, so one of each is shared. They are only
+    // looked up when the codec is first used.
+    private static final class LZ4Holder
+    {
+        static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+        static final LZ4SafeDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().safeDecompressor();
+    }
+
+    private final byte code;
+
+    LogEntryCodec( int code )
+    {
+        this.code = (byte) code;
+    }
+
+    public byte code()
+    {
+        return code;
+    }
+
+    /**
+     * @param data bytes to compress.
+     * @param length number of bytes, from the start of {@code data}, to compress.
+     * @return the compressed bytes, or {@code null} if the data didn't compress to fewer bytes than {@code length}.
+     */
+    public abstract byte[] compress( byte[] data, int length );
+
+    /**
+     * @param compressed the bytes of a block, as returned from {@link #compress(byte[], int)}.
+     * @param uncompressedLength the number of bytes the block had before compression.
+     * @return the uncompressed bytes.
+     * @throws IOException if the block is corrupt.
+     */
+    public abstract byte[] decompress( byte[] compressed, int uncompressedLength ) throws IOException;
+
+    public static boolean isKnown( byte code )
+    {
+        return code >= 0 && code < BY_CODE.length;
+    }
+
+    public static LogEntryCodec byCode( byte code )
+    {
+        if ( !isKnown( code ) )
+        {
+            throw new IllegalArgumentException( "Unknown log entry codec " + code );
+        }
+        return BY_CODE[code];
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.kernel.impl.transaction.log.ByteBufferReadableChannel;
+import org.neo4j.kernel.impl.transaction.log.LogPositionMarker;
+import org.neo4j.kernel.impl.transaction.log.ReadableClosableChannel;
+import org.neo4j.storageengine.api.CommandReaderFactory;
+
+import static java.lang.String.format;
+
+/**
+ * Same entries as {@link LogEntryParsersV2_3}, with the addition of {@link #COMPRESSED_COMMANDS}.
+ */
+public enum LogEntryParsersV3_5 implements LogEntryParser<LogEntry>
+{
+    TX_START( LogEntryParsersV2_3.TX_START ),
+
+    COMMAND( LogEntryParsersV2_3.COMMAND ),
+
+    TX_COMMIT( LogEntryParsersV2_3.TX_COMMIT ),
+
+    CHECK_POINT( LogEntryParsersV2_3.CHECK_POINT ),
+
+    COMPRESSED_COMMANDS( null )
+            {
+                @Override
+                public LogEntry parse( LogEntryVersion version, ReadableClosableChannel channel, LogPositionMarker marker,
+                                       CommandReaderFactory commandReader ) throws IOException
+                {
+                    LogEntryCodec codec = LogEntryCodec.byCode( channel.get() );
+                    int uncompressedLength = channel.getInt();
+                    int compressedLength = channel.getInt();
+                    // Bounded by what the writer produces, so that a corrupt entry can't make us allocate huge arrays
+                    if ( uncompressedLength < 0 || uncompressedLength > CompressingLogEntryWriter.MAX_BLOCK_SIZE ||
+                         compressedLength < 0 || compressedLength > CompressingLogEntryWriter.MAX_BLOCK_SIZE )
+                    {
+                        throw new IOException( format( "Invalid compressed block lengths %d and %d",
+                                uncompressedLength, compressedLength ) );
+                    }
+                    byte[] compressed = new byte[compressedLength];
+                    channel.get( compressed, compressedLength );
+                    ByteBuffer block = ByteBuffer.wrap( codec.decompress( compressed, uncompressedLength ) );
+
+                    // The block contains regular command entries, each with its own version
+                    ReadableClosableChannel blockChannel = new ByteBufferReadableChannel( block );
+                    List<LogEntryCommand> commands = new ArrayList<>();
+                    while ( block.hasRemaining() )
+                    {
+                        LogEntryVersion commandVersion = LogEntryVersion.byVersion( blockChannel.get() );
+                        byte type = blockChannel.get();
+                        if ( type != LogEntryByteCodes.COMMAND )
+                        {
+                            throw new IOException( "Unexpected entry type " + type + " in compressed block" );
+                        }
+                        LogEntry entry = commandVersion.entryParser( type )
+                                .parse( commandVersion, blockChannel, marker, commandReader );
+                        if ( entry != null )
+                        {
+                            commands.add( entry.as() );
+                        }
+                    }
+                    return new LogEntryCompressedCommands( version, commands );
+                }
+
+                @Override
+                public byte byteCode()
+                {
+                    return LogEntryByteCodes.COMPRESSED_COMMANDS;
+                }
+
+                @Override
+                public boolean skip()
+                {
+                    return false;
+                }
+            };
+
+    private final LogEntryParser<LogEntry> delegate;
+
+    LogEntryParsersV3_5( LogEntryParser<LogEntry> delegate )
+    {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public LogEntry parse( LogEntryVersion version, ReadableClosableChannel channel, LogPositionMarker marker,
+                           CommandReaderFactory commandReader ) throws IOException
+    {
+        return delegate.parse( version, channel, marker, commandReader );
+    }
+
+    @Override
+    public byte byteCode()
+    {
+        return delegate.byteCode();
+    }
+
+    @Override
+    public boolean skip()
+    {
+        return delegate.skip();
+    }
+}
@@ -79,16 +79,21 @@ public enum LogEntryVersion
     // as of 2017-05-26: the records in command log entries include a bit that specifies if the command is serialised
     // using a fixed-width reference format, or not. This change is technically backwards compatible, so we bump the
     // log version to prevent mixed-version clusters from forming.
-    V3_0_10( -10, LogEntryParsersV2_3.class );
-    // Method moreRecentVersionExists() relies on the fact that we have negative numbers, thus next version to use is -11
+    V3_0_10( -10, LogEntryParsersV2_3.class ),
+    // as of 2026-10-16: blocks of command entries may be compressed into a single entry. Only those compressed
+    // entries are written with this version, and only when transaction log compression is enabled, which is why
+    // this version isn't CURRENT. Logs written without compression remain readable by previous versions.
+    V3_5_COMPRESSED( -11, LogEntryParsersV3_5.class );
+    // Method moreRecentVersionExists() relies on the fact that we have negative numbers, thus next version to use is -12
 
     public static final LogEntryVersion CURRENT = V3_0_10;
+    private static final LogEntryVersion LATEST = V3_5_COMPRESSED;
     private static final byte LOWEST_VERSION = (byte)-V2_3.byteCode();
     private static final LogEntryVersion[] ALL = values();
     private static final LogEntryVersion[] LOOKUP_BY_VERSION;
     static
     {
-        LOOKUP_BY_VERSION = new LogEntryVersion[(-CURRENT.byteCode()) + 1]; // pessimistic size
+        LOOKUP_BY_VERSION = new LogEntryVersion[(-LATEST.byteCode()) + 1]; // pessimistic size
         for ( LogEntryVersion version : ALL )
         {
             put( LOOKUP_BY_VERSION, -version.byteCode(), version );
@@ -158,13 +163,13 @@ public enum LogEntryVersion
         {
             return LOOKUP_BY_VERSION[positiveVersion];
         }
-        byte positiveCurrentVersion = (byte) -CURRENT.byteCode();
-        if ( positiveVersion > positiveCurrentVersion )
+        byte positiveLatestVersion = (byte) -LATEST.byteCode();
+        if ( positiveVersion > positiveLatestVersion )
         {
             throw new UnsupportedLogVersionException( String.format(
                     "Transaction logs contains entries with prefix %d, and the highest supported prefix is %d. This " +
                             "indicates that the log files originates from a newer version of neo4j.",
-                    positiveVersion, positiveCurrentVersion ) );
+                    positiveVersion, positiveLatestVersion ) );
         }
         throw new UnsupportedLogVersionException( String.format(
                 "Transaction logs contains entries with prefix %d, and the lowest supported prefix is %d. This " +
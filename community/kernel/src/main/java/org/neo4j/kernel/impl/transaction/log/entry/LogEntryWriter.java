@@ -99,6 +99,16 @@ public class LogEntryWriter
         }
     }
 
+    /**
+     * Writes commands that have already been serialized, e.g. by {@link CompressingLogEntryWriter#encode}.
+     *
+     * @param commands the serialized command entries.
+     */
+    public void writeSerializedCommands( byte[] commands ) throws IOException
+    {
+        channel.put( commands, commands.length );
+    }
+
     public void writeCheckPointEntry( LogPosition logPosition ) throws IOException
     {
         writeLogEntryHeader( CHECK_POINT, channel );
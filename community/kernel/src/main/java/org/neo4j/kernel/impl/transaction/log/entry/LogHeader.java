@@ -26,12 +26,19 @@ public class LogHeader
     public final byte logFormatVersion;
     public final long logVersion;
     public final long lastCommittedTxId;
+    public final LogEntryCodec codec;
 
     public LogHeader( byte logFormatVersion, long logVersion, long lastCommittedTxId )
+    {
+        this( logFormatVersion, logVersion, lastCommittedTxId, LogEntryCodec.NONE );
+    }
+
+    public LogHeader( byte logFormatVersion, long logVersion, long lastCommittedTxId, LogEntryCodec codec )
     {
         this.logFormatVersion = logFormatVersion;
         this.logVersion = logVersion;
         this.lastCommittedTxId = lastCommittedTxId;
+        this.codec = codec;
     }
 
     @Override
@@ -48,7 +55,7 @@ public class LogHeader
 
         LogHeader logHeader = (LogHeader) o;
         return lastCommittedTxId == logHeader.lastCommittedTxId && logFormatVersion == logHeader.logFormatVersion &&
-               logVersion == logHeader.logVersion;
+               logVersion == logHeader.logVersion && codec == logHeader.codec;
     }
 
     @Override
@@ -57,6 +64,7 @@ public class LogHeader
         int result = (int) logFormatVersion;
         result = 31 * result + (int) (logVersion ^ (logVersion >>> 32));
         result = 31 * result + (int) (lastCommittedTxId ^ (lastCommittedTxId >>> 32));
+        result = 31 * result + codec.hashCode();
         return result;
     }
 
@@ -67,6 +75,7 @@ public class LogHeader
                 "logFormatVersion=" + logFormatVersion +
                 ", logVersion=" + logVersion +
                 ", lastCommittedTxId=" + lastCommittedTxId +
+                ", codec=" + codec +
                 '}';
     }
 }
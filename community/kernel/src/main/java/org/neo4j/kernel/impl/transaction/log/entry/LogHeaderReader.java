@@ -28,7 +28,9 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.OpenMode;
 import org.neo4j.io.fs.StoreChannel;
 
+import static java.lang.String.format;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeader.LOG_HEADER_SIZE;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.LOG_VERSION_WITH_CODEC;
 
 public class LogHeaderReader
 {
@@ -88,13 +90,34 @@ public class LogHeaderReader
         long encodedLogVersions = buffer.getLong();
         byte logFormatVersion = decodeLogFormatVersion( encodedLogVersions );
         long logVersion = decodeLogVersion( encodedLogVersions );
+        byte codecCode = decodeCodec( encodedLogVersions );
+        if ( !LogEntryCodec.isKnown( codecCode ) )
+        {
+            throw new IOException( format( "Unable to read log header%s, because the log was written with log entry " +
+                            "codec %d, which is unknown to this version. Log header format version is %d.",
+                    fileForAdditionalErrorInformationOrNull == null ? "" : " of " + fileForAdditionalErrorInformationOrNull,
+                    codecCode, logFormatVersion ) );
+        }
         long previousCommittedTx = buffer.getLong();
-        return new LogHeader( logFormatVersion, logVersion, previousCommittedTx );
+        return new LogHeader( logFormatVersion, logVersion, previousCommittedTx, LogEntryCodec.byCode( codecCode ) );
     }
 
     static long decodeLogVersion( long encLogVersion )
     {
-        return encLogVersion & 0x00FFFFFFFFFFFFFFL;
+        if ( decodeLogFormatVersion( encLogVersion ) < LOG_VERSION_WITH_CODEC )
+        {
+            return encLogVersion & 0x00FFFFFFFFFFFFFFL;
+        }
+        return encLogVersion & 0x0000FFFFFFFFFFFFL;
+    }
+
+    static byte decodeCodec( long encLogVersion )
+    {
+        if ( decodeLogFormatVersion( encLogVersion ) < LOG_VERSION_WITH_CODEC )
+        {
+            return LogEntryCodec.NONE.code();
+        }
+        return (byte) ((encLogVersion >> 48) & 0xFF);
     }
 
     static byte decodeLogFormatVersion( long encLogVersion )
@@ -45,9 +45,15 @@ public class LogHeaderWriter
     }
 
     public static ByteBuffer writeLogHeader( ByteBuffer buffer, long logVersion, long previousCommittedTxId )
+    {
+        return writeLogHeader( buffer, logVersion, previousCommittedTxId, LogEntryCodec.NONE );
+    }
+
+    public static ByteBuffer writeLogHeader( ByteBuffer buffer, long logVersion, long previousCommittedTxId,
+            LogEntryCodec codec )
     {
         buffer.clear();
-        buffer.putLong( encodeLogVersion( logVersion ) );
+        buffer.putLong( encodeLogVersion( logVersion, codec ) );
         buffer.putLong( previousCommittedTxId );
         buffer.flip();
         return buffer;
@@ -72,6 +78,16 @@ public class LogHeaderWriter
 
     public static long encodeLogVersion( long logVersion )
     {
-        return logVersion | (((long) CURRENT_FORMAT_VERSION) << 56);
+        return encodeLogVersion( logVersion, LogEntryCodec.NONE );
+    }
+
+    /**
+     * The format version goes into the highest byte and the codec into the byte below that, which leaves 48 bits for
+     * the log version. Older format versions, which have no codec byte, are still read with 56 bit log versions by
+     * {@link LogHeaderReader}.
+     */
+    public static long encodeLogVersion( long logVersion, LogEntryCodec codec )
+    {
+        return logVersion | (((long) CURRENT_FORMAT_VERSION) << 56) | ((codec.code() & 0xFFL) << 48);
     }
 }
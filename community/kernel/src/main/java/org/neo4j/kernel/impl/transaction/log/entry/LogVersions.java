@@ -37,7 +37,11 @@ public class LogVersions
 
     // This version will probably be the end of the line of log header format versions.
     // Please don't add more since they aren't really used anyway.
-    public static final byte CURRENT_LOG_VERSION = 6;
+    // Version 7 was added anyway, since it records the codec of compressed logs in the header, see LogEntryCodec.
+    public static final byte CURRENT_LOG_VERSION = 7;
+
+    // The first format version where the log version is 48 bits, and the byte above it holds the codec of the log.
+    static final byte LOG_VERSION_WITH_CODEC = 7;
 
     // on disk current format version
     static final short CURRENT_FORMAT_VERSION = CURRENT_LOG_VERSION & 0xFF;
@@ -35,6 +35,7 @@ import org.neo4j.kernel.impl.transaction.log.LogVersionRepository;
 import org.neo4j.kernel.impl.transaction.log.ReadOnlyLogVersionRepository;
 import org.neo4j.kernel.impl.transaction.log.ReadOnlyTransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCodec;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
 import org.neo4j.kernel.impl.util.Dependencies;
@@ -42,6 +43,7 @@ import org.neo4j.kernel.impl.util.Dependencies;
 import static java.util.Objects.requireNonNull;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.database_path;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.logical_log_rotation_threshold;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.tx_log_compression;
 
 /**
  * Transactional log files facade class builder.
@@ -237,9 +239,11 @@ public class LogFilesBuilder
 
         // Register listener for rotation threshold
         AtomicLong rotationThreshold = getRotationThresholdAndRegisterForUpdates();
+        LogEntryCodec logEntryCodec = config == null ? LogEntryCodec.NONE : config.get( tx_log_compression );
 
         return new TransactionLogFilesContext( rotationThreshold, logEntryReader,
-                lastCommittedIdSupplier, committingTransactionIdSupplier, logFileCreationMonitor, logVersionRepositorySupplier, fileSystem );
+                lastCommittedIdSupplier, committingTransactionIdSupplier, logFileCreationMonitor, logVersionRepositorySupplier, fileSystem,
+                logEntryCodec );
     }
 
     private AtomicLong getRotationThresholdAndRegisterForUpdates()
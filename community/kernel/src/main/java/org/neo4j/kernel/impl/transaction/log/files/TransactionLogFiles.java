@@ -253,7 +253,7 @@ public class TransactionLogFiles extends LifecycleAdapter implements LogFiles
         {
             // Either the header is not there in full or the file was new. Don't care
             long lastTxId = lastTransactionIdSupplier.getAsLong();
-            writeLogHeader( headerBuffer, forVersion, lastTxId );
+            writeLogHeader( headerBuffer, forVersion, lastTxId, logFilesContext.getLogEntryCodec() );
             logHeaderCache.putHeader( forVersion, lastTxId );
             storeChannel.writeAll( headerBuffer );
             monitor.created( toOpen, forVersion, lastTxId );
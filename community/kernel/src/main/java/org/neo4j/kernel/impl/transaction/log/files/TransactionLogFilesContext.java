@@ -25,6 +25,7 @@ import java.util.function.Supplier;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.impl.transaction.log.LogVersionRepository;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCodec;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 
 class TransactionLogFilesContext
@@ -36,11 +37,12 @@ class TransactionLogFilesContext
     private final Supplier<LogVersionRepository> logVersionRepositorySupplier;
     private final LogFileCreationMonitor logFileCreationMonitor;
     private final FileSystemAbstraction fileSystem;
+    private final LogEntryCodec logEntryCodec;
 
     TransactionLogFilesContext( AtomicLong rotationThreshold, LogEntryReader logEntryReader,
             LongSupplier lastCommittedTransactionIdSupplier, LongSupplier committingTransactionIdSupplier,
             LogFileCreationMonitor logFileCreationMonitor, Supplier<LogVersionRepository> logVersionRepositorySupplier,
-            FileSystemAbstraction fileSystem )
+            FileSystemAbstraction fileSystem, LogEntryCodec logEntryCodec )
     {
         this.rotationThreshold = rotationThreshold;
         this.logEntryReader = logEntryReader;
@@ -49,6 +51,7 @@ class TransactionLogFilesContext
         this.logVersionRepositorySupplier = logVersionRepositorySupplier;
         this.logFileCreationMonitor = logFileCreationMonitor;
         this.fileSystem = fileSystem;
+        this.logEntryCodec = logEntryCodec;
     }
 
     AtomicLong getRotationThreshold()
@@ -85,4 +88,9 @@ class TransactionLogFilesContext
     {
         return fileSystem;
     }
+
+    LogEntryCodec getLogEntryCodec()
+    {
+        return logEntryCodec;
+    }
 }
@@ -44,6 +44,7 @@ import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.Record;
 import org.neo4j.register.Register.DoubleLongRegister;
 import org.neo4j.storageengine.api.EntityType;
+import org.neo4j.util.FeatureToggles;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
@@ -55,6 +56,17 @@ import static org.neo4j.kernel.impl.store.record.RecordLoad.FORCE;
  */
 public class NeoStoreIndexStoreView implements IndexStoreView
 {
+    /**
+     * Maximum number of threads scanning the node store when populating indexes.
+     */
+    private static final int SCAN_WORKERS = FeatureToggles.getInteger( NeoStoreIndexStoreView.class, "scanWorkers",
+            Runtime.getRuntime().availableProcessors() );
+    /**
+     * Minimum number of node ids each of the {@link #SCAN_WORKERS} scans, so that smaller stores are scanned by fewer threads.
+     */
+    private static final long MIN_NODES_PER_SCAN_WORKER = FeatureToggles.getLong( NeoStoreIndexStoreView.class, "minNodesPerScanWorker",
+            1_000_000 );
+
     protected final PropertyStore propertyStore;
     protected final NodeStore nodeStore;
     protected final RelationshipStore relationshipStore;
@@ -110,6 +122,12 @@ public class NeoStoreIndexStoreView implements IndexStoreView
             final Visitor<NodeLabelUpdate, FAILURE> labelUpdateVisitor,
             boolean forceStoreScan )
     {
+        int partitions = (int) Math.min( SCAN_WORKERS, nodeStore.getHighId() / MIN_NODES_PER_SCAN_WORKER );
+        if ( partitions > 1 )
+        {
+            return new PartitionedNodeStoreScan<>( () -> new RecordStorageReader( neoStores ), locks, labelUpdateVisitor,
+                    propertyUpdatesVisitor, labelIds, propertyKeyIdFilter, partitions );
+        }
         return new StoreViewNodeStoreScan<>( new RecordStorageReader( neoStores ), locks, labelUpdateVisitor,
                 propertyUpdatesVisitor, labelIds, propertyKeyIdFilter );
     }
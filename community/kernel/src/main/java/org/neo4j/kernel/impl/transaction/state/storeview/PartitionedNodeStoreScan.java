@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.state.storeview;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+import org.neo4j.kernel.impl.api.index.EntityUpdates;
+import org.neo4j.kernel.impl.api.index.MultipleIndexPopulator;
+import org.neo4j.kernel.impl.api.index.PhaseTracker;
+import org.neo4j.kernel.impl.api.index.StoreScan;
+import org.neo4j.kernel.impl.locking.LockService;
+import org.neo4j.storageengine.api.StorageReader;
+import org.neo4j.storageengine.api.schema.PopulationProgress;
+
+import static org.neo4j.helpers.Exceptions.chain;
+import static org.neo4j.helpers.NamedThreadFactory.daemon;
+
+/**
+ * Node store scan that splits the node id space into contiguous ranges and scans each range from its own thread,
+ * with its own {@link StorageReader}. Reading nodes and their properties happens in parallel while calls to the
+ * visitors are serialized, so that the visitors see the same single-threaded stream of updates as from a
+ * {@link StoreViewNodeStoreScan}, only not in node id order.
+ * <p>
+ * External updates are applied when the partition owning the updated node has handed the node to the visitors,
+ * so that they come after the scanned state of the node. Updates for nodes that the partition has read, but not
+ * yet handed over, are {@link #deferUpdate(IndexEntryUpdate) deferred} until it has. Updates for nodes that the
+ * partition hasn't read yet are dropped, the partition will see the change when it reaches the node.
+ * Nodes created after the scan was set up get ids outside of all partitions and their updates are always applied.
+ */
+public class PartitionedNodeStoreScan<FAILURE extends Exception> implements StoreScan<FAILURE>
+{
+    static final String SCAN_THREAD_NAME_PREFIX = "index-population-scan";
+
+    private final Object visitorLock = new Object();
+    private final List<NodeRangeScan> partitions = new ArrayList<>();
+    private final long highId;
+    private final long totalCount;
+    private volatile PhaseTracker phaseTracker = PhaseTracker.nullInstance;
+
+    public PartitionedNodeStoreScan( Supplier<StorageReader> storageReaders, LockService locks,
+            Visitor<NodeLabelUpdate,FAILURE> labelUpdateVisitor,
+            Visitor<EntityUpdates,FAILURE> propertyUpdatesVisitor,
+            int[] labelIds, IntPredicate propertyKeyIdFilter, int numberOfPartitions )
+    {
+        StorageReader storageReader = storageReaders.get();
+        this.highId = storageReader.nodesGetHighestPossibleIdInUse() + 1;
+        this.totalCount = storageReader.nodesGetCount();
+        Visitor<NodeLabelUpdate,FAILURE> serializedLabelUpdateVisitor = serialized( labelUpdateVisitor );
+        Visitor<EntityUpdates,FAILURE> serializedPropertyUpdatesVisitor = serialized( propertyUpdatesVisitor );
+        long start = 0;
+        for ( int i = 1; i <= numberOfPartitions; i++ )
+        {
+            long end = highId * i / numberOfPartitions;
+            partitions.add( new NodeRangeScan( i == 1 ? storageReader : storageReaders.get(), locks, serializedLabelUpdateVisitor,
+                    serializedPropertyUpdatesVisitor, labelIds, propertyKeyIdFilter, start, end ) );
+            start = end;
+        }
+    }
+
+    @Override
+    public void run() throws FAILURE
+    {
+        phaseTracker.enterPhase( PhaseTracker.Phase.SCAN );
+        ExecutorService executor = Executors.newFixedThreadPool( partitions.size() - 1, daemon( SCAN_THREAD_NAME_PREFIX ) );
+        try
+        {
+            List<Future<?>> workers = new ArrayList<>();
+            for ( NodeRangeScan partition : partitions.subList( 1, partitions.size() ) )
+            {
+                workers.add( executor.submit( () ->
+                {
+                    runPartition( partition );
+                    return null;
+                } ) );
+            }
+
+            Throwable failure = null;
+            try
+            {
+                runPartition( partitions.get( 0 ) );
+            }
+            catch ( Throwable t )
+            {
+                failure = t;
+            }
+            failure = awaitPartitions( workers, failure );
+            if ( failure != null )
+            {
+                throw asFailure( failure );
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private void runPartition( NodeRangeScan partition ) throws FAILURE
+    {
+        try
+        {
+            partition.run();
+        }
+        catch ( Throwable t )
+        {
+            // No point in the other partitions to continue, the population as a whole has failed
+            stop();
+            throw t;
+        }
+    }
+
+    private Throwable awaitPartitions( List<Future<?>> workers, Throwable failure )
+    {
+        InterruptedException interruption = null;
+        for ( Future<?> worker : workers )
+        {
+            while ( true )
+            {
+                try
+                {
+                    worker.get();
+                    break;
+                }
+                catch ( ExecutionException e )
+                {
+                    failure = chain( failure, e.getCause() );
+                    break;
+                }
+                catch ( InterruptedException e )
+                {
+                    // The partitions still hold readers and cursors, so let them stop before returning
+                    interruption = e;
+                    stop();
+                }
+            }
+        }
+        if ( interruption != null )
+        {
+            Thread.currentThread().interrupt();
+            failure = chain( failure, new IllegalStateException( "Interrupted while scanning node store partitions", interruption ) );
+        }
+        return failure;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private FAILURE asFailure( Throwable failure )
+    {
+        if ( failure instanceof RuntimeException )
+        {
+            throw (RuntimeException) failure;
+        }
+        if ( failure instanceof Error )
+        {
+            throw (Error) failure;
+        }
+        return (FAILURE) failure;
+    }
+
+    @Override
+    public void acceptUpdate( MultipleIndexPopulator.MultipleIndexUpdater updater, IndexEntryUpdate<?> update,
+            long currentlyIndexedNodeId )
+    {
+        long entityId = update.getEntityId();
+        if ( entityId >= highId || partitionOf( entityId ).hasVisited( entityId ) )
+        {
+            updater.process( update );
+        }
+    }
+
+    @Override
+    public boolean deferUpdate( IndexEntryUpdate<?> update )
+    {
+        long entityId = update.getEntityId();
+        return entityId < highId && partitionOf( entityId ).isBeingVisited( entityId );
+    }
+
+    private NodeRangeScan partitionOf( long entityId )
+    {
+        for ( NodeRangeScan partition : partitions )
+        {
+            if ( entityId < partition.end )
+            {
+                return partition;
+            }
+        }
+        throw new IllegalArgumentException( "Node " + entityId + " is not in any partition, high id is " + highId );
+    }
+
+    @Override
+    public void stop()
+    {
+        partitions.forEach( NodeRangeScan::stop );
+    }
+
+    @Override
+    public PopulationProgress getProgress()
+    {
+        if ( totalCount > 0 )
+        {
+            long completed = 0;
+            for ( NodeRangeScan partition : partitions )
+            {
+                completed += partition.getProgress().getCompleted();
+            }
+            return PopulationProgress.single( completed, totalCount );
+        }
+
+        // nothing to do 100% completed
+        return PopulationProgress.DONE;
+    }
+
+    @Override
+    public void setPhaseTracker( PhaseTracker phaseTracker )
+    {
+        // The tracker isn't thread safe, so it's only told about scanning from within the serialized visitor calls
+        this.phaseTracker = phaseTracker;
+    }
+
+    int numberOfPartitions()
+    {
+        return partitions.size();
+    }
+
+    private <ELEMENT> Visitor<ELEMENT,FAILURE> serialized( Visitor<ELEMENT,FAILURE> visitor )
+    {
+        if ( visitor == null )
+        {
+            return null;
+        }
+        return element ->
+        {
+            synchronized ( visitorLock )
+            {
+                try
+                {
+                    return visitor.visit( element );
+                }
+                finally
+                {
+                    phaseTracker.enterPhase( PhaseTracker.Phase.SCAN );
+                }
+            }
+        };
+    }
+
+    private class NodeRangeScan extends StoreViewNodeStoreScan<FAILURE>
+    {
+        private final long start;
+        private final long end;
+        /**
+         * Highest node id the cursor has read past. Guarded by this partition's monitor, so that {@link #isBeingVisited(long)}
+         * never observes the cursor in the middle of moving forward.
+         */
+        private long read;
+        /**
+         * Highest node id which has been read and handed to the visitors. Nodes in {@code (visited, read]} have been read,
+         * possibly before an update to them was committed, but the visitors haven't seen them yet.
+         */
+        private volatile long visited;
+
+        NodeRangeScan( StorageReader storageReader, LockService locks, Visitor<NodeLabelUpdate,FAILURE> labelUpdateVisitor,
+                Visitor<EntityUpdates,FAILURE> propertyUpdatesVisitor, int[] labelIds, IntPredicate propertyKeyIdFilter,
+                long start, long end )
+        {
+            super( storageReader, locks, labelUpdateVisitor, propertyUpdatesVisitor, labelIds, propertyKeyIdFilter );
+            this.start = start;
+            this.end = end;
+            this.read = start - 1;
+            this.visited = start - 1;
+        }
+
+        @Override
+        protected void startScan()
+        {
+            entityCursor.scanRange( start, end );
+        }
+
+        @Override
+        protected EntityIdIterator getEntityIdIterator()
+        {
+            EntityIdIterator entityIds = super.getEntityIdIterator();
+            return new EntityIdIterator()
+            {
+                @Override
+                public void invalidateCache()
+                {
+                    entityIds.invalidateCache();
+                }
+
+                @Override
+                public long next()
+                {
+                    return entityIds.next();
+                }
+
+                @Override
+                public boolean hasNext()
+                {
+                    synchronized ( NodeRangeScan.this )
+                    {
+                        // The scan only asks for the next node once it's done processing the previous one
+                        visited = read;
+                        boolean hasNext = entityIds.hasNext();
+                        read = hasNext ? entityCursor.entityReference() : end - 1;
+                        if ( !hasNext )
+                        {
+                            visited = read;
+                        }
+                        return hasNext;
+                    }
+                }
+
+                @Override
+                public void close()
+                {
+                    entityIds.close();
+                }
+            };
+        }
+
+        boolean hasVisited( long entityId )
+        {
+            return entityId <= visited;
+        }
+
+        synchronized boolean isBeingVisited( long entityId )
+        {
+            return entityId > visited && entityId <= read;
+        }
+    }
+}
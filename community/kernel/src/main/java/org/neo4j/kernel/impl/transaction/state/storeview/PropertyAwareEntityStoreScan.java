@@ -103,7 +103,7 @@ public abstract class PropertyAwareEntityStoreScan<CURSOR extends StorageEntityS
     @Override
     public void run() throws FAILURE
     {
-        entityCursor.scan();
+        startScan();
         try ( EntityIdIterator entityIdIterator = getEntityIdIterator() )
         {
             continueScanning = true;
@@ -137,6 +137,14 @@ public abstract class PropertyAwareEntityStoreScan<CURSOR extends StorageEntityS
         }
     }
 
+    /**
+     * Positions {@link #entityCursor} at the start of the entities to scan, by default all entities in the store.
+     */
+    protected void startScan()
+    {
+        entityCursor.scan();
+    }
+
     /**
      * Process the given {@code record}.
      *
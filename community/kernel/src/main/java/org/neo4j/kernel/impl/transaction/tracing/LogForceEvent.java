@@ -26,10 +26,24 @@ package org.neo4j.kernel.impl.transaction.tracing;
  */
 public interface LogForceEvent extends AutoCloseable
 {
-    LogForceEvent NULL = () ->
+    LogForceEvent NULL = new LogForceEvent()
     {
+        @Override
+        public void setBatchSize( int transactions )
+        {
+        }
+
+        @Override
+        public void close()
+        {
+        }
     };
 
+    /**
+     * Sets the number of transactions that become durable by this force call.
+     */
+    void setBatchSize( int transactions );
+
     /**
      * Marks the end of the force call on the transaction log file.
      */
@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.util.collection;
 
+import org.eclipse.collections.api.map.primitive.MutableLongLongMap;
 import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
 
@@ -39,6 +40,8 @@ public interface CollectionsFactory
 
     MutableLongObjectMap<Value> newValuesMap();
 
+    MutableLongLongMap newLongLongMap();
+
     MemoryTracker getMemoryTracker();
 
     /**
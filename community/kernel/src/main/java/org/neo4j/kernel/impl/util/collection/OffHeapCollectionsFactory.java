@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.util.collection;
 
+import org.eclipse.collections.api.map.primitive.MutableLongLongMap;
 import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
 
@@ -74,6 +75,14 @@ public class OffHeapCollectionsFactory implements CollectionsFactory
         return new ValuesMap( refs, valuesContainer );
     }
 
+    @Override
+    public MutableLongLongMap newLongLongMap()
+    {
+        final LinearProbeLongLongHashMap map = new LinearProbeLongLongHashMap( allocator );
+        resources.add( map );
+        return map;
+    }
+
     @Override
     public MemoryTracker getMemoryTracker()
     {
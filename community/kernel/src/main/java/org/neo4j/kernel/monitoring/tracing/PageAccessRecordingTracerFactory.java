@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.monitoring.tracing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.neo4j.io.pagecache.tracing.PageAccessRecordingTracer;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.logging.Log;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.time.SystemNanoClock;
+import org.neo4j.util.FeatureToggles;
+
+/**
+ * A TracerFactory that records the page accesses of the database to a trace file, for replaying against the page
+ * replacement policies. The file is given by the {@code traceFile} feature toggle, and only page faults are recorded
+ * if the {@code faultsOnly} feature toggle is set.
+ */
+public class PageAccessRecordingTracerFactory extends DefaultTracerFactory
+{
+    private static final String TRACE_FILE = FeatureToggles.getString(
+            PageAccessRecordingTracerFactory.class, "traceFile", "page-access.trace" );
+    private static final boolean FAULTS_ONLY = FeatureToggles.flag(
+            PageAccessRecordingTracerFactory.class, "faultsOnly", false );
+
+    private PageAccessRecordingTracer tracer;
+
+    @Override
+    public String getImplementationName()
+    {
+        return "page_access_recording";
+    }
+
+    @Override
+    public PageCursorTracerSupplier createPageCursorTracerSupplier( Monitors monitors, JobScheduler jobScheduler )
+    {
+        return tracer();
+    }
+
+    @Override
+    public PageCacheTracer createPageCacheTracer( Monitors monitors, JobScheduler jobScheduler, SystemNanoClock clock,
+            Log log )
+    {
+        log.info( "Recording page accesses to " + new File( TRACE_FILE ).getAbsolutePath() );
+        return tracer();
+    }
+
+    // The page cache tracer and the page cursor tracer supplier must be the same instance
+    private synchronized PageAccessRecordingTracer tracer()
+    {
+        if ( tracer == null )
+        {
+            try
+            {
+                tracer = new PageAccessRecordingTracer( new File( TRACE_FILE ), FAULTS_ONLY );
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        }
+        return tracer;
+    }
+}
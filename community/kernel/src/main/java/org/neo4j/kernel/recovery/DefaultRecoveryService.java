@@ -31,28 +31,50 @@ import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.StorageEngine;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
 
 import static org.neo4j.kernel.impl.transaction.log.Commitment.NO_COMMITMENT;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.RECOVERY;
 
 public class DefaultRecoveryService implements RecoveryService
 {
+    private static final int READ_AHEAD_SIZE = 1_000;
+
     private final RecoveryStartInformationProvider recoveryStartInformationProvider;
     private final StorageEngine storageEngine;
     private final TransactionIdStore transactionIdStore;
     private final LogicalTransactionStore logicalTransactionStore;
     private final LogVersionRepository logVersionRepository;
+    private final int batchSize;
+    private final JobScheduler scheduler;
 
     public DefaultRecoveryService( StorageEngine storageEngine, LogTailScanner logTailScanner,
             TransactionIdStore transactionIdStore, LogicalTransactionStore logicalTransactionStore,
             LogVersionRepository logVersionRepository, RecoveryStartInformationProvider.Monitor monitor )
+    {
+        this( storageEngine, logTailScanner, transactionIdStore, logicalTransactionStore, logVersionRepository, monitor,
+                1, null );
+    }
+
+    /**
+     * @param batchSize number of transactions to apply together in one batch when recovering forwards.
+     * @param scheduler used for reading ahead in the transaction log while recovering forwards,
+     * or {@code null} to read transactions on the recovering thread.
+     */
+    public DefaultRecoveryService( StorageEngine storageEngine, LogTailScanner logTailScanner,
+            TransactionIdStore transactionIdStore, LogicalTransactionStore logicalTransactionStore,
+            LogVersionRepository logVersionRepository, RecoveryStartInformationProvider.Monitor monitor,
+            int batchSize, JobScheduler scheduler )
     {
         this.storageEngine = storageEngine;
         this.transactionIdStore = transactionIdStore;
         this.logicalTransactionStore = logicalTransactionStore;
         this.logVersionRepository = logVersionRepository;
         this.recoveryStartInformationProvider = new RecoveryStartInformationProvider( logTailScanner, monitor );
+        this.batchSize = batchSize;
+        this.scheduler = scheduler;
     }
 
     @Override
@@ -75,13 +97,18 @@ public class DefaultRecoveryService implements RecoveryService
     @Override
     public RecoveryApplier getRecoveryApplier( TransactionApplicationMode mode ) throws Exception
     {
+        if ( mode == RECOVERY && batchSize > 1 )
+        {
+            return new BatchingRecoveryVisitor( storageEngine, mode, batchSize );
+        }
         return new RecoveryVisitor( storageEngine, mode );
     }
 
     @Override
     public TransactionCursor getTransactions( LogPosition position ) throws IOException
     {
-        return logicalTransactionStore.getTransactions( position );
+        TransactionCursor transactions = logicalTransactionStore.getTransactions( position );
+        return scheduler != null ? new ReadAheadTransactionCursor( transactions, scheduler, READ_AHEAD_SIZE ) : transactions;
     }
 
     @Override
@@ -123,12 +150,7 @@ public class DefaultRecoveryService implements RecoveryService
         @Override
         public boolean visit( CommittedTransactionRepresentation transaction ) throws Exception
         {
-            TransactionRepresentation txRepresentation = transaction.getTransactionRepresentation();
-            long txId = transaction.getCommitEntry().getTxId();
-            TransactionToApply tx = new TransactionToApply( txRepresentation, txId );
-            tx.commitment( NO_COMMITMENT, txId );
-            tx.logPosition( transaction.getStartEntry().getStartPosition() );
-            storageEngine.apply( tx, mode );
+            storageEngine.apply( toApply( transaction ), mode );
             return false;
         }
 
@@ -137,4 +159,73 @@ public class DefaultRecoveryService implements RecoveryService
         {   // nothing to close
         }
     }
+
+    /**
+     * Applies recovered transactions in batches, which lets the storage engine apply the index and label scan
+     * updates of a whole batch in bulk. Remaining transactions are applied on {@link #close()}.
+     */
+    static class BatchingRecoveryVisitor implements RecoveryApplier
+    {
+        private final StorageEngine storageEngine;
+        private final TransactionApplicationMode mode;
+        private final int batchSize;
+
+        private TransactionToApply first;
+        private TransactionToApply last;
+        private int size;
+
+        BatchingRecoveryVisitor( StorageEngine storageEngine, TransactionApplicationMode mode, int batchSize )
+        {
+            this.storageEngine = storageEngine;
+            this.mode = mode;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public boolean visit( CommittedTransactionRepresentation transaction ) throws Exception
+        {
+            TransactionToApply tx = toApply( transaction );
+            if ( first == null )
+            {
+                first = tx;
+            }
+            else
+            {
+                last.next( tx );
+            }
+            last = tx;
+            if ( ++size >= batchSize )
+            {
+                applyBatch();
+            }
+            return false;
+        }
+
+        private void applyBatch() throws Exception
+        {
+            if ( first != null )
+            {
+                TransactionToApply batch = first;
+                first = last = null;
+                size = 0;
+                storageEngine.apply( batch, mode );
+            }
+        }
+
+        @Override
+        public void close() throws Exception
+        {
+            applyBatch();
+        }
+    }
+
+    private static TransactionToApply toApply( CommittedTransactionRepresentation transaction )
+    {
+        TransactionRepresentation txRepresentation = transaction.getTransactionRepresentation();
+        long txId = transaction.getCommitEntry().getTxId();
+        TransactionToApply tx = new TransactionToApply( txRepresentation, txId );
+        tx.commitment( NO_COMMITMENT, txId );
+        tx.logPosition( transaction.getStartEntry().getStartPosition() );
+        return tx;
+    }
 }
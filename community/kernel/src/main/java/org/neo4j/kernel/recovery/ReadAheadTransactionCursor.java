@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.recovery;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A {@link TransactionCursor} that reads and decodes transactions from another cursor in a separate thread,
+ * so that reading the transaction log overlaps with applying the transactions already read.
+ * <p>
+ * Up to a fixed number of decoded transactions are kept ahead of the consumer. A failure to read from the
+ * underlying cursor is surfaced from {@link #next()}, after all transactions read before it have been consumed,
+ * which means {@link #position()} reflects the last successfully read transaction just like it would for the
+ * underlying cursor.
+ */
+class ReadAheadTransactionCursor implements TransactionCursor
+{
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final TransactionCursor source;
+    private final BlockingQueue<Object> queue;
+    private final JobHandle reader;
+    private volatile boolean closed;
+
+    private boolean exhausted;
+    private CommittedTransactionRepresentation current;
+    private LogPosition position;
+
+    ReadAheadTransactionCursor( TransactionCursor source, JobScheduler scheduler, int readAheadSize )
+    {
+        this.source = source;
+        this.queue = new ArrayBlockingQueue<>( readAheadSize );
+        this.position = source.position();
+        this.reader = scheduler.schedule( Group.RECOVERY, this::readAhead );
+    }
+
+    private void readAhead()
+    {
+        try
+        {
+            while ( !closed && source.next() )
+            {
+                enqueue( new ReadTransaction( source.get(), source.position() ) );
+            }
+            enqueue( new EndOfTransactions( source.position() ) );
+        }
+        catch ( Throwable t )
+        {
+            enqueue( t );
+        }
+    }
+
+    private void enqueue( Object element )
+    {
+        try
+        {
+            while ( !closed && !queue.offer( element, OFFER_TIMEOUT_MILLIS, MILLISECONDS ) )
+            {
+                // The consumer is behind, keep waiting for room unless closed
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean next() throws IOException
+    {
+        if ( exhausted )
+        {
+            return false;
+        }
+        Object element;
+        try
+        {
+            element = queue.take();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while waiting for transactions to recover" );
+        }
+
+        if ( element instanceof ReadTransaction )
+        {
+            ReadTransaction transaction = (ReadTransaction) element;
+            current = transaction.transaction;
+            position = transaction.positionAfter;
+            return true;
+        }
+        exhausted = true;
+        current = null;
+        if ( element instanceof EndOfTransactions )
+        {
+            position = ((EndOfTransactions) element).position;
+            return false;
+        }
+        Throwable failure = (Throwable) element;
+        if ( failure instanceof IOException )
+        {
+            throw (IOException) failure;
+        }
+        if ( failure instanceof RuntimeException )
+        {
+            throw (RuntimeException) failure;
+        }
+        if ( failure instanceof Error )
+        {
+            throw (Error) failure;
+        }
+        throw new IOException( failure );
+    }
+
+    @Override
+    public CommittedTransactionRepresentation get()
+    {
+        return current;
+    }
+
+    @Override
+    public LogPosition position()
+    {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        closed = true;
+        try
+        {
+            reader.waitTermination();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while stopping recovery read ahead" );
+        }
+        catch ( ExecutionException e )
+        {
+            throw new IOException( e.getCause() );
+        }
+        finally
+        {
+            queue.clear();
+            source.close();
+        }
+    }
+
+    private static class ReadTransaction
+    {
+        private final CommittedTransactionRepresentation transaction;
+        private final LogPosition positionAfter;
+
+        ReadTransaction( CommittedTransactionRepresentation transaction, LogPosition positionAfter )
+        {
+            this.transaction = transaction;
+            this.positionAfter = positionAfter;
+        }
+    }
+
+    private static class EndOfTransactions
+    {
+        private final LogPosition position;
+
+        EndOfTransactions( LogPosition position )
+        {
+            this.position = position;
+        }
+    }
+}
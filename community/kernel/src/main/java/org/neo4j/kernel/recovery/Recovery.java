@@ -21,6 +21,7 @@ package org.neo4j.kernel.recovery;
 
 import java.io.IOException;
 import java.nio.channels.ClosedByInterruptException;
+import java.util.concurrent.TimeUnit;
 
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
@@ -41,6 +42,7 @@ import static org.neo4j.storageengine.api.TransactionApplicationMode.REVERSE_REC
  */
 public class Recovery extends LifecycleAdapter
 {
+    private static final long PROGRESS_REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos( 10 );
 
     private final RecoveryService recoveryService;
     private final RecoveryMonitor monitor;
@@ -49,6 +51,7 @@ public class Recovery extends LifecycleAdapter
     private final ProgressReporter progressReporter;
     private final boolean failOnCorruptedLogFiles;
     private int numberOfRecoveredTransactions;
+    private long numberOfTransactionsToRecover;
 
     public Recovery( RecoveryService recoveryService, CorruptedLogsTruncator logsTruncator, Lifecycle schemaLife,
             RecoveryMonitor monitor, ProgressReporter progressReporter, boolean failOnCorruptedLogFiles )
@@ -107,6 +110,8 @@ public class Recovery extends LifecycleAdapter
             // of the schema life until after we've done the reverse recovery.
             schemaLife.init();
 
+            long startTime = System.nanoTime();
+            long lastReportTime = startTime;
             try ( TransactionCursor transactionsToRecover = recoveryService.getTransactions( recoveryPosition );
                     RecoveryApplier recoveryVisitor = recoveryService.getRecoveryApplier( RECOVERY ) )
             {
@@ -119,6 +124,14 @@ public class Recovery extends LifecycleAdapter
                     numberOfRecoveredTransactions++;
                     recoveryToPosition = transactionsToRecover.position();
                     reportProgress();
+
+                    long now = System.nanoTime();
+                    if ( now - lastReportTime >= PROGRESS_REPORT_INTERVAL_NANOS )
+                    {
+                        monitor.recoveryProgress( numberOfRecoveredTransactions, numberOfTransactionsToRecover,
+                                TimeUnit.NANOSECONDS.toMillis( now - startTime ) );
+                        lastReportTime = now;
+                    }
                 }
                 recoveryToPosition = transactionsToRecover.position();
             }
@@ -165,11 +178,11 @@ public class Recovery extends LifecycleAdapter
     private void initProgressReporter( RecoveryStartInformation recoveryStartInformation,
             CommittedTransactionRepresentation lastReversedTransaction )
     {
-        long numberOfTransactionToRecover =
+        numberOfTransactionsToRecover =
                 getNumberOfTransactionToRecover( recoveryStartInformation, lastReversedTransaction );
         // since we will process each transaction twice (doing reverse and direct detour) we need to
         // multiply number of transactions that we want to recover by 2 to be able to report correct progress
-        progressReporter.start( numberOfTransactionToRecover * 2 );
+        progressReporter.start( numberOfTransactionsToRecover * 2 );
     }
 
     private void reportProgress()
@@ -37,6 +37,7 @@ import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.configuration.HttpConnector;
 
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
@@ -67,6 +68,19 @@ class GraphDatabaseSettingsTest
         assertThat( Config.defaults( setting, "string" ).get( setting ), is( "string" ) );
     }
 
+    @Test
+    void pageSizeClassesMustBeDistinctPowersOfTwoLargerThanDefaultPageSize()
+    {
+        Setting<List<Long>> setting = GraphDatabaseSettings.pagecache_page_size_classes;
+        assertThat( Config.defaults( setting, "64k,16k" ).get( setting ), is( asList( 65536L, 16384L ) ) );
+        assertThat( Config.defaults().get( setting ), is( empty() ) );
+        for ( String invalid : new String[]{"24k", "8k", "4k", "16k,32k,16k"} )
+        {
+            assertThrows( InvalidSettingException.class, () -> Config.defaults( setting, invalid ),
+                    "Exception expected for value '" + invalid + "'" );
+        }
+    }
+
     @Test
     void noDuplicateSettingsAreAllowed() throws Exception
     {
@@ -114,6 +114,7 @@ import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
@@ -195,6 +196,7 @@ public class IndexingServiceTest
     private final TokenNameLookup nameLookup = mock( TokenNameLookup.class );
     private final AssertableLogProvider internalLogProvider = new AssertableLogProvider();
     private final AssertableLogProvider userLogProvider = new AssertableLogProvider();
+    private int indexUpdateParallelism = 1;
 
     @Before
     public void setUp()
@@ -843,6 +845,63 @@ public class IndexingServiceTest
         verify( updater2 ).close();
     }
 
+    @Test
+    public void shouldApplyUpdatesOfDifferentIndexesInParallel() throws Exception
+    {
+        // Given
+        indexUpdateParallelism = 2;
+        long indexId1 = 1;
+        long indexId2 = 2;
+
+        int labelId1 = 24;
+        int labelId2 = 42;
+
+        StoreIndexDescriptor index1 = storeIndex( indexId1, labelId1, propertyKeyId, PROVIDER_DESCRIPTOR );
+        StoreIndexDescriptor index2 = storeIndex( indexId2, labelId2, propertyKeyId, PROVIDER_DESCRIPTOR );
+
+        IndexingService indexing = newIndexingServiceWithMockedDependencies( populator, accessor, withData() );
+
+        AtomicReference<Thread> updaterThread1 = new AtomicReference<>();
+        AtomicReference<Thread> updaterThread2 = new AtomicReference<>();
+        IndexAccessor accessor1 = mock( IndexAccessor.class );
+        IndexUpdater updater1 = mock( IndexUpdater.class );
+        doAnswer( invocation -> updaterThread1.getAndSet( Thread.currentThread() ) ).when( updater1 ).process( any() );
+        when( accessor1.newUpdater( any( IndexUpdateMode.class ) ) ).thenReturn( updater1 );
+
+        IndexAccessor accessor2 = mock( IndexAccessor.class );
+        IndexUpdater updater2 = mock( IndexUpdater.class );
+        doAnswer( invocation -> updaterThread2.getAndSet( Thread.currentThread() ) ).when( updater2 ).process( any() );
+        when( accessor2.newUpdater( any( IndexUpdateMode.class ) ) ).thenReturn( updater2 );
+
+        when( indexProvider.getOnlineAccessor( eq( index1 ), any( IndexSamplingConfig.class ) ) ).thenReturn( accessor1 );
+        when( indexProvider.getOnlineAccessor( eq( index2 ), any( IndexSamplingConfig.class ) ) ).thenReturn( accessor2 );
+
+        life.start();
+
+        indexing.createIndexes( index1 );
+        indexing.createIndexes( index2 );
+
+        waitForIndexesToComeOnline( indexing, indexId1, indexId2 );
+
+        verify( populator, timeout( 10000 ).times( 2 ) ).close( true );
+
+        // When
+        indexing.apply( updates( asList(
+                add( 1, "foo", labelId1 ),
+                add( 2, "bar", labelId2 ),
+                add( 3, "baz", labelId1 ) ) ) );
+
+        // Then
+        InOrder inOrder1 = inOrder( updater1 );
+        inOrder1.verify( updater1 ).process( add( 1, "foo", labelId1 ) );
+        inOrder1.verify( updater1 ).process( add( 3, "baz", labelId1 ) );
+        inOrder1.verify( updater1 ).close();
+        InOrder inOrder2 = inOrder( updater2 );
+        inOrder2.verify( updater2 ).process( add( 2, "bar", labelId2 ) );
+        inOrder2.verify( updater2 ).close();
+        assertNotEquals( updaterThread1.get(), updaterThread2.get() );
+    }
+
     private void waitForIndexesToComeOnline( IndexingService indexing, long... indexRuleIds )
             throws IndexNotFoundKernelException
     {
@@ -1514,6 +1573,7 @@ public class IndexingServiceTest
 
         Config config = Config.defaults( multi_threaded_schema_index_population_enabled, "false" );
         config.augment( GraphDatabaseSettings.default_schema_provider, PROVIDER_DESCRIPTOR.name() );
+        config.augment( GraphDatabaseSettings.index_update_parallelism, String.valueOf( indexUpdateParallelism ) );
 
         DefaultIndexProviderMap providerMap = life.add( new DefaultIndexProviderMap( buildIndexDependencies( indexProvider ), config ) );
         return life.add( IndexingServiceFactory.createIndexingService( config,
@@ -880,6 +880,27 @@ public class TxStateTest
         verifyNoMoreInteractions( collectionsFactory );
     }
 
+    @Test
+    public void relationshipDoCreate_useCollectionsFactory()
+    {
+        state.relationshipDoCreate( 10, 3, 1, 2 );
+        state.relationshipDoCreate( 11, 3, 1, 1 );
+
+        // added relationships, relationships per node, direction and type, plus type, start and end node per relationship
+        verify( collectionsFactory, times( 4 ) ).newLongSet();
+        verify( collectionsFactory, times( 3 ) ).newLongLongMap();
+        verifyNoMoreInteractions( collectionsFactory );
+
+        assertTrue( state.getRelationshipState( 11 ).accept( ( id, type, startNode, endNode ) ->
+        {
+            assertEquals( 11, id );
+            assertEquals( 3, type );
+            assertEquals( 1, startNode );
+            assertEquals( 1, endNode );
+        } ) );
+        assertFalse( state.modifiedRelationships().iterator().hasNext() );
+    }
+
     @Test
     public void getOrCreateGraphState_useCollectionsFactory()
     {
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.labelscan;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.neo4j.collection.PrimitiveLongResourceIterator;
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.Hit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.collection.PrimitiveLongCollections.asArray;
+import static org.neo4j.kernel.impl.index.labelscan.LabelScanValue.RANGE_SIZE;
+import static org.neo4j.storageengine.api.schema.LabelScanReader.NO_ID;
+
+public class BitwiseLabelScanValueIteratorTest
+{
+    private static final int LABEL_A = 1;
+    private static final int LABEL_B = 2;
+    private static final int LABEL_C = 3;
+
+    private final Map<Integer,TreeMap<Long,Long>> entries = new HashMap<>();
+    private final Set<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> openCursors = new HashSet<>();
+    private final Set<RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>> unclosedCursors = new HashSet<>();
+    private int seeks;
+
+    @Test
+    public void mustHandleNoLabels() throws IOException
+    {
+        assertFalse( iterator( NO_ID, true ).hasNext() );
+        assertFalse( iterator( NO_ID, false ).hasNext() );
+    }
+
+    @Test
+    public void mustReportUnionOfAllRanges() throws IOException
+    {
+        // given
+        entry( LABEL_A, 0, 0b0101 );
+        entry( LABEL_A, 3, 0b0001 );
+        entry( LABEL_B, 0, 0b0011 );
+        entry( LABEL_B, 2, 0b1000 );
+
+        // when
+        PrimitiveLongResourceIterator iterator = iterator( NO_ID, false, LABEL_A, LABEL_B, LABEL_C );
+
+        // then
+        assertArrayEquals( new long[]{0, 1, 2, 2 * RANGE_SIZE + 3, 3 * RANGE_SIZE}, asArray( iterator ) );
+        assertAllCursorsClosed();
+    }
+
+    @Test
+    public void mustReportUnionFromGivenId() throws IOException
+    {
+        // given
+        entry( LABEL_A, 1, 0b0101 );
+        entry( LABEL_B, 1, 0b1010 );
+        entry( LABEL_B, 2, 0b0001 );
+
+        // when
+        PrimitiveLongResourceIterator iterator = iterator( RANGE_SIZE + 1, false, LABEL_A, LABEL_B );
+
+        // then
+        assertArrayEquals( new long[]{RANGE_SIZE + 2, RANGE_SIZE + 3, 2 * RANGE_SIZE}, asArray( iterator ) );
+    }
+
+    @Test
+    public void mustReportIntersectionOfAllLabels() throws IOException
+    {
+        // given
+        entry( LABEL_A, 0, 0b0111 );
+        entry( LABEL_A, 1, 0b0001 );
+        entry( LABEL_A, 5, 0b1100 );
+        entry( LABEL_B, 0, 0b0110 );
+        entry( LABEL_B, 2, 0b0001 );
+        entry( LABEL_B, 5, 0b0101 );
+        entry( LABEL_C, 0, 0b0011 );
+        entry( LABEL_C, 5, 0b0100 );
+
+        // when
+        PrimitiveLongResourceIterator iterator = iterator( NO_ID, true, LABEL_A, LABEL_B, LABEL_C );
+
+        // then
+        assertArrayEquals( new long[]{1, 5 * RANGE_SIZE + 2}, asArray( iterator ) );
+        assertAllCursorsClosed();
+    }
+
+    @Test
+    public void mustBeEmptyIntersectionIfAnyLabelIsEmpty() throws IOException
+    {
+        // given
+        entry( LABEL_A, 0, 0b0001 );
+        entry( LABEL_B, 0, 0b0001 );
+
+        // when
+        PrimitiveLongResourceIterator iterator = iterator( NO_ID, true, LABEL_A, LABEL_B, LABEL_C );
+
+        // then
+        assertFalse( iterator.hasNext() );
+        assertAllCursorsClosed();
+    }
+
+    @Test
+    public void mustSeekPastRangesOfDenseLabelWhenIntersecting() throws IOException
+    {
+        // given
+        int ranges = 1_000;
+        for ( long range = 0; range < ranges; range++ )
+        {
+            entry( LABEL_A, range, -1L );
+        }
+        entry( LABEL_B, 10, 0b0010 );
+        entry( LABEL_B, 500, 0b1000 );
+        entry( LABEL_B, ranges - 1, 0b0001 );
+
+        // when
+        PrimitiveLongResourceIterator iterator = iterator( NO_ID, true, LABEL_A, LABEL_B );
+
+        // then
+        assertArrayEquals( new long[]{10 * RANGE_SIZE + 1, 500 * RANGE_SIZE + 3, (ranges - 1) * RANGE_SIZE}, asArray( iterator ) );
+        assertEquals( 2 + 3, seeks );
+        assertAllCursorsClosed();
+    }
+
+    @Test
+    public void mustCloseCursorsWhenClosedBeforeExhausted() throws IOException
+    {
+        // given
+        entry( LABEL_A, 0, 0b0011 );
+        entry( LABEL_B, 0, 0b0011 );
+        PrimitiveLongResourceIterator iterator = iterator( NO_ID, true, LABEL_A, LABEL_B );
+        iterator.next();
+
+        // when
+        iterator.close();
+
+        // then
+        assertAllCursorsClosed();
+        assertFalse( iterator.hasNext() );
+    }
+
+    private PrimitiveLongResourceIterator iterator( long fromId, boolean trueForAll, int... labelIds ) throws IOException
+    {
+        return new BitwiseLabelScanValueIterator( this::seek, openCursors, labelIds, fromId, trueForAll );
+    }
+
+    private void entry( int labelId, long range, long bits )
+    {
+        entries.computeIfAbsent( labelId, label -> new TreeMap<>() ).put( range, bits );
+    }
+
+    private RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> seek( int labelId, long fromRange )
+    {
+        seeks++;
+        Iterator<Map.Entry<Long,Long>> hits = entries.getOrDefault( labelId, new TreeMap<>() ).tailMap( fromRange ).entrySet().iterator();
+        RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException> cursor = new RawCursor<Hit<LabelScanKey,LabelScanValue>,IOException>()
+        {
+            private Hit<LabelScanKey,LabelScanValue> current;
+
+            @Override
+            public boolean next()
+            {
+                if ( !hits.hasNext() )
+                {
+                    return false;
+                }
+                Map.Entry<Long,Long> entry = hits.next();
+                LabelScanValue value = new LabelScanValue();
+                value.bits = entry.getValue();
+                current = new MutableHit<>( new LabelScanKey( labelId, entry.getKey() ), value );
+                return true;
+            }
+
+            @Override
+            public Hit<LabelScanKey,LabelScanValue> get()
+            {
+                return current;
+            }
+
+            @Override
+            public void close()
+            {
+                unclosedCursors.remove( this );
+            }
+        };
+        openCursors.add( cursor );
+        unclosedCursors.add( cursor );
+        return cursor;
+    }
+
+    private void assertAllCursorsClosed()
+    {
+        assertTrue( "Cursors not closed " + unclosedCursors, unclosedCursors.isEmpty() );
+        assertTrue( "Cursors not removed from open cursors " + openCursors, openCursors.isEmpty() );
+    }
+}
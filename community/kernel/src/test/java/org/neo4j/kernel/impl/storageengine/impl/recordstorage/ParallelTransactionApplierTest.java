@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.storageengine.impl.recordstorage;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.neo4j.kernel.impl.api.BatchTransactionApplier;
+import org.neo4j.kernel.impl.api.TransactionApplier;
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.core.CacheAccessBackDoor;
+import org.neo4j.kernel.impl.locking.LockGroup;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
+import org.neo4j.kernel.impl.transaction.command.Commands;
+import org.neo4j.kernel.impl.transaction.command.NeoStoreBatchTransactionApplier;
+import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.test.rule.NeoStoresRule;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.kernel.impl.locking.LockService.NO_LOCK_SERVICE;
+
+public class ParallelTransactionApplierTest
+{
+    @Rule
+    public final NeoStoresRule neoStoresRule = new NeoStoresRule( getClass() );
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CacheAccessBackDoor cacheAccess = mock( CacheAccessBackDoor.class );
+
+    @After
+    public void shutdownExecutor()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldWriteRecordsOfAllTransactionsAndVisitThemInOrder() throws Exception
+    {
+        // given
+        NeoStores neoStores = neoStoresRule.builder().build();
+        List<Command[]> transactions = new ArrayList<>();
+        for ( int tx = 0; tx < 50; tx++ )
+        {
+            Command[] commands = new Command[20];
+            for ( int i = 0; i < commands.length; i++ )
+            {
+                commands[i] = Commands.createNode( tx * commands.length + i );
+            }
+            transactions.add( commands );
+        }
+        RecordingApplier auxiliary = new RecordingApplier();
+
+        // when
+        apply( neoStores, auxiliary, batch( transactions ) );
+
+        // then
+        NodeStore nodeStore = neoStores.getNodeStore();
+        for ( long id = 0; id < 50 * 20; id++ )
+        {
+            assertTrue( nodeStore.getRecord( id, nodeStore.newRecord(), RecordLoad.NORMAL ).inUse() );
+        }
+        List<Long> expected = new ArrayList<>();
+        for ( long txId = 1; txId <= 50; txId++ )
+        {
+            expected.add( txId );
+        }
+        assertEquals( expected, auxiliary.transactionIds );
+    }
+
+    @Test
+    public void shouldApplyTransactionsWritingTheSameRecordInOrder() throws Exception
+    {
+        // given
+        NeoStores neoStores = neoStoresRule.builder().build();
+        List<Command[]> transactions = new ArrayList<>();
+        transactions.add( new Command[]{Commands.createNode( 5 ), Commands.createNode( 6 )} );
+        transactions.add( new Command[]{deleteNode( 5 )} );
+        transactions.add( new Command[]{Commands.createNode( 7 )} );
+
+        // when
+        apply( neoStores, new RecordingApplier(), batch( transactions ) );
+
+        // then
+        NodeStore nodeStore = neoStores.getNodeStore();
+        assertFalse( nodeStore.getRecord( 5, nodeStore.newRecord(), RecordLoad.CHECK ).inUse() );
+        assertTrue( nodeStore.getRecord( 6, nodeStore.newRecord(), RecordLoad.NORMAL ).inUse() );
+        assertTrue( nodeStore.getRecord( 7, nodeStore.newRecord(), RecordLoad.NORMAL ).inUse() );
+    }
+
+    @Test
+    public void shouldCloseWindowOnTransactionWritingSecondaryUnitOfRecordInWindow() throws Exception
+    {
+        // given a node whose secondary record unit is freed as it's deleted, and then used for a new node
+        NeoStores neoStores = neoStoresRule.builder().build();
+        List<Command[]> transactions = new ArrayList<>();
+        transactions.add( new Command[]{deleteNode( 300, 5 )} );
+        transactions.add( new Command[]{Commands.createNode( 5 )} );
+        NodeInUseRecordingApplier auxiliary = new NodeInUseRecordingApplier( neoStores.getNodeStore(), 5 );
+
+        // when
+        apply( neoStores, auxiliary, batch( transactions ) );
+
+        // then the transaction deleting the first node sees the stores as in sequential application
+        assertEquals( asList( false, true ), auxiliary.inUse );
+    }
+
+    @Test
+    public void shouldApplyTokenCommandsThroughStoreApplier() throws Exception
+    {
+        // given
+        NeoStores neoStores = neoStoresRule.builder().build();
+        List<Command[]> transactions = new ArrayList<>();
+        transactions.add( new Command[]{Commands.createNode( 1 )} );
+        transactions.add( new Command[]{Commands.createLabelToken( 3, 0 ), Commands.createNode( 2 )} );
+        RecordingApplier auxiliary = new RecordingApplier();
+
+        // when
+        apply( neoStores, auxiliary, batch( transactions ) );
+
+        // then
+        assertTrue( neoStores.getLabelTokenStore().getRecord( 3, neoStores.getLabelTokenStore().newRecord(), RecordLoad.NORMAL ).inUse() );
+        NodeStore nodeStore = neoStores.getNodeStore();
+        assertTrue( nodeStore.getRecord( 1, nodeStore.newRecord(), RecordLoad.NORMAL ).inUse() );
+        assertTrue( nodeStore.getRecord( 2, nodeStore.newRecord(), RecordLoad.NORMAL ).inUse() );
+        List<Long> expected = new ArrayList<>();
+        expected.add( 1L );
+        expected.add( 2L );
+        assertEquals( expected, auxiliary.transactionIds );
+    }
+
+    private void apply( NeoStores neoStores, BatchTransactionApplier auxiliary, CommandsToApply batch ) throws Exception
+    {
+        ParallelTransactionApplier applier = new ParallelTransactionApplier( neoStores, cacheAccess, executor, 4 );
+        try ( LockGroup locks = new LockGroup() )
+        {
+            applier.apply( batch, new NeoStoreBatchTransactionApplier( neoStores, cacheAccess, NO_LOCK_SERVICE ), auxiliary,
+                    NO_LOCK_SERVICE, locks );
+        }
+    }
+
+    private static TransactionToApply batch( List<Command[]> transactions )
+    {
+        TransactionToApply first = null;
+        TransactionToApply last = null;
+        long txId = 1;
+        for ( Command[] commands : transactions )
+        {
+            TransactionToApply tx = new TransactionToApply( Commands.transactionRepresentation( commands ), txId++ );
+            if ( first == null )
+            {
+                first = tx;
+            }
+            else
+            {
+                last.next( tx );
+            }
+            last = tx;
+        }
+        return first;
+    }
+
+    private static NodeCommand deleteNode( long id )
+    {
+        NodeRecord before = new NodeRecord( id );
+        before.setInUse( true );
+        NodeRecord after = new NodeRecord( id );
+        after.setInUse( false );
+        return new NodeCommand( before, after );
+    }
+
+    private static NodeCommand deleteNode( long id, long secondaryUnitId )
+    {
+        NodeCommand command = deleteNode( id );
+        for ( NodeRecord record : asList( command.getBefore(), command.getAfter() ) )
+        {
+            record.setRequiresSecondaryUnit( true );
+            record.setSecondaryUnitId( secondaryUnitId );
+        }
+        return command;
+    }
+
+    private static class NodeInUseRecordingApplier extends BatchTransactionApplier.Adapter
+    {
+        private final NodeStore nodeStore;
+        private final long nodeId;
+        private final List<Boolean> inUse = new ArrayList<>();
+
+        NodeInUseRecordingApplier( NodeStore nodeStore, long nodeId )
+        {
+            this.nodeStore = nodeStore;
+            this.nodeId = nodeId;
+        }
+
+        @Override
+        public TransactionApplier startTx( CommandsToApply transaction )
+        {
+            inUse.add( nodeStore.getRecord( nodeId, nodeStore.newRecord(), RecordLoad.CHECK ).inUse() );
+            return TransactionApplier.EMPTY;
+        }
+    }
+
+    private static class RecordingApplier extends BatchTransactionApplier.Adapter
+    {
+        private final List<Long> transactionIds = new ArrayList<>();
+
+        @Override
+        public TransactionApplier startTx( CommandsToApply transaction )
+        {
+            transactionIds.add( transaction.transactionId() );
+            return TransactionApplier.EMPTY;
+        }
+    }
+}
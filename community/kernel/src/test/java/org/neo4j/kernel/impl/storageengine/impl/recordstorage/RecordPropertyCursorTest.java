@@ -24,16 +24,24 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.neo4j.helpers.collection.IteratorWrapper;
 import org.neo4j.io.pagecache.tracing.cursor.context.EmptyVersionContextSupplier;
 import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.store.AbstractDynamicStore;
+import org.neo4j.kernel.impl.store.CompressedString;
+import org.neo4j.kernel.impl.store.DynamicStringStore;
 import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.PropertyType;
 import org.neo4j.kernel.impl.store.StoreFactory;
 import org.neo4j.kernel.impl.store.id.DefaultIdGeneratorFactory;
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.logging.NullLogProvider;
@@ -42,8 +50,10 @@ import org.neo4j.test.rule.RandomRule;
 import org.neo4j.unsafe.batchinsert.internal.DirectRecordAccessSet;
 import org.neo4j.values.storable.RandomValues;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.neo4j.helpers.collection.Iterators.iterator;
 
@@ -105,6 +115,28 @@ public class RecordPropertyCursorTest
         assertPropertyChain( valuesB, firstPropertyIdB, cursor );
     }
 
+    @Test
+    public void shouldReadCompressedStrings()
+    {
+        // given
+        StringBuilder builder = new StringBuilder();
+        while ( builder.length() < 5_000 )
+        {
+            builder.append( "value-" ).append( random.nextInt( 10 ) );
+        }
+        Value[] values = {Values.stringValue( builder.toString() ), Values.intValue( 42 ), Values.stringValue( builder.reverse().toString() )};
+        DirectRecordAccessSet access = new DirectRecordAccessSet( neoStores );
+        long firstPropertyId = creator.createPropertyChain( owner,
+                iterator( compressedStringBlock( 0, values[0] ), creator.encodePropertyValue( 1, values[1] ), compressedStringBlock( 2, values[2] ) ),
+                access.getPropertyRecords() );
+        access.close();
+
+        // then
+        RecordPropertyCursor cursor = createCursor();
+        assertPropertyChain( values, firstPropertyId, cursor );
+        assertPropertyChain( values, firstPropertyId, cursor );
+    }
+
     @Test
     public void closeShouldBeIdempotent()
     {
@@ -154,6 +186,23 @@ public class RecordPropertyCursorTest
         return firstPropertyId;
     }
 
+    private PropertyBlock compressedStringBlock( int key, Value value )
+    {
+        DynamicStringStore stringStore = neoStores.getPropertyStore().getStringStore();
+        byte[] compressed = CompressedString.compress( PropertyStore.encodeString( (String) value.asObject() ), stringStore.getRecordDataSize() );
+        assertNotNull( compressed );
+        List<DynamicRecord> records = new ArrayList<>();
+        AbstractDynamicStore.allocateRecordsFromBytes( records, compressed, stringStore );
+        for ( DynamicRecord record : records )
+        {
+            record.setType( PropertyType.STRING.intValue() );
+        }
+        PropertyBlock block = new PropertyBlock();
+        block.setSingleBlock( key | (((long) PropertyType.COMPRESSED_STRING.intValue()) << 24) | (records.get( 0 ).getId() << 28) );
+        block.setValueRecords( records );
+        return block;
+    }
+
     private Map<Integer,Value> asMap( Value[] values )
     {
         Map<Integer,Value> map = new HashMap<>();
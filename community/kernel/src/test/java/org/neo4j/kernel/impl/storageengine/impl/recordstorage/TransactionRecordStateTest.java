@@ -42,6 +42,7 @@ import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
 import org.neo4j.internal.kernel.api.schema.SchemaDescriptor;
 import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.properties.PropertyKeyValue;
 import org.neo4j.kernel.impl.api.BatchTransactionApplier;
 import org.neo4j.kernel.impl.api.CommandVisitor;
 import org.neo4j.kernel.impl.api.TransactionToApply;
@@ -57,6 +58,7 @@ import org.neo4j.kernel.impl.locking.NoOpClient;
 import org.neo4j.kernel.impl.store.DynamicArrayStore;
 import org.neo4j.kernel.impl.store.NeoStores;
 import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.RecordStore;
 import org.neo4j.kernel.impl.store.format.standard.Standard;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
@@ -92,6 +94,7 @@ import org.neo4j.kernel.impl.transaction.state.RecordAccess.RecordProxy;
 import org.neo4j.kernel.impl.transaction.state.RecordChangeSet;
 import org.neo4j.storageengine.api.EntityType;
 import org.neo4j.storageengine.api.StorageCommand;
+import org.neo4j.storageengine.api.StorageProperty;
 import org.neo4j.storageengine.api.schema.SchemaRule;
 import org.neo4j.test.rule.NeoStoresRule;
 import org.neo4j.values.storable.Value;
@@ -313,6 +316,51 @@ public class TransactionRecordStateTest
         } ) );
     }
 
+    @Test
+    public void shouldWriteDensePropertyChainForPropertiesOfCreatedNode() throws Exception
+    {
+        // GIVEN
+        NeoStores neoStores = neoStoresRule.builder().build();
+        TransactionRecordState recordState = newTransactionRecordState( neoStores );
+        long nodeId = 0;
+        int propertyCount = 10;
+        List<StorageProperty> properties = new ArrayList<>();
+        for ( int key = 0; key < propertyCount; key++ )
+        {
+            properties.add( new PropertyKeyValue( key, Values.of( key ) ) );
+        }
+
+        // WHEN
+        recordState.nodeCreate( nodeId );
+        recordState.nodeAddProperties( nodeId, properties.iterator() );
+        apply( neoStores, recordState );
+
+        // THEN
+        NodeStore nodeStore = neoStores.getNodeStore();
+        PropertyStore propertyStore = neoStores.getPropertyStore();
+        long prop = nodeStore.getRecord( nodeId, nodeStore.newRecord(), NORMAL ).getNextProp();
+        long prevProp = Record.NO_PREVIOUS_PROPERTY.intValue();
+        int records = 0;
+        int key = 0;
+        while ( prop != Record.NO_NEXT_PROPERTY.intValue() )
+        {
+            PropertyRecord record = propertyStore.getRecord( prop, propertyStore.newRecord(), NORMAL );
+            assertEquals( prevProp, record.getPrevProp() );
+            for ( PropertyBlock block : record )
+            {
+                assertEquals( key, block.getKeyIndexId() );
+                assertEquals( Values.of( key ), block.newPropertyValue( propertyStore ) );
+                key++;
+            }
+            records++;
+            prevProp = prop;
+            prop = record.getNextProp();
+        }
+        assertEquals( propertyCount, key );
+        // four single-block int properties fit in each property record
+        assertEquals( 3, records );
+    }
+
     @Test
     public void shouldConvertLabelAdditionToNodePropertyUpdates() throws Exception
     {
@@ -53,6 +53,7 @@ import org.neo4j.kernel.impl.store.id.validation.IdCapacityExceededException;
 import org.neo4j.kernel.impl.store.id.validation.NegativeIdException;
 import org.neo4j.kernel.impl.store.id.validation.ReservedIdException;
 import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+import org.neo4j.logging.AssertableLogProvider;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.test.rule.ConfigurablePageCacheRule;
@@ -191,6 +192,40 @@ public class CommonAbstractStoreTest
         }
     }
 
+    @Test
+    public void shouldWarnWhenRunningOutOfIds()
+    {
+        // given
+        long maxFormatId = 1_000;
+        when( recordFormat.getMaxId() ).thenReturn( maxFormatId );
+        when( idGenerator.getHighId() ).thenReturn( maxFormatId - 10 );
+        AssertableLogProvider logProvider = new AssertableLogProvider();
+
+        // when
+        TheStore store = new TheStore( storeFile, idStoreFile, config, idType, idGeneratorFactory, pageCache, logProvider, recordFormat );
+        store.initialise( false );
+
+        // then
+        logProvider.rawMessageMatcher().assertContains( "has used %d of the %d ids that its record format can address" );
+    }
+
+    @Test
+    public void shouldNotWarnWhileFarFromRunningOutOfIds()
+    {
+        // given
+        long maxFormatId = 1_000;
+        when( recordFormat.getMaxId() ).thenReturn( maxFormatId );
+        when( idGenerator.getHighId() ).thenReturn( maxFormatId / 2 );
+        AssertableLogProvider logProvider = new AssertableLogProvider();
+
+        // when
+        TheStore store = new TheStore( storeFile, idStoreFile, config, idType, idGeneratorFactory, pageCache, logProvider, recordFormat );
+        store.initialise( false );
+
+        // then
+        logProvider.rawMessageMatcher().assertNotContains( "ids that its record format can address" );
+    }
+
     @Test
     public void throwsWhenRecordWithReservedIdIsUpdated()
     {
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import org.neo4j.test.rule.RandomRule;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CompressedStringTest
+{
+    private static final int RECORD_DATA_SIZE = 120;
+
+    @Rule
+    public final RandomRule random = new RandomRule();
+
+    @Test
+    public void shouldRoundTripCompressibleString()
+    {
+        // given
+        StringBuilder builder = new StringBuilder();
+        while ( builder.length() < 10_000 )
+        {
+            builder.append( "name-" ).append( random.nextInt( 100 ) ).append( ", " );
+        }
+        byte[] utf8 = PropertyStore.encodeString( builder.toString() );
+
+        // when
+        byte[] compressed = CompressedString.compress( utf8, RECORD_DATA_SIZE );
+
+        // then
+        assertNotNull( compressed );
+        assertTrue( compressed.length < utf8.length );
+        assertEquals( utf8.length, CompressedString.decompressedLength( compressed, compressed.length ) );
+        byte[] target = new byte[utf8.length + 10];
+        assertEquals( utf8.length, CompressedString.decompress( compressed, compressed.length, target ) );
+        assertArrayEquals( utf8, Arrays.copyOf( target, utf8.length ) );
+    }
+
+    @Test
+    public void shouldNotCompressStringThatFitsInOneRecord()
+    {
+        byte[] utf8 = new byte[RECORD_DATA_SIZE];
+
+        assertNull( CompressedString.compress( utf8, RECORD_DATA_SIZE ) );
+    }
+
+    @Test
+    public void shouldNotCompressStringWhenThatSavesNoRecords()
+    {
+        byte[] utf8 = new byte[RECORD_DATA_SIZE * 4];
+        random.nextBytes( utf8 );
+
+        assertNull( CompressedString.compress( utf8, RECORD_DATA_SIZE ) );
+    }
+
+    @Test
+    public void shouldFailOnCompressedStringShorterThanItsHeaderSays()
+    {
+        // given
+        int length = RECORD_DATA_SIZE * 4;
+        byte[] compressed = CompressedString.compress( new byte[length], RECORD_DATA_SIZE );
+        assertNotNull( compressed );
+        compressed[CompressedString.HEADER_SIZE - 1]++;
+
+        // when
+        try
+        {
+            CompressedString.decompress( compressed, compressed.length, new byte[length + 1] );
+            fail( "Should have failed" );
+        }
+        catch ( InvalidRecordException e )
+        {
+            // then good
+            assertEquals( "Compressed string ended after " + length + " of " + (length + 1) + " bytes", e.getMessage() );
+        }
+    }
+}
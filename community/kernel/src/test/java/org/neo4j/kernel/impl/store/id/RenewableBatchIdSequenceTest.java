@@ -150,6 +150,56 @@ public class RenewableBatchIdSequenceTest
         }
     }
 
+    @Test
+    public void shouldDoubleBatchSizeOnEachRenewalUpToMaxBatchSize()
+    {
+        // given
+        int maxBatchSize = BATCH_SIZE * 4;
+        RenewableBatchIdSequence ids = new RenewableBatchIdSequence( idSource, BATCH_SIZE, maxBatchSize, excessIds::add );
+
+        // when/then
+        int[] expectedBatchSizes = {BATCH_SIZE, BATCH_SIZE * 2, maxBatchSize, maxBatchSize};
+        long expectedId = 0;
+        for ( int batch = 0; batch < expectedBatchSizes.length; batch++ )
+        {
+            for ( int i = 0; i < expectedBatchSizes[batch]; i++ )
+            {
+                assertEquals( expectedId++, ids.nextId() );
+                assertEquals( batch + 1, idSource.calls );
+            }
+        }
+    }
+
+    @Test
+    public void shouldStartOverFromInitialBatchSizeAfterReset()
+    {
+        // given
+        RenewableBatchIdSequence ids = new RenewableBatchIdSequence( idSource, BATCH_SIZE, BATCH_SIZE * 4, excessIds::add );
+        for ( int i = 0; i < BATCH_SIZE + 2; i++ )
+        {
+            ids.nextId();
+        }
+        assertEquals( 2, idSource.calls );
+
+        // when
+        ids.resetBatchSize();
+
+        // then the ids left in the current batch are still used, but the next renewal is small again
+        long expectedId = BATCH_SIZE + 2;
+        for ( int i = 0; i < BATCH_SIZE * 2 - 2; i++ )
+        {
+            assertEquals( expectedId++, ids.nextId() );
+            assertEquals( 2, idSource.calls );
+        }
+        for ( int i = 0; i < BATCH_SIZE; i++ )
+        {
+            assertEquals( expectedId++, ids.nextId() );
+            assertEquals( 3, idSource.calls );
+        }
+        assertEquals( expectedId, ids.nextId() );
+        assertEquals( 4, idSource.calls );
+    }
+
     private static class IdSource implements IdSequence
     {
         int calls;
@@ -34,6 +34,7 @@ import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCodec;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
@@ -43,6 +44,9 @@ import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFiles;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.impl.transaction.tracing.LogCheckPointEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceWaitEvent;
+import org.neo4j.kernel.impl.transaction.tracing.SerializeTransactionEvent;
 import org.neo4j.kernel.internal.DatabaseHealth;
 import org.neo4j.kernel.lifecycle.LifeRule;
 import org.neo4j.storageengine.api.StorageCommand;
@@ -150,6 +154,32 @@ public class BatchingTransactionAppenderTest
         assertNull( tx.next() );
     }
 
+    @Test
+    public void shouldReportNumberOfForcedTransactions() throws Exception
+    {
+        // GIVEN
+        when( logFile.getWriter() ).thenReturn( channel );
+        TransactionAppender appender = life.add( new BatchingTransactionAppender( logFiles, NO_ROTATION, positionCache,
+                transactionIdStore, BYPASS, databaseHealth, 10, LogEntryCodec.NONE ) );
+        when( transactionIdStore.nextCommittingTransactionId() ).thenReturn( 2L, 3L, 4L );
+        TransactionToApply batch = batchOf(
+                transaction( singleCreateNodeCommand( 0 ), new byte[0], 0, 0, 0, 1, 0 ),
+                transaction( singleCreateNodeCommand( 1 ), new byte[0], 0, 0, 0, 1, 0 ),
+                transaction( singleCreateNodeCommand( 2 ), new byte[0], 0, 0, 0, 1, 0 ) );
+        LogAppendEvent appendEvent = mock( LogAppendEvent.class );
+        LogForceEvent forceEvent = mock( LogForceEvent.class );
+        when( appendEvent.beginSerializeTransaction() ).thenReturn( SerializeTransactionEvent.NULL );
+        when( appendEvent.beginLogForceWait() ).thenReturn( LogForceWaitEvent.NULL );
+        when( appendEvent.beginLogForce() ).thenReturn( forceEvent );
+
+        // WHEN
+        appender.append( batch, appendEvent );
+
+        // THEN
+        verify( forceEvent ).setBatchSize( 3 );
+        verify( forceEvent ).close();
+    }
+
     @Test
     public void shouldAppendCommittedTransactions() throws Exception
     {
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryByteCodes;
+import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.test.rule.fs.DefaultFileSystemRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MappedTransactionLogReaderTest
+{
+    private static final long LOG_VERSION = 3;
+    private static final long TX_ID = 42;
+    private static final int TX_START = 16;
+
+    @Rule
+    public final DefaultFileSystemRule fileSystemRule = new DefaultFileSystemRule();
+    @Rule
+    public final TestDirectory directory = TestDirectory.testDirectory();
+
+    private final LogFiles logFiles = mock( LogFiles.class );
+    private final TransactionMetadataCache metadataCache = new TransactionMetadataCache();
+
+    @Test
+    public void shouldReturnBytesOfTransaction() throws IOException
+    {
+        // given
+        ByteBuffer txBytes = transactionBytes( TX_ID );
+        writeLogFile( txBytes );
+        cacheTransaction( TX_ID, txBytes.remaining() );
+        MappedTransactionLogReader reader = new MappedTransactionLogReader( fileSystemRule.get(), logFiles, metadataCache );
+
+        // when
+        ByteBuffer readBytes = reader.transactionBytes( TX_ID );
+
+        // then
+        assertEquals( txBytes, readBytes );
+    }
+
+    @Test
+    public void shouldReturnBytesOfTransactionSpanningSeveralWindows() throws IOException
+    {
+        // given
+        ByteBuffer txBytes = transactionBytes( TX_ID );
+        writeLogFile( txBytes );
+        cacheTransaction( TX_ID, txBytes.remaining() );
+        MappedTransactionLogReader reader = new MappedTransactionLogReader( fileSystemRule.get(), logFiles, metadataCache, 16 );
+
+        // when
+        ByteBuffer readBytes = reader.transactionBytes( TX_ID );
+
+        // then
+        assertEquals( txBytes, readBytes );
+        assertEquals( txBytes, reader.transactionBytes( TX_ID ) );
+    }
+
+    @Test
+    public void shouldReturnBytesOfTransactionInTailOfActiveLogFile() throws IOException
+    {
+        // given
+        ByteBuffer txBytes = transactionBytes( TX_ID );
+        writeLogFile( txBytes );
+        cacheTransaction( TX_ID, txBytes.remaining() );
+        when( logFiles.getHighestLogVersion() ).thenReturn( LOG_VERSION );
+        MappedTransactionLogReader reader = new MappedTransactionLogReader( fileSystemRule.get(), logFiles, metadataCache, 1024 );
+
+        // when
+        ByteBuffer readBytes = reader.transactionBytes( TX_ID );
+
+        // then
+        assertEquals( txBytes, readBytes );
+    }
+
+    @Test
+    public void shouldNotReturnBytesAfterShutdown() throws IOException
+    {
+        // given
+        ByteBuffer txBytes = transactionBytes( TX_ID );
+        writeLogFile( txBytes );
+        cacheTransaction( TX_ID, txBytes.remaining() );
+        MappedTransactionLogReader reader = new MappedTransactionLogReader( fileSystemRule.get(), logFiles, metadataCache );
+        assertEquals( txBytes, reader.transactionBytes( TX_ID ) );
+
+        // when
+        reader.shutdown();
+
+        // then
+        assertNull( reader.transactionBytes( TX_ID ) );
+    }
+
+    @Test
+    public void shouldNotReturnBytesOfTransactionWithoutKnownEndPosition() throws IOException
+    {
+        // given
+        ByteBuffer txBytes = transactionBytes( TX_ID );
+        writeLogFile( txBytes );
+        metadataCache.cacheTransactionMetadata( TX_ID, new LogPosition( LOG_VERSION, TX_START ), -1, -1, 0, 0 );
+        MappedTransactionLogReader reader = new MappedTransactionLogReader( fileSystemRule.get(), logFiles, metadataCache );
+
+        // then
+        assertNull( reader.transactionBytes( TX_ID ) );
+        assertNull( reader.transactionBytes( TX_ID + 1 ) );
+    }
+
+    @Test
+    public void shouldNotReturnBytesIfRangeDoesNotEndWithCommitOfTransaction() throws IOException
+    {
+        // given
+        ByteBuffer txBytes = transactionBytes( TX_ID + 1 );
+        writeLogFile( txBytes );
+        cacheTransaction( TX_ID, txBytes.remaining() );
+        MappedTransactionLogReader reader = new MappedTransactionLogReader( fileSystemRule.get(), logFiles, metadataCache );
+
+        // then
+        assertNull( reader.transactionBytes( TX_ID ) );
+    }
+
+    @Test
+    public void shouldNotMapLogFilesOfNonDefaultFileSystem() throws IOException
+    {
+        // given
+        ByteBuffer txBytes = transactionBytes( TX_ID );
+        writeLogFile( txBytes );
+        cacheTransaction( TX_ID, txBytes.remaining() );
+        try ( EphemeralFileSystemAbstraction fs = new EphemeralFileSystemAbstraction() )
+        {
+            MappedTransactionLogReader reader = new MappedTransactionLogReader( fs, logFiles, metadataCache );
+
+            // then
+            assertNull( reader.transactionBytes( TX_ID ) );
+        }
+    }
+
+    private void cacheTransaction( long txId, int length )
+    {
+        metadataCache.cacheTransactionMetadata( txId, new LogPosition( LOG_VERSION, TX_START ),
+                new LogPosition( LOG_VERSION, TX_START + length ), -1, -1, 0, 0 );
+    }
+
+    private ByteBuffer transactionBytes( long committedTxId )
+    {
+        ByteBuffer buffer = ByteBuffer.allocate( 64 );
+        for ( int i = 0; i < 30; i++ )
+        {
+            buffer.put( (byte) i );
+        }
+        buffer.put( (byte) -10 );
+        buffer.put( LogEntryByteCodes.TX_COMMIT );
+        buffer.putLong( committedTxId );
+        buffer.putLong( 1234 );
+        buffer.flip();
+        return buffer;
+    }
+
+    private void writeLogFile( ByteBuffer txBytes ) throws IOException
+    {
+        File file = new File( directory.directory(), "log." + LOG_VERSION );
+        try ( OutputStream out = new FileOutputStream( file ) )
+        {
+            out.write( new byte[TX_START] );
+            out.write( txBytes.array(), 0, txBytes.limit() );
+            out.write( new byte[TX_START] );
+        }
+        when( logFiles.getLogFileForVersion( LOG_VERSION ) ).thenReturn( file );
+    }
+}
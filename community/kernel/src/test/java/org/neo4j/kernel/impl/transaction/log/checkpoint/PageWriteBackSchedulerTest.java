@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.scheduler.Group;
+import org.neo4j.test.OnDemandJobScheduler;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class PageWriteBackSchedulerTest
+{
+    private final IOLimiter ioLimiter = mock( IOLimiter.class );
+    private final PageCache pageCache = mock( PageCache.class );
+    private final OnDemandJobScheduler jobScheduler = spy( new OnDemandJobScheduler() );
+
+    @Test
+    public void shouldWriteBackPagesAndRescheduleAfterARun() throws IOException
+    {
+        // given
+        PageWriteBackScheduler scheduler = newScheduler();
+        scheduler.start();
+        assertNotNull( jobScheduler.getJob() );
+
+        // when
+        jobScheduler.runJob();
+
+        // then
+        verify( pageCache, times( 1 ) ).writeBackOldPages( ioLimiter );
+        verify( jobScheduler, times( 2 ) ).schedule( eq( Group.CHECKPOINT ), any( Runnable.class ),
+                eq( 20L ), eq( TimeUnit.MILLISECONDS ) );
+    }
+
+    @Test
+    public void shouldKeepWritingBackPagesAfterFailure() throws IOException
+    {
+        // given
+        doThrow( new IOException( "boom" ) ).when( pageCache ).writeBackOldPages( ioLimiter );
+        PageWriteBackScheduler scheduler = newScheduler();
+        scheduler.start();
+
+        // when
+        jobScheduler.runJob();
+
+        // then
+        verify( jobScheduler, times( 2 ) ).schedule( eq( Group.CHECKPOINT ), any( Runnable.class ),
+                eq( 20L ), eq( TimeUnit.MILLISECONDS ) );
+    }
+
+    @Test
+    public void shouldNotRescheduleWhenStopped()
+    {
+        // given
+        PageWriteBackScheduler scheduler = newScheduler();
+        scheduler.start();
+
+        // when
+        scheduler.stop();
+
+        // then
+        assertNull( jobScheduler.getJob() );
+    }
+
+    private PageWriteBackScheduler newScheduler()
+    {
+        return new PageWriteBackScheduler( pageCache, ioLimiter, jobScheduler, 20L, NullLogProvider.getInstance() );
+    }
+}
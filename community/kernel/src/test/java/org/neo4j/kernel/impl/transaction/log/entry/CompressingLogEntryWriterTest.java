@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.entry;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.log.InMemoryClosableChannel;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionCursor;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.storageengine.api.StorageCommand;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CompressingLogEntryWriterTest
+{
+    @Test
+    public void shouldReadBackDeflateCompressedTransaction() throws IOException
+    {
+        shouldReadBackCompressedTransaction( LogEntryCodec.DEFLATE );
+    }
+
+    @Test
+    public void shouldReadBackLZ4CompressedTransaction() throws IOException
+    {
+        shouldReadBackCompressedTransaction( LogEntryCodec.LZ4 );
+    }
+
+    private void shouldReadBackCompressedTransaction( LogEntryCodec codec ) throws IOException
+    {
+        // given
+        List<StorageCommand> commands = nodeCommands( 5_000 );
+        InMemoryClosableChannel plain = new InMemoryClosableChannel( 1_000_000 );
+        InMemoryClosableChannel compressed = new InMemoryClosableChannel( 1_000_000 );
+
+        // when
+        writeTransaction( new LogEntryWriter( plain ), commands );
+        writeTransaction( new CompressingLogEntryWriter( compressed, codec ), commands );
+
+        // then
+        assertTrue( compressed.writerPosition() < plain.writerPosition() );
+        try ( PhysicalTransactionCursor<InMemoryClosableChannel> cursor =
+                new PhysicalTransactionCursor<>( compressed, new VersionAwareLogEntryReader<>() ) )
+        {
+            assertTrue( cursor.next() );
+            List<StorageCommand> readCommands = new ArrayList<>();
+            cursor.get().getTransactionRepresentation().accept( command ->
+            {
+                readCommands.add( command );
+                return false;
+            } );
+            assertEquals( commands, readCommands );
+            assertEquals( 42, cursor.get().getCommitEntry().getTxId() );
+            assertFalse( cursor.next() );
+        }
+    }
+
+    @Test
+    public void shouldWriteSmallTransactionUncompressed() throws IOException
+    {
+        // given
+        List<StorageCommand> commands = nodeCommands( 1 );
+        InMemoryClosableChannel plain = new InMemoryClosableChannel();
+        InMemoryClosableChannel compressed = new InMemoryClosableChannel();
+
+        // when
+        writeTransaction( new LogEntryWriter( plain ), commands );
+        writeTransaction( new CompressingLogEntryWriter( compressed, LogEntryCodec.DEFLATE ), commands );
+
+        // then
+        assertArrayEquals( bytes( plain ), bytes( compressed ) );
+    }
+
+    @Test
+    public void shouldRoundTripBlocksThroughCodecs() throws IOException
+    {
+        byte[] data = new byte[10_000];
+        for ( int i = 0; i < data.length; i++ )
+        {
+            data[i] = (byte) (i % 7);
+        }
+
+        for ( LogEntryCodec codec : new LogEntryCodec[]{LogEntryCodec.DEFLATE, LogEntryCodec.LZ4} )
+        {
+            byte[] compressed = codec.compress( data, data.length );
+            assertTrue( compressed.length < data.length );
+            assertArrayEquals( data, codec.decompress( compressed, data.length ) );
+        }
+    }
+
+    @Test
+    public void shouldFailOnCorruptLZ4Block()
+    {
+        byte[] data = new byte[10_000];
+        for ( int i = 0; i < data.length; i++ )
+        {
+            data[i] = (byte) (i % 7);
+        }
+        byte[] compressed = LogEntryCodec.LZ4.compress( data, data.length );
+
+        try
+        {
+            LogEntryCodec.LZ4.decompress( compressed, data.length + 1 );
+            fail( "Should have failed" );
+        }
+        catch ( IOException e )
+        {
+            // then good
+        }
+    }
+
+    @Test
+    public void encodedCommandsMustMatchSerializedCommands() throws IOException
+    {
+        // given
+        List<StorageCommand> commands = nodeCommands( 5_000 );
+        PhysicalTransactionRepresentation transaction = new PhysicalTransactionRepresentation( commands );
+        transaction.setHeader( new byte[0], 0, 0, 1, 41, 2, 0 );
+        InMemoryClosableChannel serialized = new InMemoryClosableChannel( 1_000_000 );
+        InMemoryClosableChannel encoded = new InMemoryClosableChannel( 1_000_000 );
+        CompressingLogEntryWriter encodingWriter = new CompressingLogEntryWriter( encoded, LogEntryCodec.DEFLATE );
+
+        // when
+        new CompressingLogEntryWriter( serialized, LogEntryCodec.DEFLATE ).serialize( transaction );
+        encodingWriter.writeSerializedCommands( encodingWriter.encode( transaction ) );
+
+        // then
+        assertArrayEquals( bytes( serialized ), bytes( encoded ) );
+    }
+
+    @Test
+    public void shouldRejectCompressedBlockLargerThanMaxBlockSize() throws IOException
+    {
+        // given
+        InMemoryClosableChannel channel = new InMemoryClosableChannel();
+        channel.put( LogEntryVersion.V3_5_COMPRESSED.byteCode() ).put( LogEntryByteCodes.COMPRESSED_COMMANDS );
+        channel.put( LogEntryCodec.DEFLATE.code() ).putInt( Integer.MAX_VALUE ).putInt( 10 );
+
+        // when
+        try
+        {
+            new VersionAwareLogEntryReader<>().readLogEntry( channel );
+            fail( "Should have failed" );
+        }
+        catch ( IOException e )
+        {
+            // then
+            assertTrue( e.getMessage().contains( String.valueOf( Integer.MAX_VALUE ) ) );
+        }
+    }
+
+    private static void writeTransaction( LogEntryWriter writer, List<StorageCommand> commands ) throws IOException
+    {
+        writer.writeStartEntry( 0, 0, 1, 41, new byte[0] );
+        PhysicalTransactionRepresentation transaction = new PhysicalTransactionRepresentation( commands );
+        transaction.setHeader( new byte[0], 0, 0, 1, 41, 2, 0 );
+        writer.serialize( transaction );
+        writer.writeCommitEntry( 42, 2 );
+    }
+
+    private static List<StorageCommand> nodeCommands( int count )
+    {
+        List<StorageCommand> commands = new ArrayList<>();
+        for ( int i = 0; i < count; i++ )
+        {
+            NodeRecord before = new NodeRecord( i );
+            NodeRecord after = new NodeRecord( i, false, i * 10, i * 4 );
+            after.setInUse( true );
+            after.setCreated();
+            commands.add( new Command.NodeCommand( before, after ) );
+        }
+        return Collections.unmodifiableList( commands );
+    }
+
+    private static byte[] bytes( InMemoryClosableChannel channel ) throws IOException
+    {
+        byte[] bytes = new byte[channel.writerPosition()];
+        channel.get( bytes, bytes.length );
+        return bytes;
+    }
+}
@@ -74,6 +74,80 @@ public class LogHeaderReaderTest
         assertEquals( new LogHeader( CURRENT_LOG_VERSION, expectedLogVersion, expectedTxId ), result );
     }
 
+    @Test
+    public void shouldReadCodecFromLogHeader() throws IOException
+    {
+        // given
+        final ByteBuffer buffer = ByteBuffer.allocate( LOG_HEADER_SIZE );
+        LogHeaderWriter.writeLogHeader( buffer, expectedLogVersion, expectedTxId, LogEntryCodec.DEFLATE );
+        final ReadableByteChannel channel = mock( ReadableByteChannel.class );
+        when( channel.read( buffer ) ).thenAnswer( invocation ->
+        {
+            buffer.position( LOG_HEADER_SIZE );
+            return LOG_HEADER_SIZE;
+        } );
+
+        // when
+        final LogHeader result = readLogHeader( buffer, channel, true, null );
+
+        // then
+        assertEquals( new LogHeader( CURRENT_LOG_VERSION, expectedLogVersion, expectedTxId, LogEntryCodec.DEFLATE ),
+                result );
+    }
+
+    @Test
+    public void shouldReadLogVersionOfHeaderWithoutCodec() throws IOException
+    {
+        // given a header of the format before the codec was recorded, where the log version had 56 bits
+        long oldFormatVersion = LogVersions.LOG_VERSION_WITH_CODEC - 1;
+        long logVersion = 0x00FF_0000_0000_0001L;
+        final ByteBuffer buffer = ByteBuffer.allocate( LOG_HEADER_SIZE );
+        buffer.putLong( logVersion | (oldFormatVersion << 56) );
+        buffer.putLong( expectedTxId );
+        buffer.flip();
+        final ReadableByteChannel channel = mock( ReadableByteChannel.class );
+        when( channel.read( buffer ) ).thenAnswer( invocation ->
+        {
+            buffer.position( LOG_HEADER_SIZE );
+            return LOG_HEADER_SIZE;
+        } );
+
+        // when
+        final LogHeader result = readLogHeader( buffer, channel, true, null );
+
+        // then
+        assertEquals( new LogHeader( (byte) oldFormatVersion, logVersion, expectedTxId, LogEntryCodec.NONE ), result );
+    }
+
+    @Test
+    public void shouldFailOnUnknownCodec() throws IOException
+    {
+        // given
+        byte unknownCodec = (byte) LogEntryCodec.values().length;
+        final ByteBuffer buffer = ByteBuffer.allocate( LOG_HEADER_SIZE );
+        buffer.putLong( expectedLogVersion | (((long) CURRENT_LOG_VERSION) << 56) | (((long) unknownCodec) << 48) );
+        buffer.putLong( expectedTxId );
+        buffer.flip();
+        final ReadableByteChannel channel = mock( ReadableByteChannel.class );
+        when( channel.read( buffer ) ).thenAnswer( invocation ->
+        {
+            buffer.position( LOG_HEADER_SIZE );
+            return LOG_HEADER_SIZE;
+        } );
+
+        try
+        {
+            // when
+            readLogHeader( buffer, channel, true, null );
+            fail( "should have thrown" );
+        }
+        catch ( IOException e )
+        {
+            // then
+            assertTrue( e.getMessage(), e.getMessage().contains( "codec " + unknownCodec ) );
+        }
+    }
+
     @Test
     public void shouldFailWhenUnableToReadALogHeaderFromAChannel() throws IOException
     {
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2002-2020 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.recovery;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
+import org.neo4j.scheduler.JobScheduler;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.kernel.impl.scheduler.JobSchedulerFactory.createInitialisedScheduler;
+import static org.neo4j.kernel.impl.transaction.log.GivenTransactionCursor.exhaust;
+
+public class ReadAheadTransactionCursorTest
+{
+    private static JobScheduler jobScheduler;
+
+    @BeforeClass
+    public static void setUp()
+    {
+        jobScheduler = createInitialisedScheduler();
+    }
+
+    @AfterClass
+    public static void tearDown() throws Throwable
+    {
+        jobScheduler.shutdown();
+    }
+
+    @Test
+    public void shouldReadAllTransactionsInOrder() throws IOException
+    {
+        // given
+        CommittedTransactionRepresentation[] transactions = transactions( 100 );
+        PositionedCursor source = new PositionedCursor( transactions, null );
+
+        // when
+        CommittedTransactionRepresentation[] read;
+        try ( ReadAheadTransactionCursor cursor = new ReadAheadTransactionCursor( source, jobScheduler, 4 ) )
+        {
+            read = exhaust( cursor );
+            assertEquals( new LogPosition( 0, transactions.length ), cursor.position() );
+            assertFalse( cursor.next() );
+        }
+
+        // then
+        assertArrayEquals( transactions, read );
+        assertTrue( source.closed );
+    }
+
+    @Test
+    public void shouldFailAfterTransactionsReadBeforeFailure() throws IOException
+    {
+        // given
+        CommittedTransactionRepresentation[] transactions = transactions( 2 );
+        IOException failure = new IOException( "Corrupted log" );
+        PositionedCursor source = new PositionedCursor( transactions, failure );
+
+        try ( ReadAheadTransactionCursor cursor = new ReadAheadTransactionCursor( source, jobScheduler, 4 ) )
+        {
+            assertTrue( cursor.next() );
+            assertTrue( cursor.next() );
+            assertSame( transactions[1], cursor.get() );
+
+            // when
+            try
+            {
+                cursor.next();
+                fail( "Should have failed" );
+            }
+            catch ( IOException e )
+            {
+                // then
+                assertSame( failure, e );
+            }
+            assertEquals( new LogPosition( 0, 2 ), cursor.position() );
+        }
+        assertTrue( source.closed );
+    }
+
+    @Test
+    public void shouldStopReadingAheadWhenClosedEarly() throws IOException
+    {
+        // given
+        PositionedCursor source = new PositionedCursor( transactions( 100 ), null );
+        ReadAheadTransactionCursor cursor = new ReadAheadTransactionCursor( source, jobScheduler, 1 );
+        assertTrue( cursor.next() );
+
+        // when
+        cursor.close();
+
+        // then
+        assertTrue( source.closed );
+    }
+
+    private static CommittedTransactionRepresentation[] transactions( int count )
+    {
+        CommittedTransactionRepresentation[] transactions = new CommittedTransactionRepresentation[count];
+        for ( int i = 0; i < count; i++ )
+        {
+            transactions[i] = mock( CommittedTransactionRepresentation.class );
+        }
+        return transactions;
+    }
+
+    private static class PositionedCursor implements TransactionCursor
+    {
+        private final CommittedTransactionRepresentation[] transactions;
+        private final IOException failure;
+        private int index = -1;
+        private volatile boolean closed;
+
+        PositionedCursor( CommittedTransactionRepresentation[] transactions, IOException failure )
+        {
+            this.transactions = transactions;
+            this.failure = failure;
+        }
+
+        @Override
+        public boolean next() throws IOException
+        {
+            if ( index + 1 < transactions.length )
+            {
+                index++;
+                return true;
+            }
+            if ( failure != null )
+            {
+                throw failure;
+            }
+            return false;
+        }
+
+        @Override
+        public CommittedTransactionRepresentation get()
+        {
+            return transactions[index];
+        }
+
+        @Override
+        public LogPosition position()
+        {
+            return new LogPosition( 0, index + 1 );
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+    }
+}
@@ -336,6 +336,12 @@ public class StubStorageCursors implements StorageReader
         throw new UnsupportedOperationException( "Not implemented yet" );
     }
 
+    @Override
+    public long nodesGetHighestPossibleIdInUse()
+    {
+        throw new UnsupportedOperationException( "Not implemented yet" );
+    }
+
     @Override
     public long relationshipsGetCount()
     {
@@ -482,6 +488,12 @@ public class StubStorageCursors implements StorageReader
             this.iterator = nodeData.keySet().iterator();
         }
 
+        @Override
+        public void scanRange( long startInclusive, long endExclusive )
+        {
+            this.iterator = nodeData.keySet().stream().filter( id -> id >= startInclusive && id < endExclusive ).iterator();
+        }
+
         @Override
         public void single( long reference )
         {
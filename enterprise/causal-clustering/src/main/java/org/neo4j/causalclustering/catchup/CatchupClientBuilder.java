@@ -47,8 +47,8 @@ import org.neo4j.causalclustering.protocol.handshake.ModifierSupportedProtocols;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.logging.NullLogProvider;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
-import static java.util.Collections.singletonList;
 import static org.neo4j.causalclustering.handlers.VoidPipelineWrapperFactory.VOID_WRAPPER;
 import static org.neo4j.causalclustering.protocol.Protocol.ApplicationProtocolCategory.CATCHUP;
 import static org.neo4j.time.Clocks.systemClock;
@@ -134,8 +134,9 @@ public class CatchupClientBuilder
         ModifierProtocolRepository modifierProtocolRepository = new ModifierProtocolRepository( ModifierProtocols.values(), modifierProtocols );
 
         Function<CatchUpResponseHandler,ChannelInitializer<SocketChannel>> channelInitializer = handler -> {
-            List<ProtocolInstaller.Factory<Client,?>> installers = singletonList(
-                    new CatchupProtocolClientInstaller.Factory( pipelineBuilder, debugLogProvider, handler ) );
+            List<ProtocolInstaller.Factory<Client,?>> installers = asList(
+                    new CatchupProtocolClientInstaller.Factory( ApplicationProtocols.CATCHUP_1, pipelineBuilder, debugLogProvider, handler ),
+                    new CatchupProtocolClientInstaller.Factory( ApplicationProtocols.CATCHUP_2, pipelineBuilder, debugLogProvider, handler ) );
 
             ProtocolInstallerRepository<Client> protocolInstallerRepository = new ProtocolInstallerRepository<>( installers,
                     ModifierProtocolInstaller.allClientInstallers );
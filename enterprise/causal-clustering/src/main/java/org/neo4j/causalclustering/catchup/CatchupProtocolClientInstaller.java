@@ -59,24 +59,27 @@ import org.neo4j.logging.LogProvider;
 
 public class CatchupProtocolClientInstaller implements ProtocolInstaller<Orientation.Client>
 {
-    private static final Protocol.ApplicationProtocols APPLICATION_PROTOCOL = Protocol.ApplicationProtocols.CATCHUP_1;
     public static class Factory extends ProtocolInstaller.Factory<Orientation.Client,CatchupProtocolClientInstaller>
     {
-        public Factory( NettyPipelineBuilderFactory pipelineBuilder, LogProvider logProvider, CatchUpResponseHandler handler )
+        public Factory( Protocol.ApplicationProtocols applicationProtocol, NettyPipelineBuilderFactory pipelineBuilder, LogProvider logProvider,
+                CatchUpResponseHandler handler )
         {
-            super( APPLICATION_PROTOCOL, modifiers -> new CatchupProtocolClientInstaller( pipelineBuilder, modifiers, logProvider, handler ) );
+            super( applicationProtocol,
+                    modifiers -> new CatchupProtocolClientInstaller( applicationProtocol, pipelineBuilder, modifiers, logProvider, handler ) );
         }
     }
 
+    private final Protocol.ApplicationProtocols applicationProtocol;
     private final List<ModifierProtocolInstaller<Orientation.Client>> modifiers;
     private final LogProvider logProvider;
     private final Log log;
     private final NettyPipelineBuilderFactory pipelineBuilder;
     private final CatchUpResponseHandler handler;
 
-    public CatchupProtocolClientInstaller( NettyPipelineBuilderFactory pipelineBuilder, List<ModifierProtocolInstaller<Orientation.Client>> modifiers,
-            LogProvider logProvider, CatchUpResponseHandler handler )
+    public CatchupProtocolClientInstaller( Protocol.ApplicationProtocols applicationProtocol, NettyPipelineBuilderFactory pipelineBuilder,
+            List<ModifierProtocolInstaller<Orientation.Client>> modifiers, LogProvider logProvider, CatchUpResponseHandler handler )
     {
+        this.applicationProtocol = applicationProtocol;
         this.modifiers = modifiers;
         this.logProvider = logProvider;
         this.log = logProvider.getLog( getClass() );
@@ -127,7 +130,7 @@ public class CatchupProtocolClientInstaller implements ProtocolInstaller<Orienta
     @Override
     public Protocol.ApplicationProtocol applicationProtocol()
     {
-        return APPLICATION_PROTOCOL;
+        return applicationProtocol;
     }
 
     @Override
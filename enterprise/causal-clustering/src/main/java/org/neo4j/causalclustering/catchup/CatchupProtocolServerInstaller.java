@@ -58,17 +58,18 @@ import static java.util.Collections.emptyList;
 
 public class CatchupProtocolServerInstaller implements ProtocolInstaller<Orientation.Server>
 {
-    private static final Protocol.ApplicationProtocols APPLICATION_PROTOCOL = Protocol.ApplicationProtocols.CATCHUP_1;
-
     public static class Factory extends ProtocolInstaller.Factory<Orientation.Server,CatchupProtocolServerInstaller>
     {
-        public Factory( NettyPipelineBuilderFactory pipelineBuilderFactory, LogProvider logProvider, CatchupServerHandler catchupServerHandler )
+        public Factory( Protocol.ApplicationProtocols applicationProtocol, NettyPipelineBuilderFactory pipelineBuilderFactory, LogProvider logProvider,
+                CatchupServerHandler catchupServerHandler )
         {
-            super( APPLICATION_PROTOCOL,
-                    modifiers -> new CatchupProtocolServerInstaller( pipelineBuilderFactory, modifiers, logProvider, catchupServerHandler ) );
+            super( applicationProtocol,
+                    modifiers -> new CatchupProtocolServerInstaller( applicationProtocol, pipelineBuilderFactory, modifiers, logProvider,
+                            catchupServerHandler ) );
         }
     }
 
+    private final Protocol.ApplicationProtocols applicationProtocol;
     private final NettyPipelineBuilderFactory pipelineBuilderFactory;
     private final List<ModifierProtocolInstaller<Orientation.Server>> modifiers;
     private final Log log;
@@ -76,9 +77,10 @@ public class CatchupProtocolServerInstaller implements ProtocolInstaller<Orienta
     private final LogProvider logProvider;
     private final CatchupServerHandler catchupServerHandler;
 
-    private CatchupProtocolServerInstaller( NettyPipelineBuilderFactory pipelineBuilderFactory, List<ModifierProtocolInstaller<Orientation.Server>> modifiers,
-            LogProvider logProvider, CatchupServerHandler catchupServerHandler )
+    private CatchupProtocolServerInstaller( Protocol.ApplicationProtocols applicationProtocol, NettyPipelineBuilderFactory pipelineBuilderFactory,
+            List<ModifierProtocolInstaller<Orientation.Server>> modifiers, LogProvider logProvider, CatchupServerHandler catchupServerHandler )
     {
+        this.applicationProtocol = applicationProtocol;
         this.pipelineBuilderFactory = pipelineBuilderFactory;
         this.modifiers = modifiers;
         this.log = logProvider.getLog( getClass() );
@@ -107,7 +109,7 @@ public class CatchupProtocolServerInstaller implements ProtocolInstaller<Orienta
                 .add( "in_req_type", serverMessageHandler( state ) )
                 .add( "dec_req_dispatch", requestDecoders( state ) )
                 .add( "out_chunked_write", new ChunkedWriteHandler() )
-                .add( "hnd_req_tx", catchupServerHandler.txPullRequestHandler( state ) )
+                .add( "hnd_req_tx", catchupServerHandler.txPullRequestHandler( state, applicationProtocol ) )
                 .add( "hnd_req_store_id", catchupServerHandler.getStoreIdRequestHandler( state ) )
                 .add( "hnd_req_store_listing", catchupServerHandler.storeListingRequestHandler( state ) )
                 .add( "hnd_req_store_file", catchupServerHandler.getStoreFileRequestHandler( state ) )
@@ -136,7 +138,7 @@ public class CatchupProtocolServerInstaller implements ProtocolInstaller<Orienta
     @Override
     public Protocol.ApplicationProtocol applicationProtocol()
     {
-        return APPLICATION_PROTOCOL;
+        return applicationProtocol;
     }
 
     @Override
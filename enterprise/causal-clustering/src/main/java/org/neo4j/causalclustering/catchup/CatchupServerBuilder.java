@@ -42,8 +42,8 @@ import org.neo4j.helpers.ListenSocketAddress;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.logging.NullLogProvider;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
-import static java.util.Collections.singletonList;
 import static org.neo4j.causalclustering.handlers.VoidPipelineWrapperFactory.VOID_WRAPPER;
 import static org.neo4j.causalclustering.protocol.Protocol.ApplicationProtocolCategory.CATCHUP;
 
@@ -117,11 +117,13 @@ public class CatchupServerBuilder
         ApplicationProtocolRepository applicationProtocolRepository = new ApplicationProtocolRepository( ApplicationProtocols.values(), catchupProtocols );
         ModifierProtocolRepository modifierProtocolRepository = new ModifierProtocolRepository( ModifierProtocols.values(), modifierProtocols );
 
-        CatchupProtocolServerInstaller.Factory catchupProtocolServerInstaller = new CatchupProtocolServerInstaller.Factory( pipelineBuilder, debugLogProvider,
-                catchupServerHandler );
+        CatchupProtocolServerInstaller.Factory catchupProtocolServerInstallerV1 = new CatchupProtocolServerInstaller.Factory( ApplicationProtocols.CATCHUP_1,
+                pipelineBuilder, debugLogProvider, catchupServerHandler );
+        CatchupProtocolServerInstaller.Factory catchupProtocolServerInstallerV2 = new CatchupProtocolServerInstaller.Factory( ApplicationProtocols.CATCHUP_2,
+                pipelineBuilder, debugLogProvider, catchupServerHandler );
 
         ProtocolInstallerRepository<ProtocolInstaller.Orientation.Server> protocolInstallerRepository = new ProtocolInstallerRepository<>(
-                singletonList( catchupProtocolServerInstaller ), ModifierProtocolInstaller.allServerInstallers );
+                asList( catchupProtocolServerInstallerV1, catchupProtocolServerInstallerV2 ), ModifierProtocolInstaller.allServerInstallers );
 
         HandshakeServerInitializer handshakeServerInitializer = new HandshakeServerInitializer( applicationProtocolRepository, modifierProtocolRepository,
                 protocolInstallerRepository, pipelineBuilder, debugLogProvider );
@@ -26,9 +26,11 @@ import io.netty.channel.ChannelHandler;
 
 import java.util.Optional;
 
+import org.neo4j.causalclustering.protocol.Protocol.ApplicationProtocol;
+
 public interface CatchupServerHandler
 {
-    ChannelHandler txPullRequestHandler( CatchupServerProtocol catchupServerProtocol );
+    ChannelHandler txPullRequestHandler( CatchupServerProtocol catchupServerProtocol, ApplicationProtocol applicationProtocol );
 
     ChannelHandler getStoreIdRequestHandler( CatchupServerProtocol catchupServerProtocol );
 
@@ -37,6 +37,8 @@ import org.neo4j.causalclustering.catchup.tx.TxPullRequestHandler;
 import org.neo4j.causalclustering.core.state.CoreSnapshotService;
 import org.neo4j.causalclustering.core.state.snapshot.CoreSnapshotRequestHandler;
 import org.neo4j.causalclustering.identity.StoreId;
+import org.neo4j.causalclustering.protocol.Protocol.ApplicationProtocol;
+import org.neo4j.causalclustering.protocol.Protocol.ApplicationProtocols;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.NeoStoreDataSource;
 import org.neo4j.kernel.monitoring.Monitors;
@@ -69,10 +71,12 @@ public class RegularCatchupServerHandler implements CatchupServerHandler
     }
 
     @Override
-    public ChannelHandler txPullRequestHandler( CatchupServerProtocol catchupServerProtocol )
+    public ChannelHandler txPullRequestHandler( CatchupServerProtocol catchupServerProtocol, ApplicationProtocol applicationProtocol )
     {
+        // Older clients can't read compressed log entries, so they get transactions serialized anew from the log
+        boolean sendRawLogBytes = applicationProtocol.implementation() >= ApplicationProtocols.CATCHUP_2.implementation();
         return new TxPullRequestHandler( catchupServerProtocol, storeIdSupplier, dataSourceAvailabilitySupplier, dataSourceSupplier,
-                monitors, logProvider );
+                monitors, logProvider, sendRawLogBytes );
     }
 
     @Override
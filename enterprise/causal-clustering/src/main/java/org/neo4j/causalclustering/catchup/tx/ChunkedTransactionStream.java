@@ -26,12 +26,17 @@ import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.stream.ChunkedInput;
 
+import java.nio.ByteBuffer;
+
 import org.neo4j.causalclustering.catchup.CatchupResult;
 import org.neo4j.causalclustering.catchup.CatchupServerProtocol;
 import org.neo4j.causalclustering.catchup.ResponseMessageType;
 import org.neo4j.causalclustering.identity.StoreId;
 import org.neo4j.cursor.IOCursor;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.MappedTransactionLogReader;
+import org.neo4j.kernel.impl.transaction.log.NoSuchTransactionException;
 import org.neo4j.logging.Log;
 
 import static java.lang.String.format;
@@ -40,14 +45,23 @@ import static org.neo4j.causalclustering.catchup.CatchupResult.SUCCESS_END_OF_ST
 
 /**
  * Returns a chunked stream of transactions.
+ * <p>
+ * When a {@link MappedTransactionLogReader} is available, transactions are sent as the raw bytes found in
+ * the transaction log whenever their location is known, and only transactions which can't be found that way
+ * are deserialized from the transaction cursor. The cursor is re-opened at the next expected transaction
+ * after it has been skipped ahead of in this way.
  */
 public class ChunkedTransactionStream implements ChunkedInput<Object>
 {
     private final Log log;
     private final StoreId storeId;
-    private final IOCursor<CommittedTransactionRepresentation> txCursor;
     private final CatchupServerProtocol protocol;
     private final long txIdPromise;
+    private final MappedTransactionLogReader txLogReader;
+    private final LogicalTransactionStore txStore;
+
+    private IOCursor<CommittedTransactionRepresentation> txCursor;
+    private boolean txCursorBehind;
 
     private boolean endOfInput;
     private boolean noMoreTransactions;
@@ -58,6 +72,12 @@ public class ChunkedTransactionStream implements ChunkedInput<Object>
 
     ChunkedTransactionStream( Log log, StoreId storeId, long firstTxId, long txIdPromise, IOCursor<CommittedTransactionRepresentation> txCursor,
             CatchupServerProtocol protocol )
+    {
+        this( log, storeId, firstTxId, txIdPromise, txCursor, protocol, null, null );
+    }
+
+    ChunkedTransactionStream( Log log, StoreId storeId, long firstTxId, long txIdPromise, IOCursor<CommittedTransactionRepresentation> txCursor,
+            CatchupServerProtocol protocol, MappedTransactionLogReader txLogReader, LogicalTransactionStore txStore )
     {
         this.log = log;
         this.storeId = storeId;
@@ -65,6 +85,8 @@ public class ChunkedTransactionStream implements ChunkedInput<Object>
         this.txIdPromise = txIdPromise;
         this.txCursor = txCursor;
         this.protocol = protocol;
+        this.txLogReader = txLogReader;
+        this.txStore = txStore;
     }
 
     @Override
@@ -104,7 +126,11 @@ public class ChunkedTransactionStream implements ChunkedInput<Object>
             /* finalization should always have a last ending message */
             throw new IllegalStateException();
         }
-        else if ( txCursor.next() )
+        else if ( (pending = nextTransactionBytes()) != null )
+        {
+            return ResponseMessageType.TX;
+        }
+        else if ( nextFromCursor() )
         {
             assert pending == null;
 
@@ -140,6 +166,42 @@ public class ChunkedTransactionStream implements ChunkedInput<Object>
         }
     }
 
+    private TxPullResponse nextTransactionBytes() throws Exception
+    {
+        // only transactions within the promise are known to be committed, later ones go through the cursor
+        if ( txLogReader == null || expectedTxId > txIdPromise )
+        {
+            return null;
+        }
+        ByteBuffer txBytes = txLogReader.transactionBytes( expectedTxId );
+        if ( txBytes == null )
+        {
+            return null;
+        }
+        lastTxId = expectedTxId;
+        expectedTxId++;
+        txCursorBehind = true;
+        return new TxPullResponse( storeId, txBytes );
+    }
+
+    private boolean nextFromCursor() throws Exception
+    {
+        if ( txCursorBehind )
+        {
+            txCursorBehind = false;
+            txCursor.close();
+            try
+            {
+                txCursor = txStore.getTransactions( expectedTxId );
+            }
+            catch ( NoSuchTransactionException e )
+            {
+                txCursor = IOCursor.getEmpty();
+            }
+        }
+        return txCursor.next();
+    }
+
     private Object consumePending()
     {
         Object prevPending = pending;
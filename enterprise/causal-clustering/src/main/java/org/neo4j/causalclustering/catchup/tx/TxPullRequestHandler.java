@@ -39,6 +39,7 @@ import org.neo4j.graphdb.DependencyResolver;
 import org.neo4j.kernel.NeoStoreDataSource;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.MappedTransactionLogReader;
 import org.neo4j.kernel.impl.transaction.log.NoSuchTransactionException;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
 import org.neo4j.kernel.monitoring.Monitors;
@@ -59,11 +60,23 @@ public class TxPullRequestHandler extends SimpleChannelInboundHandler<TxPullRequ
     private final BooleanSupplier databaseAvailable;
     private final TransactionIdStore transactionIdStore;
     private final LogicalTransactionStore logicalTransactionStore;
+    private final MappedTransactionLogReader mappedTransactionLogReader;
     private final TxPullRequestsMonitor monitor;
     private final Log log;
 
     public TxPullRequestHandler( CatchupServerProtocol protocol, Supplier<StoreId> storeIdSupplier,
             BooleanSupplier databaseAvailable, Supplier<NeoStoreDataSource> dataSourceSupplier, Monitors monitors, LogProvider logProvider )
+    {
+        this( protocol, storeIdSupplier, databaseAvailable, dataSourceSupplier, monitors, logProvider, false );
+    }
+
+    /**
+     * @param sendRawLogBytes whether transactions may be sent as the raw bytes of the transaction log, which requires
+     * the client to read every log entry this server may write, including compressed ones.
+     */
+    public TxPullRequestHandler( CatchupServerProtocol protocol, Supplier<StoreId> storeIdSupplier,
+            BooleanSupplier databaseAvailable, Supplier<NeoStoreDataSource> dataSourceSupplier, Monitors monitors, LogProvider logProvider,
+            boolean sendRawLogBytes )
     {
         this.protocol = protocol;
         this.storeIdSupplier = storeIdSupplier;
@@ -71,6 +84,7 @@ public class TxPullRequestHandler extends SimpleChannelInboundHandler<TxPullRequ
         DependencyResolver dependencies = dataSourceSupplier.get().getDependencyResolver();
         this.transactionIdStore = dependencies.resolveDependency( TransactionIdStore.class );
         this.logicalTransactionStore = dependencies.resolveDependency( LogicalTransactionStore.class );
+        this.mappedTransactionLogReader = sendRawLogBytes ? dependencies.resolveDependency( MappedTransactionLogReader.class ) : null;
         this.monitor = monitors.newMonitor( TxPullRequestsMonitor.class );
         this.log = logProvider.getLog( getClass() );
     }
@@ -104,7 +118,8 @@ public class TxPullRequestHandler extends SimpleChannelInboundHandler<TxPullRequ
 
         if ( txCursor != null )
         {
-            ChunkedTransactionStream txStream = new ChunkedTransactionStream( log, localStoreId, firstTxId, txIdPromise, txCursor, protocol );
+            ChunkedTransactionStream txStream = new ChunkedTransactionStream( log, localStoreId, firstTxId, txIdPromise, txCursor, protocol,
+                    mappedTransactionLogReader, logicalTransactionStore );
             // chunked transaction stream ends the interaction internally and closes the cursor
             ctx.writeAndFlush( txStream ).addListener( f ->
             {
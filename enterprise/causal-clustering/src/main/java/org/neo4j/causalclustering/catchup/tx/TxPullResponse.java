@@ -22,6 +22,9 @@
  */
 package org.neo4j.causalclustering.catchup.tx;
 
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
 import org.neo4j.causalclustering.identity.StoreId;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 
@@ -29,11 +32,24 @@ public class TxPullResponse
 {
     private final StoreId storeId;
     private final CommittedTransactionRepresentation tx;
+    private final ByteBuffer txBytes;
 
     public TxPullResponse( StoreId storeId, CommittedTransactionRepresentation tx )
     {
         this.storeId = storeId;
         this.tx = tx;
+        this.txBytes = null;
+    }
+
+    /**
+     * A response carrying a transaction in its serialized log form, as read from the transaction log,
+     * which will be written to the network as is.
+     */
+    public TxPullResponse( StoreId storeId, ByteBuffer txBytes )
+    {
+        this.storeId = storeId;
+        this.tx = null;
+        this.txBytes = txBytes;
     }
 
     public StoreId storeId()
@@ -46,6 +62,15 @@ public class TxPullResponse
         return tx;
     }
 
+    /**
+     * @return the serialized log entries of the transaction, or {@code null} if this response carries
+     * a deserialized {@link #tx() transaction}.
+     */
+    public ByteBuffer txBytes()
+    {
+        return txBytes;
+    }
+
     @Override
     public boolean equals( Object o )
     {
@@ -61,7 +86,8 @@ public class TxPullResponse
         TxPullResponse that = (TxPullResponse) o;
 
         return (storeId != null ? storeId.equals( that.storeId ) : that.storeId == null) &&
-                (tx != null ? tx.equals( that.tx ) : that.tx == null);
+                (tx != null ? tx.equals( that.tx ) : that.tx == null) &&
+                Objects.equals( txBytes, that.txBytes );
     }
 
     @Override
@@ -69,12 +95,14 @@ public class TxPullResponse
     {
         int result = storeId != null ? storeId.hashCode() : 0;
         result = 31 * result + (tx != null ? tx.hashCode() : 0);
+        result = 31 * result + (txBytes != null ? txBytes.hashCode() : 0);
         return result;
     }
 
     @Override
     public String toString()
     {
-        return String.format( "TxPullResponse{storeId=%s, tx=%s}", storeId, tx );
+        return txBytes != null ? String.format( "TxPullResponse{storeId=%s, txBytes=%d}", storeId, txBytes.remaining() )
+                               : String.format( "TxPullResponse{storeId=%s, tx=%s}", storeId, tx );
     }
 }
@@ -37,6 +37,14 @@ public class TxPullResponseEncoder extends MessageToByteEncoder<TxPullResponse>
     {
         NetworkWritableChannel channel = new NetworkWritableChannel( out );
         StoreIdMarshal.INSTANCE.marshal( response.storeId(), channel );
-        new LogEntryWriter( channel ).serialize( response.tx() );
+        if ( response.txBytes() != null )
+        {
+            // already in log entry format, straight from the transaction log
+            out.writeBytes( response.txBytes().duplicate() );
+        }
+        else
+        {
+            new LogEntryWriter( channel ).serialize( response.tx() );
+        }
     }
 }
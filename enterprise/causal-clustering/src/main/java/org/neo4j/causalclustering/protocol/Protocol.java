@@ -67,7 +67,12 @@ public interface Protocol<IMPL extends Comparable<IMPL>>
     {
         RAFT_1( ApplicationProtocolCategory.RAFT, 1 ),
         RAFT_2( ApplicationProtocolCategory.RAFT, 2 ),
-        CATCHUP_1( ApplicationProtocolCategory.CATCHUP, 1 );
+        CATCHUP_1( ApplicationProtocolCategory.CATCHUP, 1 ),
+        /**
+         * Same messages as {@link #CATCHUP_1}, but the client can read compressed transaction log entries, so pulled
+         * transactions may be sent as the raw bytes of the log of the server.
+         */
+        CATCHUP_2( ApplicationProtocolCategory.CATCHUP, 2 );
 
         private final Integer version;
         private final ApplicationProtocolCategory identifier;
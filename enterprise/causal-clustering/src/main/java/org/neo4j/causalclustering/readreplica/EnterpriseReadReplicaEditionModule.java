@@ -140,7 +140,7 @@ import org.neo4j.storageengine.api.StorageEngine;
 import org.neo4j.time.Clocks;
 import org.neo4j.udc.UsageData;
 
-import static java.util.Collections.singletonList;
+import static java.util.Arrays.asList;
 import static org.neo4j.causalclustering.core.CausalClusteringSettings.transaction_listen_address;
 import static org.neo4j.causalclustering.discovery.ResolutionResolverFactory.chooseResolver;
 
@@ -249,7 +249,8 @@ public class EnterpriseReadReplicaEditionModule extends DefaultEditionModule
 
         Function<CatchUpResponseHandler,ChannelInitializer<SocketChannel>> channelInitializer = handler -> {
             ProtocolInstallerRepository<ProtocolInstaller.Orientation.Client> protocolInstallerRepository = new ProtocolInstallerRepository<>(
-                    singletonList( new CatchupProtocolClientInstaller.Factory( clientPipelineBuilderFactory, logProvider, handler ) ),
+                    asList( new CatchupProtocolClientInstaller.Factory( ApplicationProtocols.CATCHUP_1, clientPipelineBuilderFactory, logProvider, handler ),
+                            new CatchupProtocolClientInstaller.Factory( ApplicationProtocols.CATCHUP_2, clientPipelineBuilderFactory, logProvider, handler ) ),
                     ModifierProtocolInstaller.allClientInstallers );
             Duration handshakeTimeout = config.get( CausalClusteringSettings.handshake_timeout );
             return new HandshakeClientInitializer( applicationProtocolRepository, modifierProtocolRepository, protocolInstallerRepository,
@@ -42,6 +42,7 @@ import org.neo4j.causalclustering.catchup.CatchupServerHandler;
 import org.neo4j.causalclustering.catchup.CatchupServerProtocol;
 import org.neo4j.causalclustering.catchup.ResponseMessageType;
 import org.neo4j.causalclustering.identity.StoreId;
+import org.neo4j.causalclustering.protocol.Protocol.ApplicationProtocol;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
@@ -155,7 +156,7 @@ class TestCatchupServerHandler implements CatchupServerHandler
     }
 
     @Override
-    public ChannelHandler txPullRequestHandler( CatchupServerProtocol catchupServerProtocol )
+    public ChannelHandler txPullRequestHandler( CatchupServerProtocol catchupServerProtocol, ApplicationProtocol applicationProtocol )
     {
         return new ChannelInboundHandlerAdapter();
     }
@@ -55,6 +55,7 @@ import org.neo4j.logging.NullLogProvider;
 import org.neo4j.ports.allocation.PortAuthority;
 import org.neo4j.scheduler.Group;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.neo4j.causalclustering.protocol.Protocol.ApplicationProtocolCategory.CATCHUP;
@@ -93,11 +94,13 @@ class TestCatchupServer extends Server
                 () -> storeId, dataSource, availability, fileSystem, null, checkPointerService );
 
         NettyPipelineBuilderFactory pipelineBuilder = new NettyPipelineBuilderFactory( VoidPipelineWrapperFactory.VOID_WRAPPER );
-        CatchupProtocolServerInstaller.Factory catchupProtocolServerInstaller = new CatchupProtocolServerInstaller.Factory( pipelineBuilder, logProvider,
-                catchupServerHandler );
+        CatchupProtocolServerInstaller.Factory catchupProtocolServerInstallerV1 = new CatchupProtocolServerInstaller.Factory( ApplicationProtocols.CATCHUP_1,
+                pipelineBuilder, logProvider, catchupServerHandler );
+        CatchupProtocolServerInstaller.Factory catchupProtocolServerInstallerV2 = new CatchupProtocolServerInstaller.Factory( ApplicationProtocols.CATCHUP_2,
+                pipelineBuilder, logProvider, catchupServerHandler );
 
         ProtocolInstallerRepository<ProtocolInstaller.Orientation.Server> protocolInstallerRepository = new ProtocolInstallerRepository<>(
-                singletonList( catchupProtocolServerInstaller ), ModifierProtocolInstaller.allServerInstallers );
+                asList( catchupProtocolServerInstallerV1, catchupProtocolServerInstallerV2 ), ModifierProtocolInstaller.allServerInstallers );
 
         return new HandshakeServerInitializer( catchupRepository, modifierRepository, protocolInstallerRepository, pipelineBuilder, logProvider );
     }
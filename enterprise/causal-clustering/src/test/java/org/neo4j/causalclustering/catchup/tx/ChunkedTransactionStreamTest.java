@@ -25,6 +25,7 @@ package org.neo4j.causalclustering.catchup.tx;
 import io.netty.buffer.ByteBufAllocator;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -34,6 +35,8 @@ import org.neo4j.causalclustering.catchup.ResponseMessageType;
 import org.neo4j.causalclustering.identity.StoreId;
 import org.neo4j.cursor.IOCursor;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.MappedTransactionLogReader;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
 import org.neo4j.logging.NullLog;
 
@@ -42,6 +45,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.AdditionalAnswers.returnsElementsOf;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.neo4j.causalclustering.catchup.CatchupResult.E_TRANSACTION_PRUNED;
@@ -102,6 +106,39 @@ public class ChunkedTransactionStreamTest
         testTransactionStream( firstTxId, lastTxId, txIdPromise, SUCCESS_END_OF_STREAM );
     }
 
+    @Test
+    public void shouldStreamTransactionBytesAndReopenCursorWhenBytesUnavailable() throws Exception
+    {
+        // given
+        int firstTxId = baseTxId + 1;
+        MappedTransactionLogReader txLogReader = mock( MappedTransactionLogReader.class );
+        LogicalTransactionStore txStore = mock( LogicalTransactionStore.class );
+        IOCursor<CommittedTransactionRepresentation> reopenedCursor = mock( IOCursor.class );
+        ByteBuffer firstTxBytes = ByteBuffer.wrap( new byte[]{1, 2, 3} );
+        when( txLogReader.transactionBytes( firstTxId ) ).thenReturn( firstTxBytes );
+        when( txStore.getTransactions( firstTxId + 1 ) ).thenReturn( reopenedCursor );
+        when( reopenedCursor.next() ).thenReturn( true, false );
+        CommittedTransactionRepresentation secondTx = tx( firstTxId + 1 );
+        when( reopenedCursor.get() ).thenReturn( secondTx );
+
+        ChunkedTransactionStream txStream = new ChunkedTransactionStream( NullLog.getInstance(), storeId, firstTxId, firstTxId + 1,
+                cursor, protocol, txLogReader, txStore );
+
+        // when/then
+        assertEquals( ResponseMessageType.TX, txStream.readChunk( allocator ) );
+        assertEquals( new TxPullResponse( storeId, firstTxBytes ), txStream.readChunk( allocator ) );
+        assertEquals( ResponseMessageType.TX, txStream.readChunk( allocator ) );
+        assertEquals( new TxPullResponse( storeId, secondTx ), txStream.readChunk( allocator ) );
+        assertEquals( ResponseMessageType.TX_STREAM_FINISHED, txStream.readChunk( allocator ) );
+        assertEquals( new TxStreamFinishedResponse( SUCCESS_END_OF_STREAM, firstTxId + 1 ), txStream.readChunk( allocator ) );
+        assertTrue( txStream.isEndOfInput() );
+
+        txStream.close();
+        verify( cursor, never() ).next();
+        verify( cursor ).close();
+        verify( reopenedCursor ).close();
+    }
+
     @SuppressWarnings( "SameParameterValue" )
     private void testTransactionStream( int firstTxId, int lastTxId, int txIdPromise, CatchupResult expectedResult ) throws Exception
     {
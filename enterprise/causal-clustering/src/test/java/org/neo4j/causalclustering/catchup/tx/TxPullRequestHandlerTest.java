@@ -22,10 +22,13 @@
  */
 package org.neo4j.causalclustering.catchup.tx;
 
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.verification.VerificationMode;
 
 import org.neo4j.causalclustering.catchup.CatchupServerProtocol;
 import org.neo4j.causalclustering.catchup.ResponseMessageType;
@@ -37,6 +40,7 @@ import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.command.Commands;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.MappedTransactionLogReader;
 import org.neo4j.kernel.impl.transaction.log.NoSuchTransactionException;
 import org.neo4j.kernel.impl.transaction.log.TransactionCursor;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
@@ -47,6 +51,7 @@ import org.neo4j.logging.AssertableLogProvider;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -175,6 +180,34 @@ public class TxPullRequestHandlerTest
                 .info( "Failed to serve TxPullRequest for tx %d because the local database is unavailable.", 2L ) );
     }
 
+    @Test
+    public void shouldOnlySendRawLogBytesToClientsThatReadCompressedLogEntries() throws Exception
+    {
+        assertRawLogBytesRead( false, never() );
+        assertRawLogBytesRead( true, atLeastOnce() );
+    }
+
+    private void assertRawLogBytesRead( boolean sendRawLogBytes, VerificationMode mode ) throws Exception
+    {
+        // given
+        MappedTransactionLogReader mappedTransactionLogReader = mock( MappedTransactionLogReader.class );
+        when( datasource.getDependencyResolver().resolveDependency( MappedTransactionLogReader.class ) ).thenReturn( mappedTransactionLogReader );
+        when( logicalTransactionStore.getTransactions( 14L ) ).thenReturn( txCursor( cursor( tx( 14 ), tx( 15 ) ) ) );
+        ChannelHandlerContext context = mock( ChannelHandlerContext.class );
+        when( context.writeAndFlush( any() ) ).thenReturn( mock( ChannelFuture.class ) );
+        TxPullRequestHandler txPullRequestHandler = new TxPullRequestHandler( new CatchupServerProtocol(), () -> storeId, () -> true,
+                () -> datasource, new Monitors(), logProvider, sendRawLogBytes );
+
+        // when
+        txPullRequestHandler.channelRead0( context, new TxPullRequest( 13, storeId ) );
+        ArgumentCaptor<ChunkedTransactionStream> txStream = ArgumentCaptor.forClass( ChunkedTransactionStream.class );
+        verify( context ).writeAndFlush( txStream.capture() );
+        txStream.getValue().readChunk( ByteBufAllocator.DEFAULT );
+
+        // then
+        verify( mappedTransactionLogReader, mode ).transactionBytes( 14L );
+    }
+
     private static CommittedTransactionRepresentation tx( int id )
     {
         return new CommittedTransactionRepresentation(
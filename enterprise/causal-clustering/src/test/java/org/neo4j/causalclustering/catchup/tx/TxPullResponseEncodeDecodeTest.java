@@ -22,10 +22,15 @@
  */
 package org.neo4j.causalclustering.catchup.tx;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.embedded.EmbeddedChannel;
 import org.junit.Test;
 
+import java.io.IOException;
+
 import org.neo4j.causalclustering.identity.StoreId;
+import org.neo4j.causalclustering.messaging.NetworkWritableChannel;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.command.Command;
@@ -34,6 +39,7 @@ import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommand;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryStart;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
 
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
@@ -59,6 +65,26 @@ public class TxPullResponseEncodeDecodeTest
         assertEquals( sent, received );
     }
 
+    @Test
+    public void shouldEncodeTransactionBytesAndDecodeTransaction() throws IOException
+    {
+        // given
+        EmbeddedChannel channel = new EmbeddedChannel( new TxPullResponseEncoder(), new TxPullResponseDecoder() );
+        StoreId storeId = new StoreId( 1, 2, 3, 4 );
+        CommittedTransactionRepresentation tx = newCommittedTransactionRepresentation();
+        ByteBuf txBytes = Unpooled.buffer();
+        new LogEntryWriter( new NetworkWritableChannel( txBytes ) ).serialize( tx );
+
+        // when
+        channel.writeOutbound( new TxPullResponse( storeId, txBytes.nioBuffer() ) );
+        Object message = channel.readOutbound();
+        channel.writeInbound( message );
+
+        // then
+        TxPullResponse received = channel.readInbound();
+        assertEquals( new TxPullResponse( storeId, tx ), received );
+    }
+
     private CommittedTransactionRepresentation newCommittedTransactionRepresentation()
     {
         final long arbitraryRecordId = 27L;
@@ -98,12 +98,24 @@ public class ExternallyManagedPageCache implements PageCache
         delegate.flushAndForce( limiter );
     }
 
+    @Override
+    public void writeBackOldPages( IOLimiter limiter ) throws IOException
+    {
+        delegate.writeBackOldPages( limiter );
+    }
+
     @Override
     public int pageSize()
     {
         return delegate.pageSize();
     }
 
+    @Override
+    public int maxPageSize()
+    {
+        return delegate.maxPageSize();
+    }
+
     @Override
     public long maxCachedPages()
     {
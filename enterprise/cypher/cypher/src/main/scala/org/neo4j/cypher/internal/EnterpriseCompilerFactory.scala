@@ -23,6 +23,7 @@
 package org.neo4j.cypher.internal
 
 import java.time.Clock
+import java.util.concurrent.ForkJoinPool
 
 import org.neo4j.cypher.internal.compatibility.v3_4.Cypher34Planner
 import org.neo4j.cypher.internal.compatibility.v3_6.Cypher35Planner
@@ -104,7 +105,7 @@ case class RuntimeEnvironment(config:CypherRuntimeConfiguration, jobScheduler: J
 
   def getDispatcher(debugOptions: Set[String]): Dispatcher =
     if (singleThreadedRequested(debugOptions) && !isAlreadySingleThreaded)
-      new Dispatcher(config.morselSize, new SingleThreadScheduler())
+      new Dispatcher(config.morselSize, new SingleThreadScheduler(), 1)
     else
       dispatcher
 
@@ -113,14 +114,17 @@ case class RuntimeEnvironment(config:CypherRuntimeConfiguration, jobScheduler: J
   private def isAlreadySingleThreaded = config.workers == 1
 
   private def createDispatcher(): Dispatcher = {
+    val numberOfThreads = if (config.workers == 0) java.lang.Runtime.getRuntime.availableProcessors() else config.workers
     val scheduler =
       if (config.workers == 1) new SingleThreadScheduler()
       else {
-        val numberOfThreads = if (config.workers == 0) java.lang.Runtime.getRuntime.availableProcessors() else config.workers
         val executorService = jobScheduler.workStealingExecutor(Group.CYPHER_WORKER, numberOfThreads)
-        new SimpleScheduler(executorService, config.waitTimeout)
+        executorService match {
+          case pool: ForkJoinPool if config.scheduler == "work_stealing" => new WorkStealingScheduler(pool)
+          case _ => new SimpleScheduler(executorService, config.waitTimeout)
+        }
       }
-    new Dispatcher(config.morselSize, scheduler)
+    new Dispatcher(config.morselSize, scheduler, numberOfThreads)
   }
 
   private def createTracer(): SchedulerTracer = {
@@ -43,6 +43,15 @@ class CsvStdOutDataWriter extends DataPointWriter {
   override def write(dp: DataPoint): Unit =
     sb ++= serialize(dp)
 
+  override def writeStatistics(queryId: Int, statistics: SchedulerStatistics): Unit =
+    println("query %d: %d work units, %d steals, %d workers, %.1f%% utilization, %d us".format(
+      queryId,
+      statistics.workUnits,
+      statistics.steals,
+      statistics.workers,
+      statistics.utilization * 100,
+      TimeUnit.NANOSECONDS.toMicros(statistics.elapsedTime)))
+
   private def serialize(dataPoint: DataPoint): String =
     Array(
       dataPoint.id.toString,
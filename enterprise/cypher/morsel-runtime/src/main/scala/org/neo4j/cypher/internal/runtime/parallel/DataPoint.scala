@@ -54,6 +54,11 @@ trait DataPointWriter {
     */
   def write(dataPoint: DataPoint): Unit
 
+  /**
+    * Write the scheduler statistics of a query
+    */
+  def writeStatistics(queryId: Int, statistics: SchedulerStatistics): Unit
+
   /**
     * Flush buffered data points
     */
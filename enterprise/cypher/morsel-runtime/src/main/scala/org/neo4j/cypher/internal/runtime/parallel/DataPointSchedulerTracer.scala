@@ -43,6 +43,9 @@ class DataPointSchedulerTracer(dataPointWriter: DataPointWriter) extends Schedul
       ScheduledWorkUnit(upstreamWorkUnitId, queryId, scheduledTime, schedulingThread, task)
     }
 
+    override def reportStatistics(statistics: SchedulerStatistics): Unit =
+      dataPointWriter.writeStatistics(queryId, statistics)
+
     override def stopQuery(): Unit =
       dataPointWriter.flush()
   }
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.parallel
+
+/**
+  * Statistics of how a scheduler executed the work units of a query.
+  *
+  * @param workUnits number of work units that were executed.
+  * @param steals number of work units that were executed by another worker than the one that scheduled them.
+  * @param workers number of workers that the scheduler has.
+  * @param elapsedTime nanoseconds from the start of the query until all its work units were done.
+  * @param busyTimeByWorker nanoseconds spent executing work units, by id of the worker thread.
+  */
+case class SchedulerStatistics(workUnits: Long,
+                               steals: Long,
+                               workers: Int,
+                               elapsedTime: Long,
+                               busyTimeByWorker: Map[Long, Long]) {
+
+  /**
+    * The fraction of the elapsed time that the workers, taken together, spent executing work units.
+    */
+  def utilization: Double =
+    if (elapsedTime <= 0 || workers <= 0) 0.0
+    else busyTimeByWorker.values.sum.toDouble / (elapsedTime.toDouble * workers)
+
+  /**
+    * The fraction of the elapsed time that the given worker spent executing work units.
+    */
+  def utilization(workerId: Long): Double =
+    if (elapsedTime <= 0) 0.0
+    else busyTimeByWorker.getOrElse(workerId, 0L).toDouble / elapsedTime
+}
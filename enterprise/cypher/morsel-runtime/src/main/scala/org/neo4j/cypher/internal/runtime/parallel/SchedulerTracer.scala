@@ -42,6 +42,11 @@ trait QueryExecutionTracer {
     */
   def scheduleWorkUnit(task: Task, upstreamWorkUnitEvent: Option[WorkUnitEvent]): ScheduledWorkUnitEvent
 
+  /**
+    * Statistics of how the scheduler executed this query execution, reported right before its end
+    */
+  def reportStatistics(statistics: SchedulerStatistics): Unit
+
   /**
     * End of query execution
     */
@@ -82,6 +87,7 @@ object SchedulerTracer {
 
   val NoQueryExecutionTracer: QueryExecutionTracer = new QueryExecutionTracer {
     override def scheduleWorkUnit(task: Task, upstreamWorkUnitEvent: Option[WorkUnitEvent]): ScheduledWorkUnitEvent = NoScheduledWorkUnitEvent
+    override def reportStatistics(statistics: SchedulerStatistics): Unit = {}
     override def stopQuery(): Unit = {}
   }
 
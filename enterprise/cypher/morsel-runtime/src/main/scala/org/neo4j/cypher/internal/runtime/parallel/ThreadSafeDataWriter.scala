@@ -47,6 +47,10 @@ class ThreadSafeDataWriter(delegate: DataPointWriter,
     }
   }
 
+  override def writeStatistics(queryId: Int, statistics: SchedulerStatistics): Unit = synchronized {
+    delegate.writeStatistics(queryId, statistics)
+  }
+
   /**
     * Flush all data to the inner data writer.
     * <br/>
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.parallel
+
+import java.util.concurrent.atomic.{AtomicLong, AtomicReference}
+import java.util.concurrent.{ConcurrentHashMap, CountDownLatch, ForkJoinPool, ForkJoinWorkerThread, RecursiveAction}
+
+import scala.collection.JavaConverters._
+
+/**
+  * A work-stealing implementation of the Scheduler trait, running work units on the workers of a [[ForkJoinPool]].
+  *
+  * Work units scheduled by a worker are pushed on the deque of that worker. Since the pool is expected to run the
+  * deques of its workers in LIFO order, the downstream tasks of a work unit run before the continuation of its task,
+  * on the same worker, which pushes morsels through the pipelines depth first and bounds the number of morsels that
+  * are alive at any time. Workers that run out of work steal from the other end of the deques of the others.
+  */
+class WorkStealingScheduler(pool: ForkJoinPool) extends Scheduler {
+
+  override def execute(task: Task, tracer: SchedulerTracer): QueryExecution = {
+    val queryExecution = new WorkStealingQueryExecution(tracer.traceQuery())
+    queryExecution.schedule(task, None)
+    queryExecution
+  }
+
+  def isMultiThreaded: Boolean = true
+
+  private def isWorker(thread: Thread): Boolean = thread match {
+    case worker: ForkJoinWorkerThread => worker.getPool eq pool
+    case _ => false
+  }
+
+  class WorkStealingQueryExecution(queryTracer: QueryExecutionTracer) extends QueryExecution {
+
+    private val startTime = System.nanoTime()
+    private val inFlightWorkUnits = new AtomicLong(0)
+    private val completed = new CountDownLatch(1)
+    private val failure = new AtomicReference[Throwable]()
+
+    private val workUnits = new AtomicLong(0)
+    private val steals = new AtomicLong(0)
+    private val busyTimeByWorker = new ConcurrentHashMap[java.lang.Long, AtomicLong]()
+
+    def schedule(task: Task, upstreamWorkUnit: Option[WorkUnitEvent]): Unit = {
+      inFlightWorkUnits.incrementAndGet()
+      val scheduledWorkUnitEvent = queryTracer.scheduleWorkUnit(task, upstreamWorkUnit)
+      val workUnit = new WorkUnit(task, scheduledWorkUnitEvent, Thread.currentThread())
+      if (isWorker(Thread.currentThread()))
+        workUnit.fork()
+      else
+        pool.execute(workUnit)
+    }
+
+    override def await(): Option[Throwable] = {
+      completed.await()
+      queryTracer.reportStatistics(statistics())
+      queryTracer.stopQuery()
+      Option(failure.get())
+    }
+
+    private def statistics(): SchedulerStatistics =
+      SchedulerStatistics(workUnits.get(),
+                          steals.get(),
+                          pool.getParallelism,
+                          System.nanoTime() - startTime,
+                          busyTimeByWorker.asScala.map {
+                            case (worker, busyTime) => worker.longValue() -> busyTime.get()
+                          }.toMap)
+
+    private def recordBusyTime(worker: Thread, time: Long): Unit = {
+      val workerId = java.lang.Long.valueOf(worker.getId)
+      var busyTime = busyTimeByWorker.get(workerId)
+      if (busyTime == null) {
+        val newBusyTime = new AtomicLong()
+        busyTime = busyTimeByWorker.putIfAbsent(workerId, newBusyTime)
+        if (busyTime == null)
+          busyTime = newBusyTime
+      }
+      busyTime.addAndGet(time)
+    }
+
+    class WorkUnit(task: Task, scheduledWorkUnitEvent: ScheduledWorkUnitEvent, scheduledBy: Thread) extends RecursiveAction {
+
+      override def compute(): Unit = {
+        try {
+          // Once the query has failed, the remaining work units are only counted down
+          if (failure.get() == null) {
+            val worker = Thread.currentThread()
+            if ((worker ne scheduledBy) && isWorker(scheduledBy))
+              steals.incrementAndGet()
+
+            val workUnitEvent = scheduledWorkUnitEvent.start()
+            val start = System.nanoTime()
+            val downstreamTasks =
+              try {
+                task.executeWorkUnit()
+              } finally {
+                workUnitEvent.stop()
+                recordBusyTime(worker, System.nanoTime() - start)
+              }
+            workUnits.incrementAndGet()
+
+            // Scheduled last, so that the downstream tasks are the first to be picked up by this worker
+            if (task.canContinue)
+              schedule(task, Some(workUnitEvent))
+            for (newTask <- downstreamTasks)
+              schedule(newTask, Some(workUnitEvent))
+          }
+        } catch {
+          case t: Throwable =>
+            failure.compareAndSet(null, t)
+            completed.countDown()
+        } finally {
+          if (inFlightWorkUnits.decrementAndGet() == 0)
+            completed.countDown()
+        }
+      }
+    }
+  }
+}
@@ -23,11 +23,18 @@
 package org.neo4j.cypher.internal.runtime.vectorized
 
 import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.CSVResources
 import org.neo4j.cypher.internal.runtime.parallel.{Scheduler, SchedulerTracer, SingleThreadScheduler}
 import org.neo4j.cypher.result.QueryResult.QueryResultVisitor
 import org.neo4j.values.virtual.MapValue
 
-class Dispatcher(morselSize: Int, scheduler: Scheduler) {
+/**
+  * Executes morsel pipelines on the given scheduler.
+  *
+  * @param numberOfWorkers the number of threads of the scheduler, which is the number of partitions leaf scans are
+  *                        split into.
+  */
+class Dispatcher(morselSize: Int, scheduler: Scheduler, numberOfWorkers: Int) {
 
   def execute[E <: Exception](operators: Pipeline,
                               queryContext: QueryContext,
@@ -36,8 +43,13 @@ class Dispatcher(morselSize: Int, scheduler: Scheduler) {
                              (visitor: QueryResultVisitor[E]): Unit = {
     val leaf = getLeaf(operators)
 
-    val state = QueryState(params, visitor, morselSize, singeThreaded = scheduler.isInstanceOf[SingleThreadScheduler])
-    val initialTask = leaf.init(MorselExecutionContext.EMPTY, queryContext, state)
+    val state = QueryState(params,
+                           new CSVResources(queryContext.resources),
+                           visitor,
+                           morselSize,
+                           singeThreaded = scheduler.isInstanceOf[SingleThreadScheduler])
+    val parallelism = if (state.singeThreaded) 1 else numberOfWorkers
+    val initialTask = leaf.initQuery(queryContext, state, parallelism)
     val queryExecution = scheduler.execute(initialTask, schedulerTracer)
     val maybeError = queryExecution.await()
     if (maybeError.isDefined)
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized
+
+import java.util.concurrent.ConcurrentHashMap
+
+import org.neo4j.cypher.internal.v3_6.util.attribution.Id
+
+/**
+  * Holds the mutable state of operators, that is shared between all the tasks of one query execution. Operators are
+  * immutable and shared between executions, so operators that need to coordinate their tasks, like the build side of
+  * a hash join or a limit, keep their state here, under the id of their logical plan.
+  */
+class OperatorStates {
+
+  private val states = new ConcurrentHashMap[Id, AnyRef]()
+
+  /**
+    * Get the state of the given operator, creating it if this is the first task to ask for it. If several tasks race
+    * to create the state, only one of the created states wins, and is returned to all of them.
+    */
+  def getOrCreate[T <: AnyRef](id: Id, create: => T): T = {
+    val existing = states.get(id)
+    if (existing != null)
+      existing.asInstanceOf[T]
+    else {
+      val created = create
+      val raced = states.putIfAbsent(id, created)
+      if (raced == null) created else raced.asInstanceOf[T]
+    }
+  }
+
+  /**
+    * Get the state of the given operator, if any task has created it yet.
+    */
+  def get[T <: AnyRef](id: Id): Option[T] = Option(states.get(id).asInstanceOf[T])
+}
@@ -34,6 +34,15 @@ import scala.collection.mutable.ArrayBuffer
 
 object Pipeline {
   private[vectorized] val DEBUG = false
+
+  /**
+    * Checks if any of the given operators drops all further rows, see [[TerminatingOperator]].
+    */
+  private[vectorized] def anyTerminated(operators: Seq[OperatorTask], state: QueryState): Boolean =
+    operators.exists {
+      case operator: TerminatingOperator => operator.isTerminated(state)
+      case _ => false
+    }
 }
 
 /**
@@ -59,6 +68,26 @@ abstract class Pipeline() {
   var downstreamReduce: Option[ReducePipeline] = None
   def endPipeline: Boolean = downstream.isEmpty
 
+  /**
+    * The first pipeline of the chain of pipelines that ends in this one.
+    */
+  def leaf: StreamingPipeline = upstream match {
+    case Some(pipeline) => pipeline.leaf
+    case None => this.asInstanceOf[StreamingPipeline]
+  }
+
+  /**
+    * Checks if this pipeline, or any pipeline upstream of it, is a [[ReducePipeline]].
+    */
+  def containsReduce: Boolean = this.isInstanceOf[ReducePipeline] || upstream.exists(_.containsReduce)
+
+  /**
+    * Checks if an operator of this pipeline, or of any pipeline downstream of it, drops all further rows. If so, there
+    * is no point in producing any more rows in this pipeline.
+    */
+  def isTerminated(state: QueryState): Boolean =
+    Pipeline.anyTerminated(operators, state) || downstream.exists(_.isTerminated(state))
+
   /**
     * Walks the tree, setting parent information everywhere so we can push up the tree
     */
@@ -115,12 +144,22 @@ case class PipelineTask(start: ContinuableOperatorTask,
                         state: QueryState,
                         downstream: Option[Pipeline]) extends Task {
 
+  // Decided once per work unit, since the reduce collector must learn exactly once that this task is done
+  private var _canContinue = true
+
   override def executeWorkUnit(): Seq[Task] = {
-    val outputMorsel = Morsel.create(slots, state.morselSize)
-    val currentRow = new MorselExecutionContext(outputMorsel, slots.numberOfLongs, slots.numberOfReferences, 0)
     val queryContext =
       if (state.singeThreaded) originalQueryContext
       else originalQueryContext.createNewQueryContext()
+
+    if (isTerminated) {
+      // No more rows are wanted from this pipeline, so stop without producing any
+      _canContinue = false
+      return completed(Nil, queryContext)
+    }
+
+    val outputMorsel = Morsel.create(slots, state.morselSize)
+    val currentRow = new MorselExecutionContext(outputMorsel, slots.numberOfLongs, slots.numberOfReferences, 0)
     start.operate(currentRow, queryContext, state)
 
     for (op <- operators) {
@@ -148,33 +187,98 @@ case class PipelineTask(start: ContinuableOperatorTask,
     currentRow.resetToFirstRow()
     val downstreamTasks = downstream.map(_.acceptMorsel(currentRow, queryContext, state)).getOrElse(Nil)
 
+    _canContinue = start.canContinue && !isTerminated
+    completed(downstreamTasks, queryContext)
+  }
+
+  private def completed(downstreamTasks: Seq[Task], queryContext: QueryContext): Seq[Task] =
     state.reduceCollector match {
-      case Some(x) if !start.canContinue =>
+      case Some(x) if !_canContinue =>
         downstreamTasks ++ x.produceTaskCompleted(name, queryContext, state)
 
       case _ =>
         downstreamTasks
     }
-  }
 
-  override def canContinue: Boolean = start.canContinue
+  private def isTerminated: Boolean =
+    Pipeline.anyTerminated(operators, state) || downstream.exists(_.isTerminated(state))
+
+  override def canContinue: Boolean = _canContinue
 
   override def toString: String = name
 }
 
+/**
+  * A [[Task]] with nothing to do but handing the given tasks over to the scheduler, used to start several tasks at once.
+  */
+case class FanOutTask(tasks: Seq[Task]) extends Task {
+
+  override def executeWorkUnit(): Seq[Task] = tasks
+
+  override def canContinue: Boolean = false
+
+  override def toString: String = s"FanOut(${tasks.size})"
+}
+
 /**
   * A streaming pipeline.
   */
 class StreamingPipeline(start: StreamingOperator,
                         override val slots: SlotConfiguration,
-                        override val upstream: Option[Pipeline]) extends Pipeline {
+                        private var source: Option[Pipeline]) extends Pipeline {
+
+  // If true, the start operator is initialized once for every row of the incoming morsels, instead of once for every
+  // morsel. This is what the leaf of the rhs of an Apply needs, since every lhs row is an argument of its own.
+  private var perArgumentRow = false
+
+  override def upstream: Option[Pipeline] = source
+
+  /**
+    * Make this leaf pipeline consume the morsels of the given pipeline, instead of being started by the [[Dispatcher]].
+    * This is how plans with two children are turned into a chain of pipelines, which the existing task and reduce
+    * bookkeeping can handle.
+    *
+    * @param argumentPipeline the pipeline that produces the arguments of this pipeline.
+    * @param perArgumentRow if true, start this pipeline once for every row of every incoming morsel. Otherwise, start it
+    *                       once for every incoming morsel.
+    */
+  def attachTo(argumentPipeline: Pipeline, perArgumentRow: Boolean): Unit = {
+    if (source.isDefined)
+      throw new IllegalStateException(s"$this is not a leaf pipeline")
+    this.source = Some(argumentPipeline)
+    this.perArgumentRow = perArgumentRow
+  }
 
   def init(inputMorsel: MorselExecutionContext, context: QueryContext, state: QueryState): PipelineTask = {
     initTask(start.init(context, state, inputMorsel), context, state)
   }
 
+  /**
+    * Initialize this pipeline as the one starting the query. If the start operator is a [[PartitionedScanOperator]],
+    * its scan is split over up to `parallelism` tasks, which share the reduce collector of the query.
+    */
+  def initQuery(context: QueryContext, state: QueryState, parallelism: Int): Task = start match {
+    case scan: PartitionedScanOperator if parallelism > 1 =>
+      val partitions = scan.initPartitions(context, state, MorselExecutionContext.EMPTY, parallelism)
+      val first = initTask(partitions.head, context, state)
+      FanOutTask(first +: partitions.tail.map(pipelineTask(_, context, first.state)))
+
+    case _ =>
+      init(MorselExecutionContext.EMPTY, context, state)
+  }
+
   override def acceptMorsel(inputMorsel: MorselExecutionContext, context: QueryContext, state: QueryState): Seq[Task] =
-    List(pipelineTask(start.init(context, state, inputMorsel), context, state))
+    if (perArgumentRow) {
+      val tasks = new ArrayBuffer[Task](inputMorsel.numberOfRows)
+      while (inputMorsel.hasMoreRows) {
+        val argument = inputMorsel.createClone()
+        tasks += pipelineTask(start.init(context, state, argument), context, state)
+        inputMorsel.moveToNextRow()
+      }
+      tasks
+    }
+    else
+      List(pipelineTask(start.init(context, state, inputMorsel), context, state))
 
   override def toString: String = {
     val x = (start +: operators).map(x => x.getClass.getSimpleName)
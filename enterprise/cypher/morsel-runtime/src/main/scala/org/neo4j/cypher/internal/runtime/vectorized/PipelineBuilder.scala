@@ -23,9 +23,11 @@
 package org.neo4j.cypher.internal.runtime.vectorized
 
 import org.neo4j.cypher.internal.compatibility.v3_6.runtime.SlotAllocation.PhysicalPlan
-import org.neo4j.cypher.internal.compatibility.v3_6.runtime.{RefSlot, SlottedIndexedProperty}
+import org.neo4j.cypher.internal.compatibility.v3_6.runtime.{LongSlot, RefSlot, SlotConfiguration, SlottedIndexedProperty}
 import org.neo4j.cypher.internal.compiler.v3_6.planner.CantCompileQueryException
+import org.neo4j.cypher.internal.ir.v3_6.VarPatternLength
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverters
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.{Predicate, True}
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.{IndexSeekModeFactory, LazyLabel, LazyTypes}
 import org.neo4j.cypher.internal.runtime.slotted.SlottedPipeBuilder.translateColumnOrder
 import org.neo4j.cypher.internal.runtime.vectorized.expressions.AggregationExpressionOperator
@@ -33,7 +35,10 @@ import org.neo4j.cypher.internal.runtime.vectorized.operators._
 import org.neo4j.cypher.internal.v3_6.logical.plans
 import org.neo4j.cypher.internal.v3_6.logical.plans._
 import org.neo4j.cypher.internal.v3_6.ast.semantics.SemanticTable
+import org.neo4j.cypher.internal.v3_6.expressions.Equals
+import org.neo4j.cypher.internal.v3_6.util.Foldable._
 import org.neo4j.cypher.internal.v3_6.util.InternalException
+import org.neo4j.cypher.internal.v3_6.util.attribution.Id
 
 class PipelineBuilder(physicalPlan: PhysicalPlan, converters: ExpressionConverters, readOnly: Boolean)
   extends TreeBuilder[Pipeline] {
@@ -125,6 +130,54 @@ class PipelineBuilder(physicalPlan: PhysicalPlan, converters: ExpressionConverte
           val lazyTypes = LazyTypes(types.toArray)(SemanticTable())
           new ExpandAllOperator(fromOffset, relOffset, toOffset, dir, lazyTypes)
 
+        case plans.Expand(lhs, fromName, dir, types, to, relName, ExpandInto) =>
+          val fromOffset = slots.getLongOffsetFor(fromName)
+          val relOffset = slots.getLongOffsetFor(relName)
+          val toOffset = slots.getLongOffsetFor(to)
+          val lazyTypes = LazyTypes(types.toArray)(SemanticTable())
+          new ExpandIntoOperator(fromOffset, relOffset, toOffset, dir, lazyTypes)
+
+        case plans.OptionalExpand(_, fromName, dir, types, to, relName, mode, predicates) =>
+          val fromOffset = slots.getLongOffsetFor(fromName)
+          val relOffset = slots.getLongOffsetFor(relName)
+          val toOffset = slots.getLongOffsetFor(to)
+          val lazyTypes = LazyTypes(types.toArray)(SemanticTable())
+          val predicate: Predicate = predicates.map(converters.toCommandPredicate(id, _)).reduceOption(_ andWith _).getOrElse(True())
+          new OptionalExpandOperator(fromOffset, relOffset, toOffset, dir, lazyTypes, mode, predicate)
+
+        case plans.VarExpand(sourcePlan, fromName, dir, projectedDir, types, to, relName,
+                             VarPatternLength(min, max), mode, tempNode, tempEdge, nodePredicate, edgePredicate, _) =>
+          // The node/edge predicates are evaluated on the source pipeline, not the produced one
+          val sourceSlots = physicalPlan.slotConfigurations(sourcePlan.id)
+          val argumentSize = SlotConfiguration.Size(sourceSlots.numberOfLongs - 2, sourceSlots.numberOfReferences)
+          new VarExpandOperator(
+            slots.getLongOffsetFor(fromName),
+            slots.getReferenceOffsetFor(relName),
+            slots.getLongOffsetFor(to),
+            dir,
+            projectedDir,
+            LazyTypes(types.toArray)(SemanticTable()),
+            min,
+            max,
+            shouldExpandAll = mode == ExpandAll,
+            tempNodeOffset = sourceSlots.getLongOffsetFor(tempNode),
+            tempEdgeOffset = sourceSlots.getLongOffsetFor(tempEdge),
+            nodePredicate = converters.toCommandPredicate(id, nodePredicate),
+            edgePredicate = converters.toCommandPredicate(id, edgePredicate),
+            argumentSize = argumentSize)
+
+        case plans.Limit(_, count, DoNotIncludeTies) =>
+          new LimitOperator(id, converters.toCommandExpression(id, count))
+
+        case plans.Skip(_, count) =>
+          new SkipOperator(id, converters.toCommandExpression(id, count))
+
+        case plans.Distinct(_, groupingExpressions) =>
+          val groupings = groupingExpressions.map {
+            case (key, e) => slots(key) -> converters.toCommandExpression(id, e)
+          }.toArray
+          new DistinctOperator(id, groupings)
+
         case plans.Projection(_, expressions) =>
           val projectionOps = expressions.map {
             case (key, e) => slots(key) -> converters.toCommandExpression(id, e)
@@ -209,9 +262,96 @@ class PipelineBuilder(physicalPlan: PhysicalPlan, converters: ExpressionConverte
   }
 
   override protected def build(plan: LogicalPlan, lhs: Pipeline, rhs: Pipeline): Pipeline = {
-    val slots = physicalPlan.slotConfigurations(plan.id)
+    val id = plan.id
+    val slots = physicalPlan.slotConfigurations(id)
+    val argumentSize = physicalPlan.argumentSizes(id)
+
+    plan match {
+      case plans.Apply(_, rhsPlan) =>
+        // Operators that count or remember rows share their state over all tasks of the query, which would be wrong
+        // when they run once for every argument row.
+        if (rhs.containsReduce || rhsPlan.treeExists { case _: Limit | _: Skip | _: Distinct => true })
+          throw new CantCompileQueryException(s"$plan not supported in morsel runtime")
+        rhs.leaf.attachTo(lhs, perArgumentRow = true)
+        rhs
+
+      case plans.NodeHashJoin(nodes, _, rhsPlan) =>
+        val nodesInOrder = nodes.toArray
+        val rhsSlots = physicalPlan.slotConfigurations(rhsPlan.id)
+        val copyLongsFromRHS = collection.mutable.ArrayBuffer.newBuilder[(Int,Int)]
+        val copyRefsFromRHS = collection.mutable.ArrayBuffer.newBuilder[(Int,Int)]
+
+        // The LHS row is copied to the first slots of the produced row, followed by the RHS columns that are not
+        // part of the join comparison
+        rhsSlots.foreachSlotOrdered({
+          case (key, LongSlot(offset, _, _)) if offset >= argumentSize.nLongs =>
+            copyLongsFromRHS += ((offset, slots.getLongOffsetFor(key)))
+          case (key, RefSlot(offset, _, _)) if offset >= argumentSize.nReferences =>
+            copyRefsFromRHS += ((offset, slots.getReferenceOffsetFor(key)))
+          case _ => // do nothing, already added by lhs
+        }, { cnp =>
+          val offset = rhsSlots.getCachedNodePropertyOffsetFor(cnp)
+          if (offset >= argumentSize.nReferences)
+            copyRefsFromRHS += ((offset, slots.getCachedNodePropertyOffsetFor(cnp)))
+        })
+
+        hashJoin(id, slots, lhs, rhs,
+          NodeKey(nodesInOrder.map(slots.getLongOffsetFor)),
+          NodeKey(nodesInOrder.map(rhsSlots.getLongOffsetFor)),
+          copyLongsFromRHS.result().toArray,
+          copyRefsFromRHS.result().toArray)
+
+      case plans.ValueHashJoin(lhsPlan, rhsPlan, Equals(lhsExpression, rhsExpression)) =>
+        val (longsToCopy, refsToCopy) = copyArgumentFreeColumns(argumentSize, lhsPlan, rhsPlan)
+        hashJoin(id, slots, lhs, rhs,
+          ValueKey(converters.toCommandExpression(id, lhsExpression)),
+          ValueKey(converters.toCommandExpression(id, rhsExpression)),
+          longsToCopy,
+          refsToCopy)
+
+      case plans.CartesianProduct(lhsPlan, rhsPlan) =>
+        val (longsToCopy, refsToCopy) = copyArgumentFreeColumns(argumentSize, lhsPlan, rhsPlan)
+        hashJoin(id, slots, lhs, rhs, CartesianKey, CartesianKey, longsToCopy, refsToCopy)
+
+      case _ =>
+        throw new CantCompileQueryException(s"$plan not supported in morsel runtime")
+    }
+  }
+
+  /**
+    * Builds the lhs into a shared hash table, and once all of it is built, starts the rhs and probes the table with its
+    * rows. The rhs is attached behind a barrier on the lhs, so that the whole join is a single chain of pipelines.
+    */
+  private def hashJoin(id: Id,
+                       slots: SlotConfiguration,
+                       lhs: Pipeline,
+                       rhs: Pipeline,
+                       buildKey: HashJoinKey,
+                       probeKey: HashJoinKey,
+                       longsToCopy: Array[(Int, Int)],
+                       refsToCopy: Array[(Int, Int)]): Pipeline = {
+    if (rhs.containsReduce)
+      throw new CantCompileQueryException(s"Hash joins with eager right hand sides are not supported in morsel runtime")
+
+    lhs.addOperator(new HashJoinBuildOperator(id, buildKey))
+    val build = new ReducePipeline(new HashJoinBarrierOperator, lhs.slots, Some(lhs))
+    rhs.leaf.attachTo(build, perArgumentRow = false)
+    new StreamingPipeline(new HashJoinProbeOperator(id, probeKey, longsToCopy, refsToCopy), slots, Some(rhs))
+  }
 
-    throw new CantCompileQueryException(s"$plan not supported in morsel runtime")
+  /**
+    * The rhs columns, except the arguments which are identical to the lhs ones, go right after the lhs columns.
+    */
+  private def copyArgumentFreeColumns(argumentSize: SlotConfiguration.Size,
+                                      lhsPlan: LogicalPlan,
+                                      rhsPlan: LogicalPlan): (Array[(Int, Int)], Array[(Int, Int)]) = {
+    val lhsSlots = physicalPlan.slotConfigurations(lhsPlan.id)
+    val rhsSlots = physicalPlan.slotConfigurations(rhsPlan.id)
+    val longsToCopy = (argumentSize.nLongs until rhsSlots.numberOfLongs).map(
+      offset => (offset, lhsSlots.numberOfLongs + offset - argumentSize.nLongs)).toArray
+    val refsToCopy = (argumentSize.nReferences until rhsSlots.numberOfReferences).map(
+      offset => (offset, lhsSlots.numberOfReferences + offset - argumentSize.nReferences)).toArray
+    (longsToCopy, refsToCopy)
   }
 }
 
@@ -22,18 +22,21 @@
  */
 package org.neo4j.cypher.internal.runtime.vectorized
 
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExternalCSVResource
 import org.neo4j.cypher.result.QueryResult.QueryResultVisitor
 import org.neo4j.values.virtual.{MapValue, VirtualValues}
 
 object QueryState {
-  val EMPTY = QueryState(VirtualValues.EMPTY_MAP, null, 10000, singeThreaded = true)
+  val EMPTY = QueryState(VirtualValues.EMPTY_MAP, null, null, 10000, singeThreaded = true)
 }
 
 /**
   * The query state of the morsel runtime
   */
 case class QueryState(params: MapValue,
+                      resources: ExternalCSVResource,
                       visitor: QueryResultVisitor[_],
                       morselSize: Int,
                       singeThreaded: Boolean, // hack until we solve [Transaction 1 - * Threads] problem
-                      reduceCollector: Option[ReduceCollector] = None)
+                      reduceCollector: Option[ReduceCollector] = None,
+                      operatorStates: OperatorStates = new OperatorStates)
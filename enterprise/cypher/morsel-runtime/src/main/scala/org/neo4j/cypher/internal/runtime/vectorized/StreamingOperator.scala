@@ -36,6 +36,19 @@ trait StreamingOperator {
   def init(context: QueryContext, state: QueryState, inputMorsel: MorselExecutionContext): ContinuableOperatorTask
 }
 
+/**
+  * A [[StreamingOperator]] scanning the graph, which can split its scan into partitions. When it starts the whole
+  * query, [[PartitionedScanOperator#initPartitions]] is used instead of [[StreamingOperator#init]] and the
+  * resulting tasks are executed in parallel, each of them reserving batches of the scan until it is exhausted.
+  * Together the partitions produce the same rows as [[StreamingOperator#init]] would, in an undefined order.
+  */
+trait PartitionedScanOperator extends StreamingOperator {
+  def initPartitions(context: QueryContext,
+                     state: QueryState,
+                     inputMorsel: MorselExecutionContext,
+                     numberOfPartitions: Int): IndexedSeq[ContinuableOperatorTask]
+}
+
 /**
   * Physical immutable operator. [[ReduceOperator#init]] is thread-safe, and creates a [[ContinuableOperatorTask]]
   * which can be executed.
@@ -53,6 +66,15 @@ trait ReduceOperator {
   */
 trait StatelessOperator extends OperatorTask
 
+/**
+  * A [[StatelessOperator]] which can tell when it will drop all further rows, like a limit that has let through all
+  * of its rows. Once it does, the tasks of its pipeline and of all pipelines upstream of it stop, instead of producing
+  * rows that would only be dropped.
+  */
+trait TerminatingOperator extends StatelessOperator {
+  def isTerminated(state: QueryState): Boolean
+}
+
 /**
   * Operator related task.
   */
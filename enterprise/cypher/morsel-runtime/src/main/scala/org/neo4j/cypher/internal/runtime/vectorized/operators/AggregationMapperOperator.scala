@@ -49,7 +49,7 @@ class AggregationMapperOperator(aggregations: Array[AggregationOffsets],
 
     val result = mutable.LinkedHashMap[AnyValue, Array[(Int,AggregationMapper)]]()
 
-    val queryState = new OldQueryState(context, resources = null, params = state.params)
+    val queryState = new OldQueryState(context, resources = state.resources, params = state.params)
 
     //loop over the entire morsel and apply the aggregation
     while (currentRow.hasMoreRows) {
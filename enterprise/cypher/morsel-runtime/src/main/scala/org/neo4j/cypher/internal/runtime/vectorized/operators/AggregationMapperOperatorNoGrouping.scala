@@ -39,7 +39,7 @@ class AggregationMapperOperatorNoGrouping(aggregations: Array[AggregationOffsets
                        state: QueryState): Unit = {
 
     val aggregationMappers = aggregations.map(_.aggregation.createAggregationMapper)
-    val queryState = new OldQueryState(context, resources = null, params = state.params)
+    val queryState = new OldQueryState(context, resources = state.resources, params = state.params)
 
     //loop over the entire morsel and apply the aggregation
     while (currentRow.hasMoreRows) {
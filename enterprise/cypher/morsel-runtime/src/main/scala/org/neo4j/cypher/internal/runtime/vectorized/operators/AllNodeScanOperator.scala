@@ -25,9 +25,9 @@ package org.neo4j.cypher.internal.runtime.vectorized.operators
 import org.neo4j.cypher.internal.compatibility.v3_6.runtime.SlotConfiguration
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.vectorized._
-import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.{NodeCursor, Scan}
 
-class AllNodeScanOperator(offset: Int, argumentSize: SlotConfiguration.Size) extends StreamingOperator {
+class AllNodeScanOperator(offset: Int, argumentSize: SlotConfiguration.Size) extends PartitionedScanOperator {
 
   override def init(queryContext: QueryContext,
                     state: QueryState,
@@ -37,6 +37,26 @@ class AllNodeScanOperator(offset: Int, argumentSize: SlotConfiguration.Size) ext
     new OTask(nodeCursor, inputMorsel)
   }
 
+  override def initPartitions(queryContext: QueryContext,
+                              state: QueryState,
+                              inputMorsel: MorselExecutionContext,
+                              numberOfPartitions: Int): IndexedSeq[ContinuableOperatorTask] = {
+    val scan = queryContext.transactionalContext.dataRead.allNodesScan()
+    for (_ <- 0 until numberOfPartitions) yield {
+      val nodeCursor = queryContext.transactionalContext.cursors.allocateNodeCursor()
+      new PartitionTask(scan, nodeCursor, inputMorsel, state.morselSize)
+    }
+  }
+
+  class PartitionTask(scan: Scan[NodeCursor], nodeCursor: NodeCursor, argument: MorselExecutionContext, batchSize: Int)
+    extends PartitionedScanTask[NodeCursor](scan, nodeCursor, batchSize) {
+
+    override protected def writeRow(currentRow: MorselExecutionContext, cursor: NodeCursor): Unit = {
+      currentRow.copyFrom(argument, argumentSize.nLongs, argumentSize.nReferences)
+      currentRow.setLongAt(offset, cursor.nodeReference())
+    }
+  }
+
   class OTask(var nodeCursor: NodeCursor, argument: MorselExecutionContext) extends ContinuableOperatorTask {
 
     var cursorHasMore = true
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import java.util
+import java.util.concurrent.ConcurrentHashMap
+
+import org.neo4j.cypher.internal.compatibility.v3_6.runtime.Slot
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.{QueryState => OldQueryState}
+import org.neo4j.cypher.internal.runtime.slotted.helpers.SlottedPipeBuilderUtils.makeSetValueInSlotFunctionFor
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.cypher.internal.v3_6.util.attribution.Id
+import org.neo4j.values.AnyValue
+import org.neo4j.values.virtual.VirtualValues
+
+/**
+  * Projects the grouping expressions of every input row, and only produces the rows whose projected values have not
+  * been seen before. The seen values are kept in a concurrent set that is shared by all tasks of the query, so a row
+  * is produced only once, no matter which task gets to it first.
+  */
+class DistinctOperator(id: Id, groupings: Array[(Slot, Expression)]) extends StreamingOperator {
+
+  private val expressions: Array[Expression] = groupings.map(_._2)
+  private val setters: Array[(MorselExecutionContext, AnyValue) => Unit] = groupings.map {
+    case (slot, _) => makeSetValueInSlotFunctionFor(slot)
+  }
+
+  override def init(context: QueryContext, state: QueryState, inputMorsel: MorselExecutionContext): ContinuableOperatorTask = {
+    val seen = state.operatorStates.getOrCreate(id, ConcurrentHashMap.newKeySet[AnyValue]())
+    new OTask(inputMorsel, seen)
+  }
+
+  class OTask(val inputRow: MorselExecutionContext, seen: util.Set[AnyValue]) extends ContinuableOperatorTask {
+
+    override def operate(outputRow: MorselExecutionContext,
+                         context: QueryContext,
+                         state: QueryState): Unit = {
+
+      val queryState = new OldQueryState(context, resources = state.resources, params = state.params)
+      val values = new Array[AnyValue](expressions.length)
+
+      while (inputRow.hasMoreRows && outputRow.hasMoreRows) {
+        var i = 0
+        while (i < expressions.length) {
+          values(i) = expressions(i)(inputRow, queryState)
+          i += 1
+        }
+
+        if (seen.add(VirtualValues.list(values: _*))) {
+          i = 0
+          while (i < setters.length) {
+            setters(i)(outputRow, values(i))
+            i += 1
+          }
+          outputRow.moveToNextRow()
+        }
+        inputRow.moveToNextRow()
+      }
+
+      outputRow.finishedWriting()
+    }
+
+    override def canContinue: Boolean = inputRow.hasMoreRows
+  }
+}
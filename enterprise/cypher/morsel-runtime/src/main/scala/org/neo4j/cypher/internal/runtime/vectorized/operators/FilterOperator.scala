@@ -38,7 +38,7 @@ class FilterOperator(predicate: Predicate) extends StatelessOperator {
                          state: QueryState): Unit = {
 
       val writingRow = readingRow.createClone()
-      val queryState = new OldQueryState(context, resources = null, params = state.params)
+      val queryState = new OldQueryState(context, resources = state.resources, params = state.params)
 
       while (readingRow.hasMoreRows) {
         val matches = predicate(readingRow, queryState) == Values.TRUE
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.{QueryState => OldQueryState}
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.cypher.internal.v3_6.util.attribution.Id
+
+/**
+  * Adds the rows of the build side of a hash join to the table that is shared by all tasks of the query. The rows
+  * are kept as references into their morsels, which are not written to again once they have passed this operator.
+  */
+class HashJoinBuildOperator(tableId: Id, buildKey: HashJoinKey) extends StatelessOperator {
+
+  override def operate(currentRow: MorselExecutionContext,
+                       context: QueryContext,
+                       state: QueryState): Unit = {
+
+    val table = state.operatorStates.getOrCreate(tableId, new HashJoinTable)
+    val queryState = new OldQueryState(context, resources = state.resources, params = state.params)
+
+    while (currentRow.hasMoreRows) {
+      val key = buildKey(currentRow, queryState)
+      if (key != null)
+        table.add(key, currentRow.createClone())
+      currentRow.moveToNextRow()
+    }
+  }
+}
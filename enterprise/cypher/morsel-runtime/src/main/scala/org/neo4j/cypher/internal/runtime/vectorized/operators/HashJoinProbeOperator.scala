@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import java.util
+
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.{QueryState => OldQueryState}
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.cypher.internal.v3_6.util.attribution.Id
+
+/**
+  * Probes the table built by [[HashJoinBuildOperator]] with the rows of the probe side of a hash join. Every output row
+  * is the matching build side row, followed by the columns of the probe side row that the build side does not have.
+  *
+  * @param longsToCopy pairs of (probe side offset, output offset) of the longs to copy from the probe side row.
+  * @param refsToCopy pairs of (probe side offset, output offset) of the references to copy from the probe side row.
+  */
+class HashJoinProbeOperator(tableId: Id,
+                            probeKey: HashJoinKey,
+                            longsToCopy: Array[(Int, Int)],
+                            refsToCopy: Array[(Int, Int)]) extends StreamingOperator {
+
+  override def init(context: QueryContext, state: QueryState, inputMorsel: MorselExecutionContext): ContinuableOperatorTask =
+    new OTask(inputMorsel, state.operatorStates.getOrCreate(tableId, new HashJoinTable))
+
+  class OTask(val inputRow: MorselExecutionContext, table: HashJoinTable) extends ContinuableOperatorTask {
+
+    var matches: util.Iterator[MorselExecutionContext] = _
+
+    override def operate(outputRow: MorselExecutionContext,
+                         context: QueryContext,
+                         state: QueryState): Unit = {
+
+      val queryState = new OldQueryState(context, resources = state.resources, params = state.params)
+
+      while ((matches != null || inputRow.hasMoreRows) && outputRow.hasMoreRows) {
+        if (matches == null) {
+          val key = probeKey(inputRow, queryState)
+          if (key == null) inputRow.moveToNextRow()
+          else matches = table.get(key)
+        } else {
+          while (outputRow.hasMoreRows && matches.hasNext) {
+            outputRow.copyFrom(matches.next())
+            copyColumns(outputRow)
+            outputRow.moveToNextRow()
+          }
+
+          if (!matches.hasNext) {
+            matches = null
+            inputRow.moveToNextRow()
+          }
+        }
+      }
+      outputRow.finishedWriting()
+    }
+
+    private def copyColumns(outputRow: MorselExecutionContext): Unit = {
+      var i = 0
+      while (i < longsToCopy.length) {
+        val (from, to) = longsToCopy(i)
+        outputRow.setLongAt(to, inputRow.getLongAt(from))
+        i += 1
+      }
+      i = 0
+      while (i < refsToCopy.length) {
+        val (from, to) = refsToCopy(i)
+        outputRow.setRefAt(to, inputRow.getRefAt(from))
+        i += 1
+      }
+    }
+
+    override def canContinue: Boolean = inputRow.hasMoreRows || matches != null
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import java.util
+import java.util.concurrent.{ConcurrentHashMap, ConcurrentLinkedQueue}
+
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.{QueryState => OldQueryState}
+import org.neo4j.cypher.internal.runtime.slotted.helpers.NullChecker.entityIsNull
+import org.neo4j.cypher.internal.runtime.slotted.pipes.Key
+import org.neo4j.cypher.internal.runtime.vectorized.MorselExecutionContext
+import org.neo4j.values.storable.Values
+
+/**
+  * The build side of a hash join. Rows are added by all the tasks of the build side at the same time, so the table
+  * is concurrent, and it is only probed once all of them have completed.
+  */
+class HashJoinTable {
+
+  private val table = new ConcurrentHashMap[AnyRef, ConcurrentLinkedQueue[MorselExecutionContext]]()
+
+  def add(key: AnyRef, row: MorselExecutionContext): Unit = {
+    var rows = table.get(key)
+    if (rows == null) {
+      val newRows = new ConcurrentLinkedQueue[MorselExecutionContext]()
+      rows = table.putIfAbsent(key, newRows)
+      if (rows == null)
+        rows = newRows
+    }
+    rows.add(row)
+  }
+
+  def get(key: AnyRef): util.Iterator[MorselExecutionContext] = {
+    val rows = table.get(key)
+    if (rows == null) util.Collections.emptyIterator() else rows.iterator()
+  }
+}
+
+/**
+  * Computes the key a row is joined on, or null if the row can't match anything.
+  */
+trait HashJoinKey {
+  def apply(row: MorselExecutionContext, queryState: OldQueryState): AnyRef
+}
+
+/**
+  * Joins on the ids of one or more nodes.
+  */
+case class NodeKey(offsets: Array[Int]) extends HashJoinKey {
+
+  override def apply(row: MorselExecutionContext, queryState: OldQueryState): AnyRef = {
+    if (offsets.length == 1) {
+      val node = row.getLongAt(offsets(0))
+      if (entityIsNull(node)) null else Long.box(node)
+    } else {
+      val nodes = new Array[Long](offsets.length)
+      var i = 0
+      while (i < offsets.length) {
+        val node = row.getLongAt(offsets(i))
+        if (entityIsNull(node))
+          return null
+        nodes(i) = node
+        i += 1
+      }
+      new Key(nodes)
+    }
+  }
+}
+
+/**
+  * Joins on the value of an expression.
+  */
+case class ValueKey(expression: Expression) extends HashJoinKey {
+
+  override def apply(row: MorselExecutionContext, queryState: OldQueryState): AnyRef = {
+    val value = expression(row, queryState)
+    if (value == Values.NO_VALUE) null else value
+  }
+}
+
+/**
+  * Joins every row with every other row, which makes a cartesian product.
+  */
+case object CartesianKey extends HashJoinKey {
+
+  private val key = new AnyRef
+
+  override def apply(row: MorselExecutionContext, queryState: OldQueryState): AnyRef = key
+}
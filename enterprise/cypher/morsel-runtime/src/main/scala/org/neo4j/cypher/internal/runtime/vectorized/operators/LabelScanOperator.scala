@@ -26,10 +26,10 @@ import org.neo4j.cypher.internal.compatibility.v3_6.runtime.SlotConfiguration
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyLabel
 import org.neo4j.cypher.internal.runtime.vectorized._
-import org.neo4j.internal.kernel.api.NodeLabelIndexCursor
+import org.neo4j.internal.kernel.api.{NodeLabelIndexCursor, Scan}
 
 class LabelScanOperator(offset: Int, label: LazyLabel, argumentSize: SlotConfiguration.Size)
-  extends NodeIndexOperator[NodeLabelIndexCursor](offset) {
+  extends NodeIndexOperator[NodeLabelIndexCursor](offset) with PartitionedScanOperator {
 
   override def init(context: QueryContext, state: QueryState, inputMorsel: MorselExecutionContext): ContinuableOperatorTask = {
     val cursor = context.transactionalContext.cursors.allocateNodeLabelIndexCursor()
@@ -39,6 +39,25 @@ class LabelScanOperator(offset: Int, label: LazyLabel, argumentSize: SlotConfigu
     new OTask(cursor)
   }
 
+  override def initPartitions(context: QueryContext,
+                              state: QueryState,
+                              inputMorsel: MorselExecutionContext,
+                              numberOfPartitions: Int): IndexedSeq[ContinuableOperatorTask] = {
+    val labelId = label.getOptId(context)
+    val scan = context.transactionalContext.dataRead.nodeLabelScan(labelId.get.id)
+    for (_ <- 0 until numberOfPartitions) yield {
+      val cursor = context.transactionalContext.cursors.allocateNodeLabelIndexCursor()
+      new PartitionTask(scan, cursor, state.morselSize)
+    }
+  }
+
+  class PartitionTask(scan: Scan[NodeLabelIndexCursor], nodeCursor: NodeLabelIndexCursor, batchSize: Int)
+    extends PartitionedScanTask[NodeLabelIndexCursor](scan, nodeCursor, batchSize) {
+
+    override protected def writeRow(currentRow: MorselExecutionContext, cursor: NodeLabelIndexCursor): Unit =
+      currentRow.setLongAt(offset, cursor.nodeReference())
+  }
+
   class OTask(nodeCursor: NodeLabelIndexCursor) extends ContinuableOperatorTask {
 
     var hasMore = false
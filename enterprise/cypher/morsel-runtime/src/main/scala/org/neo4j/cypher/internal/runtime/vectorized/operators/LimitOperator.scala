@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.{QueryState => OldQueryState}
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.cypher.internal.v3_6.util.attribution.Id
+import org.neo4j.values.storable.NumberValue
+
+/**
+  * Lets through no more than the given number of rows, counted over all morsels of the query. Every morsel takes as many
+  * rows as it can from a counter that is shared by all tasks of the query, and drops the rest of its rows. Once the
+  * counter runs out, upstream tasks are told to stop, see [[TerminatingOperator]].
+  */
+class LimitOperator(id: Id, countExpression: Expression) extends TerminatingOperator {
+
+  override def operate(currentRow: MorselExecutionContext,
+                       context: QueryContext,
+                       state: QueryState): Unit = {
+
+    val counter = state.operatorStates.getOrCreate(id, {
+      val queryState = new OldQueryState(context, resources = state.resources, params = state.params)
+      new RowCounter(countExpression(currentRow, queryState).asInstanceOf[NumberValue].longValue())
+    })
+
+    currentRow.moveToRow(counter.reserve(currentRow.numberOfRows))
+    currentRow.finishedWriting()
+  }
+
+  override def isTerminated(state: QueryState): Boolean =
+    state.operatorStates.get[RowCounter](id).exists(_.isExhausted)
+}
@@ -51,7 +51,7 @@ class MergeSortOperator(orderBy: Seq[ColumnOrder],
 
     val limit = countExpression.map { count =>
       val firstRow = sortedInputs.peek()
-      val queryState = new OldQueryState(queryContext, resources = null, params = state.params)
+      val queryState = new OldQueryState(queryContext, resources = state.resources, params = state.params)
       count(firstRow, queryState).asInstanceOf[NumberValue].longValue()
     }
 
@@ -58,7 +58,7 @@ class NodeIndexContainsScanOperator(nodeOffset: Int,
       var nullExpression: Boolean = false
 
       if (!hasMore) {
-        val queryState = new OldQueryState(context, resources = null, params = state.params)
+        val queryState = new OldQueryState(context, resources = state.resources, params = state.params)
         val value = valueExpr(currentRow, queryState)
 
         value match {
@@ -27,7 +27,14 @@ import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.vectorized._
 import org.neo4j.internal.kernel.api.{IndexOrder, IndexReference, NodeValueIndexCursor}
 
-
+/**
+  * Scans a property index with a single cursor. Unlike the all-node and label scans, this is not a
+  * [[PartitionedScanOperator]], because the kernel has no [[org.neo4j.internal.kernel.api.Scan]] for property indexes.
+  * The index readers, native GBPTree ones as well as fusion and Lucene ones, can only seek one query range per cursor,
+  * and have no way of splitting a scan into key ranges up front. Partitioning would need the native readers to hand
+  * out sub-ranges between keys sampled from the tree, and fusion readers to do so for each of their parts, so until
+  * then a multi-threaded query scans its index from one task.
+  */
 class NodeIndexScanOperator(nodeOffset: Int,
                             label: Int,
                             property: SlottedIndexedProperty,
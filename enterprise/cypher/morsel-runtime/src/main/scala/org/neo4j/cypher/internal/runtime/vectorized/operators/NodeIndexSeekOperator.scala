@@ -46,7 +46,7 @@ class NodeIndexSeekOperator(offset: Int,
   private val needsValues: Boolean = indexPropertyIndices.nonEmpty
 
   override def init(context: QueryContext, state: QueryState, currentRow: MorselExecutionContext): ContinuableOperatorTask = {
-    val queryState = new OldQueryState(context, resources = null, params = state.params)
+    val queryState = new OldQueryState(context, resources = state.resources, params = state.params)
     val indexReference = reference(context)
     val nodeCursor = indexSeek(queryState, indexReference, needsValues, indexOrder, currentRow)
     new OTask(nodeCursor)
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.{LazyTypes, QueryState => OldQueryState}
+import org.neo4j.cypher.internal.runtime.slotted.helpers.NullChecker.entityIsNull
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.cypher.internal.v3_6.expressions.SemanticDirection
+import org.neo4j.cypher.internal.v3_6.logical.plans.{ExpandAll, ExpansionMode}
+import org.neo4j.internal.kernel.api.helpers.RelationshipSelectionCursor
+
+/**
+  * Expands like ExpandAllOperator or ExpandIntoOperator, depending on the mode, but produces the input row with nulls
+  * for the relationship (and the to-node, when expanding all) if no relationship matches the predicate.
+  */
+class OptionalExpandOperator(fromOffset: Int,
+                             relOffset: Int,
+                             toOffset: Int,
+                             dir: SemanticDirection,
+                             types: LazyTypes,
+                             mode: ExpansionMode,
+                             predicate: Predicate) extends StreamingOperator {
+
+  private val expandAll = mode == ExpandAll
+
+  override def init(queryContext: QueryContext, state: QueryState, inputMorsel: MorselExecutionContext): ContinuableOperatorTask =
+    new OTask(inputMorsel)
+
+  class OTask(val inputRow: MorselExecutionContext) extends ContinuableOperatorTask {
+
+    var relationships: RelationshipSelectionCursor = _
+    var matched = false
+
+    override def operate(outputRow: MorselExecutionContext,
+                         context: QueryContext,
+                         state: QueryState): Unit = {
+
+      val queryState = new OldQueryState(context, resources = state.resources, params = state.params)
+
+      while ((relationships != null || inputRow.hasMoreRows) && outputRow.hasMoreRows) {
+
+        val fromNode = inputRow.getLongAt(fromOffset)
+        val toNode = if (expandAll) -1L else inputRow.getLongAt(toOffset)
+        if (entityIsNull(fromNode) || (!expandAll && entityIsNull(toNode))) {
+          writeNullRow(outputRow)
+          inputRow.moveToNextRow()
+        } else {
+          if (relationships == null) {
+            relationships = context.getRelationshipsCursor(fromNode, dir, types.types(context))
+            matched = false
+          }
+
+          var exhausted = false
+          while (outputRow.hasMoreRows && !exhausted) {
+            if (relationships.next()) {
+              val otherSide = relationships.otherNodeReference()
+              if (expandAll || otherSide == toNode) {
+                outputRow.copyFrom(inputRow)
+                outputRow.setLongAt(relOffset, relationships.relationshipReference())
+                if (expandAll) outputRow.setLongAt(toOffset, otherSide)
+                if (predicate.isTrue(outputRow, queryState)) {
+                  matched = true
+                  outputRow.moveToNextRow()
+                }
+              }
+            } else {
+              exhausted = true
+            }
+          }
+
+          if (exhausted) {
+            relationships.close()
+            relationships = null
+            if (!matched) writeNullRow(outputRow)
+            inputRow.moveToNextRow()
+          }
+        }
+      }
+      outputRow.finishedWriting()
+    }
+
+    private def writeNullRow(outputRow: MorselExecutionContext): Unit = {
+      outputRow.copyFrom(inputRow)
+      outputRow.setLongAt(relOffset, -1)
+      if (expandAll) outputRow.setLongAt(toOffset, -1)
+      outputRow.moveToNextRow()
+    }
+
+    override def canContinue: Boolean = inputRow.hasMoreRows || relationships != null
+  }
+}
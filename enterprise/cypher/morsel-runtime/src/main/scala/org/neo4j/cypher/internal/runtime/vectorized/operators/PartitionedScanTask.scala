@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.internal.kernel.api.{Cursor, Scan}
+
+/**
+  * The task of one partition of a [[PartitionedScanOperator]]. Reserves batches of the shared scan, one at a time,
+  * until the scan is exhausted.
+  *
+  * @param scan the scan shared by all partitions
+  * @param cursor the cursor of this partition
+  * @param batchSize the number of entity ids to reserve per batch
+  */
+abstract class PartitionedScanTask[CURSOR <: Cursor](scan: Scan[CURSOR], cursor: CURSOR, batchSize: Int)
+  extends ContinuableOperatorTask {
+
+  private var scanHasMore = scan.reserveBatch(cursor, batchSize)
+
+  /**
+    * Write the entity the cursor is placed at to the current row.
+    */
+  protected def writeRow(currentRow: MorselExecutionContext, cursor: CURSOR): Unit
+
+  override def operate(currentRow: MorselExecutionContext,
+                       context: QueryContext,
+                       state: QueryState): Unit = {
+
+    while (currentRow.hasMoreRows && scanHasMore) {
+      if (cursor.next()) {
+        writeRow(currentRow, cursor)
+        currentRow.moveToNextRow()
+      }
+      else {
+        scanHasMore = scan.reserveBatch(cursor, batchSize)
+      }
+    }
+
+    currentRow.finishedWriting()
+
+    if (!scanHasMore) {
+      cursor.close()
+    }
+  }
+
+  override def canContinue: Boolean = scanHasMore
+}
@@ -56,7 +56,7 @@ class PreSortOperator(orderBy: Seq[ColumnOrder],
 
       // potentially calculate the limit
       val maybeLimit = countExpression.map { count =>
-        val queryState = new OldQueryState(context, resources = null, params = state.params)
+        val queryState = new OldQueryState(context, resources = state.resources, params = state.params)
         count(currentRow, queryState).asInstanceOf[NumberValue].longValue().toInt
       }
 
@@ -45,7 +45,7 @@ class ProjectOperator(val projectionOps: Map[Slot, Expression]) extends Stateles
   override def operate(currentRow: MorselExecutionContext,
                        context: QueryContext,
                        state: QueryState): Unit = {
-    val queryState = new OldQueryState(context, resources = null, params = state.params)
+    val queryState = new OldQueryState(context, resources = state.resources, params = state.params)
 
     while (currentRow.hasMoreRows) {
       project.foreach(p => p(currentRow, queryState))
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+  * A number of rows that is shared by all the tasks of a query, for operators like Limit and Skip that count rows over
+  * all morsels, rather than within a single morsel.
+  */
+class RowCounter(initialCount: Long) {
+
+  private val remaining = new AtomicLong(initialCount)
+
+  /**
+    * Take up to the wanted number of rows from the remaining count.
+    *
+    * @return the number of rows that were taken, which is less than the wanted number once the count runs out.
+    */
+  def reserve(wanted: Int): Int = {
+    var current = remaining.get()
+    var taken = math.min(current, wanted.toLong)
+    while (taken > 0 && !remaining.compareAndSet(current, current - taken)) {
+      current = remaining.get()
+      taken = math.min(current, wanted.toLong)
+    }
+    math.max(taken, 0L).toInt
+  }
+
+  /**
+    * @return true once all rows of the count have been taken.
+    */
+  def isExhausted: Boolean = remaining.get() <= 0
+}
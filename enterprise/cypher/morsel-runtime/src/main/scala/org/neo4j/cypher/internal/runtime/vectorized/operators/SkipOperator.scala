@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.{QueryState => OldQueryState}
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.cypher.internal.v3_6.util.attribution.Id
+import org.neo4j.values.storable.NumberValue
+
+/**
+  * Drops the given number of rows, counted over all morsels of the query. Every morsel takes as many rows as it can
+  * from a counter that is shared by all tasks of the query, and drops that many rows from its start.
+  */
+class SkipOperator(id: Id, countExpression: Expression) extends StatelessOperator {
+
+  override def operate(currentRow: MorselExecutionContext,
+                       context: QueryContext,
+                       state: QueryState): Unit = {
+
+    val counter = state.operatorStates.getOrCreate(id, {
+      val queryState = new OldQueryState(context, resources = state.resources, params = state.params)
+      new RowCounter(countExpression(currentRow, queryState).asInstanceOf[NumberValue].longValue())
+    })
+
+    val skipped = counter.reserve(currentRow.numberOfRows)
+    if (skipped > 0) {
+      // Move the remaining rows to the start of the morsel
+      val writingRow = currentRow.createClone()
+      currentRow.moveToRow(skipped)
+      while (currentRow.hasMoreRows) {
+        writingRow.copyFrom(currentRow)
+        writingRow.moveToNextRow()
+        currentRow.moveToNextRow()
+      }
+      writingRow.finishedWriting()
+    }
+  }
+}
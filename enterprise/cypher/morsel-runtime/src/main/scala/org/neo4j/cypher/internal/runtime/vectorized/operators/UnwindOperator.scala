@@ -34,7 +34,7 @@ class UnwindOperator(collection: Expression,
   extends StreamingOperator with ListSupport {
 
   override def init(context: QueryContext, state: QueryState, inputRow: MorselExecutionContext): ContinuableOperatorTask = {
-    val queryState = new InterpretedQueryState(context, resources = null, params = state.params)
+    val queryState = new InterpretedQueryState(context, resources = state.resources, params = state.params)
     val value = collection(inputRow, queryState)
     val unwoundValues = makeTraversable(value).iterator
     new OTask(inputRow, unwoundValues)
@@ -48,7 +48,7 @@ class UnwindOperator(collection: Expression,
                          context: QueryContext,
                          state: QueryState): Unit = {
 
-      val queryState = new InterpretedQueryState(context, resources = null, params = state.params)
+      val queryState = new InterpretedQueryState(context, resources = state.resources, params = state.params)
 
       do {
         if (unwoundValues == null) {
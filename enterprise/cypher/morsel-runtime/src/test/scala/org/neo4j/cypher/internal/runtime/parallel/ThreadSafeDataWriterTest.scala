@@ -135,6 +135,8 @@ class ThreadSafeDataWriterTest extends CypherFunSuite {
 
     override def write(dataPoint: DataPoint): Unit = points += dataPoint
 
+    override def writeStatistics(queryId: Int, statistics: SchedulerStatistics): Unit = {}
+
     override def flush(): Unit = {}
   }
 
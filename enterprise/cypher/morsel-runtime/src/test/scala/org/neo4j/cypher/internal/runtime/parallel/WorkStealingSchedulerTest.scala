@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.parallel
+
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.atomic.AtomicReference
+
+class WorkStealingSchedulerTest extends SchedulerTest {
+
+  override def newScheduler(maxConcurrency: Int): Scheduler =
+    new WorkStealingScheduler(new ForkJoinPool(maxConcurrency))
+
+  test("report statistics of the query execution") {
+    val s = newScheduler(4)
+
+    val reported = new AtomicReference[SchedulerStatistics]()
+    val tracer = new SchedulerTracer {
+      override def traceQuery(): QueryExecutionTracer = new QueryExecutionTracer {
+        override def scheduleWorkUnit(task: Task, upstreamWorkUnitEvent: Option[WorkUnitEvent]): ScheduledWorkUnitEvent =
+          SchedulerTracer.NoScheduledWorkUnitEvent
+        override def reportStatistics(statistics: SchedulerStatistics): Unit = reported.set(statistics)
+        override def stopQuery(): Unit = {}
+      }
+    }
+
+    val tasks = SubTasker((0 until 100).map(_ => NoopTask(() => Thread.sleep(1))))
+    s.execute(tasks, tracer).await() should be(None)
+
+    val statistics = reported.get()
+    statistics.workUnits should be(200)
+    statistics.workers should be(4)
+    statistics.steals should be <= statistics.workUnits
+    statistics.busyTimeByWorker.size should be <= 4
+    statistics.utilization should be > 0.0
+    statistics.utilization should be <= 1.0
+  }
+
+  test("report the failure of a work unit") {
+    val s = newScheduler(2)
+    val failure = new IllegalStateException("boom")
+
+    val tasks = SubTasker(List(
+      NoopTask(() => {}),
+      NoopTask(() => throw failure),
+      NoopTask(() => {})))
+
+    s.execute(tasks, SchedulerTracer.NoSchedulerTracer).await() should be(Some(failure))
+  }
+}
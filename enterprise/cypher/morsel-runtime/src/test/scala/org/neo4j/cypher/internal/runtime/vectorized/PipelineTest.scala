@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized
+
+import org.neo4j.cypher.internal.compatibility.v3_6.runtime.SlotConfiguration
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Literal
+import org.neo4j.cypher.internal.runtime.vectorized.operators.{ArgumentOperator, LimitOperator}
+import org.neo4j.values.AnyValue
+import org.neo4j.values.virtual.VirtualValues
+import org.neo4j.cypher.internal.v3_6.util.attribution.Id
+import org.neo4j.cypher.internal.v3_6.util.symbols.CTNode
+import org.neo4j.cypher.internal.v3_6.util.test_helpers.CypherFunSuite
+
+import scala.collection.mutable.ArrayBuffer
+
+class PipelineTest extends CypherFunSuite {
+
+  private val slots = SlotConfiguration.empty.newLong("n", nullable = false, CTNode)
+
+  test("apply should start its rhs once for every lhs row") {
+    val state = QueryState(VirtualValues.EMPTY_MAP, null, null, 10, singeThreaded = true)
+    val lhs = new StreamingPipeline(new CountingOperator, slots, None)
+    val rhs = new StreamingPipeline(new ArgumentOperator(SlotConfiguration.Size(1, 0)), slots, None)
+    val collector = new CollectingOperator
+    rhs.addOperator(collector)
+    rhs.attachTo(lhs, perArgumentRow = true)
+    rhs.construct
+
+    // When
+    val lhsRows = new Morsel(Array[Long](1, 2, 3), Array[AnyValue](), 3)
+    val tasks = rhs.acceptMorsel(MorselExecutionContext(lhsRows, 1, 0), null, state)
+
+    // Then
+    tasks should have size 3
+    tasks.foreach(task => {
+      task.executeWorkUnit() shouldBe empty
+      task.canContinue should be(false)
+    })
+    collector.rows should equal(Seq(1, 2, 3))
+  }
+
+  test("limit should stop the tasks of its pipeline once it has let through all of its rows") {
+    val state = QueryState(VirtualValues.EMPTY_MAP, null, null, 2, singeThreaded = true)
+    val pipeline = new StreamingPipeline(new CountingOperator, slots, None)
+    val collector = new CollectingOperator
+    pipeline.addOperator(new LimitOperator(Id(0), Literal(3)))
+    pipeline.addOperator(collector)
+    pipeline.construct
+
+    // When
+    val task = pipeline.init(MorselExecutionContext.EMPTY, null, state)
+    task.executeWorkUnit()
+
+    // Then
+    task.canContinue should be(true)
+
+    // And when
+    task.executeWorkUnit()
+
+    // Then
+    task.canContinue should be(false)
+    collector.rows should equal(Seq(0, 1, 2))
+  }
+
+  test("limit should terminate the pipelines upstream of it once it has let through all of its rows") {
+    val state = QueryState(VirtualValues.EMPTY_MAP, null, null, 2, singeThreaded = true)
+    val upstream = new StreamingPipeline(new CountingOperator, slots, None)
+    val downstream = new StreamingPipeline(new ArgumentOperator(SlotConfiguration.Size(1, 0)), slots, None)
+    val limit = new LimitOperator(Id(0), Literal(2))
+    downstream.addOperator(limit)
+    downstream.attachTo(upstream, perArgumentRow = true)
+    downstream.construct
+    upstream.isTerminated(state) should be(false)
+
+    // When
+    limit.operate(MorselExecutionContext(new Morsel(Array[Long](1, 2, 3), Array[AnyValue](), 3), 1, 0), null, state)
+
+    // Then
+    upstream.isTerminated(state) should be(true)
+    val task = upstream.init(MorselExecutionContext.EMPTY, null, state)
+    task.executeWorkUnit() shouldBe empty
+    task.canContinue should be(false)
+  }
+
+  /**
+    * Produces the numbers 0, 1, 2, ... for as long as it is asked to.
+    */
+  class CountingOperator extends StreamingOperator {
+    override def init(context: QueryContext, state: QueryState, inputMorsel: MorselExecutionContext): ContinuableOperatorTask =
+      new ContinuableOperatorTask {
+        private var next = 0L
+
+        override def operate(outputRow: MorselExecutionContext, context: QueryContext, state: QueryState): Unit = {
+          while (outputRow.hasMoreRows) {
+            outputRow.setLongAt(0, next)
+            next += 1
+            outputRow.moveToNextRow()
+          }
+          outputRow.finishedWriting()
+        }
+
+        override def canContinue: Boolean = true
+      }
+  }
+
+  /**
+    * Remembers the node ids of all rows it sees.
+    */
+  class CollectingOperator extends StatelessOperator {
+    val rows = new ArrayBuffer[Long]
+
+    override def operate(currentRow: MorselExecutionContext, context: QueryContext, state: QueryState): Unit =
+      while (currentRow.hasMoreRows) {
+        rows += currentRow.getLongAt(0)
+        currentRow.moveToNextRow()
+      }
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.neo4j.cypher.internal.compatibility.v3_6.runtime.RefSlot
+import org.neo4j.cypher.internal.runtime.slotted.expressions.ReferenceFromSlot
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values.stringValue
+import org.neo4j.values.virtual.VirtualValues
+import org.neo4j.cypher.internal.v3_6.util.attribution.Id
+import org.neo4j.cypher.internal.v3_6.util.symbols.CTAny
+import org.neo4j.cypher.internal.v3_6.util.test_helpers.CypherFunSuite
+
+class DistinctOperatorTest extends CypherFunSuite {
+
+  test("should only produce values that have not been seen, over several morsels") {
+    val in1 = new Morsel(Array[Long](),
+                         Array[AnyValue](stringValue("a"), stringValue("b"), stringValue("a"), stringValue("c")), 4)
+    val in2 = new Morsel(Array[Long](),
+                         Array[AnyValue](stringValue("c"), stringValue("d"), stringValue("b")), 3)
+    val out = new Morsel(Array[Long](), new Array[AnyValue](4), 4)
+    val state = QueryState(VirtualValues.EMPTY_MAP, null, null, 10000, singeThreaded = true)
+
+    val operator = new DistinctOperator(Id(0), Array(RefSlot(0, nullable = true, CTAny) -> ReferenceFromSlot(0)))
+
+    val task1 = operator.init(null, state, MorselExecutionContext(in1, 0, 1))
+    task1.operate(MorselExecutionContext(out, 0, 1), null, state)
+    task1.canContinue should be(false)
+    out.validRows shouldBe 3
+    out.refs.take(3) should equal(Array(stringValue("a"), stringValue("b"), stringValue("c")))
+
+    val task2 = operator.init(null, state, MorselExecutionContext(in2, 0, 1))
+    task2.operate(MorselExecutionContext(out, 0, 1), null, state)
+    task2.canContinue should be(false)
+    out.validRows shouldBe 1
+    out.refs.take(1) should equal(Array(stringValue("d")))
+  }
+}
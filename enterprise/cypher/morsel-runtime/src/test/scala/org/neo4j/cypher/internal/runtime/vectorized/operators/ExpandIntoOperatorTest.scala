@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.mockito.Mockito._
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyTypes
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.internal.kernel.api.helpers.RelationshipSelectionCursor
+import org.neo4j.values.AnyValue
+import org.neo4j.cypher.internal.v3_6.expressions.SemanticDirection
+import org.neo4j.cypher.internal.v3_6.util.test_helpers.CypherFunSuite
+
+class ExpandIntoOperatorTest extends CypherFunSuite {
+
+  test("should only produce the relationships that connect the from and to nodes") {
+    // input data: (from, to, rel)
+    val inputMorsel = new Morsel(
+      Array[Long](1, 2, 0,
+                  1, 3, 0,
+                  -1, 2, 0),
+      Array[AnyValue](),
+      3)
+    val outputMorsel = new Morsel(new Array[Long](3 * 4), Array[AnyValue](), 4)
+
+    // mock cursors, one for every expanded row
+    val context = mock[QueryContext]
+    val cursor1 = mock[RelationshipSelectionCursor]
+    val cursor2 = mock[RelationshipSelectionCursor]
+    when(cursor1.next()).thenReturn(true, true, false)
+    when(cursor1.otherNodeReference()).thenReturn(2, 3)
+    when(cursor1.relationshipReference()).thenReturn(10, 11)
+    when(cursor2.next()).thenReturn(true, true, false)
+    when(cursor2.otherNodeReference()).thenReturn(2, 3)
+    when(cursor2.relationshipReference()).thenReturn(10, 11)
+    when(context.getRelationshipsCursor(1, SemanticDirection.OUTGOING, None)).thenReturn(cursor1, cursor2)
+
+    // When
+    val operator = new ExpandIntoOperator(0, 2, 1, SemanticDirection.OUTGOING, LazyTypes.empty)
+    val task = operator.init(context, QueryState.EMPTY, MorselExecutionContext(inputMorsel, 3, 0))
+    task.operate(MorselExecutionContext(outputMorsel, 3, 0), context, QueryState.EMPTY)
+
+    // Then
+    outputMorsel.validRows should equal(2)
+    outputMorsel.longs.take(6) should equal(Array(
+      1, 2, 10,
+      1, 3, 11))
+    task.canContinue should be(false)
+  }
+
+  test("should continue where it left off when the output morsel is full") {
+    // input data: (from, to, rel)
+    val inputMorsel = new Morsel(Array[Long](1, 2, 0), Array[AnyValue](), 1)
+    val outputMorsel = new Morsel(new Array[Long](3), Array[AnyValue](), 1)
+
+    val context = mock[QueryContext]
+    val cursor = mock[RelationshipSelectionCursor]
+    when(cursor.next()).thenReturn(true, true, false)
+    when(cursor.otherNodeReference()).thenReturn(2, 2)
+    when(cursor.relationshipReference()).thenReturn(10, 11)
+    when(context.getRelationshipsCursor(1, SemanticDirection.OUTGOING, None)).thenReturn(cursor)
+
+    val operator = new ExpandIntoOperator(0, 2, 1, SemanticDirection.OUTGOING, LazyTypes.empty)
+    val task = operator.init(context, QueryState.EMPTY, MorselExecutionContext(inputMorsel, 3, 0))
+
+    // When
+    task.operate(MorselExecutionContext(outputMorsel, 3, 0), context, QueryState.EMPTY)
+
+    // Then
+    outputMorsel.longs should equal(Array(1, 2, 10))
+    task.canContinue should be(true)
+
+    // And when
+    task.operate(MorselExecutionContext(outputMorsel, 3, 0), context, QueryState.EMPTY)
+
+    // Then
+    outputMorsel.validRows should equal(1)
+    outputMorsel.longs should equal(Array(1, 2, 11))
+    task.canContinue should be(true)
+
+    // And when
+    task.operate(MorselExecutionContext(outputMorsel, 3, 0), context, QueryState.EMPTY)
+
+    // Then
+    outputMorsel.validRows should equal(0)
+    task.canContinue should be(false)
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.values.AnyValue
+import org.neo4j.values.virtual.VirtualValues
+import org.neo4j.cypher.internal.v3_6.util.attribution.Id
+import org.neo4j.cypher.internal.v3_6.util.test_helpers.CypherFunSuite
+
+class HashJoinOperatorTest extends CypherFunSuite {
+
+  test("should join the probe side rows with the build side rows on node id") {
+    val state = QueryState(VirtualValues.EMPTY_MAP, null, null, 10000, singeThreaded = true)
+
+    // build side: (n)
+    val build1 = new Morsel(Array[Long](1, 2), Array[AnyValue](), 2)
+    val build2 = new Morsel(Array[Long](3, -1), Array[AnyValue](), 2)
+    val buildOperator = new HashJoinBuildOperator(Id(0), NodeKey(Array(0)))
+    buildOperator.operate(MorselExecutionContext(build1, 1, 0), null, state)
+    buildOperator.operate(MorselExecutionContext(build2, 1, 0), null, state)
+
+    // probe side: (n, m)
+    val probe = new Morsel(Array[Long](2, 20, 3, 30, 3, 31, 4, 40, -1, 50), Array[AnyValue](), 5)
+    val out = new Morsel(new Array[Long](4), Array[AnyValue](), 2)
+    val probeOperator = new HashJoinProbeOperator(Id(0), NodeKey(Array(0)), Array((1, 1)), Array.empty)
+
+    val task = probeOperator.init(null, state, MorselExecutionContext(probe, 2, 0))
+    task.operate(MorselExecutionContext(out, 2, 0), null, state)
+    task.canContinue should be(true)
+    out.validRows shouldBe 2
+    out.longs should equal(Array[Long](2, 20, 3, 30))
+
+    task.operate(MorselExecutionContext(out, 2, 0), null, state)
+    task.canContinue should be(false)
+    out.validRows shouldBe 1
+    out.longs.take(2) should equal(Array[Long](3, 31))
+  }
+}
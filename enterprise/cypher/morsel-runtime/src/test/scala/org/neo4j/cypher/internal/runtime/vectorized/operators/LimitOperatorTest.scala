@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.{Literal, ParameterExpression}
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values.longValue
+import org.neo4j.values.virtual.VirtualValues
+import org.neo4j.cypher.internal.v3_6.util.attribution.Id
+import org.neo4j.cypher.internal.v3_6.util.test_helpers.CypherFunSuite
+
+class LimitOperatorTest extends CypherFunSuite {
+
+  test("limit within a single morsel") {
+    val longs = Array[Long](1, 2, 3, 4, 5, 6, 7, 8, 9)
+    val data = new Morsel(longs, Array[AnyValue](), longs.length)
+    val state = QueryState(VirtualValues.EMPTY_MAP, null, null, 10000, singeThreaded = true)
+
+    val operator = new LimitOperator(Id(0), Literal(3))
+    operator.operate(MorselExecutionContext(data, 1, 0), null, state)
+
+    data.longs.take(3) should equal(Array[Long](1, 2, 3))
+    data.validRows shouldBe 3
+  }
+
+  test("limit over several morsels") {
+    val longs1 = Array[Long](1, 2, 3, 4)
+    val longs2 = Array[Long](5, 6, 7, 8)
+    val longs3 = Array[Long](9, 10, 11, 12)
+    val data1 = new Morsel(longs1, Array[AnyValue](), longs1.length)
+    val data2 = new Morsel(longs2, Array[AnyValue](), longs2.length)
+    val data3 = new Morsel(longs3, Array[AnyValue](), longs3.length)
+    val state = QueryState(VirtualValues.EMPTY_MAP, null, null, 10000, singeThreaded = true)
+
+    val operator = new LimitOperator(Id(0), Literal(6))
+    operator.operate(MorselExecutionContext(data1, 1, 0), null, state)
+    operator.operate(MorselExecutionContext(data2, 1, 0), null, state)
+    operator.operate(MorselExecutionContext(data3, 1, 0), null, state)
+
+    data1.validRows shouldBe 4
+    data2.validRows shouldBe 2
+    data2.longs.take(2) should equal(Array[Long](5, 6))
+    data3.validRows shouldBe 0
+  }
+
+  test("limit by a parameter") {
+    val longs = Array[Long](1, 2, 3, 4, 5)
+    val data = new Morsel(longs, Array[AnyValue](), longs.length)
+    val params = VirtualValues.map(Array("n"), Array[AnyValue](longValue(2)))
+    val state = QueryState(params, null, null, 10000, singeThreaded = true)
+
+    val operator = new LimitOperator(Id(0), ParameterExpression("n"))
+    operator.operate(MorselExecutionContext(data, 1, 0), null, state)
+
+    data.longs.take(2) should equal(Array[Long](1, 2))
+    data.validRows shouldBe 2
+  }
+
+  test("limit should terminate once it has let through all of its rows") {
+    val data1 = new Morsel(Array[Long](1, 2), Array[AnyValue](), 2)
+    val data2 = new Morsel(Array[Long](3, 4), Array[AnyValue](), 2)
+    val state = QueryState(VirtualValues.EMPTY_MAP, null, null, 10000, singeThreaded = true)
+
+    val operator = new LimitOperator(Id(0), Literal(3))
+    operator.isTerminated(state) shouldBe false
+
+    operator.operate(MorselExecutionContext(data1, 1, 0), null, state)
+    operator.isTerminated(state) shouldBe false
+
+    operator.operate(MorselExecutionContext(data2, 1, 0), null, state)
+    operator.isTerminated(state) shouldBe true
+    data2.validRows shouldBe 1
+  }
+}
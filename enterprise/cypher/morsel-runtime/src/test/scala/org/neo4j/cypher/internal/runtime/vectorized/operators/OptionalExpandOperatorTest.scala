@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.mockito.Mockito._
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.True
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyTypes
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.internal.kernel.api.helpers.RelationshipSelectionCursor
+import org.neo4j.values.AnyValue
+import org.neo4j.cypher.internal.v3_6.expressions.SemanticDirection
+import org.neo4j.cypher.internal.v3_6.logical.plans.{ExpandAll, ExpandInto}
+import org.neo4j.cypher.internal.v3_6.util.test_helpers.CypherFunSuite
+
+class OptionalExpandOperatorTest extends CypherFunSuite {
+
+  test("should produce a null row for nodes without relationships when expanding all") {
+    // input data: (from, rel, to)
+    val inputMorsel = new Morsel(
+      Array[Long](1, 0, 0,
+                  2, 0, 0,
+                  -1, 0, 0),
+      Array[AnyValue](),
+      3)
+    val outputMorsel = new Morsel(new Array[Long](3 * 5), Array[AnyValue](), 5)
+
+    val context = mock[QueryContext]
+    val cursor1 = mock[RelationshipSelectionCursor]
+    val cursor2 = mock[RelationshipSelectionCursor]
+    when(cursor1.next()).thenReturn(true, true, false)
+    when(cursor1.otherNodeReference()).thenReturn(5, 6)
+    when(cursor1.relationshipReference()).thenReturn(10, 11)
+    when(cursor2.next()).thenReturn(false)
+    when(context.getRelationshipsCursor(1, SemanticDirection.OUTGOING, None)).thenReturn(cursor1)
+    when(context.getRelationshipsCursor(2, SemanticDirection.OUTGOING, None)).thenReturn(cursor2)
+
+    // When
+    val operator = new OptionalExpandOperator(0, 1, 2, SemanticDirection.OUTGOING, LazyTypes.empty, ExpandAll, True())
+    val task = operator.init(context, QueryState.EMPTY, MorselExecutionContext(inputMorsel, 3, 0))
+    task.operate(MorselExecutionContext(outputMorsel, 3, 0), context, QueryState.EMPTY)
+
+    // Then
+    outputMorsel.validRows should equal(4)
+    outputMorsel.longs.take(12) should equal(Array(
+      1, 10, 5,
+      1, 11, 6,
+      2, -1, -1,
+      -1, -1, -1))
+    task.canContinue should be(false)
+  }
+
+  test("should produce a null row when no relationship connects the nodes when expanding into") {
+    // input data: (from, rel, to)
+    val inputMorsel = new Morsel(
+      Array[Long](1, 0, 5,
+                  1, 0, 7),
+      Array[AnyValue](),
+      2)
+    val outputMorsel = new Morsel(new Array[Long](3 * 4), Array[AnyValue](), 4)
+
+    val context = mock[QueryContext]
+    val cursor1 = mock[RelationshipSelectionCursor]
+    val cursor2 = mock[RelationshipSelectionCursor]
+    when(cursor1.next()).thenReturn(true, true, false)
+    when(cursor1.otherNodeReference()).thenReturn(5, 6)
+    when(cursor1.relationshipReference()).thenReturn(10, 11)
+    when(cursor2.next()).thenReturn(true, true, false)
+    when(cursor2.otherNodeReference()).thenReturn(5, 6)
+    when(cursor2.relationshipReference()).thenReturn(10, 11)
+    when(context.getRelationshipsCursor(1, SemanticDirection.OUTGOING, None)).thenReturn(cursor1, cursor2)
+
+    // When
+    val operator = new OptionalExpandOperator(0, 1, 2, SemanticDirection.OUTGOING, LazyTypes.empty, ExpandInto, True())
+    val task = operator.init(context, QueryState.EMPTY, MorselExecutionContext(inputMorsel, 3, 0))
+    task.operate(MorselExecutionContext(outputMorsel, 3, 0), context, QueryState.EMPTY)
+
+    // Then
+    outputMorsel.validRows should equal(2)
+    outputMorsel.longs.take(6) should equal(Array(
+      1, 10, 5,
+      1, -1, 7))
+    task.canContinue should be(false)
+  }
+}
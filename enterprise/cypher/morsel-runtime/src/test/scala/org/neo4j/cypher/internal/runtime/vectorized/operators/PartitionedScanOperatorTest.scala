@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import java.lang.reflect.{InvocationHandler, Method, Proxy}
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.mockito.ArgumentMatchers.{any, anyInt}
+import org.mockito.Mockito._
+import org.mockito.invocation.InvocationOnMock
+import org.mockito.stubbing.Answer
+import org.neo4j.cypher.internal.compatibility.v3_6.runtime.SlotConfiguration
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyLabel
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.internal.kernel.api.{Cursor, NodeCursor, NodeLabelIndexCursor, Scan}
+import org.neo4j.values.AnyValue
+import org.neo4j.values.virtual.VirtualValues
+import org.neo4j.cypher.internal.v3_6.util.test_helpers.CypherFunSuite
+
+import scala.collection.mutable.ArrayBuffer
+
+class PartitionedScanOperatorTest extends CypherFunSuite {
+
+  // Node ids with gaps, like those left by deleted nodes
+  private val nodeIds = (0L until 1000L).filter(_ % 7 != 3).toArray
+  private val state = QueryState(VirtualValues.EMPTY_MAP, null, null, 7, singeThreaded = false)
+
+  test("partitioned all node scan should produce the same rows as a serial scan") {
+    val context = mock[QueryContext](RETURNS_DEEP_STUBS)
+    val read = context.transactionalContext.dataRead
+    when(context.transactionalContext.cursors.allocateNodeCursor()).thenAnswer(new Answer[NodeCursor] {
+      override def answer(invocation: InvocationOnMock): NodeCursor = idCursor(classOf[NodeCursor])
+    })
+    when(read.allNodesScan()).thenReturn(new IdScan[NodeCursor])
+    doAnswer(new Answer[Unit] {
+      override def answer(invocation: InvocationOnMock): Unit =
+        handler(invocation.getArgument[NodeCursor](0)).reset(0, nodeIds.length)
+    }).when(read).allNodesScan(any[NodeCursor])
+
+    val operator = new AllNodeScanOperator(0, SlotConfiguration.Size(0, 0))
+
+    val serialRows = run(Seq(operator.init(context, state, MorselExecutionContext.EMPTY)), context)
+    val partitionedRows = run(operator.initPartitions(context, state, MorselExecutionContext.EMPTY, 4), context)
+
+    serialRows should equal(nodeIds.toSeq)
+    partitionedRows.sorted should equal(serialRows)
+  }
+
+  test("partitioned label scan should produce the same rows as a serial scan") {
+    val context = mock[QueryContext](RETURNS_DEEP_STUBS)
+    val read = context.transactionalContext.dataRead
+    when(context.getOptLabelId("L")).thenReturn(Some(1))
+    when(context.transactionalContext.cursors.allocateNodeLabelIndexCursor()).thenAnswer(new Answer[NodeLabelIndexCursor] {
+      override def answer(invocation: InvocationOnMock): NodeLabelIndexCursor = idCursor(classOf[NodeLabelIndexCursor])
+    })
+    when(read.nodeLabelScan(1)).thenReturn(new IdScan[NodeLabelIndexCursor])
+    doAnswer(new Answer[Unit] {
+      override def answer(invocation: InvocationOnMock): Unit =
+        handler(invocation.getArgument[NodeLabelIndexCursor](1)).reset(0, nodeIds.length)
+    }).when(read).nodeLabelScan(anyInt(), any[NodeLabelIndexCursor])
+
+    val operator = new LabelScanOperator(0, LazyLabel("L"), SlotConfiguration.Size(0, 0))
+
+    val serialRows = run(Seq(operator.init(context, state, MorselExecutionContext.EMPTY)), context)
+    val partitionedRows = run(operator.initPartitions(context, state, MorselExecutionContext.EMPTY, 3), context)
+
+    serialRows should equal(nodeIds.toSeq)
+    partitionedRows.sorted should equal(serialRows)
+  }
+
+  /**
+    * Operate the tasks in turn, like concurrent workers would, until they are all done, and collect the node ids of
+    * all produced rows.
+    */
+  private def run(tasks: Seq[ContinuableOperatorTask], context: QueryContext): Seq[Long] = {
+    val rows = new ArrayBuffer[Long]
+    var running = tasks
+    while (running.nonEmpty) {
+      for (task <- running) {
+        val morsel = new Morsel(new Array[Long](state.morselSize), Array[AnyValue](), state.morselSize)
+        task.operate(MorselExecutionContext(morsel, 1, 0), context, state)
+        rows ++= morsel.longs.take(morsel.validRows)
+      }
+      running = running.filter(_.canContinue)
+    }
+    rows
+  }
+
+  private def idCursor[CURSOR <: Cursor](cursorType: Class[CURSOR]): CURSOR =
+    Proxy.newProxyInstance(getClass.getClassLoader, Array[Class[_]](cursorType), new IdCursor).asInstanceOf[CURSOR]
+
+  private def handler(cursor: Cursor): IdCursor = Proxy.getInvocationHandler(cursor).asInstanceOf[IdCursor]
+
+  /**
+    * Hands out consecutive batches of the node ids, like the kernel scans do.
+    */
+  private class IdScan[CURSOR <: Cursor] extends Scan[CURSOR] {
+    private val nextIndex = new AtomicInteger()
+
+    override def reserveBatch(cursor: CURSOR, sizeHint: Int): Boolean = {
+      val from = nextIndex.getAndAdd(sizeHint)
+      if (from >= nodeIds.length) false
+      else {
+        handler(cursor).reset(from, math.min(from + sizeHint, nodeIds.length))
+        true
+      }
+    }
+  }
+
+  /**
+    * Cursor over a range of the node ids, which only supports what the scan operators use.
+    */
+  private class IdCursor extends InvocationHandler {
+    private var position = 0
+    private var end = 0
+
+    def reset(from: Int, to: Int): Unit = {
+      position = from - 1
+      end = to
+    }
+
+    override def invoke(proxy: AnyRef, method: Method, args: Array[AnyRef]): AnyRef = method.getName match {
+      case "next" =>
+        position += 1
+        java.lang.Boolean.valueOf(position < end)
+      case "nodeReference" => java.lang.Long.valueOf(nodeIds(position))
+      case "close" => null
+      case "hashCode" => Integer.valueOf(System.identityHashCode(proxy))
+      case "equals" => java.lang.Boolean.valueOf(proxy eq args(0))
+      case "toString" => s"IdCursor($position, $end)"
+      case name => throw new UnsupportedOperationException(name)
+    }
+  }
+}
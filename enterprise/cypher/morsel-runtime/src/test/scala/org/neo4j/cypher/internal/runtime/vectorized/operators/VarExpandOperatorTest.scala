@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.cypher.internal.runtime.vectorized.operators
+
+import org.mockito.Mockito._
+import org.neo4j.cypher.internal.compatibility.v3_6.runtime.SlotConfiguration
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.True
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyTypes
+import org.neo4j.cypher.internal.runtime.vectorized._
+import org.neo4j.kernel.impl.api.store.RelationshipIterator
+import org.neo4j.storageengine.api.RelationshipVisitor
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.{NodeValue, RelationshipValue, VirtualValues}
+import org.neo4j.cypher.internal.v3_6.expressions.SemanticDirection
+import org.neo4j.cypher.internal.v3_6.util.test_helpers.CypherFunSuite
+
+class VarExpandOperatorTest extends CypherFunSuite {
+
+  test("should produce the paths within the length bounds") {
+    // graph: (1)-[10]->(2)-[11]->(3)
+    val context = mock[QueryContext]
+    val r10 = relationship(10, 1, 2)
+    val r11 = relationship(11, 2, 3)
+    when(context.getRelationshipsForIdsPrimitive(1, SemanticDirection.OUTGOING, None)).thenReturn(relationships(r10))
+    when(context.getRelationshipsForIdsPrimitive(2, SemanticDirection.OUTGOING, None)).thenReturn(relationships(r11))
+    when(context.getRelationshipFor(10, 0, 1, 2)).thenReturn(r10)
+    when(context.getRelationshipFor(11, 0, 2, 3)).thenReturn(r11)
+
+    // input data: longs (from, to, tempNode, tempEdge), refs (rels)
+    val inputMorsel = new Morsel(Array[Long](1, 0, 0, 0), new Array[AnyValue](1), 1)
+    val outputMorsel = new Morsel(new Array[Long](4 * 3), new Array[AnyValue](3), 3)
+
+    // When
+    val operator = new VarExpandOperator(0, 0, 1, SemanticDirection.OUTGOING, SemanticDirection.OUTGOING,
+                                         LazyTypes.empty, 1, Some(2), shouldExpandAll = true, 2, 3, True(), True(),
+                                         SlotConfiguration.Size(1, 0))
+    val task = operator.init(context, QueryState.EMPTY, MorselExecutionContext(inputMorsel, 4, 1))
+    task.operate(MorselExecutionContext(outputMorsel, 4, 1), context, QueryState.EMPTY)
+
+    // Then
+    outputMorsel.validRows should equal(2)
+    outputMorsel.longs(1) should equal(2)
+    outputMorsel.refs(0) should equal(VirtualValues.list(r10))
+    outputMorsel.longs(5) should equal(3)
+    outputMorsel.refs(1) should equal(VirtualValues.list(r10, r11))
+    task.canContinue should be(false)
+  }
+
+  test("should not produce paths for a null from node") {
+    val context = mock[QueryContext]
+    val inputMorsel = new Morsel(Array[Long](-1, 0, 0, 0), new Array[AnyValue](1), 1)
+    val outputMorsel = new Morsel(new Array[Long](4), new Array[AnyValue](1), 1)
+
+    // When
+    val operator = new VarExpandOperator(0, 0, 1, SemanticDirection.OUTGOING, SemanticDirection.OUTGOING,
+                                         LazyTypes.empty, 1, None, shouldExpandAll = true, 2, 3, True(), True(),
+                                         SlotConfiguration.Size(1, 0))
+    val task = operator.init(context, QueryState.EMPTY, MorselExecutionContext(inputMorsel, 4, 1))
+    task.operate(MorselExecutionContext(outputMorsel, 4, 1), context, QueryState.EMPTY)
+
+    // Then
+    outputMorsel.validRows should equal(1)
+    outputMorsel.longs(1) should equal(-1)
+    outputMorsel.refs(0) should equal(Values.NO_VALUE)
+    verifyZeroInteractions(context)
+  }
+
+  private def node(id: Long): NodeValue = VirtualValues.nodeValue(id, Values.stringArray(), VirtualValues.EMPTY_MAP)
+
+  private def relationship(id: Long, start: Long, end: Long): RelationshipValue =
+    VirtualValues.relationshipValue(id, node(start), node(end), Values.stringValue("R"), VirtualValues.EMPTY_MAP)
+
+  private def relationships(rels: RelationshipValue*): RelationshipIterator = new RelationshipIterator {
+    private val iterator = rels.iterator
+    private var current: RelationshipValue = _
+
+    override def hasNext: Boolean = iterator.hasNext
+
+    override def next(): Long = {
+      current = iterator.next()
+      current.id()
+    }
+
+    override def relationshipVisit[EXCEPTION <: Exception](relationshipId: Long,
+                                                           visitor: RelationshipVisitor[EXCEPTION]): Boolean = {
+      visitor.visit(relationshipId, 0, current.startNode().id(), current.endNode().id())
+      false
+    }
+  }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.kernel.impl.storageengine.impl.recordstorage;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.neo4j.helpers.collection.Iterables;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.tracing.cursor.context.EmptyVersionContextSupplier;
+import org.neo4j.kernel.api.labelscan.LabelScanWriter;
+import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.api.BatchTransactionApplier;
+import org.neo4j.kernel.impl.api.BatchTransactionApplierFacade;
+import org.neo4j.kernel.impl.api.CountsAccessor;
+import org.neo4j.kernel.impl.api.CountsStoreBatchTransactionApplier;
+import org.neo4j.kernel.impl.api.TransactionApplier;
+import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.api.index.EntityUpdates;
+import org.neo4j.kernel.impl.api.index.IndexingService;
+import org.neo4j.kernel.impl.core.CacheAccessBackDoor;
+import org.neo4j.kernel.impl.locking.LockGroup;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.NodeLabelsField;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.counts.CountsTracker;
+import org.neo4j.kernel.impl.store.format.highlimit.HighLimit;
+import org.neo4j.kernel.impl.store.id.DefaultIdGeneratorFactory;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.PropertyCommand;
+import org.neo4j.kernel.impl.transaction.command.Commands;
+import org.neo4j.kernel.impl.transaction.command.IndexActivator;
+import org.neo4j.kernel.impl.transaction.command.IndexBatchTransactionApplier;
+import org.neo4j.kernel.impl.transaction.command.NeoStoreBatchTransactionApplier;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.storageengine.api.CommandsToApply;
+import org.neo4j.test.rule.PageCacheAndDependenciesRule;
+import org.neo4j.util.concurrent.WorkSync;
+import org.neo4j.values.storable.Values;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.kernel.impl.locking.LockService.NO_LOCK_SERVICE;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.EXTERNAL;
+
+/**
+ * Applies the same transactions sequentially and in parallel, to stores in a format where records can span two
+ * record units, and compares what the counts, label scan and index appliers were given.
+ */
+public class ParallelTransactionApplierHighLimitTest
+{
+    private static final int LABEL = 1;
+    private static final int OTHER_LABEL = 2;
+
+    @Rule
+    public final PageCacheAndDependenciesRule storage = new PageCacheAndDependenciesRule();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CacheAccessBackDoor cacheAccess = mock( CacheAccessBackDoor.class );
+
+    @After
+    public void shutdownExecutor()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldProduceSameUpdatesAsSequentialApplicationWhenSecondaryUnitIsReusedInSameBatch() throws Exception
+    {
+        // given
+        AuxiliaryUpdates sequential = new AuxiliaryUpdates();
+        AuxiliaryUpdates parallel = new AuxiliaryUpdates();
+
+        // when
+        try ( NeoStores neoStores = openStores( "sequential" ) )
+        {
+            applySequentially( neoStores, sequential );
+        }
+        try ( NeoStores neoStores = openStores( "parallel" ) )
+        {
+            applyInParallel( neoStores, parallel );
+
+            // then
+            NodeStore nodeStore = neoStores.getNodeStore();
+            assertTrue( nodeStore.getRecord( 5, nodeStore.newRecord(), RecordLoad.CHECK ).inUse() );
+        }
+        assertEquals( sequential.indexUpdates, parallel.indexUpdates );
+        assertEquals( sequential.labelUpdates, parallel.labelUpdates );
+        assertEquals( sequential.countUpdates, parallel.countUpdates );
+    }
+
+    /**
+     * A node with a secondary record unit is created and deleted, after which the id of its secondary unit is used
+     * for a new node, which then gets a property. The property transaction has its index updates derived from the
+     * labels of the new node in the store.
+     */
+    private static TransactionToApply transactions()
+    {
+        List<Command[]> transactions = new ArrayList<>();
+        transactions.add( new Command[]{createNode( 300, 5, LABEL ), new Command.NodeCountsCommand( LABEL, 1 )} );
+        transactions.add( new Command[]{deleteNode( 300, 5, LABEL ), new Command.NodeCountsCommand( LABEL, -1 )} );
+        transactions.add( new Command[]{createNode( 5, -1, OTHER_LABEL ), new Command.NodeCountsCommand( OTHER_LABEL, 1 )} );
+        transactions.add( new Command[]{addProperty( 0, 5 )} );
+
+        TransactionToApply first = null;
+        TransactionToApply last = null;
+        long txId = 1;
+        for ( Command[] commands : transactions )
+        {
+            TransactionToApply tx = new TransactionToApply( Commands.transactionRepresentation( commands ), txId++ );
+            if ( first == null )
+            {
+                first = tx;
+            }
+            else
+            {
+                last.next( tx );
+            }
+            last = tx;
+        }
+        return first;
+    }
+
+    private void applySequentially( NeoStores neoStores, AuxiliaryUpdates updates ) throws Exception
+    {
+        try ( LockGroup locks = new LockGroup();
+              BatchTransactionApplier applier = new BatchTransactionApplierFacade(
+                      new NeoStoreBatchTransactionApplier( neoStores, cacheAccess, NO_LOCK_SERVICE ), updates.applier( neoStores ) ) )
+        {
+            CommandsToApply batch = transactions();
+            while ( batch != null )
+            {
+                try ( TransactionApplier txApplier = applier.startTx( batch, locks ) )
+                {
+                    batch.accept( txApplier );
+                }
+                batch = batch.next();
+            }
+        }
+    }
+
+    private void applyInParallel( NeoStores neoStores, AuxiliaryUpdates updates ) throws Exception
+    {
+        ParallelTransactionApplier applier = new ParallelTransactionApplier( neoStores, cacheAccess, executor, 4 );
+        try ( LockGroup locks = new LockGroup();
+              BatchTransactionApplier auxiliary = updates.applier( neoStores ) )
+        {
+            applier.apply( transactions(), new NeoStoreBatchTransactionApplier( neoStores, cacheAccess, NO_LOCK_SERVICE ), auxiliary,
+                    NO_LOCK_SERVICE, locks );
+        }
+    }
+
+    private NeoStores openStores( String name )
+    {
+        FileSystemAbstraction fs = storage.fileSystem();
+        StoreFactory storeFactory = new StoreFactory( storage.directory().databaseLayout( name ), Config.defaults(),
+                new DefaultIdGeneratorFactory( fs ), storage.pageCache(), fs, HighLimit.RECORD_FORMATS, NullLogProvider.getInstance(),
+                EmptyVersionContextSupplier.EMPTY );
+        return storeFactory.openAllNeoStores( true );
+    }
+
+    private static NodeCommand createNode( long id, long secondaryUnitId, int label )
+    {
+        NodeRecord after = new NodeRecord( id );
+        after.setInUse( true );
+        after.setCreated();
+        NodeLabelsField.parseLabelsField( after ).add( label, null, null );
+        if ( secondaryUnitId != -1 )
+        {
+            after.setRequiresSecondaryUnit( true );
+            after.setSecondaryUnitId( secondaryUnitId );
+        }
+        return new NodeCommand( new NodeRecord( id ), after );
+    }
+
+    private static NodeCommand deleteNode( long id, long secondaryUnitId, int label )
+    {
+        NodeRecord before = createNode( id, secondaryUnitId, label ).getAfter();
+        NodeRecord after = new NodeRecord( id );
+        after.setInUse( false );
+        after.setRequiresSecondaryUnit( true );
+        after.setSecondaryUnitId( secondaryUnitId );
+        return new NodeCommand( before, after );
+    }
+
+    private static PropertyCommand addProperty( long id, long nodeId )
+    {
+        PropertyRecord before = new PropertyRecord( id );
+        before.setNodeId( nodeId );
+        PropertyRecord after = new PropertyRecord( id );
+        after.setInUse( true );
+        after.setCreated();
+        after.setNodeId( nodeId );
+        PropertyBlock block = new PropertyBlock();
+        PropertyStore.encodeValue( block, 0, Values.of( 123 ), null, null, true );
+        after.addPropertyBlock( block );
+        return new PropertyCommand( before, after );
+    }
+
+    /**
+     * What the counts, label scan and index appliers got to see from the applied transactions.
+     */
+    private static class AuxiliaryUpdates implements LabelScanWriter, CountsAccessor.Updater
+    {
+        private final List<EntityUpdates> indexUpdates = new ArrayList<>();
+        private final List<NodeLabelUpdate> labelUpdates = new ArrayList<>();
+        private final List<String> countUpdates = new ArrayList<>();
+
+        BatchTransactionApplier applier( NeoStores neoStores )
+        {
+            IndexingService indexing = mock( IndexingService.class );
+            when( indexing.convertToIndexUpdates( any(), any() ) ).thenAnswer( invocation ->
+            {
+                indexUpdates.add( invocation.getArgument( 0 ) );
+                return Iterables.empty();
+            } );
+            CountsTracker counts = mock( CountsTracker.class );
+            when( counts.apply( anyLong() ) ).thenReturn( Optional.of( this ) );
+            return new BatchTransactionApplierFacade(
+                    new CountsStoreBatchTransactionApplier( counts, EXTERNAL ),
+                    new IndexBatchTransactionApplier( indexing, new WorkSync<>( () -> this ), new WorkSync<>( indexing ),
+                            neoStores.getNodeStore(), neoStores.getRelationshipStore(), neoStores.getPropertyStore(),
+                            new IndexActivator( indexing ) ) );
+        }
+
+        @Override
+        public void write( NodeLabelUpdate update )
+        {
+            labelUpdates.add( update );
+        }
+
+        @Override
+        public void incrementNodeCount( long labelId, long delta )
+        {
+            countUpdates.add( "node:" + labelId + ":" + delta );
+        }
+
+        @Override
+        public void incrementRelationshipCount( long startLabelId, int typeId, long endLabelId, long delta )
+        {
+            countUpdates.add( "relationship:" + startLabelId + ":" + typeId + ":" + endLabelId + ":" + delta );
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
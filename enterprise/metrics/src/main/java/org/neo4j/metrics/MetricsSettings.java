@@ -98,6 +98,11 @@ public class MetricsSettings implements LoadableConfig
     public static final Setting<Boolean> neoLogRotationEnabled = buildSetting(
             "metrics.neo4j.logrotation.enabled", BOOLEAN ).inherits( neoEnabled ).build();
 
+    @Description( "Enable reporting metrics about forcing the transaction log; how often it occurs and how many " +
+                  "transactions each force makes durable." )
+    public static final Setting<Boolean> neoLogForceEnabled = buildSetting(
+            "metrics.neo4j.logforce.enabled", BOOLEAN ).inherits( neoEnabled ).build();
+
     /**
      * @deprecated high availability database/edition is deprecated in favour of causal clustering. It will be removed in next major release.
      */
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.metrics.source.db;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import java.util.function.Supplier;
+
+import org.neo4j.kernel.impl.annotations.Documented;
+import org.neo4j.kernel.impl.api.LogForceMonitor;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+@Documented( ".Database transaction log force metrics" )
+public class LogForceMetrics extends LifecycleAdapter
+{
+    private static final String LOG_FORCE_PREFIX = "neo4j.log_force";
+
+    @Documented( "The total number of transaction log forces executed so far" )
+    public static final String LOG_FORCE_EVENTS = name( LOG_FORCE_PREFIX, "events" );
+    @Documented( "The total number of transactions made durable by transaction log forces so far. " +
+            "Divided by the number of forces, this is the average group commit batch size" )
+    public static final String LOG_FORCE_TRANSACTIONS = name( LOG_FORCE_PREFIX, "transactions" );
+
+    private final MetricRegistry registry;
+    private final Supplier<LogForceMonitor> logForceMonitorSupplier;
+
+    public LogForceMetrics( MetricRegistry registry, Supplier<LogForceMonitor> logForceMonitorSupplier )
+    {
+        this.registry = registry;
+        this.logForceMonitorSupplier = logForceMonitorSupplier;
+    }
+
+    @Override
+    public void start()
+    {
+        LogForceMonitor monitor = this.logForceMonitorSupplier.get();
+        registry.register( LOG_FORCE_EVENTS, (Gauge<Long>) monitor::numberOfLogForceEvents );
+        registry.register( LOG_FORCE_TRANSACTIONS, (Gauge<Long>) monitor::numberOfForcedTransactions );
+    }
+
+    @Override
+    public void stop()
+    {
+        registry.remove( LOG_FORCE_EVENTS );
+        registry.remove( LOG_FORCE_TRANSACTIONS );
+    }
+}
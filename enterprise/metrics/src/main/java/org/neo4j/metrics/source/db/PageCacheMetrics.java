@@ -54,6 +54,14 @@ public class PageCacheMetrics extends LifecycleAdapter
     public static final String PC_HIT_RATIO = name( PAGE_CACHE_PREFIX, "hit_ratio" );
     @Documented( "The ratio of number of used pages to total number of available pages" )
     public static final String PC_USAGE_RATIO = name( PAGE_CACHE_PREFIX, "usage_ratio" );
+    @Documented( "The total number of pages faulted in by read-ahead in the page cache" )
+    public static final String PC_READ_AHEADS = name( PAGE_CACHE_PREFIX, "read_aheads" );
+    @Documented( "The total number of read-ahead cursor pins that found their page already read ahead" )
+    public static final String PC_READ_AHEAD_HITS = name( PAGE_CACHE_PREFIX, "read_ahead_hits" );
+    @Documented( "The total number of read-ahead cursor pins that had to fault in their page themselves" )
+    public static final String PC_READ_AHEAD_MISSES = name( PAGE_CACHE_PREFIX, "read_ahead_misses" );
+    @Documented( "The amount of page cache memory, in bytes, that is backed by huge pages" )
+    public static final String PC_HUGE_PAGE_MEMORY = name( PAGE_CACHE_PREFIX, "huge_page_memory" );
 
     private final MetricRegistry registry;
     private final PageCacheCounters pageCacheCounters;
@@ -76,6 +84,10 @@ public class PageCacheMetrics extends LifecycleAdapter
         registry.register( PC_EVICTION_EXCEPTIONS, (Gauge<Long>) pageCacheCounters::evictionExceptions );
         registry.register( PC_HIT_RATIO, (Gauge<Double>) pageCacheCounters::hitRatio );
         registry.register( PC_USAGE_RATIO, (Gauge<Double>) pageCacheCounters::usageRatio );
+        registry.register( PC_READ_AHEADS, (Gauge<Long>) pageCacheCounters::readAheads );
+        registry.register( PC_READ_AHEAD_HITS, (Gauge<Long>) pageCacheCounters::readAheadHits );
+        registry.register( PC_READ_AHEAD_MISSES, (Gauge<Long>) pageCacheCounters::readAheadMisses );
+        registry.register( PC_HUGE_PAGE_MEMORY, (Gauge<Long>) pageCacheCounters::hugePageMemory );
     }
 
     @Override
@@ -90,5 +102,9 @@ public class PageCacheMetrics extends LifecycleAdapter
         registry.remove( PC_EVICTION_EXCEPTIONS );
         registry.remove( PC_HIT_RATIO );
         registry.remove( PC_USAGE_RATIO );
+        registry.remove( PC_READ_AHEADS );
+        registry.remove( PC_READ_AHEAD_HITS );
+        registry.remove( PC_READ_AHEAD_MISSES );
+        registry.remove( PC_HUGE_PAGE_MEMORY );
     }
 }
@@ -64,6 +64,11 @@ public class TimerTransactionTracer implements TransactionTracer, CheckPointTrac
 
     private static final LogForceEvent LOG_FORCE_EVENT = new LogForceEvent()
     {
+        @Override
+        public void setBatchSize( int transactions )
+        {
+        }
+
         @Override
         public void close()
         {